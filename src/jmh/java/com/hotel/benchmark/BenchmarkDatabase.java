@@ -0,0 +1,48 @@
+package com.hotel.benchmark;
+
+import com.hotel.config.HibernateUtil;
+
+import java.util.List;
+
+/**
+ * Points the application at a private in-memory H2 database and seeds it once per JVM. JMH forks
+ * a fresh JVM for every parameter combination, so each data set gets its own database.
+ */
+final class BenchmarkDatabase {
+    private static List<Long> userIds;
+    private static int seededRooms;
+    private static int seededReservations;
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Seeds {@code rooms} rooms and {@code reservations} reservations on first use and returns the
+     * generated customer ids.
+     */
+    static synchronized List<Long> seed(int rooms, int reservations) {
+        if (userIds != null) {
+            if (rooms != seededRooms || reservations != seededReservations) {
+                throw new IllegalStateException("Benchmark database already seeded with " + seededRooms
+                        + " rooms and " + seededReservations + " reservations; run with forks > 0");
+            }
+            return userIds;
+        }
+        setDefault("app.datasource.url", "jdbc:h2:mem:hotel_benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        setDefault("app.datasource.username", "sa");
+        setDefault("app.datasource.password", "benchmark");
+        setDefault("app.datasource.schemaAction", "create-drop");
+        setDefault("app.datasource.pool.leakDetectionThresholdMs", "0");
+        HibernateUtil.getSessionFactory();
+        userIds = new SyntheticDataGenerator(42).generate(rooms, reservations);
+        seededRooms = rooms;
+        seededReservations = reservations;
+        return userIds;
+    }
+
+    private static void setDefault(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+}
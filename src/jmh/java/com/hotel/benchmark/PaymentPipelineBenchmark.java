@@ -0,0 +1,80 @@
+package com.hotel.benchmark;
+
+import com.hotel.repository.HibernatePaymentRepository;
+import com.hotel.repository.HibernateReservationRepository;
+import com.hotel.service.PaymentPipeline;
+import com.hotel.service.PaymentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time for the payment pipeline to clear a burst of payments against the simulated gateway, from
+ * the first submission to the last one recorded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentPipelineBenchmark {
+    @Param({"100"})
+    public int rooms;
+
+    @Param({"10000"})
+    public int reservations;
+
+    @Param({"200"})
+    public int burst;
+
+    @Param({"0", "20"})
+    public String gatewayLatencyMs;
+
+    private final AtomicLong keys = new AtomicLong();
+    private PaymentService paymentService;
+
+    @Setup
+    public void setUp() {
+        // Read when the pipeline is first created, which happens below
+        System.setProperty("app.payments.gateway.latencyMs", gatewayLatencyMs);
+        System.setProperty("app.payments.queueCapacity", String.valueOf(burst));
+        BenchmarkDatabase.seed(rooms, reservations);
+        paymentService = new PaymentService(new HibernatePaymentRepository(), new HibernateReservationRepository());
+    }
+
+    @Benchmark
+    public int clearBurst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(burst);
+        AtomicInteger captured = new AtomicInteger();
+        for (int i = 0; i < burst; i++) {
+            // Identity keys start at 1 in the freshly seeded database
+            long reservationId = 1 + ThreadLocalRandom.current().nextInt(reservations);
+            paymentService.submitPayment("benchmark-" + keys.incrementAndGet(), reservationId, 120.00, "CREDIT_CARD",
+                    update -> {
+                        if (update.status() == PaymentPipeline.Status.CAPTURED) {
+                            captured.incrementAndGet();
+                        }
+                        if (update.status().isFinal()) {
+                            done.countDown();
+                        }
+                    });
+        }
+        done.await();
+        return captured.get();
+    }
+}
@@ -0,0 +1,66 @@
+package com.hotel.benchmark;
+
+import com.hotel.model.Reservation;
+import com.hotel.model.Room;
+import com.hotel.repository.HibernateReservationRepository;
+import com.hotel.repository.HibernateRoomRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query paths behind room search and the reservation lists, against the synthetic data set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+    @Param({"100", "1000"})
+    public int rooms;
+
+    @Param({"10000", "100000"})
+    public int reservations;
+
+    private HibernateRoomRepository roomRepository;
+    private HibernateReservationRepository reservationRepository;
+    private List<Long> userIds;
+
+    @Setup
+    public void setUp() {
+        userIds = BenchmarkDatabase.seed(rooms, reservations);
+        roomRepository = new HibernateRoomRepository();
+        reservationRepository = new HibernateReservationRepository();
+    }
+
+    @Benchmark
+    public List<Room> findAvailableRooms() {
+        LocalDate checkIn = LocalDate.now().plusDays(ThreadLocalRandom.current().nextInt(1, 60));
+        return roomRepository.findAvailableRooms(checkIn, checkIn.plusDays(3));
+    }
+
+    @Benchmark
+    public List<Reservation> findAllReservations() {
+        return reservationRepository.findAll();
+    }
+
+    @Benchmark
+    public List<Reservation> findReservationsByUser() {
+        return reservationRepository.findByUser(userIds.get(ThreadLocalRandom.current().nextInt(userIds.size())));
+    }
+}
@@ -0,0 +1,83 @@
+package com.hotel.benchmark;
+
+import com.hotel.model.Room;
+import com.hotel.model.RoomCategory;
+import com.hotel.model.User;
+import com.hotel.repository.HibernateReservationRepository;
+import com.hotel.repository.HibernateRoomRepository;
+import com.hotel.repository.HibernateUserRepository;
+import com.hotel.service.AuthService;
+import com.hotel.service.HibernateReservationService;
+import com.hotel.service.PasswordEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pricing, password hashing and login, the per-request work outside the room queries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+    @Param({"100"})
+    public int rooms;
+
+    @Param({"10000"})
+    public int reservations;
+
+    private HibernateReservationService reservationService;
+    private AuthService authService;
+    private PasswordEncoder passwordEncoder;
+    private Room room;
+    private int customers;
+
+    @Setup
+    public void setUp() {
+        customers = BenchmarkDatabase.seed(rooms, reservations).size();
+        reservationService = new HibernateReservationService(new HibernateReservationRepository(), new HibernateRoomRepository());
+        passwordEncoder = new PasswordEncoder();
+        authService = new AuthService(new HibernateUserRepository(), passwordEncoder);
+        // A seeded category, since stays are priced from that category's row in the rate grid
+        RoomCategory category = new HibernateRoomRepository().findAllCategories().get(0);
+        room = new Room();
+        room.setCategory(category);
+    }
+
+    @Benchmark
+    public double calculateStayCost() {
+        LocalDate checkIn = LocalDate.now().plusDays(ThreadLocalRandom.current().nextInt(365));
+        return reservationService.calculateStayCost(room, checkIn, checkIn.plusDays(5));
+    }
+
+    @Benchmark
+    public String encodePassword() {
+        return passwordEncoder.encode(SyntheticDataGenerator.PASSWORD);
+    }
+
+    @Benchmark
+    public Optional<User> authenticate() {
+        return authService.authenticate("guest" + ThreadLocalRandom.current().nextInt(customers), SyntheticDataGenerator.PASSWORD);
+    }
+
+    @Benchmark
+    public Optional<User> authenticateWrongPassword() {
+        return authService.authenticate("guest" + ThreadLocalRandom.current().nextInt(customers), "not-the-password");
+    }
+}
@@ -0,0 +1,137 @@
+package com.hotel.benchmark;
+
+import com.hotel.config.HibernateUtil;
+import com.hotel.model.Reservation;
+import com.hotel.model.Role;
+import com.hotel.model.Room;
+import com.hotel.model.RoomCategory;
+import com.hotel.model.User;
+import com.hotel.service.PasswordEncoder;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds the benchmark database with a reproducible hotel: {@code rooms} rooms spread over a few
+ * categories, {@code reservations} back-to-back stays around today and one customer per ten
+ * reservations. Every customer's password is {@link #PASSWORD}.
+ */
+public class SyntheticDataGenerator {
+    public static final String PASSWORD = "benchmark";
+    private static final String[][] CATEGORIES = {
+        {"Standard", "120.00"}, {"Deluxe", "210.00"}, {"Suite", "340.00"}, {"Family", "260.00"}
+    };
+    private static final String[] FIRST_NAMES = {"Alice", "Bruno", "Chloe", "David", "Elena", "Faisal", "Grace", "Hugo"};
+    private static final String[] LAST_NAMES = {"Mugisha", "Uwase", "Smith", "Garcia", "Chen", "Kamau", "Novak", "Okafor"};
+
+    private final SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
+    private final Random random;
+
+    public SyntheticDataGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Inserts the data set and returns the generated users' ids.
+     */
+    public List<Long> generate(int rooms, int reservations) {
+        int customers = Math.max(10, reservations / 10);
+        Transaction transaction = null;
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            transaction = session.beginTransaction();
+            Role customerRole = new Role("CUSTOMER");
+            session.insert(customerRole);
+
+            List<RoomCategory> categories = new ArrayList<>();
+            for (String[] definition : CATEGORIES) {
+                RoomCategory category = new RoomCategory();
+                category.setName(definition[0]);
+                category.setDescription(definition[0] + " rooms");
+                category.setBaseRate(Double.parseDouble(definition[1]));
+                session.insert(category);
+                categories.add(category);
+            }
+
+            List<Room> roomList = new ArrayList<>(rooms);
+            for (int i = 0; i < rooms; i++) {
+                Room room = new Room();
+                room.setRoomNumber(String.valueOf(100 * (1 + i / 50) + i % 50));
+                room.setCategory(categories.get(random.nextInt(categories.size())));
+                room.setFloor(1 + i / 50);
+                room.setViewType(random.nextBoolean() ? "City" : "Garden");
+                room.setStatus("AVAILABLE");
+                session.insert(room);
+                roomList.add(room);
+            }
+
+            String passwordHash = new PasswordEncoder().encode(PASSWORD);
+            List<User> users = new ArrayList<>(customers);
+            List<Long> userIds = new ArrayList<>(customers);
+            for (int i = 0; i < customers; i++) {
+                User user = new User();
+                user.setUsername("guest" + i);
+                user.setPasswordHash(passwordHash);
+                user.setFirstName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+                user.setLastName(LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                user.setEmail("guest" + i + "@example.com");
+                user.setRole(customerRole);
+                user.setActive(true);
+                user.setCreatedAt(LocalDateTime.now());
+                session.insert(user);
+                users.add(user);
+                userIds.add(user.getId());
+            }
+
+            insertReservations(session, roomList, users, reservations);
+            transaction.commit();
+            return userIds;
+        } catch (RuntimeException e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw new IllegalStateException("Unable to generate benchmark data", e);
+        }
+    }
+
+    // Stays are laid end to end per room, starting a year back, so the history never double books
+    private void insertReservations(StatelessSession session, List<Room> rooms, List<User> users, int count) {
+        if (rooms.isEmpty()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate[] nextFree = new LocalDate[rooms.size()];
+        for (int i = 0; i < count; i++) {
+            int roomIndex = i % rooms.size();
+            LocalDate checkIn = (nextFree[roomIndex] == null ? today.minusDays(365) : nextFree[roomIndex])
+                    .plusDays(random.nextInt(4));
+            LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(7));
+            nextFree[roomIndex] = checkOut;
+
+            Reservation reservation = new Reservation();
+            reservation.setRoom(rooms.get(roomIndex));
+            reservation.setUser(users.get(random.nextInt(users.size())));
+            reservation.setCheckIn(checkIn);
+            reservation.setCheckOut(checkOut);
+            reservation.setGuestCount(1 + random.nextInt(3));
+            reservation.setStatus(statusFor(checkIn, checkOut, today));
+            reservation.setCreatedAt(checkIn.minusDays(random.nextInt(60)).atStartOfDay());
+            session.insert(reservation);
+        }
+    }
+
+    private String statusFor(LocalDate checkIn, LocalDate checkOut, LocalDate today) {
+        if (random.nextInt(10) == 0) {
+            return "CANCELLED";
+        }
+        if (!checkOut.isAfter(today)) {
+            return "CHECKED_OUT";
+        }
+        return checkIn.isAfter(today) ? "CONFIRMED" : "CHECKED_IN";
+    }
+}
@@ -1,20 +1,29 @@
 package com.hotel;
 
 import com.hotel.config.DatabaseConfig;
+import com.hotel.config.HibernateDataInitializer;
 import com.hotel.config.HibernateUtil;
+import com.hotel.config.StartupTimer;
 import com.hotel.model.User;
 import com.hotel.repository.HibernateUserRepository;
 import com.hotel.service.AuthService;
+import com.hotel.service.NightAuditJob;
 import com.hotel.service.PasswordEncoder;
+import com.hotel.service.RoomAvailabilityCalendar;
+import com.hotel.service.RateEngine;
+import com.hotel.service.RoomSearchIndex;
 import com.hotel.ui.HerbanetTheme;
+import com.hotel.ui.RoomImageService;
 import com.hotel.ui.screens.ForgotPasswordPanel;
 import com.hotel.ui.screens.LoginPanel;
 import com.hotel.ui.screens.SignUpPanel;
 import com.hotel.ui.screens.dashboards.*;
 import com.formdev.flatlaf.FlatLightLaf;
+import org.hibernate.SessionFactory;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.concurrent.CompletableFuture;
 
 public class HotelReservationApplication extends JFrame {
     private final DatabaseConfig config = new DatabaseConfig();
@@ -38,23 +47,41 @@ public class HotelReservationApplication extends JFrame {
             // If icon creation fails, continue without it
         }
         
-        // Initialize Hibernate
-        try {
-            HibernateUtil.getSessionFactory();
-            // Initialize sample data
-            new com.hotel.config.HibernateDataInitializer().initializeData();
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, 
-                "Database connection failed: " + e.getMessage(), 
-                "Error", 
-                JOptionPane.ERROR_MESSAGE);
-            e.printStackTrace();
-            System.exit(1);
-        }
-
         showLogin();
     }
 
+    /**
+     * Finishes startup on the Hibernate bootstrap thread once the SessionFactory is ready. Login
+     * attempts made before then simply wait for it in the background.
+     */
+    private void completeStartup(CompletableFuture<SessionFactory> sessionFactory) {
+        StartupTimer timer = StartupTimer.getInstance();
+        sessionFactory.thenRun(() -> {
+            // Skipped with a single lookup once an earlier launch has seeded the database
+            timer.time("sample data", () -> new HibernateDataInitializer().initializeData());
+            // Load the in-memory availability calendar so date searches skip the database
+            timer.time("availability calendar", () -> RoomAvailabilityCalendar.getInstance().rebuild());
+            timer.time("room search index", () -> RoomSearchIndex.getInstance().rebuild());
+            timer.time("rate grid", () -> RateEngine.getInstance().rebuild());
+            // Close past nights into the daily_stats rollup, then keep auditing nightly
+            timer.time("night audit", () -> NightAuditJob.getInstance().start());
+        }).whenComplete((ignored, failure) -> {
+            if (failure == null) {
+                timer.report();
+                return;
+            }
+            Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+            cause.printStackTrace();
+            SwingUtilities.invokeLater(() -> {
+                JOptionPane.showMessageDialog(this,
+                    "Database connection failed: " + cause.getMessage(),
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+                System.exit(1);
+            });
+        });
+    }
+
     private void showLogin() {
         getContentPane().removeAll();
         LoginPanel loginPanel = new LoginPanel(authService, this::onLoginSuccess, config, userRepository);
@@ -114,17 +141,27 @@ public class HotelReservationApplication extends JFrame {
     }
 
     public static void main(String[] args) {
-        try {
-            UIManager.setLookAndFeel(new FlatLightLaf());
-            UIManager.put("Button.arc", 12);
-            UIManager.put("Component.arc", 12);
-            UIManager.put("TextComponent.arc", 8);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        StartupTimer timer = StartupTimer.getInstance();
+        // Hibernate builds its SessionFactory on its own thread while the UI comes up
+        CompletableFuture<SessionFactory> sessionFactory = HibernateUtil.bootstrapAsync();
+        // Decode the login screen's hero image in the background so the panel finds it cached
+        RoomImageService.getInstance().load("assets/herbanet-lobby.png", 380, 380);
+
+        timer.time("look and feel", () -> {
+            try {
+                UIManager.setLookAndFeel(new FlatLightLaf());
+                UIManager.put("Button.arc", 12);
+                UIManager.put("Component.arc", 12);
+                UIManager.put("TextComponent.arc", 8);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        });
         
         SwingUtilities.invokeLater(() -> {
-            new HotelReservationApplication().setVisible(true);
+            HotelReservationApplication application = timer.time("login screen", HotelReservationApplication::new);
+            application.setVisible(true);
+            application.completeStartup(sessionFactory);
         });
     }
     
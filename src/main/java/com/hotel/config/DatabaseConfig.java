@@ -6,7 +6,9 @@ import java.util.Objects;
 import java.util.Properties;
 
 /**
- * Loads database connection details from application.properties with sane defaults.
+ * Loads database connection details from application.properties with sane defaults. Each setting
+ * can be overridden by an environment variable or, ahead of that, a JVM system property of the
+ * same name as the property key.
  */
 public class DatabaseConfig {
     private static final String PROPERTIES_FILE = "application.properties";
@@ -34,6 +36,91 @@ public class DatabaseConfig {
         return getEnvOrProperty("APP_DB_PASSWORD", "app.datasource.password", "changeme");
     }
 
+    /**
+     * Hibernate schema action ({@code hbm2ddl.auto}). The schema normally comes from
+     * {@link SchemaMigrator}, so this defaults to {@code none}; {@code validate} checks the mappings
+     * against it, and benchmarks use {@code create-drop} against a throwaway database, which also
+     * skips the migrations.
+     */
+    public String getSchemaAction() {
+        return getEnvOrProperty("APP_DB_SCHEMA_ACTION", "app.datasource.schemaAction", "none");
+    }
+
+    public int getPoolMinIdle() {
+        return getInt("APP_DB_POOL_MIN_IDLE", "app.datasource.pool.minIdle", 2);
+    }
+
+    public int getPoolMaxSize() {
+        return getInt("APP_DB_POOL_MAX_SIZE", "app.datasource.pool.maxSize", 10);
+    }
+
+    public long getPoolConnectionTimeoutMs() {
+        return getLong("APP_DB_POOL_CONNECTION_TIMEOUT_MS", "app.datasource.pool.connectionTimeoutMs", 30_000);
+    }
+
+    public long getPoolValidationTimeoutMs() {
+        return getLong("APP_DB_POOL_VALIDATION_TIMEOUT_MS", "app.datasource.pool.validationTimeoutMs", 5_000);
+    }
+
+    public long getPoolIdleTimeoutMs() {
+        return getLong("APP_DB_POOL_IDLE_TIMEOUT_MS", "app.datasource.pool.idleTimeoutMs", 600_000);
+    }
+
+    public long getPoolMaxLifetimeMs() {
+        return getLong("APP_DB_POOL_MAX_LIFETIME_MS", "app.datasource.pool.maxLifetimeMs", 1_800_000);
+    }
+
+    /**
+     * How long a connection may be held before the pool logs a possible leak; 0 disables the check.
+     */
+    public long getPoolLeakDetectionThresholdMs() {
+        return getLong("APP_DB_POOL_LEAK_DETECTION_MS", "app.datasource.pool.leakDetectionThresholdMs", 20_000);
+    }
+
+    /**
+     * This instance's node id (0 to 1023) for {@code ReferenceGenerator}; -1, the default, derives
+     * one from the host name and process id.
+     */
+    public int getNodeId() {
+        return getInt("APP_NODE_ID", "app.node.id", -1);
+    }
+
+    /**
+     * How many days back the manager's no-show sweep looks for confirmed arrivals that never
+     * checked in. Older confirmed reservations are left alone.
+     */
+    public int getNoShowLookbackDays() {
+        return getInt("APP_NO_SHOW_LOOKBACK_DAYS", "app.noShows.lookbackDays", 3);
+    }
+
+    /**
+     * Worker threads that send queued payments to the gateway.
+     */
+    public int getPaymentWorkers() {
+        return getInt("APP_PAYMENT_WORKERS", "app.payments.workers", 4);
+    }
+
+    /**
+     * Payments that may wait for a worker before new ones are turned away.
+     */
+    public int getPaymentQueueCapacity() {
+        return getInt("APP_PAYMENT_QUEUE_CAPACITY", "app.payments.queueCapacity", 256);
+    }
+
+    /**
+     * Delay the simulated gateway adds to every authorization.
+     */
+    public long getPaymentGatewayLatencyMs() {
+        return getLong("APP_PAYMENT_GATEWAY_LATENCY_MS", "app.payments.gateway.latencyMs", 150);
+    }
+
+    /**
+     * Share of authorizations the simulated gateway declines, from 0 to 1.
+     */
+    public double getPaymentGatewayFailureRate() {
+        return getDouble("APP_PAYMENT_GATEWAY_FAILURE_RATE", "app.payments.gateway.failureRate", 0.0);
+    }
+
     public String getHotelName() {
         return getEnvOrProperty("APP_BRAND_HOTEL", "app.branding.hotelName", "UC Grand Hotel");
     }
@@ -42,7 +129,39 @@ public class DatabaseConfig {
         return getEnvOrProperty("APP_BRAND_TAGLINE", "app.branding.tagline", "Luxury hospitality at its finest");
     }
 
+    private int getInt(String envKey, String propertyKey, int fallback) {
+        return (int) getLong(envKey, propertyKey, fallback);
+    }
+
+    private long getLong(String envKey, String propertyKey, long fallback) {
+        String value = getEnvOrProperty(envKey, propertyKey, null);
+        if (value.isBlank()) {
+            return fallback;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid number for " + propertyKey + ": " + value, e);
+        }
+    }
+
+    private double getDouble(String envKey, String propertyKey, double fallback) {
+        String value = getEnvOrProperty(envKey, propertyKey, null);
+        if (value.isBlank()) {
+            return fallback;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid number for " + propertyKey + ": " + value, e);
+        }
+    }
+
     private String getEnvOrProperty(String envKey, String propertyKey, String fallback) {
+        String systemValue = System.getProperty(propertyKey);
+        if (systemValue != null && !systemValue.isBlank()) {
+            return systemValue;
+        }
         String envValue = System.getenv(envKey);
         if (envValue != null && !envValue.isBlank()) {
             return envValue;
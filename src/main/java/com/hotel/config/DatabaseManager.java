@@ -1,18 +1,32 @@
 package com.hotel.config;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
- * Centralized utility for acquiring JDBC connections.
+ * Centralized utility for acquiring JDBC connections. Owns the single connection pool that both
+ * the JDBC helpers and Hibernate's SessionFactory draw from.
  */
 public class DatabaseManager {
+    // rewriteBatchedStatements lets the driver send a JDBC batch as multi-row statements;
+    // useCursorFetch makes queries with a fetch size read through a server-side cursor instead
+    // of buffering the whole result in memory
+    private static final String URL_DEFAULTS =
+            "useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true&rewriteBatchedStatements=true&useCursorFetch=true";
     private static DatabaseManager instance;
     private final DatabaseConfig config;
+    private final HikariDataSource dataSource;
 
     private DatabaseManager() {
         this.config = new DatabaseConfig();
+        this.dataSource = new HikariDataSource(buildPoolConfig(config));
     }
 
     public static synchronized DatabaseManager getInstance() {
@@ -23,10 +37,60 @@ public class DatabaseManager {
     }
 
     public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(config.getUrl(), config.getUsername(), config.getPassword());
+        return dataSource.getConnection();
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
     }
 
     public DatabaseConfig getConfig() {
         return config;
     }
+
+    /**
+     * Snapshot of the pool's connection counts for diagnostics.
+     */
+    public Map<String, Number> getPoolMetrics() {
+        Map<String, Number> metrics = new LinkedHashMap<>();
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool != null) {
+            metrics.put("activeConnections", pool.getActiveConnections());
+            metrics.put("idleConnections", pool.getIdleConnections());
+            metrics.put("totalConnections", pool.getTotalConnections());
+            metrics.put("threadsAwaitingConnection", pool.getThreadsAwaitingConnection());
+        }
+        metrics.put("maxPoolSize", dataSource.getMaximumPoolSize());
+        return metrics;
+    }
+
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.dataSource.close();
+            instance = null;
+        }
+    }
+
+    private static HikariConfig buildPoolConfig(DatabaseConfig config) {
+        HikariConfig poolConfig = new HikariConfig();
+        poolConfig.setPoolName("hotel-db");
+        poolConfig.setJdbcUrl(withUrlDefaults(config.getUrl()));
+        poolConfig.setUsername(config.getUsername());
+        poolConfig.setPassword(config.getPassword());
+        poolConfig.setMinimumIdle(config.getPoolMinIdle());
+        poolConfig.setMaximumPoolSize(config.getPoolMaxSize());
+        poolConfig.setConnectionTimeout(config.getPoolConnectionTimeoutMs());
+        poolConfig.setValidationTimeout(config.getPoolValidationTimeoutMs());
+        poolConfig.setIdleTimeout(config.getPoolIdleTimeoutMs());
+        poolConfig.setMaxLifetime(config.getPoolMaxLifetimeMs());
+        poolConfig.setLeakDetectionThreshold(config.getPoolLeakDetectionThresholdMs());
+        return poolConfig;
+    }
+
+    private static String withUrlDefaults(String url) {
+        if (!url.startsWith("jdbc:mysql:")) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + URL_DEFAULTS;
+    }
 }
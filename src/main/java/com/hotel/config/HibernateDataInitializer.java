@@ -12,10 +12,19 @@ import java.util.HashSet;
 import java.util.Set;
 
 public class HibernateDataInitializer {
+    /** Seeded last, in the same transaction as everything else, so its presence means seeding finished. */
+    private static final String SEED_MARKER_USERNAME = "admin";
+
     private final SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
     private final PasswordEncoder passwordEncoder = new PasswordEncoder();
 
+    /**
+     * Seeds roles, privileges, categories, rooms and demo users unless an earlier launch already did.
+     */
     public void initializeData() {
+        if (isSeeded()) {
+            return;
+        }
         Transaction transaction = null;
         try (Session session = sessionFactory.openSession()) {
             transaction = session.beginTransaction();
@@ -79,6 +88,19 @@ public class HibernateDataInitializer {
         }
     }
 
+    /**
+     * One indexed lookup instead of the ~20 per-row checks a full seeding pass would make.
+     */
+    public boolean isSeeded() {
+        try (Session session = sessionFactory.openSession()) {
+            return !session.createQuery("SELECT u.id FROM User u WHERE u.username = :username", Long.class)
+                    .setParameter("username", SEED_MARKER_USERNAME)
+                    .setMaxResults(1)
+                    .getResultList()
+                    .isEmpty();
+        }
+    }
+
     private Role createOrGetRole(Session session, String name) {
         Role role = session.createQuery("FROM Role WHERE name = :name", Role.class)
                 .setParameter("name", name)
@@ -5,62 +5,114 @@ import org.hibernate.boot.Metadata;
 import org.hibernate.boot.MetadataSources;
 import org.hibernate.boot.registry.StandardServiceRegistry;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.cfg.Configuration;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Owns the application's SessionFactory. It is built once, on a dedicated background thread, the
+ * first time it is asked for; {@link #bootstrapAsync()} starts that early so the UI can come up
+ * while Hibernate reads metadata and checks the schema.
+ */
 public class HibernateUtil {
-    private static SessionFactory sessionFactory;
-    private static final DatabaseConfig dbConfig = new DatabaseConfig();
+    private static CompletableFuture<SessionFactory> bootstrap;
 
-    static {
-        try {
-            Configuration configuration = new Configuration();
-            configuration.setProperty("hibernate.connection.driver_class", "com.mysql.cj.jdbc.Driver");
-            String url = dbConfig.getUrl();
-            if (!url.contains("?")) {
-                url += "?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true";
-            } else {
-                url += "&useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true";
-            }
-            configuration.setProperty("hibernate.connection.url", url);
-            configuration.setProperty("hibernate.connection.username", dbConfig.getUsername());
-            configuration.setProperty("hibernate.connection.password", dbConfig.getPassword());
-            // Dialect is auto-detected in Hibernate 6, no need to specify
-            configuration.setProperty("hibernate.show_sql", "false");
-            configuration.setProperty("hibernate.format_sql", "true");
-            configuration.setProperty("hibernate.hbm2ddl.auto", "update");
-            configuration.setProperty("hibernate.current_session_context_class", "thread");
-            configuration.setProperty("hibernate.connection.pool_size", "10");
+    /**
+     * Starts building the SessionFactory if nobody has yet and returns the shared future.
+     */
+    public static synchronized CompletableFuture<SessionFactory> bootstrapAsync() {
+        if (bootstrap == null) {
+            bootstrap = new CompletableFuture<>();
+            Thread thread = new Thread(() -> {
+                try {
+                    bootstrap.complete(buildSessionFactory());
+                } catch (Throwable e) {
+                    System.err.println("Initial SessionFactory creation failed: " + e);
+                    bootstrap.completeExceptionally(e);
+                }
+            }, "hibernate-bootstrap");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return bootstrap;
+    }
+
+    private static SessionFactory buildSessionFactory() {
+        StartupTimer timer = StartupTimer.getInstance();
+        Configuration configuration = new Configuration();
+        // Connections come from the shared pool owned by DatabaseManager
+        DatabaseManager databaseManager = timer.time("connection pool", DatabaseManager::getInstance);
+        String schemaAction = databaseManager.getConfig().getSchemaAction();
+        // The versioned scripts own the schema unless Hibernate is asked to create it from the mappings
+        if (!schemaAction.startsWith("create")) {
+            timer.time("schema migrations", () -> new SchemaMigrator(databaseManager).migrate());
+        }
+        // Dialect is auto-detected in Hibernate 6, no need to specify
+        configuration.setProperty("hibernate.show_sql", "false");
+        configuration.setProperty("hibernate.format_sql", "true");
+        configuration.setProperty("hibernate.hbm2ddl.auto", schemaAction);
+        configuration.setProperty("hibernate.current_session_context_class", "thread");
+        // Flushes send changed rows as JDBC batches, grouped by entity so batches stay long
+        configuration.setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50");
+        configuration.setProperty(AvailableSettings.ORDER_UPDATES, "true");
+        configuration.setProperty(AvailableSettings.ORDER_INSERTS, "true");
+        // Reference data (categories, roles, privileges) is served from the second-level and
+        // query caches; regions and their expiry are configured in ehcache.xml
+        configuration.setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true");
+        configuration.setProperty(AvailableSettings.USE_QUERY_CACHE, "true");
+        configuration.setProperty(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+        configuration.setProperty("hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider");
+        configuration.setProperty("hibernate.javax.cache.uri", "ehcache.xml");
+        configuration.setProperty("hibernate.javax.cache.missing_cache_strategy", "fail");
+        configuration.setProperty(AvailableSettings.GENERATE_STATISTICS, "true");
+        // Keep the counters for ReferenceDataCache without logging a summary after every session
+        configuration.setProperty(AvailableSettings.LOG_SESSION_METRICS, "false");
 
-            StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
-                    .applySettings(configuration.getProperties())
-                    .build();
+        StandardServiceRegistry registry = timer.time("service registry", () -> new StandardServiceRegistryBuilder()
+                .applySettings(configuration.getProperties())
+                .applySetting(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, databaseManager.getDataSource())
+                .build());
 
-            MetadataSources sources = new MetadataSources(registry);
-            sources.addAnnotatedClass(com.hotel.model.User.class);
-            sources.addAnnotatedClass(com.hotel.model.Role.class);
-            sources.addAnnotatedClass(com.hotel.model.PrivilegeEntity.class);
-            sources.addAnnotatedClass(com.hotel.model.RoomCategory.class);
-            sources.addAnnotatedClass(com.hotel.model.Room.class);
-            sources.addAnnotatedClass(com.hotel.model.Reservation.class);
-            sources.addAnnotatedClass(com.hotel.model.Payment.class);
-            sources.addAnnotatedClass(com.hotel.model.CustomerMessage.class);
+        MetadataSources sources = new MetadataSources(registry);
+        sources.addAnnotatedClass(com.hotel.model.User.class);
+        sources.addAnnotatedClass(com.hotel.model.Role.class);
+        sources.addAnnotatedClass(com.hotel.model.PrivilegeEntity.class);
+        sources.addAnnotatedClass(com.hotel.model.RoomCategory.class);
+        sources.addAnnotatedClass(com.hotel.model.Room.class);
+        sources.addAnnotatedClass(com.hotel.model.Reservation.class);
+        sources.addAnnotatedClass(com.hotel.model.Payment.class);
+        sources.addAnnotatedClass(com.hotel.model.CustomerMessage.class);
+        sources.addAnnotatedClass(com.hotel.model.DailyStats.class);
+        sources.addAnnotatedClass(com.hotel.model.RateRule.class);
+        sources.addAnnotatedClass(com.hotel.model.FolioEntry.class);
 
-            Metadata metadata = sources.getMetadataBuilder().build();
-            sessionFactory = metadata.getSessionFactoryBuilder().build();
-        } catch (Exception e) {
-            System.err.println("Initial SessionFactory creation failed: " + e);
-            throw new ExceptionInInitializerError(e);
-        }
+        Metadata metadata = timer.time("mapping metadata", () -> sources.getMetadataBuilder().build());
+        // Includes the hbm2ddl schema action
+        return timer.time("session factory", () -> metadata.getSessionFactoryBuilder().build());
     }
 
+    /**
+     * Returns the SessionFactory, waiting for the background build to finish if it is still running.
+     */
     public static SessionFactory getSessionFactory() {
-        return sessionFactory;
+        try {
+            return bootstrapAsync().join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("SessionFactory is unavailable", e.getCause());
+        }
     }
 
     public static void shutdown() {
-        if (sessionFactory != null) {
-            sessionFactory.close();
+        CompletableFuture<SessionFactory> started;
+        synchronized (HibernateUtil.class) {
+            started = bootstrap;
+        }
+        if (started != null && started.isDone() && !started.isCompletedExceptionally()) {
+            started.join().close();
         }
+        DatabaseManager.shutdown();
     }
 }
 
@@ -0,0 +1,75 @@
+package com.hotel.config;
+
+import com.hotel.model.Role;
+import com.hotel.model.RoomCategory;
+import org.hibernate.Cache;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Second-level cache regions for reference data (room categories, roles and privileges), with
+ * eviction for writes and hit/miss counters per region. Expiry and size limits for each region
+ * are set in {@code ehcache.xml}.
+ */
+public final class ReferenceDataCache {
+    public static final String ROOM_CATEGORIES = "reference.room-categories";
+    public static final String ROLES = "reference.roles";
+    public static final String ROLE_PRIVILEGES = "reference.role-privileges";
+    public static final String PRIVILEGES = "reference.privileges";
+    public static final String QUERIES = "reference.queries";
+
+    private static final String[] REGIONS = {ROOM_CATEGORIES, ROLES, ROLE_PRIVILEGES, PRIVILEGES, QUERIES};
+
+    private ReferenceDataCache() {
+    }
+
+    public static void evictRoomCategory(long categoryId) {
+        Cache cache = cache();
+        cache.evictEntityData(RoomCategory.class, categoryId);
+        cache.evictQueryRegion(QUERIES);
+    }
+
+    /**
+     * Drops every cached category, e.g. after a bulk import that bypassed the cache.
+     */
+    public static void evictRoomCategories() {
+        Cache cache = cache();
+        cache.evictEntityData(RoomCategory.class);
+        cache.evictQueryRegion(QUERIES);
+    }
+
+    public static void evictRole(long roleId) {
+        Cache cache = cache();
+        cache.evictEntityData(Role.class, roleId);
+        cache.evictCollectionData(Role.class.getName() + ".privileges", roleId);
+        cache.evictQueryRegion(QUERIES);
+    }
+
+    /**
+     * Hits, misses and puts per region since startup, plus the overall query cache counters.
+     */
+    public static Map<String, Number> getStatistics() {
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        Map<String, Number> metrics = new LinkedHashMap<>();
+        for (String region : REGIONS) {
+            CacheRegionStatistics regionStatistics = region.equals(QUERIES)
+                    ? statistics.getQueryRegionStatistics(region)
+                    : statistics.getDomainDataRegionStatistics(region);
+            if (regionStatistics != null) {
+                metrics.put(region + ".hits", regionStatistics.getHitCount());
+                metrics.put(region + ".misses", regionStatistics.getMissCount());
+                metrics.put(region + ".puts", regionStatistics.getPutCount());
+            }
+        }
+        metrics.put("queryCache.hits", statistics.getQueryCacheHitCount());
+        metrics.put("queryCache.misses", statistics.getQueryCacheMissCount());
+        return metrics;
+    }
+
+    private static Cache cache() {
+        return HibernateUtil.getSessionFactory().getCache();
+    }
+}
@@ -0,0 +1,188 @@
+package com.hotel.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Brings the database schema up to date from the versioned scripts in {@code sql/migrations}.
+ *
+ * <p>Applied scripts are recorded in {@code schema_version} with a checksum of their contents, so
+ * an up-to-date database costs one query. Each pending script is sent as a single JDBC batch and
+ * recorded once all of its statements have run; a script edited after it was applied is reported
+ * rather than silently re-run.
+ */
+public class SchemaMigrator {
+    private static final Logger LOG = LoggerFactory.getLogger(SchemaMigrator.class);
+    private static final String MIGRATIONS_PATH = "sql/migrations/";
+    /** Every migration, in the order it must run. Versions are taken from the {@code V<n>__} prefix. */
+    private static final List<String> MIGRATIONS = List.of(
+            "V1__baseline_schema.sql",
+            "V2__reference_data.sql",
+            "V3__room_capacity.sql",
+            "V4__rate_rules.sql",
+            "V5__unique_transaction_ref.sql",
+            "V6__payment_idempotency_key.sql",
+            "V7__folio_ledger.sql",
+            "V8__search_indexes.sql");
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    private static final String CREATE_VERSION_TABLE =
+            "CREATE TABLE IF NOT EXISTS schema_version (" +
+            "version INT PRIMARY KEY, " +
+            "description VARCHAR(200) NOT NULL, " +
+            "script VARCHAR(200) NOT NULL, " +
+            "checksum BIGINT NOT NULL, " +
+            "execution_ms BIGINT NOT NULL, " +
+            "installed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
+    private static final String INSERT_VERSION_SQL =
+            "INSERT INTO schema_version (version, description, script, checksum, execution_ms) VALUES (?, ?, ?, ?, ?)";
+
+    private final DatabaseManager databaseManager;
+
+    public SchemaMigrator(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    /**
+     * Applies every script that is not yet recorded and returns how many ran.
+     */
+    public int migrate() {
+        try (Connection connection = databaseManager.getConnection()) {
+            return migrate(connection, Integer.MAX_VALUE);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Schema migration failed", e);
+        }
+    }
+
+    /**
+     * Applies every pending script up to and including {@code targetVersion} on {@code connection}.
+     * Stopping short of the latest version lets tests load data a later script has to convert.
+     */
+    static int migrate(Connection connection, int targetVersion) throws SQLException {
+        Map<Integer, Long> applied = loadApplied(connection);
+        int ran = 0;
+        for (String script : MIGRATIONS) {
+            Migration migration = Migration.load(script);
+            if (migration.version > targetVersion) {
+                break;
+            }
+            Long checksum = applied.get(migration.version);
+            if (checksum == null) {
+                apply(connection, migration);
+                ran++;
+            } else if (checksum != migration.checksum) {
+                throw new IllegalStateException("Migration " + script + " was changed after it was applied");
+            }
+        }
+        return ran;
+    }
+
+    private static Map<Integer, Long> loadApplied(Connection connection) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_VERSION_TABLE);
+            try (ResultSet rs = statement.executeQuery("SELECT version, checksum FROM schema_version")) {
+                while (rs.next()) {
+                    applied.put(rs.getInt(1), rs.getLong(2));
+                }
+            }
+        }
+        return applied;
+    }
+
+    private static void apply(Connection connection, Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        // DDL commits implicitly in MySQL, so the version row is only written once the batch succeeded
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : migration.statements) {
+                statement.addBatch(sql);
+            }
+            statement.executeBatch();
+        } catch (SQLException e) {
+            throw new SQLException("Migration " + migration.script + " failed", e);
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_VERSION_SQL)) {
+            insert.setInt(1, migration.version);
+            insert.setString(2, migration.description);
+            insert.setString(3, migration.script);
+            insert.setLong(4, migration.checksum);
+            insert.setLong(5, elapsedMs);
+            insert.executeUpdate();
+        }
+        LOG.info("Applied migration {} in {} ms", migration.script, elapsedMs);
+    }
+
+    private static final class Migration {
+        private final int version;
+        private final String description;
+        private final String script;
+        private final long checksum;
+        private final List<String> statements;
+
+        private Migration(int version, String description, String script, long checksum, List<String> statements) {
+            this.version = version;
+            this.description = description;
+            this.script = script;
+            this.checksum = checksum;
+            this.statements = statements;
+        }
+
+        static Migration load(String script) {
+            Matcher name = FILE_NAME.matcher(script);
+            if (!name.matches()) {
+                throw new IllegalStateException("Migration file name must look like V1__description.sql: " + script);
+            }
+            String sql;
+            try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(MIGRATIONS_PATH + script)) {
+                if (in == null) {
+                    throw new IllegalStateException("Migration " + script + " not found on the classpath");
+                }
+                sql = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to read migration " + script, e);
+            }
+            // Line endings are normalised so a checkout with CRLFs does not look like an edit
+            String normalised = sql.replace("\r\n", "\n");
+            CRC32 crc = new CRC32();
+            crc.update(normalised.getBytes(StandardCharsets.UTF_8));
+            return new Migration(Integer.parseInt(name.group(1)), name.group(2).replace('_', ' '),
+                    script, crc.getValue(), split(normalised));
+        }
+
+        /**
+         * Splits a script on semicolons that end a line, dropping {@code --} comment lines.
+         */
+        private static List<String> split(String sql) {
+            StringBuilder withoutComments = new StringBuilder(sql.length());
+            for (String line : sql.split("\n")) {
+                if (!line.stripLeading().startsWith("--")) {
+                    withoutComments.append(line).append('\n');
+                }
+            }
+            List<String> statements = new ArrayList<>();
+            for (String statement : withoutComments.toString().split(";\\s*\n")) {
+                if (!statement.isBlank()) {
+                    statements.add(statement.strip());
+                }
+            }
+            return statements;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.hotel.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Records how long each startup phase took, on whichever thread ran it, and logs them at INFO
+ * once the application is fully up. Phases overlap, so the durations need not add up to the total.
+ */
+public final class StartupTimer {
+    private static final Logger LOG = LoggerFactory.getLogger(StartupTimer.class);
+    private static final StartupTimer INSTANCE = new StartupTimer();
+
+    private final long startNanos = System.nanoTime();
+    private final List<String> phases = new ArrayList<>();
+    private final List<Long> durations = new ArrayList<>();
+
+    private StartupTimer() {
+    }
+
+    public static StartupTimer getInstance() {
+        return INSTANCE;
+    }
+
+    public <T> T time(String phase, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    public void time(String phase, Runnable work) {
+        time(phase, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public synchronized void record(String phase, long nanos) {
+        phases.add(phase + " [" + Thread.currentThread().getName() + "]");
+        durations.add(nanos);
+    }
+
+    /**
+     * Logs every recorded phase and the wall-clock time since the JVM reached this class.
+     */
+    public synchronized void report() {
+        if (!LOG.isInfoEnabled()) {
+            return;
+        }
+        StringBuilder report = new StringBuilder("Startup phases:");
+        for (int i = 0; i < phases.size(); i++) {
+            report.append(String.format("%n  %-48s %6d ms", phases.get(i), TimeUnit.NANOSECONDS.toMillis(durations.get(i))));
+        }
+        report.append(String.format("%n  %-48s %6d ms", "total",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)));
+        LOG.info(report.toString());
+    }
+}
@@ -0,0 +1,107 @@
+package com.hotel.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * One night of closed figures for one room category, written by the night audit.
+ */
+@Entity
+@Table(name = "daily_stats", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_daily_stats_date_category", columnNames = {"stat_date", "category_id"})
+})
+public class DailyStats {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(name = "category_id", nullable = false)
+    private long categoryId;
+
+    @Column(name = "rooms_available", nullable = false)
+    private int roomsAvailable;
+
+    @Column(name = "rooms_sold", nullable = false)
+    private int roomsSold;
+
+    @Column(nullable = false, columnDefinition = "DECIMAL(12,2)")
+    private double revenue;
+
+    @Column(nullable = false)
+    private int cancellations;
+
+    public DailyStats() {
+    }
+
+    public DailyStats(LocalDate statDate, long categoryId, int roomsAvailable) {
+        this.statDate = statDate;
+        this.categoryId = categoryId;
+        this.roomsAvailable = roomsAvailable;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public LocalDate getStatDate() {
+        return statDate;
+    }
+
+    public void setStatDate(LocalDate statDate) {
+        this.statDate = statDate;
+    }
+
+    public long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public int getRoomsAvailable() {
+        return roomsAvailable;
+    }
+
+    public void setRoomsAvailable(int roomsAvailable) {
+        this.roomsAvailable = roomsAvailable;
+    }
+
+    public int getRoomsSold() {
+        return roomsSold;
+    }
+
+    public void setRoomsSold(int roomsSold) {
+        this.roomsSold = roomsSold;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(double revenue) {
+        this.revenue = revenue;
+    }
+
+    public int getCancellations() {
+        return cancellations;
+    }
+
+    public void setCancellations(int cancellations) {
+        this.cancellations = cancellations;
+    }
+
+    /**
+     * Average daily rate: revenue per room sold.
+     */
+    public double getAverageDailyRate() {
+        return roomsSold == 0 ? 0 : revenue / roomsSold;
+    }
+}
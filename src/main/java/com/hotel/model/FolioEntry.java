@@ -0,0 +1,93 @@
+package com.hotel.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One line of a reservation's folio. Entries are only ever appended: a correction is a new entry
+ * that offsets the old one. Amounts are signed cents, positive for what the guest owes (charges,
+ * refunds) and negative for what they paid, and each entry keeps the balance it left behind.
+ */
+@Entity
+@Table(name = "folio_entries", indexes = {
+    @Index(name = "idx_folio_entries_reservation_id", columnList = "reservation_id, id")
+})
+public class FolioEntry {
+    public static final String CHARGE = "CHARGE";
+    public static final String PAYMENT = "PAYMENT";
+    public static final String REFUND = "REFUND";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "reservation_id", nullable = false)
+    private long reservationId;
+
+    @Column(name = "entry_type", nullable = false, length = 20)
+    private String type; // CHARGE, PAYMENT, REFUND
+
+    @Column(name = "amount_cents", nullable = false)
+    private long amountCents;
+
+    @Column(name = "balance_cents", nullable = false)
+    private long balanceCents;
+
+    @Column(name = "payment_id")
+    private Long paymentId;
+
+    @Column(length = 200)
+    private String description;
+
+    @Column(name = "posted_at", nullable = false)
+    private LocalDateTime postedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        postedAt = LocalDateTime.now();
+    }
+
+    public FolioEntry() {
+    }
+
+    public FolioEntry(long reservationId, String type, long amountCents, long balanceCents, Long paymentId, String description) {
+        this.reservationId = reservationId;
+        this.type = type;
+        this.amountCents = amountCents;
+        this.balanceCents = balanceCents;
+        this.paymentId = paymentId;
+        this.description = description;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getReservationId() {
+        return reservationId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    public long getBalanceCents() {
+        return balanceCents;
+    }
+
+    public Long getPaymentId() {
+        return paymentId;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public LocalDateTime getPostedAt() {
+        return postedAt;
+    }
+}
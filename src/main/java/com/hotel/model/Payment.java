@@ -10,7 +10,7 @@ public class Payment {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "reservation_id", nullable = false)
     private Reservation reservation;
     
@@ -23,11 +23,14 @@ public class Payment {
     @Column(nullable = false, length = 20)
     private String status = "INITIATED";
     
-    @Column(name = "transaction_ref", length = 80)
+    @Column(name = "transaction_ref", unique = true, length = 80)
     private String transactionRef;
     
     @Column(name = "paid_at")
     private LocalDateTime paidAt;
+    
+    @Column(name = "idempotency_key", unique = true, length = 64)
+    private String idempotencyKey;
 
     public long getId() {
         return id;
@@ -84,4 +87,12 @@ public class Payment {
     public void setPaidAt(LocalDateTime paidAt) {
         this.paidAt = paidAt;
     }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
 }
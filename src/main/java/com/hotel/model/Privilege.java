@@ -1,5 +1,8 @@
 package com.hotel.model;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public enum Privilege {
     BOOK_ROOM,
     CANCEL_RESERVATION,
@@ -7,5 +10,21 @@ public enum Privilege {
     CHECK_OUT,
     MANAGE_ROOMS,
     VIEW_ANALYTICS,
-    MANAGE_USERS
+    MANAGE_USERS;
+
+    private static final Map<String, Privilege> BY_CODE = new HashMap<>();
+
+    static {
+        for (Privilege privilege : values()) {
+            BY_CODE.put(privilege.name(), privilege);
+        }
+    }
+
+    /**
+     * The privilege stored under {@code code} in the privileges table, or {@code null} for a code
+     * this build does not know.
+     */
+    public static Privilege fromCode(String code) {
+        return BY_CODE.get(code);
+    }
 }
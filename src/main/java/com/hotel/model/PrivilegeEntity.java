@@ -1,8 +1,12 @@
 package com.hotel.model;
 
+import com.hotel.config.ReferenceDataCache;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.PRIVILEGES)
 @Table(name = "privileges")
 public class PrivilegeEntity {
     @Id
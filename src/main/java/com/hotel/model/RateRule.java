@@ -0,0 +1,123 @@
+package com.hotel.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * A percentage adjustment to a category's base rate. Season rules apply to nights between their
+ * start and end dates, weekend rules to Friday and Saturday nights, and length-of-stay rules to
+ * the whole stay once it reaches {@code minNights}. A rule without a category applies to all of them.
+ */
+@Entity
+@Table(name = "rate_rules")
+public class RateRule {
+    public static final String SEASON = "SEASON";
+    public static final String WEEKEND = "WEEKEND";
+    public static final String LONG_STAY = "LONG_STAY";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(name = "rule_type", nullable = false, length = 20)
+    private String type = SEASON; // SEASON, WEEKEND, LONG_STAY
+
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(name = "start_date")
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    @Column(name = "min_nights", nullable = false)
+    private int minNights;
+
+    @Column(nullable = false)
+    private int percent;
+
+    public RateRule() {
+    }
+
+    public RateRule(String name, String type, Long categoryId, int percent) {
+        this.name = name;
+        this.type = type;
+        this.categoryId = categoryId;
+        this.percent = percent;
+    }
+
+    /**
+     * Whether this rule prices {@code categoryId}.
+     */
+    public boolean appliesTo(long categoryId) {
+        return this.categoryId == null || this.categoryId == categoryId;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public int getMinNights() {
+        return minNights;
+    }
+
+    public void setMinNights(int minNights) {
+        this.minNights = minNights;
+    }
+
+    public int getPercent() {
+        return percent;
+    }
+
+    public void setPercent(int percent) {
+        this.percent = percent;
+    }
+}
@@ -7,17 +7,27 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "reservations")
+@NamedEntityGraph(name = Reservation.DETAILS_GRAPH,
+    attributeNodes = {@NamedAttributeNode("user"), @NamedAttributeNode(value = "room", subgraph = "room")},
+    subgraphs = @NamedSubgraph(name = "room", attributeNodes = @NamedAttributeNode("category")))
+@Table(name = "reservations", indexes = {
+    @Index(name = "idx_reservations_check_in_id", columnList = "check_in, id"),
+    @Index(name = "idx_reservations_check_out", columnList = "check_out"),
+    @Index(name = "idx_reservations_status", columnList = "reservation_status")
+})
 public class Reservation {
+    /** Guest, room and room category: everything a single reservation view or status change reads. */
+    public static final String DETAILS_GRAPH = "Reservation.details";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "room_id", nullable = false)
     private Room room;
     
@@ -35,6 +45,14 @@ public class Reservation {
     
     @Column(name = "created_at")
     private LocalDateTime createdAt;
+
+    // Kept by the folio ledger with UPDATE statements; never written from the entity, so a merged
+    // copy cannot overwrite a payment posted since it was loaded
+    @Column(name = "balance_cents", nullable = false, updatable = false)
+    private long balanceCents;
+
+    @Column(name = "last_payment_id", updatable = false)
+    private Long lastPaymentId;
     
     @OneToMany(mappedBy = "reservation", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Payment> payments = new ArrayList<>();
@@ -108,6 +126,17 @@ public class Reservation {
         this.createdAt = createdAt;
     }
     
+    /**
+     * What the guest still owes, in cents, as of the last folio entry; negative when overpaid.
+     */
+    public long getBalanceCents() {
+        return balanceCents;
+    }
+
+    public Long getLastPaymentId() {
+        return lastPaymentId;
+    }
+    
     public List<Payment> getPayments() {
         return payments;
     }
@@ -1,10 +1,14 @@
 package com.hotel.model;
 
+import com.hotel.config.ReferenceDataCache;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.ROLES)
 @Table(name = "roles")
 public class Role {
     @Id
@@ -14,7 +18,8 @@ public class Role {
     @Column(unique = true, nullable = false, length = 50)
     private String name;
     
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.ROLE_PRIVILEGES)
     @JoinTable(
         name = "role_privileges",
         joinColumns = @JoinColumn(name = "role_id"),
@@ -5,8 +5,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@NamedEntityGraph(name = Room.WITH_CATEGORY_GRAPH, attributeNodes = @NamedAttributeNode("category"))
 @Table(name = "rooms")
 public class Room {
+    public static final String WITH_CATEGORY_GRAPH = "Room.withCategory";
+    public static final int DEFAULT_CAPACITY = 2;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
@@ -14,12 +18,16 @@ public class Room {
     @Column(name = "room_number", unique = true, nullable = false, length = 10)
     private String roomNumber;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
     private RoomCategory category;
     
     private int floor;
     
+    /** Most guests the room sleeps. */
+    @Column(nullable = false)
+    private int capacity = DEFAULT_CAPACITY;
+    
     @Column(name = "view_type", length = 40)
     private String viewType;
     
@@ -70,6 +78,14 @@ public class Room {
         this.floor = floor;
     }
 
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
     public String getViewType() {
         return viewType;
     }
@@ -1,10 +1,14 @@
 package com.hotel.model;
 
+import com.hotel.config.ReferenceDataCache;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.ROOM_CATEGORIES)
 @Table(name = "room_categories")
 public class RoomCategory {
     @Id
@@ -2,13 +2,23 @@ package com.hotel.model;
 
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 
 @Entity
-@Table(name = "users")
+@NamedEntityGraph(name = User.PERMISSIONS_GRAPH,
+    attributeNodes = {@NamedAttributeNode(value = "role", subgraph = "role"), @NamedAttributeNode("privileges")},
+    subgraphs = @NamedSubgraph(name = "role", attributeNodes = @NamedAttributeNode("privileges")))
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_first_name", columnList = "first_name"),
+    @Index(name = "idx_users_last_name", columnList = "last_name")
+})
 public class User {
+    /** Role with its privileges plus the user's own grants, as needed to log in or edit access. */
+    public static final String PERMISSIONS_GRAPH = "User.permissions";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
@@ -28,7 +38,7 @@ public class User {
     @Column(length = 120)
     private String email;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "role_id", nullable = false)
     private Role role;
     
@@ -38,7 +48,7 @@ public class User {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany
     @JoinTable(
         name = "user_privileges",
         joinColumns = @JoinColumn(name = "user_id"),
@@ -46,6 +56,10 @@ public class User {
     )
     private Set<PrivilegeEntity> privileges = new HashSet<>();
 
+    /** Role and user grants merged, built on first check; see {@link #resolvePermissions()}. */
+    @Transient
+    private EnumSet<Privilege> permissions;
+
     public User() {
     }
 
@@ -109,6 +123,7 @@ public class User {
 
     public void setRole(Role role) {
         this.role = role;
+        this.permissions = null;
     }
     
     @PrePersist
@@ -138,10 +153,42 @@ public class User {
 
     public void setPrivileges(Set<PrivilegeEntity> privileges) {
         this.privileges = privileges;
+        this.permissions = null;
     }
-    
+
+    /**
+     * Merges the role's privileges with the user's own grants into the set every
+     * {@link #hasPrivilege} call tests against. Done at login while the role and privileges are
+     * loaded; a user whose grants change is evicted and resolved afresh on the next login.
+     */
+    public void resolvePermissions() {
+        EnumSet<Privilege> resolved = EnumSet.noneOf(Privilege.class);
+        if (role != null) {
+            addAll(resolved, role.getPrivileges());
+        }
+        addAll(resolved, privileges);
+        permissions = resolved;
+    }
+
+    public boolean hasPrivilege(Privilege privilege) {
+        if (permissions == null) {
+            resolvePermissions();
+        }
+        return permissions.contains(privilege);
+    }
+
     public boolean hasPrivilege(String privilegeCode) {
-        return privileges.stream().anyMatch(p -> p.getCode().equals(privilegeCode));
+        Privilege privilege = Privilege.fromCode(privilegeCode);
+        return privilege != null && hasPrivilege(privilege);
+    }
+
+    private static void addAll(EnumSet<Privilege> target, Set<PrivilegeEntity> grants) {
+        for (PrivilegeEntity grant : grants) {
+            Privilege privilege = Privilege.fromCode(grant.getCode());
+            if (privilege != null) {
+                target.add(privilege);
+            }
+        }
     }
 
     public String getDisplayName() {
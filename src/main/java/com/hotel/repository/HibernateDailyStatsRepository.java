@@ -0,0 +1,61 @@
+package com.hotel.repository;
+
+import com.hotel.model.DailyStats;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public class HibernateDailyStatsRepository extends HibernateRepository {
+    private static final int FLUSH_EVERY = 50;
+
+    public Optional<LocalDate> findLastStatDate() {
+        return read(session -> Optional.ofNullable(session.createQuery(
+                "SELECT MAX(d.statDate) FROM DailyStats d", LocalDate.class).getSingleResult()));
+    }
+
+    public List<DailyStats> findRange(LocalDate from, LocalDate to) {
+        return read(session -> session.createQuery(
+                "FROM DailyStats d WHERE d.statDate BETWEEN :from AND :to ORDER BY d.statDate, d.categoryId",
+                DailyStats.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList());
+    }
+
+    /**
+     * Sums the range in the database: rooms available, rooms sold, revenue and cancellations.
+     */
+    public Object[] sumRange(LocalDate from, LocalDate to) {
+        return read(session -> session.createQuery(
+                "SELECT COALESCE(SUM(d.roomsAvailable), 0), COALESCE(SUM(d.roomsSold), 0), " +
+                "COALESCE(SUM(d.revenue), 0), COALESCE(SUM(d.cancellations), 0) " +
+                "FROM DailyStats d WHERE d.statDate BETWEEN :from AND :to", Object[].class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getSingleResult());
+    }
+
+    /**
+     * Replaces every row dated {@code from} to {@code to} with {@code rows} in one transaction,
+     * so re-running the audit for a day never double counts it. The session is cleared as rows
+     * are written, so call this in a unit of work of its own.
+     */
+    public void replaceRange(LocalDate from, LocalDate to, Collection<DailyStats> rows) {
+        execute("Unable to save daily stats", session -> {
+            session.createMutationQuery("DELETE FROM DailyStats d WHERE d.statDate BETWEEN :from AND :to")
+                    .setParameter("from", from)
+                    .setParameter("to", to)
+                    .executeUpdate();
+            int written = 0;
+            for (DailyStats row : rows) {
+                session.persist(row);
+                if (++written % FLUSH_EVERY == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+        });
+    }
+}
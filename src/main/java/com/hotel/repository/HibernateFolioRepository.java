@@ -0,0 +1,69 @@
+package com.hotel.repository;
+
+import com.hotel.model.FolioEntry;
+
+import java.util.List;
+import java.util.Optional;
+
+public class HibernateFolioRepository extends HibernateRepository {
+
+    /**
+     * Appends an entry and moves the reservation's running balance by {@code amountCents} in the
+     * same transaction. The balance is changed with an UPDATE, whose row lock makes concurrent
+     * postings to one reservation queue behind each other, so every entry records the balance it
+     * left. A payment entry also becomes the reservation's latest payment.
+     */
+    public FolioEntry post(long reservationId, String type, long amountCents, Long paymentId, String description) {
+        return write("Unable to post folio entry", session -> {
+            int updated = (paymentId == null
+                    ? session.createMutationQuery(
+                            "UPDATE Reservation r SET r.balanceCents = r.balanceCents + :amount WHERE r.id = :id")
+                    : session.createMutationQuery(
+                            "UPDATE Reservation r SET r.balanceCents = r.balanceCents + :amount, r.lastPaymentId = :paymentId " +
+                            "WHERE r.id = :id")
+                            .setParameter("paymentId", paymentId))
+                    .setParameter("amount", amountCents)
+                    .setParameter("id", reservationId)
+                    .executeUpdate();
+            if (updated == 0) {
+                throw new IllegalArgumentException("Reservation not found: " + reservationId);
+            }
+            long balance = session.createQuery("SELECT r.balanceCents FROM Reservation r WHERE r.id = :id", Long.class)
+                    .setParameter("id", reservationId)
+                    .getSingleResult();
+            FolioEntry entry = new FolioEntry(reservationId, type, amountCents, balance, paymentId, description);
+            session.persist(entry);
+            return entry;
+        });
+    }
+
+    public Optional<Long> findBalanceCents(long reservationId) {
+        return read(session -> session.createQuery("SELECT r.balanceCents FROM Reservation r WHERE r.id = :id", Long.class)
+                .setParameter("id", reservationId)
+                .uniqueResultOptional());
+    }
+
+    /**
+     * Every entry for the reservation in the order it was posted, read off the (reservation_id, id) index.
+     */
+    public List<FolioEntry> findByReservation(long reservationId) {
+        return read(session -> session.createQuery(
+                "FROM FolioEntry e WHERE e.reservationId = :id ORDER BY e.id", FolioEntry.class)
+                .setParameter("id", reservationId)
+                .getResultList());
+    }
+
+    /**
+     * Net of the reservation's charge entries, earlier reversals included.
+     */
+    public long sumCharges(long reservationId) {
+        return read(session -> {
+            Long total = session.createQuery(
+                    "SELECT SUM(e.amountCents) FROM FolioEntry e WHERE e.reservationId = :id AND e.type = :type", Long.class)
+                    .setParameter("id", reservationId)
+                    .setParameter("type", FolioEntry.CHARGE)
+                    .getSingleResult();
+            return total == null ? 0 : total;
+        });
+    }
+}
@@ -1,75 +1,159 @@
 package com.hotel.repository;
 
-import com.hotel.config.HibernateUtil;
 import com.hotel.model.Payment;
-import org.hibernate.Session;
-import org.hibernate.SessionFactory;
-import org.hibernate.Transaction;
+import org.hibernate.Hibernate;
 import org.hibernate.query.Query;
 
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
-public class HibernatePaymentRepository {
-    private final SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
+public class HibernatePaymentRepository extends HibernateRepository {
+    // A key that is already recorded leaves its row untouched rather than failing the whole batch
+    private static final String INSERT_SQL =
+            "INSERT INTO payments (reservation_id, amount, method, status, transaction_ref, paid_at, idempotency_key) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE idempotency_key = idempotency_key";
 
     public Payment save(Payment payment) {
-        Transaction transaction = null;
-        try (Session session = sessionFactory.openSession()) {
-            transaction = session.beginTransaction();
+        return write("Unable to save payment", session -> {
             session.persist(payment);
-            transaction.commit();
             return payment;
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw new IllegalStateException("Unable to save payment", e);
-        }
+        });
     }
 
     public Payment update(Payment payment) {
-        Transaction transaction = null;
-        try (Session session = sessionFactory.openSession()) {
-            transaction = session.beginTransaction();
+        return write("Unable to update payment", session -> {
             session.merge(payment);
-            transaction.commit();
             return payment;
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
+        });
+    }
+
+    /**
+     * Inserts payments as a single JDBC batch in the current unit of work, or a transaction of
+     * their own; each payment's reservation only needs its id set. Payments whose idempotency key
+     * is already recorded are skipped, so read the outcome back with {@link #findByIdempotencyKeys}.
+     */
+    public void insertAll(List<Payment> payments) {
+        execute("Unable to record payments", session -> session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                for (Payment payment : payments) {
+                    statement.setLong(1, payment.getReservation().getId());
+                    statement.setDouble(2, payment.getAmount());
+                    statement.setString(3, payment.getMethod());
+                    statement.setString(4, payment.getStatus());
+                    statement.setString(5, payment.getTransactionRef());
+                    statement.setTimestamp(6, payment.getPaidAt() != null ? Timestamp.valueOf(payment.getPaidAt()) : null);
+                    statement.setString(7, payment.getIdempotencyKey());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }));
+    }
+
+    public Optional<Payment> findByIdempotencyKey(String idempotencyKey) {
+        return read(session -> session.createQuery("FROM Payment p WHERE p.idempotencyKey = :key", Payment.class)
+                .setParameter("key", idempotencyKey)
+                .uniqueResultOptional());
+    }
+
+    /**
+     * Recorded payments by idempotency key; keys with no payment are absent from the map.
+     */
+    public Map<String, Payment> findByIdempotencyKeys(Collection<String> idempotencyKeys) {
+        return read(session -> {
+            Map<String, Payment> payments = new HashMap<>();
+            for (List<String> chunk : partition(idempotencyKeys)) {
+                for (Payment payment : session.createQuery("FROM Payment p WHERE p.idempotencyKey IN :keys", Payment.class)
+                        .setParameter("keys", chunk)
+                        .getResultList()) {
+                    payments.put(payment.getIdempotencyKey(), payment);
+                }
             }
-            throw new IllegalStateException("Unable to update payment", e);
-        }
+            return payments;
+        });
     }
 
     public Optional<Payment> findById(long id) {
-        try (Session session = sessionFactory.openSession()) {
+        return read(session -> {
             Payment payment = session.get(Payment.class, id);
             if (payment != null) {
-                payment.getReservation();
+                Hibernate.initialize(payment.getReservation());
             }
             return Optional.ofNullable(payment);
-        }
+        });
+    }
+
+    /**
+     * The reservation's most recent payment, through the pointer the folio keeps on the reservation:
+     * two primary key lookups however many payments there are.
+     */
+    public Optional<Payment> findLatestByReservation(long reservationId) {
+        return read(session -> session.createQuery(
+                "SELECT p FROM Payment p WHERE p.id = (SELECT r.lastPaymentId FROM Reservation r WHERE r.id = :id)",
+                Payment.class)
+                .setParameter("id", reservationId)
+                .uniqueResultOptional());
     }
 
     public List<Payment> findByReservation(long reservationId) {
-        try (Session session = sessionFactory.openSession()) {
+        return read(session -> {
             Query<Payment> query = session.createQuery(
                     "FROM Payment p LEFT JOIN FETCH p.reservation WHERE p.reservation.id = :reservationId",
                     Payment.class);
             query.setParameter("reservationId", reservationId);
             return query.getResultList();
-        }
+        });
     }
 
     public List<Payment> findAll() {
-        try (Session session = sessionFactory.openSession()) {
+        return read(session -> {
             Query<Payment> query = session.createQuery(
                     "FROM Payment p LEFT JOIN FETCH p.reservation",
                     Payment.class);
             return query.getResultList();
-        }
+        });
+    }
+
+    public long count() {
+        return read(session -> session.createQuery("SELECT COUNT(p) FROM Payment p", Long.class).getSingleResult());
+    }
+
+    public long countByStatus(String status) {
+        return read(session -> session.createQuery("SELECT COUNT(p) FROM Payment p WHERE p.status = :status", Long.class)
+                .setParameter("status", status)
+                .getSingleResult());
     }
-}
 
+    public double sumAmountByStatus(String status) {
+        return read(session -> {
+            Double total = session.createQuery("SELECT SUM(p.amount) FROM Payment p WHERE p.status = :status", Double.class)
+                    .setParameter("status", status)
+                    .getSingleResult();
+            return total == null ? 0 : total;
+        });
+    }
+
+    /**
+     * Streams id, reservation id, amount, method, status, transaction reference and payment time
+     * for every payment in id order, without materialising entities.
+     */
+    public void forEachExportRow(Consumer<Object[]> consumer) {
+        read(session -> {
+            try (Stream<Object[]> rows = session.createQuery(
+                    "SELECT p.id, p.reservation.id, p.amount, p.method, p.status, p.transactionRef, p.paidAt " +
+                    "FROM Payment p ORDER BY p.id", Object[].class)
+                    .setFetchSize(500)
+                    .stream()) {
+                rows.forEach(consumer);
+                return null;
+            }
+        });
+    }
+}
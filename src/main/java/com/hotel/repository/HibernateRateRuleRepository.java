@@ -0,0 +1,32 @@
+package com.hotel.repository;
+
+import com.hotel.model.RateRule;
+
+import java.util.List;
+
+public class HibernateRateRuleRepository extends HibernateRepository {
+
+    public List<RateRule> findAll() {
+        return read(session -> session.createQuery("FROM RateRule r ORDER BY r.type, r.startDate, r.id", RateRule.class)
+                .getResultList());
+    }
+
+    /**
+     * Inserts a new rule or updates an existing one and returns the managed copy.
+     */
+    public RateRule save(RateRule rule) {
+        return write("Unable to save rate rule", session -> {
+            if (rule.getId() == 0) {
+                session.persist(rule);
+                return rule;
+            }
+            return session.merge(rule);
+        });
+    }
+
+    public void delete(long id) {
+        execute("Unable to delete rate rule", session -> session.createMutationQuery("DELETE FROM RateRule r WHERE r.id = :id")
+                .setParameter("id", id)
+                .executeUpdate());
+    }
+}
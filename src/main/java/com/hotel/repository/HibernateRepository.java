@@ -0,0 +1,87 @@
+package com.hotel.repository;
+
+import com.hotel.config.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Base for the Hibernate repositories: every method runs through {@link #read} or {@link #write},
+ * which join the caller's {@link UnitOfWork} or open a short one of their own.
+ */
+abstract class HibernateRepository {
+    /** Upper bound on the ids bound into one {@code IN} list by the bulk updates. */
+    protected static final int IDS_PER_STATEMENT = 500;
+
+    /**
+     * Runs a query in the current unit of work, or in a new read-only one.
+     */
+    protected <T> T read(Function<Session, T> work) {
+        return UnitOfWork.read(() -> work.apply(UnitOfWork.currentSession(false)));
+    }
+
+    /**
+     * Runs {@code work} in the current unit of work, or in a new transaction. Persistence failures
+     * are reported as an {@link IllegalStateException} with the given message; the repository's
+     * own {@link IllegalArgumentException}s and {@link IllegalStateException}s pass through
+     * unchanged, so their message reaches the user.
+     */
+    protected <T> T write(String failure, Function<Session, T> work) {
+        try {
+            return UnitOfWork.run(() -> work.apply(UnitOfWork.currentSession(true)));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new IllegalStateException(failure, e);
+        }
+    }
+
+    protected void execute(String failure, Consumer<Session> work) {
+        write(failure, session -> {
+            work.accept(session);
+            return null;
+        });
+    }
+
+    /**
+     * Runs {@code work} in a stateless session with its own transaction, sending inserts in JDBC
+     * batches of {@code batchSize}. For bulk loads that need neither the persistence context nor
+     * the caches; it never joins a {@link UnitOfWork}.
+     */
+    protected void insertBatch(String failure, int batchSize, Consumer<StatelessSession> work) {
+        Transaction transaction = null;
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            session.setJdbcBatchSize(batchSize);
+            transaction = session.beginTransaction();
+            work.accept(session);
+            transaction.commit();
+        } catch (RuntimeException e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw new IllegalStateException(failure, e);
+        }
+    }
+
+    protected static <T> List<List<T>> partition(Collection<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        List<T> chunk = new ArrayList<>(Math.min(values.size(), IDS_PER_STATEMENT));
+        for (T value : values) {
+            chunk.add(value);
+            if (chunk.size() == IDS_PER_STATEMENT) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(IDS_PER_STATEMENT);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+}
@@ -1,108 +1,413 @@
 package com.hotel.repository;
 
-import com.hotel.config.HibernateUtil;
 import com.hotel.model.Reservation;
-import org.hibernate.Session;
-import org.hibernate.SessionFactory;
-import org.hibernate.Transaction;
+import com.hotel.model.Room;
+import jakarta.persistence.LockModeType;
+import org.hibernate.Hibernate;
+import org.hibernate.jpa.SpecHints;
 import org.hibernate.query.Query;
 
+import java.sql.PreparedStatement;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
-public class HibernateReservationRepository {
-    private final SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
+public class HibernateReservationRepository extends HibernateRepository {
+    private static final String INSERT_SQL =
+            "INSERT INTO reservations (user_id, room_id, check_in, check_out, guest_count, reservation_status, created_at, balance_cents) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
 
     public Reservation save(Reservation reservation) {
-        Transaction transaction = null;
-        try (Session session = sessionFactory.openSession()) {
-            transaction = session.beginTransaction();
+        return write("Unable to save reservation", session -> {
             session.persist(reservation);
-            transaction.commit();
             return reservation;
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
+        });
+    }
+
+    /**
+     * Saves the reservation and flags its room as RESERVED in one transaction, provided no other
+     * live stay overlaps it. The room row is locked first, so concurrent bookings for the same
+     * room serialise on the database even across application instances. The overlap check is a
+     * locking read as well: under REPEATABLE READ a plain read could answer from a snapshot taken
+     * before the booking that held the room lock committed.
+     */
+    public Optional<Reservation> saveIfRoomAvailable(Reservation reservation) {
+        return write("Unable to save reservation", session -> {
+            Room room = session.find(Room.class, reservation.getRoom().getId(), LockModeType.PESSIMISTIC_WRITE);
+            if (room == null) {
+                throw new IllegalArgumentException("Room not found");
             }
-            throw new IllegalStateException("Unable to save reservation", e);
-        }
+            List<Reservation> overlapping = session.createQuery(
+                    "FROM Reservation r WHERE r.room.id = :roomId " +
+                    "AND r.status NOT IN ('CANCELLED', 'CHECKED_OUT') " +
+                    "AND r.checkIn < :checkOut AND r.checkOut > :checkIn",
+                    Reservation.class)
+                    .setParameter("roomId", room.getId())
+                    .setParameter("checkIn", reservation.getCheckIn())
+                    .setParameter("checkOut", reservation.getCheckOut())
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                    .setMaxResults(1)
+                    .getResultList();
+            if (!overlapping.isEmpty()) {
+                return Optional.empty();
+            }
+            // The category rate is read after commit to value the stay; it normally comes from the cache
+            Hibernate.initialize(room.getCategory());
+            reservation.setRoom(room);
+            session.persist(reservation);
+            room.setStatus("RESERVED");
+            return Optional.of(reservation);
+        });
+    }
+
+    /**
+     * Inserts historical reservations in one transaction without availability checks or
+     * lifecycle callbacks; each reservation's user and room only need their ids set. Identity keys
+     * keep Hibernate from batching entity inserts, so the rows go out as a plain JDBC batch that
+     * the driver rewrites into multi-row statements. Their folios start empty, as historical stays
+     * are taken to be settled.
+     */
+    public void insertAll(List<Reservation> reservations, int batchSize) {
+        insertBatch("Unable to import reservations", batchSize, session -> session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                int pending = 0;
+                for (Reservation reservation : reservations) {
+                    statement.setLong(1, reservation.getUser().getId());
+                    statement.setLong(2, reservation.getRoom().getId());
+                    statement.setObject(3, reservation.getCheckIn());
+                    statement.setObject(4, reservation.getCheckOut());
+                    statement.setInt(5, reservation.getGuestCount());
+                    statement.setString(6, reservation.getStatus());
+                    statement.setObject(7, reservation.getCreatedAt());
+                    statement.addBatch();
+                    if (++pending == batchSize) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            }
+        }));
+    }
+
+    /**
+     * An unloaded proxy for the reservation, enough to point a foreign key at it.
+     */
+    public Reservation getReference(long id) {
+        return read(session -> session.getReference(Reservation.class, id));
     }
 
     public Reservation update(Reservation reservation) {
-        Transaction transaction = null;
-        try (Session session = sessionFactory.openSession()) {
-            transaction = session.beginTransaction();
+        return write("Unable to update reservation", session -> {
             session.merge(reservation);
-            transaction.commit();
             return reservation;
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw new IllegalStateException("Unable to update reservation", e);
-        }
+        });
     }
 
     public Optional<Reservation> findById(long id) {
-        try (Session session = sessionFactory.openSession()) {
-            Reservation reservation = session.get(Reservation.class, id);
+        return read(session -> {
+            Reservation reservation = session.find(Reservation.class, id,
+                    Map.of(SpecHints.HINT_SPEC_FETCH_GRAPH, session.getEntityGraph(Reservation.DETAILS_GRAPH)));
             if (reservation != null) {
-                reservation.getUser();
-                reservation.getRoom();
                 reservation.getPayments().size();
             }
             return Optional.ofNullable(reservation);
-        }
+        });
     }
 
     public List<Reservation> findByUser(long userId) {
-        try (Session session = sessionFactory.openSession()) {
+        return read(session -> {
             Query<Reservation> query = session.createQuery(
-                    "FROM Reservation r LEFT JOIN FETCH r.user LEFT JOIN FETCH r.room WHERE r.user.id = :userId ORDER BY r.checkIn DESC",
-                    Reservation.class);
+                    "FROM Reservation r WHERE r.user.id = :userId ORDER BY r.checkIn DESC", Reservation.class);
             query.setParameter("userId", userId);
+            query.applyFetchGraph(session.getEntityGraph(Reservation.DETAILS_GRAPH));
             return query.getResultList();
-        }
+        });
     }
 
     public List<Reservation> findAll() {
-        try (Session session = sessionFactory.openSession()) {
+        return read(session -> {
             Query<Reservation> query = session.createQuery(
-                    "FROM Reservation r LEFT JOIN FETCH r.user LEFT JOIN FETCH r.room ORDER BY r.checkIn DESC",
-                    Reservation.class);
+                    "FROM Reservation r ORDER BY r.checkIn DESC", Reservation.class);
+            query.applyFetchGraph(session.getEntityGraph(Reservation.DETAILS_GRAPH));
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * Returns up to {@code limit} reservation rows matching {@code criteria} after {@code after} in
+     * newest-first order, i.e. by check-in descending with the id as tie-breaker. Seeking past the
+     * last key rather than using an offset keeps every page equally cheap however deep the user
+     * scrolls. A {@code null} key starts from the top; {@code null} criteria match everything.
+     * Only the table's columns are selected, in a single statement.
+     */
+    public List<ReservationRow> findPage(ReservationSearchCriteria criteria, PageKey after, int limit) {
+        return read(session -> {
+            Query<ReservationRow> query = session.createQuery(
+                    "SELECT new com.hotel.repository.ReservationRow(r.id, u.username, u.firstName, u.lastName, " +
+                    "rm.roomNumber, r.checkIn, r.checkOut, r.guestCount, r.status) " +
+                    "FROM Reservation r JOIN r.user u JOIN r.room rm" +
+                    pageFilter(criteria, after) + " ORDER BY r.checkIn DESC, r.id DESC",
+                    ReservationRow.class);
+            bindPageFilter(query, criteria, after);
+            query.setMaxResults(limit);
             return query.getResultList();
+        });
+    }
+
+    /**
+     * Returns the key of the last row of the page that follows {@code after}, or {@code null} if
+     * fewer rows remain. Used to skip over pages the user scrolled past without loading them.
+     */
+    public PageKey findPageEnd(ReservationSearchCriteria criteria, PageKey after, int pageSize) {
+        return read(session -> {
+            Query<Object[]> query = session.createQuery(
+                    "SELECT r.checkIn, r.id FROM Reservation r" +
+                    pageFilter(criteria, after) + " ORDER BY r.checkIn DESC, r.id DESC",
+                    Object[].class);
+            bindPageFilter(query, criteria, after);
+            query.setFirstResult(pageSize - 1);
+            query.setMaxResults(1);
+            Object[] row = query.uniqueResult();
+            return row == null ? null : new PageKey((LocalDate) row[0], (Long) row[1]);
+        });
+    }
+
+    public long count(ReservationSearchCriteria criteria) {
+        return read(session -> {
+            Query<Long> query = session.createQuery(
+                    "SELECT COUNT(r) FROM Reservation r" + pageFilter(criteria, null), Long.class);
+            bindPageFilter(query, criteria, null);
+            return query.uniqueResult();
+        });
+    }
+
+    public Map<String, Long> countByStatus() {
+        return read(session -> {
+            Map<String, Long> counts = new HashMap<>();
+            for (Object[] row : session.createQuery(
+                    "SELECT r.status, COUNT(r) FROM Reservation r GROUP BY r.status", Object[].class).getResultList()) {
+                counts.put((String) row[0], (Long) row[1]);
+            }
+            return counts;
+        });
+    }
+
+    /**
+     * Sums the price of every stay per reservation status, priced by {@code pricer}. Only the
+     * columns needed are streamed, so no entities are materialised.
+     */
+    public Map<String, Double> sumStayValueByStatus(StayPricer pricer) {
+        return read(session -> {
+            try (Stream<Object[]> rows = session.createQuery(
+                    "SELECT r.status, r.checkIn, r.checkOut, c.id FROM Reservation r JOIN r.room rm JOIN rm.category c",
+                    Object[].class)
+                    .setFetchSize(500)
+                    .stream()) {
+                Map<String, Double> totals = new HashMap<>();
+                rows.forEach(row -> totals.merge((String) row[0],
+                        pricer.price((Long) row[3], (LocalDate) row[1], (LocalDate) row[2]),
+                        Double::sum));
+                return totals;
+            }
+        });
+    }
+
+    public Optional<LocalDate> findEarliestCheckIn() {
+        return read(session -> Optional.ofNullable(session.createQuery(
+                "SELECT MIN(r.checkIn) FROM Reservation r", LocalDate.class).getSingleResult()));
+    }
+
+    /**
+     * Streams category id, status, check-in, check-out, the net of the folio's charge entries in
+     * cents and the captured payment total for every reservation whose stay touches a night from
+     * {@code from} to {@code to}, without materialising entities.
+     */
+    public void forEachStay(LocalDate from, LocalDate to, Consumer<Object[]> consumer) {
+        read(session -> {
+            try (Stream<Object[]> rows = session.createQuery(
+                    "SELECT c.id, r.status, r.checkIn, r.checkOut, " +
+                    "(SELECT COALESCE(SUM(e.amountCents), 0) FROM FolioEntry e " +
+                    "WHERE e.reservationId = r.id AND e.type = 'CHARGE'), " +
+                    "(SELECT COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.reservation = r AND p.status = 'CAPTURED') " +
+                    "FROM Reservation r JOIN r.room rm JOIN rm.category c " +
+                    "WHERE r.checkIn <= :to AND r.checkOut > :from", Object[].class)
+                    .setParameter("from", from)
+                    .setParameter("to", to)
+                    .setFetchSize(500)
+                    .stream()) {
+                rows.forEach(consumer);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Streams id, username, first and last name, room number, check-in, check-out, guest count,
+     * status and creation time for every reservation in id order, without materialising entities.
+     */
+    public void forEachExportRow(Consumer<Object[]> consumer) {
+        read(session -> {
+            try (Stream<Object[]> rows = session.createQuery(
+                    "SELECT r.id, u.username, u.firstName, u.lastName, rm.roomNumber, r.checkIn, r.checkOut, " +
+                    "r.guestCount, r.status, r.createdAt FROM Reservation r JOIN r.user u JOIN r.room rm ORDER BY r.id",
+                    Object[].class)
+                    .setFetchSize(500)
+                    .stream()) {
+                rows.forEach(consumer);
+                return null;
+            }
+        });
+    }
+
+    // Text terms go through id subqueries on users and rooms so each side can use its own
+    // prefix index instead of scanning the joined rows.
+    private static String pageFilter(ReservationSearchCriteria criteria, PageKey after) {
+        List<String> predicates = new ArrayList<>();
+        if (criteria != null && criteria.getPrefix() != null) {
+            predicates.add("(r.user.id IN (SELECT u.id FROM User u WHERE u.username LIKE :prefix ESCAPE '!' " +
+                    "OR u.firstName LIKE :prefix ESCAPE '!' OR u.lastName LIKE :prefix ESCAPE '!') " +
+                    "OR r.room.id IN (SELECT rm.id FROM Room rm WHERE rm.roomNumber LIKE :prefix ESCAPE '!')" +
+                    (criteria.getReservationId() != null ? " OR r.id = :reservationId)" : ")"));
+        }
+        if (criteria != null && criteria.getFrom() != null) {
+            predicates.add("r.checkOut >= :from");
+        }
+        if (criteria != null && criteria.getTo() != null) {
+            predicates.add("r.checkIn <= :to");
+        }
+        if (after != null) {
+            predicates.add("(r.checkIn < :afterCheckIn OR (r.checkIn = :afterCheckIn AND r.id < :afterId))");
+        }
+        return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    }
+
+    private static void bindPageFilter(Query<?> query, ReservationSearchCriteria criteria, PageKey after) {
+        if (criteria != null && criteria.getPrefix() != null) {
+            String escaped = criteria.getPrefix().replace("!", "!!").replace("%", "!%").replace("_", "!_");
+            query.setParameter("prefix", escaped + "%");
+            if (criteria.getReservationId() != null) {
+                query.setParameter("reservationId", criteria.getReservationId());
+            }
+        }
+        if (criteria != null && criteria.getFrom() != null) {
+            query.setParameter("from", criteria.getFrom());
+        }
+        if (criteria != null && criteria.getTo() != null) {
+            query.setParameter("to", criteria.getTo());
+        }
+        if (after != null) {
+            query.setParameter("afterCheckIn", after.checkIn());
+            query.setParameter("afterId", after.id());
+        }
+    }
+
+    /**
+     * Prices a stay in a room category.
+     */
+    @FunctionalInterface
+    public interface StayPricer {
+        double price(long categoryId, LocalDate checkIn, LocalDate checkOut);
+    }
+
+    /**
+     * Sort key of a reservation row, marking where the next page starts.
+     */
+    public record PageKey(LocalDate checkIn, long id) {
+        public static PageKey of(ReservationRow row) {
+            return new PageKey(row.checkIn(), row.id());
         }
     }
 
     public List<Reservation> findByDateRange(LocalDate start, LocalDate end) {
-        try (Session session = sessionFactory.openSession()) {
+        return read(session -> {
             Query<Reservation> query = session.createQuery(
-                    "FROM Reservation r LEFT JOIN FETCH r.user LEFT JOIN FETCH r.room " +
-                    "WHERE (r.checkIn <= :end AND r.checkOut >= :start) ORDER BY r.checkIn",
+                    "FROM Reservation r WHERE (r.checkIn <= :end AND r.checkOut >= :start) ORDER BY r.checkIn",
                     Reservation.class);
             query.setParameter("start", start);
             query.setParameter("end", end);
+            query.applyFetchGraph(session.getEntityGraph(Reservation.DETAILS_GRAPH));
             return query.getResultList();
-        }
+        });
     }
 
-    public void cancelReservation(long reservationId) {
-        Transaction transaction = null;
-        try (Session session = sessionFactory.openSession()) {
-            transaction = session.beginTransaction();
-            Reservation reservation = session.get(Reservation.class, reservationId);
-            if (reservation != null) {
-                reservation.setStatus("CANCELLED");
-                session.merge(reservation);
-            }
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw new IllegalStateException("Unable to cancel reservation", e);
+    /**
+     * Returns {@code [id, roomId, checkIn, checkOut]} for every CONFIRMED reservation due to
+     * arrive on or after {@code from} and before {@code until}, i.e. guests who never checked in.
+     */
+    public List<Object[]> findNoShows(LocalDate from, LocalDate until) {
+        return read(session -> session.createQuery(
+                "SELECT r.id, r.room.id, r.checkIn, r.checkOut FROM Reservation r " +
+                "WHERE r.status = 'CONFIRMED' AND r.checkIn >= :from AND r.checkIn < :until", Object[].class)
+                .setParameter("from", from)
+                .setParameter("until", until)
+                .getResultList());
+    }
+
+    /**
+     * Returns {@code [roomId, checkIn, checkOut]} for every stay still holding its room after the given date.
+     */
+    public List<Object[]> findOccupiedStays(LocalDate from) {
+        return read(session -> {
+            Query<Object[]> query = session.createQuery(
+                    "SELECT r.room.id, r.checkIn, r.checkOut FROM Reservation r " +
+                    "WHERE r.status NOT IN ('CANCELLED', 'CHECKED_OUT') AND r.checkOut > :from",
+                    Object[].class);
+            query.setParameter("from", from);
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * Cancels the reservation unless it is already cancelled or checked out; returns whether it did.
+     */
+    public boolean cancelReservation(long reservationId) {
+        return write("Unable to cancel reservation", session -> session.createMutationQuery(
+                "UPDATE Reservation r SET r.status = 'CANCELLED' " +
+                "WHERE r.id = :id AND r.status NOT IN ('CANCELLED', 'CHECKED_OUT')")
+                .setParameter("id", reservationId)
+                .executeUpdate() > 0);
+    }
+
+    /**
+     * Cancels those of the given reservations that are still CONFIRMED and returns their ids. The
+     * rows are locked as they are picked, so a guest checking in meanwhile either waits for the
+     * sweep or is already past it; the UPDATEs are set-based and load no entities.
+     */
+    public List<Long> cancelConfirmed(Collection<Long> reservationIds) {
+        if (reservationIds.isEmpty()) {
+            return List.of();
         }
+        return write("Unable to cancel reservation", session -> {
+            List<Long> cancelled = new ArrayList<>(reservationIds.size());
+            for (List<Long> ids : partition(reservationIds)) {
+                List<Long> confirmed = session.createQuery(
+                        "SELECT r.id FROM Reservation r WHERE r.id IN :ids AND r.status = 'CONFIRMED'", Long.class)
+                        .setParameter("ids", ids)
+                        .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                        .getResultList();
+                if (confirmed.isEmpty()) {
+                    continue;
+                }
+                int updated = session.createMutationQuery(
+                        "UPDATE Reservation r SET r.status = 'CANCELLED' WHERE r.id IN :ids AND r.status = 'CONFIRMED'")
+                        .setParameter("ids", confirmed)
+                        .executeUpdate();
+                if (updated != confirmed.size()) {
+                    throw new IllegalStateException("Reservations changed while they were being cancelled");
+                }
+                cancelled.addAll(confirmed);
+            }
+            return cancelled;
+        });
     }
 }
-
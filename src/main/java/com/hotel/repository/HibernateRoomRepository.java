@@ -1,142 +1,233 @@
 package com.hotel.repository;
 
-import com.hotel.config.HibernateUtil;
+import com.hotel.config.ReferenceDataCache;
 import com.hotel.model.Room;
 import com.hotel.model.RoomCategory;
 import org.hibernate.Session;
-import org.hibernate.SessionFactory;
-import org.hibernate.Transaction;
+import org.hibernate.jpa.SpecHints;
 import org.hibernate.query.Query;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
-public class HibernateRoomRepository {
-    private final SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
+public class HibernateRoomRepository extends HibernateRepository {
 
     public List<Room> findAll() {
-        try (Session session = sessionFactory.openSession()) {
-            Query<Room> query = session.createQuery("FROM Room r LEFT JOIN FETCH r.category", Room.class);
-            return query.getResultList();
-        }
+        return read(session -> {
+            Query<Room> query = session.createQuery("FROM Room r", Room.class);
+            return withCategory(session, query).getResultList();
+        });
     }
 
     public Optional<Room> findById(long id) {
-        try (Session session = sessionFactory.openSession()) {
-            Room room = session.get(Room.class, id);
-            if (room != null) {
-                room.getCategory();
-            }
-            return Optional.ofNullable(room);
-        }
+        return read(session -> Optional.ofNullable(session.find(Room.class, id,
+                Map.of(SpecHints.HINT_SPEC_FETCH_GRAPH, session.getEntityGraph(Room.WITH_CATEGORY_GRAPH)))));
     }
 
     public Optional<Room> findByRoomNumber(String roomNumber) {
-        try (Session session = sessionFactory.openSession()) {
-            Query<Room> query = session.createQuery("FROM Room r LEFT JOIN FETCH r.category WHERE r.roomNumber = :roomNumber", Room.class);
+        return read(session -> {
+            Query<Room> query = session.createQuery("FROM Room r WHERE r.roomNumber = :roomNumber", Room.class);
             query.setParameter("roomNumber", roomNumber);
-            return query.uniqueResultOptional();
-        }
+            return withCategory(session, query).uniqueResultOptional();
+        });
     }
 
     public List<Room> findAvailableRooms(LocalDate checkIn, LocalDate checkOut) {
-        try (Session session = sessionFactory.openSession()) {
-            String hql = "SELECT DISTINCT r FROM Room r LEFT JOIN FETCH r.category " +
-                    "WHERE r.status = 'AVAILABLE' " +
+        return read(session -> {
+            String hql = "FROM Room r WHERE r.status = 'AVAILABLE' " +
                     "AND r.id NOT IN (" +
                     "SELECT res.room.id FROM Reservation res " +
                     "WHERE res.status != 'CANCELLED' " +
-                    "AND ((res.checkIn <= :checkOut AND res.checkOut >= :checkIn))" +
+                    "AND res.checkIn < :checkOut AND res.checkOut > :checkIn" +
                     ")";
             Query<Room> query = session.createQuery(hql, Room.class);
             query.setParameter("checkIn", checkIn);
             query.setParameter("checkOut", checkOut);
-            return query.getResultList();
-        }
+            return withCategory(session, query).getResultList();
+        });
     }
 
     public List<Room> findByCategory(long categoryId) {
-        try (Session session = sessionFactory.openSession()) {
-            Query<Room> query = session.createQuery("FROM Room r LEFT JOIN FETCH r.category WHERE r.category.id = :categoryId", Room.class);
+        return read(session -> {
+            Query<Room> query = session.createQuery("FROM Room r WHERE r.category.id = :categoryId", Room.class);
             query.setParameter("categoryId", categoryId);
-            return query.getResultList();
-        }
+            return withCategory(session, query).getResultList();
+        });
     }
 
     public Room save(Room room) {
-        Transaction transaction = null;
-        try (Session session = sessionFactory.openSession()) {
-            transaction = session.beginTransaction();
+        return write("Unable to save room", session -> {
             session.persist(room);
-            transaction.commit();
             return room;
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw new IllegalStateException("Unable to save room", e);
-        }
+        });
     }
 
     public Room update(Room room) {
-        Transaction transaction = null;
-        try (Session session = sessionFactory.openSession()) {
-            transaction = session.beginTransaction();
+        return write("Unable to update room", session -> {
             session.merge(room);
-            transaction.commit();
             return room;
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
+        });
+    }
+
+    public void updateStatus(long roomId, String status) {
+        updateStatus(List.of(roomId), status);
+    }
+
+    /**
+     * Sets the status of the given rooms with set-based UPDATEs, without loading them first, and
+     * returns the number of rows changed. Rooms already loaded in the current unit of work keep
+     * their old status in memory.
+     */
+    public int updateStatus(Collection<Long> roomIds, String status) {
+        if (roomIds.isEmpty()) {
+            return 0;
+        }
+        return write("Unable to update room status", session -> {
+            int updated = 0;
+            for (List<Long> ids : partition(roomIds)) {
+                updated += session.createMutationQuery("UPDATE Room r SET r.status = :status WHERE r.id IN :ids")
+                        .setParameter("status", status)
+                        .setParameter("ids", ids)
+                        .executeUpdate();
             }
-            throw new IllegalStateException("Unable to update room", e);
+            return updated;
+        });
+    }
+
+    public List<Long> findIdsByFloor(int floor) {
+        return read(session -> session.createQuery("SELECT r.id FROM Room r WHERE r.floor = :floor", Long.class)
+                .setParameter("floor", floor)
+                .getResultList());
+    }
+
+    public List<Long> findIdsByCategory(long categoryId) {
+        return read(session -> session.createQuery("SELECT r.id FROM Room r WHERE r.category.id = :categoryId", Long.class)
+                .setParameter("categoryId", categoryId)
+                .getResultList());
+    }
+
+    /**
+     * Narrows {@code roomIds} to the rooms currently in {@code status}.
+     */
+    public List<Long> findIdsByStatus(Collection<Long> roomIds, String status) {
+        if (roomIds.isEmpty()) {
+            return List.of();
         }
+        return read(session -> {
+            List<Long> matching = new ArrayList<>();
+            for (List<Long> ids : partition(roomIds)) {
+                matching.addAll(session.createQuery(
+                        "SELECT r.id FROM Room r WHERE r.id IN :ids AND r.status = :status", Long.class)
+                        .setParameter("ids", ids)
+                        .setParameter("status", status)
+                        .getResultList());
+            }
+            return matching;
+        });
     }
 
-    public void updateStatus(long roomId, String status) {
-        Transaction transaction = null;
-        try (Session session = sessionFactory.openSession()) {
-            transaction = session.beginTransaction();
-            Room room = session.get(Room.class, roomId);
-            if (room != null) {
-                room.setStatus(status);
-                session.merge(room);
+    public Map<String, Long> countByStatus() {
+        return read(session -> {
+            Map<String, Long> counts = new HashMap<>();
+            for (Object[] row : session.createQuery(
+                    "SELECT r.status, COUNT(r) FROM Room r GROUP BY r.status", Object[].class).getResultList()) {
+                counts.put((String) row[0], (Long) row[1]);
             }
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
+            return counts;
+        });
+    }
+
+    public Map<Long, Long> countByCategory() {
+        return read(session -> {
+            Map<Long, Long> counts = new HashMap<>();
+            for (Object[] row : session.createQuery(
+                    "SELECT r.category.id, COUNT(r) FROM Room r GROUP BY r.category.id", Object[].class).getResultList()) {
+                counts.put((Long) row[0], (Long) row[1]);
             }
-            throw new IllegalStateException("Unable to update room status", e);
-        }
+            return counts;
+        });
+    }
+
+    /**
+     * Category ids by name, for resolving references in bulk imports.
+     */
+    public Map<String, Long> findCategoryIdsByName() {
+        return read(session -> {
+            Map<String, Long> ids = new HashMap<>();
+            for (Object[] row : session.createQuery("SELECT c.name, c.id FROM RoomCategory c", Object[].class).getResultList()) {
+                ids.put((String) row[0], (Long) row[1]);
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * Room ids by room number, for resolving references in bulk imports.
+     */
+    public Map<String, Long> findIdsByRoomNumber() {
+        return read(session -> {
+            Map<String, Long> ids = new HashMap<>();
+            for (Object[] row : session.createQuery("SELECT r.roomNumber, r.id FROM Room r", Object[].class).getResultList()) {
+                ids.put((String) row[0], (Long) row[1]);
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * Inserts new categories in one transaction, bypassing the persistence context. The caller
+     * evicts the category caches afterwards.
+     */
+    public void insertCategories(List<RoomCategory> categories, int batchSize) {
+        insertBatch("Unable to import categories", batchSize, session -> categories.forEach(session::insert));
+    }
+
+    /**
+     * Inserts new rooms in one transaction, bypassing the persistence context. Each room's
+     * category only needs its id set.
+     */
+    public void insertRooms(List<Room> rooms, int batchSize) {
+        insertBatch("Unable to import rooms", batchSize, session -> rooms.forEach(session::insert));
     }
 
     public List<RoomCategory> findAllCategories() {
-        try (Session session = sessionFactory.openSession()) {
-            return session.createQuery("FROM RoomCategory", RoomCategory.class).getResultList();
-        }
+        return read(session -> session.createQuery("FROM RoomCategory", RoomCategory.class)
+                .setCacheable(true)
+                .setCacheRegion(ReferenceDataCache.QUERIES)
+                .getResultList());
     }
 
     public Optional<RoomCategory> findCategoryById(long id) {
-        try (Session session = sessionFactory.openSession()) {
-            return Optional.ofNullable(session.get(RoomCategory.class, id));
-        }
+        return read(session -> Optional.ofNullable(session.get(RoomCategory.class, id)));
     }
 
+    /**
+     * Inserts a new category or updates the name, description and rate of an existing one, then
+     * evicts it from the second-level cache.
+     */
     public RoomCategory saveCategory(RoomCategory category) {
-        Transaction transaction = null;
-        try (Session session = sessionFactory.openSession()) {
-            transaction = session.beginTransaction();
-            session.persist(category);
-            transaction.commit();
-            return category;
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
+        return write("Unable to save category", session -> {
+            RoomCategory existing = category.getId() == 0 ? null : session.get(RoomCategory.class, category.getId());
+            if (existing == null) {
+                session.persist(category);
+            } else {
+                // Copy the editable fields rather than merging, so the detached rooms list is never cascaded
+                existing.setName(category.getName());
+                existing.setDescription(category.getDescription());
+                existing.setBaseRate(category.getBaseRate());
             }
-            throw new IllegalStateException("Unable to save category", e);
-        }
+            UnitOfWork.afterCommit(() -> ReferenceDataCache.evictRoomCategory(category.getId()));
+            return category;
+        });
     }
-}
 
+    private static Query<Room> withCategory(Session session, Query<Room> query) {
+        query.applyFetchGraph(session.getEntityGraph(Room.WITH_CATEGORY_GRAPH));
+        return query;
+    }
+}
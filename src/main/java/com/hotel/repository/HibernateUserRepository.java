@@ -1,165 +1,203 @@
 package com.hotel.repository;
 
-import com.hotel.config.HibernateUtil;
+import com.hotel.config.ReferenceDataCache;
 import com.hotel.model.PrivilegeEntity;
 import com.hotel.model.Role;
 import com.hotel.model.User;
-import org.hibernate.Session;
-import org.hibernate.SessionFactory;
-import org.hibernate.Transaction;
+import org.hibernate.jpa.SpecHints;
 import org.hibernate.query.Query;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
-public class HibernateUserRepository {
-    private final SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
+public class HibernateUserRepository extends HibernateRepository {
 
     public Optional<User> findByUsername(String username) {
-        try (Session session = sessionFactory.openSession()) {
-            Query<User> query = session.createQuery("FROM User u LEFT JOIN FETCH u.role LEFT JOIN FETCH u.privileges WHERE u.username = :username", User.class);
+        return read(session -> {
+            Query<User> query = session.createQuery("FROM User u WHERE u.username = :username", User.class);
             query.setParameter("username", username);
+            query.applyFetchGraph(session.getEntityGraph(User.PERMISSIONS_GRAPH));
             return query.uniqueResultOptional();
-        }
+        });
+    }
+
+    /**
+     * Id, password hash and active flag for a login check, in one narrow query.
+     */
+    public Optional<UserCredentials> findCredentials(String username) {
+        return read(session -> session.createQuery(
+                "SELECT new com.hotel.repository.UserCredentials(u.id, u.passwordHash, u.active) " +
+                "FROM User u WHERE u.username = :username", UserCredentials.class)
+                .setParameter("username", username)
+                .uniqueResultOptional());
     }
 
     public Optional<User> findById(long id) {
-        try (Session session = sessionFactory.openSession()) {
-            User user = session.get(User.class, id);
-            if (user != null) {
-                // Force loading of associations
-                user.getRole();
-                user.getPrivileges().size();
-            }
-            return Optional.ofNullable(user);
-        }
+        return read(session -> Optional.ofNullable(session.find(User.class, id,
+                Map.of(SpecHints.HINT_SPEC_FETCH_GRAPH, session.getEntityGraph(User.PERMISSIONS_GRAPH)))));
     }
 
+    /**
+     * All users with their role; individual privileges are left unloaded, use {@link #findById}
+     * to edit a user's access.
+     */
     public List<User> findAll() {
-        try (Session session = sessionFactory.openSession()) {
-            Query<User> query = session.createQuery("FROM User u LEFT JOIN FETCH u.role LEFT JOIN FETCH u.privileges", User.class);
+        return read(session -> {
+            Query<User> query = session.createQuery("FROM User u JOIN FETCH u.role", User.class);
             return query.getResultList();
-        }
+        });
+    }
+
+    /**
+     * User ids by username, for resolving references in bulk imports.
+     */
+    public Map<String, Long> findIdsByUsername() {
+        return read(session -> {
+            Map<String, Long> ids = new HashMap<>();
+            try (Stream<Object[]> rows = session.createQuery("SELECT u.username, u.id FROM User u", Object[].class)
+                    .setFetchSize(500)
+                    .stream()) {
+                rows.forEach(row -> ids.put((String) row[0], (Long) row[1]));
+            }
+            return ids;
+        });
+    }
+
+    public long count() {
+        return read(session -> session.createQuery("SELECT COUNT(u) FROM User u", Long.class).getSingleResult());
+    }
+
+    public long countActive() {
+        return read(session -> session.createQuery("SELECT COUNT(u) FROM User u WHERE u.active = true", Long.class).getSingleResult());
+    }
+
+    public long countRoles() {
+        return read(session -> session.createQuery("SELECT COUNT(r) FROM Role r", Long.class).getSingleResult());
+    }
+
+    /**
+     * Streams id, username, first and last name, email, role name, active flag and creation time
+     * for every user in id order. Password hashes are never selected.
+     */
+    public void forEachExportRow(Consumer<Object[]> consumer) {
+        read(session -> {
+            try (Stream<Object[]> rows = session.createQuery(
+                    "SELECT u.id, u.username, u.firstName, u.lastName, u.email, r.name, u.active, u.createdAt " +
+                    "FROM User u JOIN u.role r ORDER BY u.id", Object[].class)
+                    .setFetchSize(500)
+                    .stream()) {
+                rows.forEach(consumer);
+                return null;
+            }
+        });
     }
 
     public User save(User user) {
-        Transaction transaction = null;
-        try (Session session = sessionFactory.openSession()) {
-            transaction = session.beginTransaction();
+        return write("Unable to save user", session -> {
             session.persist(user);
-            transaction.commit();
             return user;
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw new IllegalStateException("Unable to save user", e);
-        }
+        });
     }
 
     public User update(User user) {
-        Transaction transaction = null;
-        try (Session session = sessionFactory.openSession()) {
-            transaction = session.beginTransaction();
+        return write("Unable to update user", session -> {
             session.merge(user);
-            transaction.commit();
             return user;
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw new IllegalStateException("Unable to update user", e);
-        }
+        });
     }
 
     public void updateRole(long userId, Role role) {
-        Transaction transaction = null;
-        try (Session session = sessionFactory.openSession()) {
-            transaction = session.beginTransaction();
+        execute("Unable to update role", session -> {
             User user = session.get(User.class, userId);
             if (user != null) {
                 user.setRole(role);
                 session.merge(user);
             }
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw new IllegalStateException("Unable to update role", e);
-        }
+        });
     }
 
     public void updateUserPrivileges(long userId, Set<PrivilegeEntity> privileges) {
-        Transaction transaction = null;
-        try (Session session = sessionFactory.openSession()) {
-            transaction = session.beginTransaction();
+        execute("Unable to update privileges", session -> {
             User user = session.get(User.class, userId);
             if (user != null) {
                 user.setPrivileges(privileges);
                 session.merge(user);
             }
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw new IllegalStateException("Unable to update privileges", e);
-        }
+        });
     }
 
     public Role findRoleByName(String roleName) {
-        try (Session session = sessionFactory.openSession()) {
+        return read(session -> {
             Query<Role> query = session.createQuery("FROM Role WHERE name = :name", Role.class);
             query.setParameter("name", roleName);
+            cacheReferenceQuery(query);
             return query.uniqueResult();
-        }
+        });
     }
 
     public List<Role> findAllRoles() {
-        try (Session session = sessionFactory.openSession()) {
-            return session.createQuery("FROM Role", Role.class).getResultList();
-        }
+        return read(session -> {
+            List<Role> roles = cacheReferenceQuery(session.createQuery("FROM Role", Role.class)).getResultList();
+            // Each role's privileges come from the collection cache once warm
+            roles.forEach(role -> role.getPrivileges().size());
+            return roles;
+        });
     }
 
     public PrivilegeEntity findPrivilegeByCode(String code) {
-        try (Session session = sessionFactory.openSession()) {
+        return read(session -> {
             Query<PrivilegeEntity> query = session.createQuery("FROM PrivilegeEntity WHERE code = :code", PrivilegeEntity.class);
             query.setParameter("code", code);
+            cacheReferenceQuery(query);
             return query.uniqueResult();
-        }
+        });
     }
 
     public List<PrivilegeEntity> findAllPrivileges() {
-        try (Session session = sessionFactory.openSession()) {
-            return session.createQuery("FROM PrivilegeEntity", PrivilegeEntity.class).getResultList();
+        return read(session -> cacheReferenceQuery(session.createQuery("FROM PrivilegeEntity", PrivilegeEntity.class)).getResultList());
+    }
+
+    /**
+     * Looks up several privileges in one query; unknown codes are skipped.
+     */
+    public Set<PrivilegeEntity> findPrivilegesByCodes(Collection<String> codes) {
+        if (codes == null || codes.isEmpty()) {
+            return new HashSet<>();
         }
+        return read(session -> {
+            Query<PrivilegeEntity> query = session.createQuery("FROM PrivilegeEntity WHERE code IN :codes", PrivilegeEntity.class);
+            query.setParameter("codes", codes);
+            return new HashSet<>(cacheReferenceQuery(query).getResultList());
+        });
     }
     
     public Role findRoleById(long roleId) {
-        try (Session session = sessionFactory.openSession()) {
+        return read(session -> {
             Role role = session.get(Role.class, roleId);
             if (role != null) {
                 // Force loading of privileges
                 role.getPrivileges().size();
             }
             return role;
-        }
+        });
     }
     
     public void updateRole(Role role) {
-        Transaction transaction = null;
-        try (Session session = sessionFactory.openSession()) {
-            transaction = session.beginTransaction();
+        execute("Unable to update role", session -> {
             session.merge(role);
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw new IllegalStateException("Unable to update role", e);
-        }
+            UnitOfWork.afterCommit(() -> ReferenceDataCache.evictRole(role.getId()));
+        });
     }
-}
 
+    // Roles and privileges change rarely, so lookups are answered from the query cache
+    private static <T> Query<T> cacheReferenceQuery(Query<T> query) {
+        return query.setCacheable(true).setCacheRegion(ReferenceDataCache.QUERIES);
+    }
+}
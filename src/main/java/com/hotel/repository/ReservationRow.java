@@ -0,0 +1,16 @@
+package com.hotel.repository;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * One line of the receptionist reservation table: just the columns it renders, selected straight
+ * from the reservation, guest and room rows without building entities.
+ */
+public record ReservationRow(long id, String username, String firstName, String lastName, String roomNumber,
+                             LocalDate checkIn, LocalDate checkOut, int guestCount, String status) {
+
+    public String displayName() {
+        return (Objects.toString(firstName, "") + " " + Objects.toString(lastName, "")).trim();
+    }
+}
@@ -0,0 +1,86 @@
+package com.hotel.repository;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Filter for the receptionist reservation search. Text terms are matched as prefixes against the
+ * guest's username, first and last name and the room number, and a numeric term also matches the
+ * reservation id exactly; an optional date range keeps stays that overlap it.
+ */
+public class ReservationSearchCriteria {
+    private static final String RANGE_SEPARATOR = "..";
+
+    private String prefix;
+    private Long reservationId;
+    private LocalDate from;
+    private LocalDate to;
+
+    /**
+     * Interprets the search box: {@code 2024-12-25} or {@code 2024-12-01..2024-12-31} searches by
+     * stay dates, anything else is a prefix (and, when numeric, a reservation id).
+     */
+    public static ReservationSearchCriteria parse(String input) {
+        ReservationSearchCriteria criteria = new ReservationSearchCriteria();
+        if (input == null || input.isBlank()) {
+            return criteria;
+        }
+        String term = input.trim();
+        try {
+            int separator = term.indexOf(RANGE_SEPARATOR);
+            if (separator > 0) {
+                criteria.setDateRange(LocalDate.parse(term.substring(0, separator).trim()),
+                        LocalDate.parse(term.substring(separator + RANGE_SEPARATOR.length()).trim()));
+                return criteria;
+            }
+            if (term.length() == 10 && Character.isDigit(term.charAt(0)) && term.charAt(4) == '-') {
+                LocalDate day = LocalDate.parse(term);
+                criteria.setDateRange(day, day);
+                return criteria;
+            }
+        } catch (DateTimeParseException e) {
+            // Not a date after all; fall through to a text search
+        }
+        criteria.setPrefix(term);
+        if (term.chars().allMatch(Character::isDigit) && term.length() < 19) {
+            criteria.setReservationId(Long.parseLong(term));
+        }
+        return criteria;
+    }
+
+    public boolean isEmpty() {
+        return prefix == null && reservationId == null && from == null && to == null;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix == null || prefix.isBlank() ? null : prefix.trim();
+    }
+
+    public Long getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(Long reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setDateRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        this.from = from;
+        this.to = to;
+    }
+}
@@ -0,0 +1,21 @@
+package com.hotel.repository;
+
+import com.hotel.model.Room;
+
+/**
+ * What a room card in the customer catalogue shows: the room's own columns plus its category
+ * id, name and nightly base rate. Immutable, so the room search index can hand the same card to every caller.
+ */
+public record RoomCard(long id, String roomNumber, int floor, int capacity, String viewType, String status,
+                       String photoUrl, String description, long categoryId, String categoryName, double nightlyRate) {
+
+    /**
+     * Card for a room that is already loaded with its category.
+     */
+    public static RoomCard of(Room room) {
+        return new RoomCard(room.getId(), room.getRoomNumber(), room.getFloor(), room.getCapacity(), room.getViewType(),
+                room.getStatus(), room.getPhotoUrl(), room.getDescription(),
+                room.getCategory() != null ? room.getCategory().getId() : 0,
+                room.getCategory() != null ? room.getCategory().getName() : null, room.getNightlyRate());
+    }
+}
@@ -0,0 +1,125 @@
+package com.hotel.repository;
+
+import com.hotel.config.HibernateUtil;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * One session and one transaction shared by every repository call made on the current thread
+ * while it is open. Repository methods called outside a unit open a short one of their own, so a
+ * service only needs this to make several calls atomic, e.g. a status change together with the
+ * room update it implies. Nested units join the outermost one.
+ *
+ * <p>Read-only units skip flushing and dirty-checking snapshots and mark the JDBC connection
+ * read-only, which lets the database skip its write bookkeeping.
+ */
+public final class UnitOfWork {
+    private static final Logger LOG = LoggerFactory.getLogger(UnitOfWork.class);
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private final Session session;
+    private final boolean readOnly;
+    private final List<Runnable> afterCommit = new ArrayList<>();
+
+    private UnitOfWork(Session session, boolean readOnly) {
+        this.session = session;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Runs {@code work} in a read-write transaction, committing it if this is the outermost unit.
+     */
+    public static <T> T run(Supplier<T> work) {
+        return execute(false, work);
+    }
+
+    public static void run(Runnable work) {
+        execute(false, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs {@code work} in a read-only transaction, or in the current unit if there is one.
+     */
+    public static <T> T read(Supplier<T> work) {
+        return execute(true, work);
+    }
+
+    /**
+     * Defers {@code action} until the outermost unit commits; it is dropped if the unit rolls
+     * back. Outside a unit it runs straight away. Used for caches and counters that must only
+     * see committed changes. A deferred action that throws is logged and the rest still run: the
+     * work has committed by then, so its caller must not see it fail.
+     */
+    public static void afterCommit(Runnable action) {
+        UnitOfWork unit = CURRENT.get();
+        if (unit == null) {
+            action.run();
+        } else {
+            unit.afterCommit.add(action);
+        }
+    }
+
+    static Session currentSession(boolean write) {
+        UnitOfWork unit = CURRENT.get();
+        if (unit == null) {
+            throw new IllegalStateException("No unit of work is open on this thread");
+        }
+        if (write && unit.readOnly) {
+            throw new IllegalStateException("Cannot write inside a read-only unit of work");
+        }
+        return unit.session;
+    }
+
+    private static <T> T execute(boolean readOnly, Supplier<T> work) {
+        UnitOfWork current = CURRENT.get();
+        if (current != null) {
+            if (current.readOnly && !readOnly) {
+                throw new IllegalStateException("Cannot write inside a read-only unit of work");
+            }
+            return work.get();
+        }
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            UnitOfWork unit = new UnitOfWork(session, readOnly);
+            if (readOnly) {
+                session.setDefaultReadOnly(true);
+                session.setHibernateFlushMode(FlushMode.MANUAL);
+            }
+            Transaction transaction = session.beginTransaction();
+            CURRENT.set(unit);
+            T result;
+            try {
+                if (readOnly) {
+                    // The pool resets the flag when the connection is returned
+                    session.doWork(connection -> connection.setReadOnly(true));
+                }
+                result = work.get();
+                transaction.commit();
+            } catch (RuntimeException | Error e) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw e;
+            } finally {
+                CURRENT.remove();
+            }
+            for (Runnable action : unit.afterCommit) {
+                try {
+                    action.run();
+                } catch (RuntimeException e) {
+                    LOG.error("After-commit action failed", e);
+                }
+            }
+            return result;
+        }
+    }
+}
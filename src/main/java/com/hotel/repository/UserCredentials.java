@@ -0,0 +1,7 @@
+package com.hotel.repository;
+
+/**
+ * What a login check reads, selected without loading the user's role or privileges.
+ */
+public record UserCredentials(long id, String passwordHash, boolean active) {
+}
@@ -1,35 +1,71 @@
 package com.hotel.service;
 
-import com.hotel.config.DatabaseManager;
+import com.hotel.model.DailyStats;
+import com.hotel.repository.HibernateDailyStatsRepository;
 
-import java.sql.Connection;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
+import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class AnalyticsService {
-    private final DatabaseManager databaseManager = DatabaseManager.getInstance();
+    private final DashboardMetrics dashboardMetrics;
+    private final HibernateDailyStatsRepository dailyStatsRepository;
+
+    public AnalyticsService() {
+        this(DashboardMetrics.getInstance(), new HibernateDailyStatsRepository());
+    }
+
+    public AnalyticsService(DashboardMetrics dashboardMetrics, HibernateDailyStatsRepository dailyStatsRepository) {
+        this.dashboardMetrics = dashboardMetrics;
+        this.dailyStatsRepository = dailyStatsRepository;
+    }
 
     public Map<String, Number> getDashboardMetrics() {
+        DashboardMetrics.Snapshot snapshot = dashboardMetrics.snapshot();
         Map<String, Number> metrics = new HashMap<>();
-        String summarySql = "SELECT " +
-                "(SELECT COUNT(*) FROM rooms) AS total_rooms, " +
-                "(SELECT COUNT(*) FROM rooms WHERE status IN ('RESERVED','OCCUPIED')) AS busy_rooms, " +
-                "(SELECT COUNT(*) FROM reservations WHERE reservation_status='CONFIRMED') AS active_reservations";
-        try (Connection connection = databaseManager.getConnection(); Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(summarySql)) {
-            if (rs.next()) {
-                int totalRooms = rs.getInt("total_rooms");
-                int busy = rs.getInt("busy_rooms");
-                metrics.put("totalRooms", totalRooms);
-                metrics.put("busyRooms", busy);
-                metrics.put("occupancy", totalRooms == 0 ? 0 : (busy * 100.0) / totalRooms);
-                metrics.put("activeReservations", rs.getInt("active_reservations"));
-            }
-        } catch (SQLException e) {
-            throw new IllegalStateException("Unable to fetch dashboard metrics", e);
-        }
+        long totalRooms = snapshot.totalRooms();
+        long busy = snapshot.rooms("RESERVED") + snapshot.rooms("OCCUPIED");
+        metrics.put("totalRooms", totalRooms);
+        metrics.put("busyRooms", busy);
+        metrics.put("occupancy", totalRooms == 0 ? 0 : (busy * 100.0) / totalRooms);
+        metrics.put("activeReservations", snapshot.reservations("CONFIRMED"));
         return metrics;
     }
+
+    /**
+     * Audited nights in the range, one row per night and room category.
+     */
+    public List<DailyStats> getDailyStats(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return dailyStatsRepository.findRange(from, to);
+    }
+
+    /**
+     * Totals for the range from the nightly rollup: rooms sold, revenue, average daily rate,
+     * occupancy and cancellations. Nights not yet audited (today onwards) are not included.
+     */
+    public Map<String, Number> getRangeMetrics(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        Object[] totals = dailyStatsRepository.sumRange(from, to);
+        long roomsAvailable = ((Number) totals[0]).longValue();
+        long roomsSold = ((Number) totals[1]).longValue();
+        double revenue = ((Number) totals[2]).doubleValue();
+        Map<String, Number> metrics = new HashMap<>();
+        metrics.put("roomsSold", roomsSold);
+        metrics.put("revenue", revenue);
+        metrics.put("averageDailyRate", roomsSold == 0 ? 0 : revenue / roomsSold);
+        metrics.put("occupancy", roomsAvailable == 0 ? 0 : (roomsSold * 100.0) / roomsAvailable);
+        metrics.put("cancellations", ((Number) totals[3]).longValue());
+        return metrics;
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Both dates are required");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+    }
 }
@@ -2,21 +2,49 @@ package com.hotel.service;
 
 import com.hotel.model.User;
 import com.hotel.repository.HibernateUserRepository;
+import com.hotel.repository.UserCredentials;
 
 import java.util.Optional;
 
 public class AuthService {
     private final HibernateUserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principals;
 
     public AuthService(HibernateUserRepository userRepository, PasswordEncoder passwordEncoder) {
+        this(userRepository, passwordEncoder, PrincipalCache.getInstance());
+    }
+
+    public AuthService(HibernateUserRepository userRepository, PasswordEncoder passwordEncoder, PrincipalCache principals) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.principals = principals;
     }
 
+    /**
+     * Checks the password against the cached principal if there is one, otherwise against the
+     * user's stored hash alone; the full user with role and privileges is only loaded once the
+     * password matches, and its permissions are resolved before it is handed out.
+     */
     public Optional<User> authenticate(String username, String password) {
-        return userRepository.findByUsername(username)
-                .filter(user -> user.isActive())
-                .filter(user -> user.getPasswordHash().equals(passwordEncoder.encode(password)));
+        if (username == null || password == null) {
+            return Optional.empty();
+        }
+        PrincipalCache.Entry cached = principals.get(username);
+        if (cached != null) {
+            return passwordEncoder.matches(password, cached.passwordHash()) ? Optional.of(cached.user()) : Optional.empty();
+        }
+        Optional<UserCredentials> credentials = userRepository.findCredentials(username)
+                .filter(UserCredentials::active)
+                .filter(candidate -> passwordEncoder.matches(password, candidate.passwordHash()));
+        if (credentials.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<User> user = userRepository.findById(credentials.get().id()).filter(User::isActive);
+        user.ifPresent(principal -> {
+            principal.resolvePermissions();
+            principals.put(username, principal);
+        });
+        return user;
     }
 }
@@ -0,0 +1,501 @@
+package com.hotel.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.config.ReferenceDataCache;
+import com.hotel.model.Reservation;
+import com.hotel.model.Room;
+import com.hotel.model.RoomCategory;
+import com.hotel.model.User;
+import com.hotel.repository.HibernateReservationRepository;
+import com.hotel.repository.HibernateRoomRepository;
+import com.hotel.repository.HibernateUserRepository;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.stream.IntStream;
+
+/**
+ * Loads categories, rooms or historical reservations from CSV or JSON Lines files, e.g. when
+ * onboarding a property. The file is read as a stream in chunks of {@link #batchSize} rows; each
+ * chunk is validated in parallel and its valid rows are inserted in one batched transaction, so
+ * memory stays flat and a failure loses at most one chunk. Column names match what
+ * {@link ReportExporter} writes, so a reservation export can be loaded into another database.
+ *
+ * <p>Rows that fail validation are skipped and listed, with their line and reason, in a CSV
+ * rejection report written next to the source file. Reservations are loaded as recorded: there
+ * is no availability check against existing stays.
+ */
+public class BulkImporter {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final Set<String> ROOM_STATUSES = Set.of("AVAILABLE", "RESERVED", "OCCUPIED");
+    private static final Set<String> RESERVATION_STATUSES =
+            Set.of("PENDING", "CONFIRMED", "CHECKED_IN", "CHECKED_OUT", "CANCELLED");
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    public enum Dataset {
+        CATEGORIES("name", "description", "base_rate"),
+        ROOMS("room_number", "category", "floor", "capacity", "view_type", "status", "photo_url", "description"),
+        RESERVATIONS("username", "room_number", "check_in", "check_out", "guest_count", "status", "created_at");
+
+        private final String[] columns;
+
+        Dataset(String... columns) {
+            this.columns = columns;
+        }
+
+        /**
+         * The columns a file for this dataset may contain; unknown columns are ignored.
+         */
+        public String[] columns() {
+            return columns.clone();
+        }
+    }
+
+    public record Result(long imported, long rejected, Path rejectionReport) {
+    }
+
+    private final HibernateRoomRepository roomRepository;
+    private final HibernateReservationRepository reservationRepository;
+    private final HibernateUserRepository userRepository;
+    private final int batchSize;
+
+    public BulkImporter() {
+        this(new HibernateRoomRepository(), new HibernateReservationRepository(), new HibernateUserRepository(),
+                DEFAULT_BATCH_SIZE);
+    }
+
+    public BulkImporter(HibernateRoomRepository roomRepository, HibernateReservationRepository reservationRepository,
+                        HibernateUserRepository userRepository, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.roomRepository = roomRepository;
+        this.reservationRepository = reservationRepository;
+        this.userRepository = userRepository;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports {@code source}, read as JSON Lines if its name ends in {@code .jsonl} and as CSV with
+     * a header row otherwise. Chunks committed before a cancellation or failure stay imported.
+     *
+     * @throws CancellationException if the listener cancelled the import
+     */
+    public Result importFile(Dataset dataset, Path source, ProgressListener listener) throws IOException {
+        Path report = source.resolveSibling(source.getFileName() + ".rejected.csv");
+        Validator validator = validator(dataset);
+        long imported = 0;
+        long rejected = 0;
+        long processed = 0;
+        try (RowReader reader = source.getFileName().toString().endsWith(".jsonl")
+                ? new JsonLinesReader(Files.newBufferedReader(source, StandardCharsets.UTF_8))
+                : new CsvReader(Files.newBufferedReader(source, StandardCharsets.UTF_8));
+             BufferedWriter rejections = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+            rejections.write("line,reason\r\n");
+            List<Row> chunk = reader.next(batchSize);
+            while (!chunk.isEmpty()) {
+                if (listener.isCancelled()) {
+                    throw new CancellationException("Import cancelled");
+                }
+                List<Row> rows = chunk;
+                List<Object> checked = IntStream.range(0, rows.size())
+                        .parallel()
+                        .mapToObj(i -> validator.check(rows.get(i).values()))
+                        .toList();
+                List<Object> accepted = new ArrayList<>(rows.size());
+                for (int i = 0; i < rows.size(); i++) {
+                    Object outcome = checked.get(i);
+                    String reason = outcome instanceof String message ? message : validator.claim(outcome);
+                    if (reason == null) {
+                        accepted.add(outcome);
+                    } else {
+                        rejections.write(rows.get(i).line() + "," + csvValue(reason) + "\r\n");
+                        rejected++;
+                    }
+                }
+                validator.insert(accepted);
+                imported += accepted.size();
+                processed += rows.size();
+                listener.rowsProcessed(processed);
+                chunk = reader.next(batchSize);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            if (imported > 0) {
+                refreshCaches(dataset);
+            }
+        }
+        if (rejected == 0) {
+            Files.deleteIfExists(report);
+            report = null;
+        }
+        return new Result(imported, rejected, report);
+    }
+
+    private void refreshCaches(Dataset dataset) {
+        if (dataset == Dataset.CATEGORIES) {
+            ReferenceDataCache.evictRoomCategories();
+        }
+        RoomAvailabilityCalendar.getInstance().rebuild();
+        RoomSearchIndex.getInstance().rebuild();
+        if (dataset == Dataset.CATEGORIES) {
+            RateEngine.getInstance().rebuild();
+        }
+        DashboardMetrics.getInstance().invalidate();
+    }
+
+    private Validator validator(Dataset dataset) {
+        return switch (dataset) {
+            case CATEGORIES -> new CategoryValidator(roomRepository.findCategoryIdsByName().keySet());
+            case ROOMS -> new RoomValidator(roomRepository.findCategoryIdsByName(), roomRepository.findIdsByRoomNumber().keySet());
+            case RESERVATIONS -> new ReservationValidator(userRepository.findIdsByUsername(), roomRepository.findIdsByRoomNumber());
+        };
+    }
+
+    /**
+     * Turns one row into an entity, or into the reason it was rejected. {@link #check} runs in
+     * parallel and only reads the lookups loaded up front; {@link #claim} runs in file order and
+     * catches duplicates within the file.
+     */
+    private abstract class Validator {
+        abstract Object check(Map<String, String> values);
+
+        String claim(Object entity) {
+            return null;
+        }
+
+        abstract void insert(List<Object> entities);
+    }
+
+    private class CategoryValidator extends Validator {
+        private final Set<String> names;
+
+        CategoryValidator(Set<String> existing) {
+            this.names = new HashSet<>(existing);
+        }
+
+        @Override
+        Object check(Map<String, String> values) {
+            String name = values.get("name");
+            if (name == null) {
+                return "name is required";
+            }
+            if (names.contains(name)) {
+                return "category " + name + " already exists";
+            }
+            Double rate = parseDouble(values.get("base_rate"));
+            if (rate == null || rate <= 0) {
+                return "base_rate must be a positive number";
+            }
+            RoomCategory category = new RoomCategory();
+            category.setName(name);
+            category.setDescription(values.get("description"));
+            category.setBaseRate(rate);
+            return category;
+        }
+
+        @Override
+        String claim(Object entity) {
+            String name = ((RoomCategory) entity).getName();
+            return names.add(name) ? null : "category " + name + " appears more than once";
+        }
+
+        @Override
+        void insert(List<Object> entities) {
+            roomRepository.insertCategories(entities.stream().map(RoomCategory.class::cast).toList(), batchSize);
+        }
+    }
+
+    private class RoomValidator extends Validator {
+        private final Map<String, Long> categoryIds;
+        private final Set<String> roomNumbers;
+
+        RoomValidator(Map<String, Long> categoryIds, Set<String> existing) {
+            this.categoryIds = categoryIds;
+            this.roomNumbers = new HashSet<>(existing);
+        }
+
+        @Override
+        Object check(Map<String, String> values) {
+            String roomNumber = values.get("room_number");
+            if (roomNumber == null) {
+                return "room_number is required";
+            }
+            if (roomNumbers.contains(roomNumber)) {
+                return "room " + roomNumber + " already exists";
+            }
+            Long categoryId = categoryIds.get(values.get("category"));
+            if (categoryId == null) {
+                return "unknown category " + values.get("category");
+            }
+            Integer floor = parseInt(values.get("floor"));
+            if (floor == null) {
+                return "floor must be a whole number";
+            }
+            Integer capacity = values.containsKey("capacity") ? parseInt(values.get("capacity")) : Integer.valueOf(Room.DEFAULT_CAPACITY);
+            if (capacity == null || capacity < 1) {
+                return "capacity must be at least 1";
+            }
+            String status = values.getOrDefault("status", "AVAILABLE").toUpperCase();
+            if (!ROOM_STATUSES.contains(status)) {
+                return "unknown room status " + status;
+            }
+            RoomCategory category = new RoomCategory();
+            category.setId(categoryId);
+            Room room = new Room();
+            room.setRoomNumber(roomNumber);
+            room.setCategory(category);
+            room.setFloor(floor);
+            room.setCapacity(capacity);
+            room.setViewType(values.get("view_type"));
+            room.setStatus(status);
+            room.setPhotoUrl(values.get("photo_url"));
+            room.setDescription(values.get("description"));
+            return room;
+        }
+
+        @Override
+        String claim(Object entity) {
+            String roomNumber = ((Room) entity).getRoomNumber();
+            return roomNumbers.add(roomNumber) ? null : "room " + roomNumber + " appears more than once";
+        }
+
+        @Override
+        void insert(List<Object> entities) {
+            roomRepository.insertRooms(entities.stream().map(Room.class::cast).toList(), batchSize);
+        }
+    }
+
+    private class ReservationValidator extends Validator {
+        private final Map<String, Long> userIds;
+        private final Map<String, Long> roomIds;
+
+        ReservationValidator(Map<String, Long> userIds, Map<String, Long> roomIds) {
+            this.userIds = userIds;
+            this.roomIds = roomIds;
+        }
+
+        @Override
+        Object check(Map<String, String> values) {
+            Long userId = userIds.get(values.get("username"));
+            if (userId == null) {
+                return "unknown user " + values.get("username");
+            }
+            Long roomId = roomIds.get(values.get("room_number"));
+            if (roomId == null) {
+                return "unknown room " + values.get("room_number");
+            }
+            LocalDate checkIn;
+            LocalDate checkOut;
+            LocalDateTime createdAt;
+            try {
+                checkIn = LocalDate.parse(values.getOrDefault("check_in", ""));
+                checkOut = LocalDate.parse(values.getOrDefault("check_out", ""));
+                createdAt = values.containsKey("created_at") ? LocalDateTime.parse(values.get("created_at")) : LocalDateTime.now();
+            } catch (DateTimeParseException e) {
+                return "invalid date: " + e.getParsedString();
+            }
+            if (!checkOut.isAfter(checkIn)) {
+                return "check_out must be after check_in";
+            }
+            Integer guests = values.containsKey("guest_count") ? parseInt(values.get("guest_count")) : Integer.valueOf(1);
+            if (guests == null || guests < 1) {
+                return "guest_count must be at least 1";
+            }
+            String status = values.getOrDefault("status", "CHECKED_OUT").toUpperCase();
+            if (!RESERVATION_STATUSES.contains(status)) {
+                return "unknown reservation status " + status;
+            }
+            Room room = new Room();
+            room.setId(roomId);
+            User user = new User();
+            user.setId(userId);
+            Reservation reservation = new Reservation();
+            reservation.setUser(user);
+            reservation.setRoom(room);
+            reservation.setCheckIn(checkIn);
+            reservation.setCheckOut(checkOut);
+            reservation.setGuestCount(guests);
+            reservation.setStatus(status);
+            reservation.setCreatedAt(createdAt);
+            return reservation;
+        }
+
+        @Override
+        void insert(List<Object> entities) {
+            reservationRepository.insertAll(entities.stream().map(Reservation.class::cast).toList(), batchSize);
+        }
+    }
+
+    private static Integer parseInt(String value) {
+        try {
+            return value == null ? null : Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Double parseDouble(String value) {
+        try {
+            return value == null ? null : Double.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String csvValue(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /** One data row with its line number in the source file; blank values are left out. */
+    private record Row(long line, Map<String, String> values) {
+    }
+
+    private interface RowReader extends Closeable {
+        /** Reads up to {@code count} rows; an empty list means the end of the file. */
+        List<Row> next(int count) throws IOException;
+    }
+
+    /**
+     * RFC 4180 CSV with a header row; quoted values may contain commas, doubled quotes and line
+     * breaks.
+     */
+    private static final class CsvReader implements RowReader {
+        private final BufferedReader reader;
+        private final List<String> header;
+        private long line;
+
+        CsvReader(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            List<String> names = readRecord();
+            this.header = names == null ? List.of() : names.stream().map(String::trim).toList();
+        }
+
+        @Override
+        public List<Row> next(int count) throws IOException {
+            List<Row> rows = new ArrayList<>(count);
+            while (rows.size() < count) {
+                long start = line + 1;
+                List<String> record = readRecord();
+                if (record == null) {
+                    break;
+                }
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                Map<String, String> values = new LinkedHashMap<>();
+                for (int i = 0; i < Math.min(header.size(), record.size()); i++) {
+                    String value = record.get(i).trim();
+                    if (!value.isEmpty()) {
+                        values.put(header.get(i), value);
+                    }
+                }
+                rows.add(new Row(start, values));
+            }
+            return rows;
+        }
+
+        private List<String> readRecord() throws IOException {
+            String text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                for (int i = 0; i < text.length(); i++) {
+                    char c = text.charAt(i);
+                    if (quoted) {
+                        if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                            field.append('"');
+                            i++;
+                        } else if (c == '"') {
+                            quoted = false;
+                        } else {
+                            field.append(c);
+                        }
+                    } else if (c == '"') {
+                        quoted = true;
+                    } else if (c == ',') {
+                        fields.add(field.toString());
+                        field.setLength(0);
+                    } else {
+                        field.append(c);
+                    }
+                }
+                if (!quoted) {
+                    break;
+                }
+                text = reader.readLine();
+                if (text == null) {
+                    break;
+                }
+                line++;
+                field.append('\n');
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /** One JSON object per line, read with Jackson's streaming parser. */
+    private static final class JsonLinesReader implements RowReader {
+        private final MappingIterator<Map<String, Object>> objects;
+
+        JsonLinesReader(Reader reader) throws IOException {
+            this.objects = JSON.readerForMapOf(Object.class).readValues(reader);
+        }
+
+        @Override
+        public List<Row> next(int count) {
+            List<Row> rows = new ArrayList<>(count);
+            try {
+                while (rows.size() < count && objects.hasNextValue()) {
+                    long line = objects.getCurrentLocation().getLineNr();
+                    Map<String, String> values = new HashMap<>();
+                    objects.nextValue().forEach((name, value) -> {
+                        if (value != null && !value.toString().isBlank()) {
+                            values.put(name, value.toString().trim());
+                        }
+                    });
+                    rows.add(new Row(line, values));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return rows;
+        }
+
+        @Override
+        public void close() throws IOException {
+            objects.close();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.hotel.service;
+
+import com.hotel.model.Reservation;
+import com.hotel.model.Room;
+import com.hotel.repository.HibernatePaymentRepository;
+import com.hotel.repository.HibernateReservationRepository;
+import com.hotel.repository.HibernateRoomRepository;
+import com.hotel.repository.HibernateUserRepository;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Running totals behind the dashboard stat cards and reports. The counters are loaded with a few
+ * aggregate queries and then adjusted by the services on every booking, status change, payment and
+ * user change, so reading them never touches the database.
+ *
+ * <p>Changes made by other application instances are picked up when the totals are reloaded,
+ * which happens on {@link #refresh()} and at the latest {@link #RELOAD_AFTER} after the last load.
+ */
+public class DashboardMetrics {
+    static final Duration RELOAD_AFTER = Duration.ofMinutes(10);
+    private static final Set<String> REVENUE_STATUSES = Set.of("CONFIRMED", "CHECKED_OUT");
+    private static final Set<String> ACTIVE_STATUSES = Set.of("CONFIRMED", "CHECKED_IN");
+    private static final String CAPTURED = "CAPTURED";
+    private static DashboardMetrics instance;
+
+    private final HibernateReservationRepository reservationRepository;
+    private final HibernateRoomRepository roomRepository;
+    private final HibernatePaymentRepository paymentRepository;
+    private final HibernateUserRepository userRepository;
+    private final RateEngine rateEngine;
+
+    private final Map<String, Long> reservationsByStatus = new HashMap<>();
+    private final Map<String, Double> stayValueByStatus = new HashMap<>();
+    private final Map<Long, String> roomStatuses = new HashMap<>();
+    private final Map<String, Long> roomsByStatus = new HashMap<>();
+    private long capturedPayments;
+    private double capturedAmount;
+    private long users;
+    private long activeUsers;
+    private long roles;
+    private volatile long loadedAt;
+    private volatile boolean loaded;
+
+    DashboardMetrics(HibernateReservationRepository reservationRepository, HibernateRoomRepository roomRepository,
+                     HibernatePaymentRepository paymentRepository, HibernateUserRepository userRepository,
+                     RateEngine rateEngine) {
+        this.reservationRepository = reservationRepository;
+        this.roomRepository = roomRepository;
+        this.paymentRepository = paymentRepository;
+        this.userRepository = userRepository;
+        this.rateEngine = rateEngine;
+    }
+
+    public static synchronized DashboardMetrics getInstance() {
+        if (instance == null) {
+            instance = new DashboardMetrics(new HibernateReservationRepository(), new HibernateRoomRepository(),
+                    new HibernatePaymentRepository(), new HibernateUserRepository(), RateEngine.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Current totals. Loads them first if this is the first read or they are due for a reload.
+     */
+    public Snapshot snapshot() {
+        ensureLoaded();
+        synchronized (this) {
+            double revenue = 0;
+            for (String status : REVENUE_STATUSES) {
+                revenue += stayValueByStatus.getOrDefault(status, 0.0);
+            }
+            return new Snapshot(Map.copyOf(reservationsByStatus), revenue, Map.copyOf(roomsByStatus),
+                    capturedPayments, capturedAmount, users, activeUsers, roles);
+        }
+    }
+
+    /**
+     * Reloads every counter from the database.
+     */
+    public synchronized void refresh() {
+        Map<String, Long> reservationCounts = reservationRepository.countByStatus();
+        Map<String, Double> stayValues = reservationRepository.sumStayValueByStatus(rateEngine::stayCost);
+        Map<Long, String> rooms = new HashMap<>();
+        for (Room room : roomRepository.findAll()) {
+            if (room.getStatus() != null) {
+                rooms.put(room.getId(), room.getStatus());
+            }
+        }
+
+        reservationsByStatus.clear();
+        reservationsByStatus.putAll(reservationCounts);
+        stayValueByStatus.clear();
+        stayValueByStatus.putAll(stayValues);
+        roomStatuses.clear();
+        roomsByStatus.clear();
+        rooms.forEach(this::adjustRoom);
+        capturedPayments = paymentRepository.countByStatus(CAPTURED);
+        capturedAmount = paymentRepository.sumAmountByStatus(CAPTURED);
+        users = userRepository.count();
+        activeUsers = userRepository.countActive();
+        roles = userRepository.countRoles();
+        loadedAt = System.nanoTime();
+        loaded = true;
+    }
+
+    /**
+     * Forces a reload on the next read, for changes that cannot be applied incrementally such as
+     * a category rate or rate rule change repricing every stay it covers.
+     */
+    public void invalidate() {
+        loaded = false;
+    }
+
+    public synchronized void reservationCreated(Reservation reservation) {
+        if (!loaded) {
+            return;
+        }
+        adjustReservation(reservation.getStatus(), 1, stayValue(reservation));
+    }
+
+    public synchronized void reservationStatusChanged(Reservation reservation, String previousStatus) {
+        if (!loaded || previousStatus == null || previousStatus.equals(reservation.getStatus())) {
+            return;
+        }
+        double value = stayValue(reservation);
+        adjustReservation(previousStatus, -1, -value);
+        adjustReservation(reservation.getStatus(), 1, value);
+    }
+
+    public synchronized void roomStatusChanged(long roomId, String status) {
+        if (loaded && status != null) {
+            adjustRoom(roomId, status);
+        }
+    }
+
+    public synchronized void paymentCaptured(double amount) {
+        if (loaded) {
+            capturedPayments++;
+            capturedAmount += amount;
+        }
+    }
+
+    public synchronized void userCreated(boolean active) {
+        if (loaded) {
+            users++;
+            activeUsers += active ? 1 : 0;
+        }
+    }
+
+    public synchronized void userActiveChanged(boolean wasActive, boolean active) {
+        if (loaded && wasActive != active) {
+            activeUsers += active ? 1 : -1;
+        }
+    }
+
+    private void adjustRoom(long roomId, String status) {
+        String previous = roomStatuses.put(roomId, status);
+        if (previous != null) {
+            roomsByStatus.merge(previous, -1L, Long::sum);
+        }
+        roomsByStatus.merge(status, 1L, Long::sum);
+    }
+
+    private void adjustReservation(String status, long count, double value) {
+        reservationsByStatus.merge(status, count, Long::sum);
+        stayValueByStatus.merge(status, value, Double::sum);
+    }
+
+    private double stayValue(Reservation reservation) {
+        Room room = reservation.getRoom();
+        if (room == null || room.getCategory() == null) {
+            return 0;
+        }
+        return rateEngine.stayCost(room.getCategory().getId(), reservation.getCheckIn(), reservation.getCheckOut());
+    }
+
+    private void ensureLoaded() {
+        if (!loaded || System.nanoTime() - loadedAt >= RELOAD_AFTER.toNanos()) {
+            synchronized (this) {
+                if (!loaded || System.nanoTime() - loadedAt >= RELOAD_AFTER.toNanos()) {
+                    refresh();
+                }
+            }
+        }
+    }
+
+    /**
+     * Point-in-time copy of the counters.
+     */
+    public record Snapshot(Map<String, Long> reservationsByStatus, double revenue, Map<String, Long> roomsByStatus,
+                           long capturedPayments, double capturedAmount, long users, long activeUsers, long roles) {
+
+        public long reservations(String status) {
+            return reservationsByStatus.getOrDefault(status, 0L);
+        }
+
+        public long totalReservations() {
+            return reservationsByStatus.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public long activeReservations() {
+            return ACTIVE_STATUSES.stream().mapToLong(this::reservations).sum();
+        }
+
+        public long rooms(String status) {
+            return roomsByStatus.getOrDefault(status, 0L);
+        }
+
+        public long totalRooms() {
+            return roomsByStatus.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        /**
+         * Reserved and occupied rooms as a share of all rooms, in percent.
+         */
+        public double occupancyRate() {
+            long total = totalRooms();
+            return total == 0 ? 0 : (rooms("OCCUPIED") + rooms("RESERVED")) * 100.0 / total;
+        }
+    }
+}
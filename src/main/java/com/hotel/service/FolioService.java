@@ -0,0 +1,75 @@
+package com.hotel.service;
+
+import com.hotel.model.FolioEntry;
+import com.hotel.model.Payment;
+import com.hotel.repository.HibernateFolioRepository;
+import com.hotel.repository.UnitOfWork;
+
+import java.util.List;
+
+/**
+ * The money side of a reservation. Everything the guest is charged, pays or is refunded is posted
+ * to an append-only folio in integer cents, and the reservation carries the running balance, so
+ * what is owed is one indexed read rather than a sum over payments. Postings join the caller's
+ * unit of work, which keeps them atomic with the booking, cancellation or payment behind them.
+ */
+public class FolioService {
+    private final HibernateFolioRepository folioRepository;
+
+    public FolioService(HibernateFolioRepository folioRepository) {
+        this.folioRepository = folioRepository;
+    }
+
+    public static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    public FolioEntry chargeStay(long reservationId, long amountCents, String description) {
+        if (amountCents < 0) {
+            throw new IllegalArgumentException("Charge must not be negative");
+        }
+        return folioRepository.post(reservationId, FolioEntry.CHARGE, amountCents, null, description);
+    }
+
+    /**
+     * Credits a captured payment to its reservation's folio and makes it the latest payment.
+     */
+    public FolioEntry recordPayment(Payment payment) {
+        return folioRepository.post(payment.getReservation().getId(), FolioEntry.PAYMENT, -toCents(payment.getAmount()),
+                payment.getId(), "Payment " + payment.getTransactionRef());
+    }
+
+    /**
+     * Offsets every charge still standing on the folio and, if the guest is then in credit, posts
+     * the refund owed so the folio settles at zero.
+     */
+    public void reverseCharges(long reservationId, String description) {
+        UnitOfWork.run(() -> {
+            long charged = folioRepository.sumCharges(reservationId);
+            if (charged == 0) {
+                return;
+            }
+            FolioEntry reversal = folioRepository.post(reservationId, FolioEntry.CHARGE, -charged, null, description);
+            if (reversal.getBalanceCents() < 0) {
+                folioRepository.post(reservationId, FolioEntry.REFUND, -reversal.getBalanceCents(), null, "Refund of amount paid");
+            }
+        });
+    }
+
+    public long balanceCents(long reservationId) {
+        return folioRepository.findBalanceCents(reservationId)
+                .orElseThrow(() -> new IllegalArgumentException("Reservation not found"));
+    }
+
+    /**
+     * The folio as of its last entry, for the bill at check-out.
+     */
+    public Folio statement(long reservationId) {
+        List<FolioEntry> entries = folioRepository.findByReservation(reservationId);
+        long balance = entries.isEmpty() ? 0 : entries.get(entries.size() - 1).getBalanceCents();
+        return new Folio(reservationId, entries, balance);
+    }
+
+    public record Folio(long reservationId, List<FolioEntry> entries, long balanceCents) {
+    }
+}
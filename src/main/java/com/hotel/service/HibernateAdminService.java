@@ -4,62 +4,73 @@ import com.hotel.model.PrivilegeEntity;
 import com.hotel.model.Role;
 import com.hotel.model.User;
 import com.hotel.repository.HibernateUserRepository;
+import com.hotel.repository.UnitOfWork;
 
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 public class HibernateAdminService {
     private final HibernateUserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final DashboardMetrics metrics;
+    private final PrincipalCache principals;
 
     public HibernateAdminService(HibernateUserRepository userRepository, PasswordEncoder passwordEncoder) {
+        this(userRepository, passwordEncoder, DashboardMetrics.getInstance(), PrincipalCache.getInstance());
+    }
+
+    public HibernateAdminService(HibernateUserRepository userRepository, PasswordEncoder passwordEncoder,
+                                 DashboardMetrics metrics, PrincipalCache principals) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.metrics = metrics;
+        this.principals = principals;
     }
 
     public User createUser(String username, String rawPassword, String firstName, String lastName, 
                           String email, String roleName, Set<String> privilegeCodes) {
-        Role role = userRepository.findRoleByName(roleName);
-        if (role == null) {
-            throw new IllegalArgumentException("Role not found: " + roleName);
-        }
-        
-        User user = new User();
-        user.setUsername(username);
-        user.setPasswordHash(passwordEncoder.encode(rawPassword));
-        user.setFirstName(firstName);
-        user.setLastName(lastName);
-        user.setEmail(email);
-        user.setRole(role);
-        user.setActive(true);
-        
-        if (privilegeCodes != null && !privilegeCodes.isEmpty()) {
-            Set<PrivilegeEntity> privileges = privilegeCodes.stream()
-                    .map(code -> userRepository.findPrivilegeByCode(code))
-                    .filter(p -> p != null)
-                    .collect(Collectors.toSet());
-            user.setPrivileges(privileges);
-        }
-        
-        return userRepository.save(user);
+        // Hash outside the transaction so the connection is not held while it runs
+        String passwordHash = passwordEncoder.encode(rawPassword);
+        User saved = UnitOfWork.run(() -> {
+            Role role = userRepository.findRoleByName(roleName);
+            if (role == null) {
+                throw new IllegalArgumentException("Role not found: " + roleName);
+            }
+
+            User user = new User();
+            user.setUsername(username);
+            user.setPasswordHash(passwordHash);
+            user.setFirstName(firstName);
+            user.setLastName(lastName);
+            user.setEmail(email);
+            user.setRole(role);
+            user.setActive(true);
+
+            if (privilegeCodes != null && !privilegeCodes.isEmpty()) {
+                user.setPrivileges(userRepository.findPrivilegesByCodes(privilegeCodes));
+            }
+            return userRepository.save(user);
+        });
+        metrics.userCreated(saved.isActive());
+        return saved;
     }
 
     public void updateRole(long userId, String roleName) {
-        Role role = userRepository.findRoleByName(roleName);
-        if (role == null) {
-            throw new IllegalArgumentException("Role not found: " + roleName);
-        }
-        userRepository.updateRole(userId, role);
+        UnitOfWork.run(() -> {
+            Role role = userRepository.findRoleByName(roleName);
+            if (role == null) {
+                throw new IllegalArgumentException("Role not found: " + roleName);
+            }
+            userRepository.updateRole(userId, role);
+            UnitOfWork.afterCommit(() -> principals.invalidate(userId));
+        });
     }
 
     public void assignPrivileges(long userId, Set<String> privilegeCodes) {
-        Set<PrivilegeEntity> privileges = privilegeCodes.stream()
-                .map(code -> userRepository.findPrivilegeByCode(code))
-                .filter(p -> p != null)
-                .collect(Collectors.toSet());
-        userRepository.updateUserPrivileges(userId, privileges);
+        UnitOfWork.run(() -> {
+            userRepository.updateUserPrivileges(userId, userRepository.findPrivilegesByCodes(privilegeCodes));
+            UnitOfWork.afterCommit(() -> principals.invalidate(userId));
+        });
     }
 
     public List<User> listUsers() {
@@ -75,22 +86,29 @@ public class HibernateAdminService {
     }
 
     public User updateUser(User user) {
-        return userRepository.update(user);
+        return UnitOfWork.run(() -> {
+            boolean wasActive = userRepository.findById(user.getId()).map(User::isActive).orElse(user.isActive());
+            User updated = userRepository.update(user);
+            UnitOfWork.afterCommit(() -> {
+                metrics.userActiveChanged(wasActive, updated.isActive());
+                principals.invalidate(updated.getId());
+            });
+            return updated;
+        });
     }
     
     public void assignPrivilegesToRole(long roleId, Set<String> privilegeCodes) {
-        Role role = userRepository.findRoleById(roleId);
-        if (role == null) {
-            throw new IllegalArgumentException("Role not found with ID: " + roleId);
-        }
-        
-        Set<PrivilegeEntity> privileges = privilegeCodes.stream()
-                .map(code -> userRepository.findPrivilegeByCode(code))
-                .filter(p -> p != null)
-                .collect(Collectors.toSet());
-        
-        role.setPrivileges(privileges);
-        userRepository.updateRole(role);
+        UnitOfWork.run(() -> {
+            Role role = userRepository.findRoleById(roleId);
+            if (role == null) {
+                throw new IllegalArgumentException("Role not found with ID: " + roleId);
+            }
+
+            role.setPrivileges(userRepository.findPrivilegesByCodes(privilegeCodes));
+            userRepository.updateRole(role);
+            // Every cached holder of the role now has stale privileges
+            UnitOfWork.afterCommit(principals::invalidateAll);
+        });
     }
 }
 
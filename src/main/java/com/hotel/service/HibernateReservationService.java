@@ -2,47 +2,267 @@ package com.hotel.service;
 
 import com.hotel.model.Reservation;
 import com.hotel.model.Room;
+import com.hotel.model.User;
+import com.hotel.repository.HibernateFolioRepository;
 import com.hotel.repository.HibernateReservationRepository;
 import com.hotel.repository.HibernateRoomRepository;
+import com.hotel.repository.ReservationRow;
+import com.hotel.repository.ReservationSearchCriteria;
+import com.hotel.repository.UnitOfWork;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class HibernateReservationService {
+    private static final int ROOM_LOCK_STRIPES = 64;
+    private static final ReentrantLock[] ROOM_LOCKS = new ReentrantLock[ROOM_LOCK_STRIPES];
+    private static final Set<String> CLOSED_STATUSES = Set.of("CANCELLED", "CHECKED_OUT");
+
+    static {
+        for (int i = 0; i < ROOM_LOCK_STRIPES; i++) {
+            ROOM_LOCKS[i] = new ReentrantLock();
+        }
+    }
+
     private final HibernateReservationRepository reservationRepository;
     private final HibernateRoomRepository roomRepository;
+    private final RoomAvailabilityCalendar availabilityCalendar;
+    private final RoomSearchIndex searchIndex;
+    private final DashboardMetrics metrics;
+    private final RateEngine rateEngine;
+    private final FolioService folioService;
 
-    public HibernateReservationService(HibernateReservationRepository reservationRepository, 
+    public HibernateReservationService(HibernateReservationRepository reservationRepository,
                                       HibernateRoomRepository roomRepository) {
+        this(reservationRepository, roomRepository, RoomAvailabilityCalendar.getInstance(), RoomSearchIndex.getInstance(),
+                DashboardMetrics.getInstance(), RateEngine.getInstance(), new FolioService(new HibernateFolioRepository()));
+    }
+
+    public HibernateReservationService(HibernateReservationRepository reservationRepository,
+                                      HibernateRoomRepository roomRepository,
+                                      RoomAvailabilityCalendar availabilityCalendar,
+                                      RoomSearchIndex searchIndex,
+                                      DashboardMetrics metrics,
+                                      RateEngine rateEngine,
+                                      FolioService folioService) {
         this.reservationRepository = reservationRepository;
         this.roomRepository = roomRepository;
+        this.availabilityCalendar = availabilityCalendar;
+        this.searchIndex = searchIndex;
+        this.metrics = metrics;
+        this.rateEngine = rateEngine;
+        this.folioService = folioService;
     }
 
     public Reservation book(long userId, long roomId, LocalDate checkIn, LocalDate checkOut, int guests) {
+        return book(new User(userId, null, null), roomId, checkIn, checkOut, guests);
+    }
+
+    public Reservation book(User user, Room room, LocalDate checkIn, LocalDate checkOut, int guests) {
+        return book(user, room.getId(), checkIn, checkOut, guests);
+    }
+
+    /**
+     * Books the room in a unit of work of its own, opened under the room's stripe lock so the
+     * lock is held until the booking commits. The room row lock and the locking overlap read in
+     * saveIfRoomAvailable are what keep stays from overlapping; the stripe lock saves clerks in
+     * this process from queueing on the database for a room another of them is booking.
+     */
+    private Reservation book(User user, long roomId, LocalDate checkIn, LocalDate checkOut, int guests) {
         if (!checkOut.isAfter(checkIn)) {
             throw new IllegalArgumentException("Check-out date must be after check-in");
         }
-        
-        Room room = roomRepository.findById(roomId)
-                .orElseThrow(() -> new IllegalArgumentException("Room not found"));
-        
+
+        Room roomRef = new Room();
+        roomRef.setId(roomId);
         Reservation reservation = new Reservation();
         reservation.setCheckIn(checkIn);
         reservation.setCheckOut(checkOut);
         reservation.setGuestCount(guests);
         reservation.setStatus("CONFIRMED");
-        reservation.setRoom(room);
-        
-        // Note: User should be set by the caller
-        Reservation saved = reservationRepository.save(reservation);
-        roomRepository.updateStatus(roomId, "RESERVED");
-        return saved;
+        reservation.setUser(user);
+        reservation.setRoom(roomRef);
+
+        ReentrantLock lock = lockFor(roomId);
+        lock.lock();
+        try {
+            if (!availabilityCalendar.isAvailable(roomId, checkIn, checkOut)) {
+                throw unavailable(roomId);
+            }
+            // The stay is charged to the folio in the same transaction as the booking
+            return UnitOfWork.run(() -> {
+                Reservation saved = reservationRepository.saveIfRoomAvailable(reservation)
+                        .orElseThrow(() -> unavailable(roomId));
+                Room room = saved.getRoom();
+                folioService.chargeStay(saved.getId(), stayCostCents(room, checkIn, checkOut),
+                        "Room " + room.getRoomNumber() + ", " + ChronoUnit.DAYS.between(checkIn, checkOut) + " night(s)");
+                UnitOfWork.afterCommit(() -> {
+                    availabilityCalendar.markBooked(roomId, checkIn, checkOut);
+                    availabilityCalendar.updateRoomStatus(roomId, "RESERVED");
+                    searchIndex.updateRoomStatus(roomId, "RESERVED");
+                    metrics.reservationCreated(saved);
+                    metrics.roomStatusChanged(roomId, "RESERVED");
+                });
+                return saved;
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static IllegalStateException notCancellable(long reservationId) {
+        return new IllegalStateException("Reservation " + reservationId + " is already cancelled or checked out");
+    }
+
+    private static ReentrantLock lockFor(long roomId) {
+        return ROOM_LOCKS[Long.hashCode(roomId) & (ROOM_LOCK_STRIPES - 1)];
+    }
+
+    private IllegalStateException unavailable(long roomId) {
+        String room = roomRepository.findById(roomId)
+                .map(found -> "Room " + found.getRoomNumber())
+                .orElse("The room");
+        return new IllegalStateException(room + " is not available for the selected dates");
     }
 
     public void cancel(long reservationId, long roomId) {
-        reservationRepository.cancelReservation(reservationId);
-        roomRepository.updateStatus(roomId, "AVAILABLE");
+        UnitOfWork.run(() -> {
+            Reservation reservation = reservationRepository.findById(reservationId)
+                    .orElseThrow(() -> new IllegalArgumentException("Reservation not found"));
+            cancel(reservation);
+        });
+    }
+
+    /**
+     * Cancels the reservation, reverses its charges and frees the room. Reservations already
+     * cancelled or checked out are refused, whatever the caller's copy says.
+     */
+    public void cancel(Reservation reservation) {
+        long roomId = reservation.getRoom().getId();
+        String previousStatus = reservation.getStatus();
+        if (CLOSED_STATUSES.contains(previousStatus)) {
+            throw notCancellable(reservation.getId());
+        }
+        UnitOfWork.run(() -> {
+            if (!reservationRepository.cancelReservation(reservation.getId())) {
+                throw notCancellable(reservation.getId());
+            }
+            folioService.reverseCharges(reservation.getId(), "Reservation cancelled");
+            roomRepository.updateStatus(roomId, "AVAILABLE");
+            UnitOfWork.afterCommit(() -> {
+                reservation.setStatus("CANCELLED");
+                availabilityCalendar.release(roomId, reservation.getCheckIn(), reservation.getCheckOut());
+                availabilityCalendar.updateRoomStatus(roomId, "AVAILABLE");
+                searchIndex.updateRoomStatus(roomId, "AVAILABLE");
+                metrics.reservationStatusChanged(reservation, previousStatus);
+                metrics.roomStatusChanged(roomId, "AVAILABLE");
+            });
+        });
+    }
+
+    /**
+     * Cancels every CONFIRMED reservation due to arrive on or after {@code from} and before
+     * {@code until} whose guest never checked in, and frees the rooms still held for them. A
+     * reservation that checks in during the sweep is left alone, and so are its room and nights.
+     * Returns the number of reservations cancelled. Their folio charges stand, since a no-show is
+     * billed for the stay.
+     */
+    public int cancelNoShows(LocalDate from, LocalDate until) {
+        return UnitOfWork.run(() -> {
+            List<Object[]> noShows = reservationRepository.findNoShows(from, until);
+            if (noShows.isEmpty()) {
+                return 0;
+            }
+            List<Long> reservationIds = new ArrayList<>(noShows.size());
+            for (Object[] row : noShows) {
+                reservationIds.add((Long) row[0]);
+            }
+            Set<Long> cancelledIds = new HashSet<>(reservationRepository.cancelConfirmed(reservationIds));
+            List<Object[]> cancelled = new ArrayList<>(cancelledIds.size());
+            Set<Long> roomIds = new HashSet<>();
+            for (Object[] row : noShows) {
+                if (cancelledIds.contains((Long) row[0])) {
+                    cancelled.add(row);
+                    roomIds.add((Long) row[1]);
+                }
+            }
+            if (cancelled.isEmpty()) {
+                return 0;
+            }
+            List<Long> released = roomRepository.findIdsByStatus(roomIds, "RESERVED");
+            roomRepository.updateStatus(released, "AVAILABLE");
+            UnitOfWork.afterCommit(() -> {
+                for (Object[] row : cancelled) {
+                    availabilityCalendar.release((Long) row[1], (LocalDate) row[2], (LocalDate) row[3]);
+                }
+                for (long roomId : released) {
+                    availabilityCalendar.updateRoomStatus(roomId, "AVAILABLE");
+                    searchIndex.updateRoomStatus(roomId, "AVAILABLE");
+                }
+                // Cheaper to reload the counters once than to price every cancelled stay
+                metrics.invalidate();
+            });
+            return cancelled.size();
+        });
+    }
+
+    /**
+     * Moves the reservation to CHECKED_IN and its room to OCCUPIED in one transaction; the
+     * calendar and dashboard counters follow once it commits.
+     */
+    public Reservation checkIn(long reservationId) {
+        return UnitOfWork.run(() -> {
+            Reservation reservation = reservationRepository.findById(reservationId)
+                    .orElseThrow(() -> new IllegalArgumentException("Reservation not found"));
+            String previousStatus = reservation.getStatus();
+            reservation.setStatus("CHECKED_IN");
+            reservationRepository.update(reservation);
+            long roomId = reservation.getRoom().getId();
+            roomRepository.updateStatus(roomId, "OCCUPIED");
+            UnitOfWork.afterCommit(() -> {
+                availabilityCalendar.updateRoomStatus(roomId, "OCCUPIED");
+                searchIndex.updateRoomStatus(roomId, "OCCUPIED");
+                metrics.reservationStatusChanged(reservation, previousStatus);
+                metrics.roomStatusChanged(roomId, "OCCUPIED");
+            });
+            return reservation;
+        });
+    }
+
+    public Reservation checkOut(long reservationId) {
+        return UnitOfWork.run(() -> {
+            Reservation reservation = reservationRepository.findById(reservationId)
+                    .orElseThrow(() -> new IllegalArgumentException("Reservation not found"));
+            String previousStatus = reservation.getStatus();
+            reservation.setStatus("CHECKED_OUT");
+            reservationRepository.update(reservation);
+            long roomId = reservation.getRoom().getId();
+            roomRepository.updateStatus(roomId, "AVAILABLE");
+            UnitOfWork.afterCommit(() -> {
+                // Early departures hand the remaining nights back to the calendar
+                LocalDate today = LocalDate.now();
+                if (reservation.getCheckOut().isAfter(today)) {
+                    availabilityCalendar.release(roomId, today, reservation.getCheckOut());
+                }
+                availabilityCalendar.updateRoomStatus(roomId, "AVAILABLE");
+                searchIndex.updateRoomStatus(roomId, "AVAILABLE");
+                metrics.reservationStatusChanged(reservation, previousStatus);
+                metrics.roomStatusChanged(roomId, "AVAILABLE");
+            });
+            return reservation;
+        });
+    }
+
+    /**
+     * The reservation's folio: every charge, payment and refund with the running balance, in one query.
+     */
+    public FolioService.Folio folio(long reservationId) {
+        return folioService.statement(reservationId);
     }
 
     public List<Reservation> findCustomerReservations(long userId) {
@@ -53,9 +273,36 @@ public class HibernateReservationService {
         return reservationRepository.findAll();
     }
 
+    public List<ReservationRow> findReservationPage(ReservationSearchCriteria criteria, HibernateReservationRepository.PageKey after, int limit) {
+        return reservationRepository.findPage(criteria, after, limit);
+    }
+
+    public HibernateReservationRepository.PageKey findPageEnd(ReservationSearchCriteria criteria, HibernateReservationRepository.PageKey after, int pageSize) {
+        return reservationRepository.findPageEnd(criteria, after, pageSize);
+    }
+
+    public long countReservations(ReservationSearchCriteria criteria) {
+        return reservationRepository.count(criteria);
+    }
+
     public double calculateStayCost(Room room, LocalDate checkIn, LocalDate checkOut) {
-        long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
-        return nights * room.getNightlyRate();
+        if (room.getCategory() == null) {
+            return ChronoUnit.DAYS.between(checkIn, checkOut) * room.getNightlyRate();
+        }
+        return calculateStayCost(room.getCategory().getId(), checkIn, checkOut);
     }
-}
 
+    private long stayCostCents(Room room, LocalDate checkIn, LocalDate checkOut) {
+        if (room.getCategory() == null) {
+            return FolioService.toCents(calculateStayCost(room, checkIn, checkOut));
+        }
+        return rateEngine.stayCostCents(room.getCategory().getId(), checkIn, checkOut);
+    }
+
+    /**
+     * Price of the stay with the category's season, weekend and length-of-stay rules applied.
+     */
+    public double calculateStayCost(long categoryId, LocalDate checkIn, LocalDate checkOut) {
+        return rateEngine.stayCost(categoryId, checkIn, checkOut);
+    }
+}
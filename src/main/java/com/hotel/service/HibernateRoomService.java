@@ -1,20 +1,44 @@
 package com.hotel.service;
 
+import com.hotel.model.RateRule;
 import com.hotel.model.Room;
 import com.hotel.model.RoomCategory;
+import com.hotel.repository.HibernateRateRuleRepository;
 import com.hotel.repository.HibernateRoomRepository;
+import com.hotel.repository.RoomCard;
+import com.hotel.repository.UnitOfWork;
 
 import java.time.LocalDate;
 import java.util.List;
 
 public class HibernateRoomService {
     private final HibernateRoomRepository roomRepository;
+    private final RoomAvailabilityCalendar availabilityCalendar;
+    private final RoomSearchIndex searchIndex;
+    private final DashboardMetrics metrics;
+    private final HibernateRateRuleRepository rateRuleRepository;
+    private final RateEngine rateEngine;
 
     public HibernateRoomService(HibernateRoomRepository roomRepository) {
+        this(roomRepository, RoomAvailabilityCalendar.getInstance(), RoomSearchIndex.getInstance(),
+                DashboardMetrics.getInstance(), new HibernateRateRuleRepository(), RateEngine.getInstance());
+    }
+
+    public HibernateRoomService(HibernateRoomRepository roomRepository, RoomAvailabilityCalendar availabilityCalendar,
+                                RoomSearchIndex searchIndex, DashboardMetrics metrics,
+                                HibernateRateRuleRepository rateRuleRepository, RateEngine rateEngine) {
         this.roomRepository = roomRepository;
+        this.availabilityCalendar = availabilityCalendar;
+        this.searchIndex = searchIndex;
+        this.metrics = metrics;
+        this.rateRuleRepository = rateRuleRepository;
+        this.rateEngine = rateEngine;
     }
 
     public List<Room> searchAvailableRooms(LocalDate checkIn, LocalDate checkOut) {
+        if (availabilityCalendar.covers(checkIn, checkOut)) {
+            return availabilityCalendar.findAvailableRooms(checkIn, checkOut);
+        }
         return roomRepository.findAvailableRooms(checkIn, checkOut);
     }
 
@@ -22,6 +46,21 @@ public class HibernateRoomService {
         return roomRepository.findAll();
     }
 
+    /**
+     * Catalogue cards matching {@code filter}, answered from the in-memory search index.
+     */
+    public List<RoomCard> browseRooms(RoomSearchFilter filter) {
+        return searchIndex.search(filter);
+    }
+
+    public List<Integer> getFloors() {
+        return searchIndex.floors();
+    }
+
+    public List<String> getViewTypes() {
+        return searchIndex.viewTypes();
+    }
+
     public List<RoomCategory> getAllCategories() {
         return roomRepository.findAllCategories();
     }
@@ -29,5 +68,101 @@ public class HibernateRoomService {
     public Room getRoomById(long id) {
         return roomRepository.findById(id).orElse(null);
     }
-}
 
+    public Room createRoom(Room room) {
+        Room saved = roomRepository.save(room);
+        availabilityCalendar.updateRoom(saved);
+        searchIndex.updateRoom(saved);
+        metrics.roomStatusChanged(saved.getId(), saved.getStatus());
+        return saved;
+    }
+
+    public Room updateRoom(Room room) {
+        Room updated = roomRepository.update(room);
+        availabilityCalendar.updateRoom(updated);
+        searchIndex.updateRoom(updated);
+        metrics.roomStatusChanged(updated.getId(), updated.getStatus());
+        return updated;
+    }
+
+    /**
+     * Sets every room on {@code floor} to {@code status} in one statement; returns the number of rooms changed.
+     */
+    public int updateStatusByFloor(int floor, String status) {
+        return UnitOfWork.run(() -> updateStatus(roomRepository.findIdsByFloor(floor), status));
+    }
+
+    public int updateStatusByCategory(long categoryId, String status) {
+        return UnitOfWork.run(() -> updateStatus(roomRepository.findIdsByCategory(categoryId), status));
+    }
+
+    private int updateStatus(List<Long> roomIds, String status) {
+        if (status == null || status.isBlank()) {
+            throw new IllegalArgumentException("Room status is required");
+        }
+        int updated = roomRepository.updateStatus(roomIds, status);
+        UnitOfWork.afterCommit(() -> {
+            for (long roomId : roomIds) {
+                availabilityCalendar.updateRoomStatus(roomId, status);
+                searchIndex.updateRoomStatus(roomId, status);
+                metrics.roomStatusChanged(roomId, status);
+            }
+        });
+        return updated;
+    }
+
+    public RoomCategory saveCategory(RoomCategory category) {
+        RoomCategory saved = roomRepository.saveCategory(category);
+        availabilityCalendar.updateCategory(saved);
+        searchIndex.updateCategory(saved);
+        rateEngine.updateCategory(saved);
+        // A new rate reprices every stay in the category, so the revenue total is reloaded
+        metrics.invalidate();
+        return saved;
+    }
+
+    public List<RateRule> getRateRules() {
+        return rateRuleRepository.findAll();
+    }
+
+    public RateRule saveRateRule(RateRule rule) {
+        validate(rule);
+        RateRule saved = rateRuleRepository.save(rule);
+        rateEngine.ruleSaved(saved);
+        metrics.invalidate();
+        return saved;
+    }
+
+    public void deleteRateRule(RateRule rule) {
+        rateRuleRepository.delete(rule.getId());
+        rateEngine.ruleDeleted(rule);
+        metrics.invalidate();
+    }
+
+    private static void validate(RateRule rule) {
+        if (rule.getName() == null || rule.getName().isBlank()) {
+            throw new IllegalArgumentException("Rule name is required");
+        }
+        if (rule.getPercent() <= -100) {
+            throw new IllegalArgumentException("A discount must be less than 100%");
+        }
+        if (rule.getType() == null) {
+            throw new IllegalArgumentException("Rule type is required");
+        }
+        switch (rule.getType()) {
+            case RateRule.SEASON -> {
+                if (rule.getStartDate() == null || rule.getEndDate() == null || rule.getEndDate().isBefore(rule.getStartDate())) {
+                    throw new IllegalArgumentException("A season needs a start date on or before its end date");
+                }
+            }
+            case RateRule.WEEKEND -> {
+            }
+            case RateRule.LONG_STAY -> {
+                if (rule.getMinNights() < 2) {
+                    throw new IllegalArgumentException("A length-of-stay rule needs a minimum of at least 2 nights");
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown rule type: " + rule.getType());
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.hotel.service;
+
+import com.hotel.model.DailyStats;
+import com.hotel.model.RoomCategory;
+import com.hotel.repository.HibernateDailyStatsRepository;
+import com.hotel.repository.HibernateReservationRepository;
+import com.hotel.repository.HibernateRoomRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closes each night into the {@code daily_stats} rollup. A run covers every night after the last
+ * audited one up to yesterday, so the first run backfills the whole reservation history and a
+ * missed night is caught up on the next run. The audit only reads reservations; cancelling
+ * no-shows is left to the manager.
+ *
+ * <p>Revenue is what each stay was booked for, so re-auditing a night after a rate change gives
+ * the same figures: the net of its folio charges, or for a stay without a folio (one imported
+ * from before the ledger) its captured payments, spread evenly over its nights.
+ */
+public class NightAuditJob {
+    private static final Logger LOG = LoggerFactory.getLogger(NightAuditJob.class);
+    private static final LocalTime AUDIT_TIME = LocalTime.of(2, 0);
+    private static final int CHUNK_DAYS = 31;
+    private static final Set<String> SOLD_STATUSES = Set.of("CONFIRMED", "CHECKED_IN", "CHECKED_OUT");
+    private static NightAuditJob instance;
+
+    private final HibernateDailyStatsRepository dailyStatsRepository;
+    private final HibernateReservationRepository reservationRepository;
+    private final HibernateRoomRepository roomRepository;
+    private ScheduledExecutorService scheduler;
+
+    NightAuditJob(HibernateDailyStatsRepository dailyStatsRepository, HibernateReservationRepository reservationRepository,
+                  HibernateRoomRepository roomRepository) {
+        this.dailyStatsRepository = dailyStatsRepository;
+        this.reservationRepository = reservationRepository;
+        this.roomRepository = roomRepository;
+    }
+
+    public static synchronized NightAuditJob getInstance() {
+        if (instance == null) {
+            instance = new NightAuditJob(new HibernateDailyStatsRepository(), new HibernateReservationRepository(),
+                    new HibernateRoomRepository());
+        }
+        return instance;
+    }
+
+    /**
+     * Runs a catch-up audit now in the background and then every night at {@link #AUDIT_TIME}.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "night-audit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.execute(this::runSafely);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = now.toLocalDate().atTime(AUDIT_TIME);
+        if (!next.isAfter(now)) {
+            next = next.plusDays(1);
+        }
+        scheduler.scheduleAtFixedRate(this::runSafely, Duration.between(now, next).toMinutes(),
+                TimeUnit.DAYS.toMinutes(1), TimeUnit.MINUTES);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Audits every night not yet in the rollup, up to and including yesterday.
+     */
+    public synchronized void run() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        LocalDate from = dailyStatsRepository.findLastStatDate()
+                .map(last -> last.plusDays(1))
+                .or(reservationRepository::findEarliestCheckIn)
+                .orElse(yesterday);
+        for (LocalDate start = from; !start.isAfter(yesterday); start = start.plusDays(CHUNK_DAYS)) {
+            LocalDate end = start.plusDays(CHUNK_DAYS - 1);
+            rollup(start, end.isAfter(yesterday) ? yesterday : end);
+        }
+    }
+
+    /**
+     * Recomputes the rollup for the nights {@code from} to {@code to}, replacing whatever was there.
+     */
+    public void rollup(LocalDate from, LocalDate to) {
+        List<RoomCategory> categories = roomRepository.findAllCategories();
+        Map<Long, Long> roomCounts = roomRepository.countByCategory();
+        Map<LocalDate, Map<Long, DailyStats>> days = new HashMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            Map<Long, DailyStats> byCategory = new HashMap<>();
+            for (RoomCategory category : categories) {
+                byCategory.put(category.getId(), new DailyStats(day, category.getId(),
+                        roomCounts.getOrDefault(category.getId(), 0L).intValue()));
+            }
+            days.put(day, byCategory);
+        }
+
+        reservationRepository.forEachStay(from, to, row -> {
+            long categoryId = (Long) row[0];
+            String status = (String) row[1];
+            LocalDate checkIn = (LocalDate) row[2];
+            LocalDate checkOut = (LocalDate) row[3];
+            if ("CANCELLED".equals(status)) {
+                // Cancellations are counted against the arrival date they would have filled
+                DailyStats stats = statsFor(days, checkIn, categoryId);
+                if (stats != null) {
+                    stats.setCancellations(stats.getCancellations() + 1);
+                }
+                return;
+            }
+            if (!SOLD_STATUSES.contains(status)) {
+                return;
+            }
+            long chargedCents = ((Number) row[4]).longValue();
+            long stayCents = chargedCents != 0 ? chargedCents : FolioService.toCents(((Number) row[5]).doubleValue());
+            long stayNights = ChronoUnit.DAYS.between(checkIn, checkOut);
+            LocalDate first = checkIn.isBefore(from) ? from : checkIn;
+            for (LocalDate night = first; night.isBefore(checkOut) && !night.isAfter(to); night = night.plusDays(1)) {
+                DailyStats stats = statsFor(days, night, categoryId);
+                if (stats != null) {
+                    stats.setRoomsSold(stats.getRoomsSold() + 1);
+                    long nightCents = nightShare(stayCents, stayNights, ChronoUnit.DAYS.between(checkIn, night));
+                    stats.setRevenue(stats.getRevenue() + nightCents / 100.0);
+                }
+            }
+        });
+
+        dailyStatsRepository.replaceRange(from, to, days.values().stream()
+                .flatMap(byCategory -> byCategory.values().stream())
+                .toList());
+    }
+
+    /**
+     * Night {@code index}'s share of a stay worth {@code stayCents}; the odd cents go to the first
+     * nights, so the shares add up to the stay.
+     */
+    private static long nightShare(long stayCents, long stayNights, long index) {
+        return stayCents / stayNights + (index < stayCents % stayNights ? 1 : 0);
+    }
+
+    private static DailyStats statsFor(Map<LocalDate, Map<Long, DailyStats>> days, LocalDate day, long categoryId) {
+        Map<Long, DailyStats> byCategory = days.get(day);
+        return byCategory == null ? null : byCategory.get(categoryId);
+    }
+
+    private void runSafely() {
+        try {
+            run();
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; the next run picks up from the last audited night
+            LOG.error("Night audit failed", e);
+        }
+    }
+}
@@ -3,19 +3,32 @@ package com.hotel.service;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
 public class PasswordEncoder {
-    public String encode(String plain) {
+    private static final HexFormat HEX = HexFormat.of();
+    // MessageDigest is not thread-safe, and looking up a provider per call costs more than the hash
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(plain.getBytes(StandardCharsets.UTF_8));
-            StringBuilder builder = new StringBuilder();
-            for (byte b : hash) {
-                builder.append(String.format("%02x", b));
-            }
-            return builder.toString();
+            return MessageDigest.getInstance("SHA-256");
         } catch (NoSuchAlgorithmException e) {
             throw new IllegalStateException("SHA-256 not available", e);
         }
+    });
+
+    public String encode(String plain) {
+        return HEX.formatHex(DIGEST.get().digest(plain.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Checks {@code plain} against a stored hash. The comparison takes the same time however many
+     * characters match, so response times give nothing away.
+     */
+    public boolean matches(String plain, String hash) {
+        if (plain == null || hash == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(encode(plain).getBytes(StandardCharsets.US_ASCII),
+                hash.getBytes(StandardCharsets.US_ASCII));
     }
 }
@@ -0,0 +1,21 @@
+package com.hotel.service;
+
+/**
+ * Authorizes card payments. The idempotency key identifies the charge: asking again with a key
+ * that was approved returns the original approval instead of charging a second time.
+ */
+public interface PaymentGateway {
+
+    Authorization authorize(String idempotencyKey, double amount, String method);
+
+    record Authorization(boolean approved, String message) {
+
+        public static Authorization approve() {
+            return new Authorization(true, "Approved");
+        }
+
+        public static Authorization decline(String reason) {
+            return new Authorization(false, reason);
+        }
+    }
+}
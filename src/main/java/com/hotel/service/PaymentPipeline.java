@@ -0,0 +1,323 @@
+package com.hotel.service;
+
+import com.hotel.config.DatabaseConfig;
+import com.hotel.model.Payment;
+import com.hotel.model.Reservation;
+import com.hotel.repository.HibernateFolioRepository;
+import com.hotel.repository.HibernatePaymentRepository;
+import com.hotel.repository.UnitOfWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Takes payments off the caller's thread. Requests wait in a bounded queue for one of a few worker
+ * threads, which authorize them with the {@link PaymentGateway}; approved payments then go to a
+ * single writer thread that records everything approved since its last write as one batch, in
+ * the same transaction as the folio postings that credit them to their reservations.
+ *
+ * <p>Every request carries an idempotency key. A request whose key is already queued or in
+ * progress joins that payment, and one whose key is already recorded reports the recorded payment,
+ * so a retry never captures twice. When the queue is full, {@link #submit} refuses the request
+ * rather than letting the backlog grow.
+ *
+ * <p>A payment the gateway approved but the writer could not record ends as
+ * {@link Status#UNRECORDED} rather than {@link Status#FAILED}: the guest may have been charged,
+ * and resubmitting under the same key records it without charging again.
+ */
+public class PaymentPipeline {
+    private static final Logger LOG = LoggerFactory.getLogger(PaymentPipeline.class);
+    static final int BATCH_SIZE = 50;
+    private static final String CAPTURED = "CAPTURED";
+    private static final String TRANSACTION_PREFIX = "HRB";
+    private static PaymentPipeline instance;
+
+    private final HibernatePaymentRepository paymentRepository;
+    private final PaymentGateway gateway;
+    private final ReferenceGenerator referenceGenerator;
+    private final FolioService folioService;
+    private final DashboardMetrics metrics;
+    private final int workers;
+    private final BlockingQueue<Job> queued;
+    private final BlockingQueue<Job> approved = new LinkedBlockingQueue<>();
+    private final Map<String, Job> inFlight = new ConcurrentHashMap<>();
+    private final List<Thread> threads = new ArrayList<>();
+
+    PaymentPipeline(HibernatePaymentRepository paymentRepository, PaymentGateway gateway,
+                    ReferenceGenerator referenceGenerator, FolioService folioService, DashboardMetrics metrics,
+                    int workers, int queueCapacity) {
+        this.paymentRepository = paymentRepository;
+        this.gateway = gateway;
+        this.referenceGenerator = referenceGenerator;
+        this.folioService = folioService;
+        this.metrics = metrics;
+        this.workers = workers;
+        this.queued = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public static synchronized PaymentPipeline getInstance() {
+        if (instance == null) {
+            DatabaseConfig config = new DatabaseConfig();
+            instance = new PaymentPipeline(new HibernatePaymentRepository(),
+                    new SimulatedPaymentGateway(config.getPaymentGatewayLatencyMs(), config.getPaymentGatewayFailureRate()),
+                    ReferenceGenerator.getInstance(), new FolioService(new HibernateFolioRepository()),
+                    DashboardMetrics.getInstance(),
+                    config.getPaymentWorkers(), config.getPaymentQueueCapacity());
+            instance.start();
+        }
+        return instance;
+    }
+
+    synchronized void start() {
+        if (!threads.isEmpty()) {
+            return;
+        }
+        for (int i = 1; i <= workers; i++) {
+            threads.add(daemon("payment-worker-" + i, this::authorizeLoop));
+        }
+        threads.add(daemon("payment-writer", this::writeLoop));
+        threads.forEach(Thread::start);
+    }
+
+    /**
+     * Stops the threads. Payments still queued are dropped; resubmitting them under the same keys
+     * is safe.
+     */
+    public synchronized void stop() {
+        threads.forEach(Thread::interrupt);
+        threads.clear();
+    }
+
+    /**
+     * Queues a payment and returns at once. {@code listener} hears every status change from here
+     * on, on a pipeline thread, so it should hand off quickly (to the EDT, for instance).
+     *
+     * @throws IllegalStateException if the queue is full; any listener that joined the refused
+     *         payment in the meantime hears it as {@link Status#FAILED}
+     */
+    public void submit(Request request, Listener listener) {
+        Job job = new Job(request);
+        Job existing = inFlight.putIfAbsent(request.idempotencyKey(), job);
+        if (existing != null) {
+            existing.listen(listener);
+            return;
+        }
+        job.listen(listener);
+        // Published before the job can reach a worker, so it never overwrites a later status
+        job.publish(Status.QUEUED, null, null);
+        if (!queued.offer(job)) {
+            String message = "Too many payments in progress, please try again shortly";
+            // The caller hears about it from the exception
+            job.unlisten(listener);
+            finish(job, Status.FAILED, null, message);
+            throw new IllegalStateException(message);
+        }
+    }
+
+    private void authorizeLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Job job;
+            try {
+                job = queued.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                authorize(job);
+            } catch (RuntimeException e) {
+                finish(job, Status.FAILED, null, "Payment could not be processed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void authorize(Job job) {
+        Request request = job.request;
+        job.publish(Status.PROCESSING, null, null);
+        Optional<Payment> recorded = paymentRepository.findByIdempotencyKey(request.idempotencyKey());
+        if (recorded.isPresent()) {
+            finish(job, Status.CAPTURED, recorded.get(), "Already paid");
+            return;
+        }
+        PaymentGateway.Authorization authorization =
+                gateway.authorize(request.idempotencyKey(), request.amount(), request.method());
+        if (!authorization.approved()) {
+            finish(job, Status.DECLINED, null, authorization.message());
+            return;
+        }
+        Reservation reservation = new Reservation();
+        reservation.setId(request.reservationId());
+        Payment payment = new Payment();
+        payment.setReservation(reservation);
+        payment.setAmount(request.amount());
+        payment.setMethod(request.method());
+        payment.setStatus(CAPTURED);
+        payment.setTransactionRef(referenceGenerator.next(TRANSACTION_PREFIX));
+        payment.setPaidAt(LocalDateTime.now());
+        payment.setIdempotencyKey(request.idempotencyKey());
+        job.payment = payment;
+        approved.add(job);
+    }
+
+    /**
+     * Writes whatever has been approved since the last write. Payments approved while a write is
+     * running wait for the next one, so batches grow with the load without delaying a lone payment.
+     */
+    private void writeLoop() {
+        List<Job> batch = new ArrayList<>(BATCH_SIZE);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(approved.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            approved.drainTo(batch, BATCH_SIZE - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Job> batch) {
+        Map<String, Payment> recorded;
+        try {
+            recorded = UnitOfWork.run(() -> {
+                paymentRepository.insertAll(batch.stream().map(job -> job.payment).toList());
+                Map<String, Payment> found = paymentRepository.findByIdempotencyKeys(
+                        batch.stream().map(job -> job.request.idempotencyKey()).toList());
+                // Posting in reservation order takes the reservation row locks in a consistent order
+                batch.stream()
+                        .filter(job -> isNew(job, found.get(job.request.idempotencyKey())))
+                        .map(job -> found.get(job.request.idempotencyKey()))
+                        .sorted(Comparator.comparingLong((Payment payment) -> payment.getReservation().getId()))
+                        .forEach(folioService::recordPayment);
+                return found;
+            });
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                // Write them one by one so a single bad payment does not fail the rest
+                for (Job job : batch) {
+                    write(List.of(job));
+                }
+                return;
+            }
+            // The gateway approval is kept against the key, so resubmitting completes the payment
+            finish(batch.get(0), Status.UNRECORDED, null, "Payment could not be recorded, please try again: " + e.getMessage());
+            return;
+        }
+        for (Job job : batch) {
+            Payment payment = recorded.get(job.request.idempotencyKey());
+            if (payment == null) {
+                finish(job, Status.UNRECORDED, null, "Payment could not be recorded, please try again");
+                continue;
+            }
+            // A payment written by an earlier attempt under the same key was already counted
+            if (isNew(job, payment)) {
+                metrics.paymentCaptured(payment.getAmount());
+            }
+            finish(job, Status.CAPTURED, payment, null);
+        }
+    }
+
+    /**
+     * Whether this job's write recorded the payment, rather than an earlier attempt under the same key.
+     */
+    private static boolean isNew(Job job, Payment recorded) {
+        return recorded != null && job.payment.getTransactionRef().equals(recorded.getTransactionRef());
+    }
+
+    private void finish(Job job, Status status, Payment payment, String message) {
+        job.publish(status, payment, message);
+        inFlight.remove(job.request.idempotencyKey(), job);
+    }
+
+    private static Thread daemon(String name, Runnable work) {
+        Thread thread = new Thread(work, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * {@code DECLINED} means the gateway refused the payment. {@code FAILED} means it could not be
+     * processed, and {@code UNRECORDED} that the gateway approved it but it could not be recorded;
+     * either way it is safe to resubmit under the same key.
+     */
+    public enum Status {
+        QUEUED, PROCESSING, CAPTURED, DECLINED, FAILED, UNRECORDED;
+
+        public boolean isFinal() {
+            return this == CAPTURED || this == DECLINED || this == FAILED || this == UNRECORDED;
+        }
+    }
+
+    /**
+     * A payment to take. The key must be the same every time the same payment is attempted.
+     */
+    public record Request(String idempotencyKey, long reservationId, double amount, String method) {
+        public Request {
+            if (idempotencyKey == null || idempotencyKey.isBlank()) {
+                throw new IllegalArgumentException("Idempotency key is required");
+            }
+        }
+    }
+
+    /**
+     * A status change. {@code payment} is set once captured; {@code message} explains a decline or failure.
+     */
+    public record Update(String idempotencyKey, Status status, Payment payment, String message) {
+    }
+
+    @FunctionalInterface
+    public interface Listener {
+        void onUpdate(Update update);
+    }
+
+    private static final class Job {
+        private final Request request;
+        private final List<Listener> listeners = new ArrayList<>();
+        private Update last;
+        private Payment payment;
+
+        private Job(Request request) {
+            this.request = request;
+        }
+
+        /**
+         * Adds a listener, first telling it the latest status if there is one.
+         */
+        synchronized void listen(Listener listener) {
+            listeners.add(listener);
+            if (last != null) {
+                deliver(listener, last);
+            }
+        }
+
+        synchronized void unlisten(Listener listener) {
+            listeners.remove(listener);
+        }
+
+        synchronized void publish(Status status, Payment payment, String message) {
+            last = new Update(request.idempotencyKey(), status, payment, message);
+            for (Listener listener : listeners) {
+                deliver(listener, last);
+            }
+        }
+
+        private static void deliver(Listener listener, Update update) {
+            try {
+                listener.onUpdate(update);
+            } catch (RuntimeException e) {
+                // One broken listener must not stop the payment or the others hearing about it
+                LOG.error("Payment listener failed for {}", update.idempotencyKey(), e);
+            }
+        }
+    }
+}
@@ -2,36 +2,70 @@ package com.hotel.service;
 
 import com.hotel.model.Payment;
 import com.hotel.model.Reservation;
+import com.hotel.repository.HibernateFolioRepository;
 import com.hotel.repository.HibernatePaymentRepository;
 import com.hotel.repository.HibernateReservationRepository;
+import com.hotel.repository.UnitOfWork;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Random;
 
 public class PaymentService {
+    private static final String TRANSACTION_PREFIX = "HRB";
+
     private final HibernatePaymentRepository paymentRepository;
     private final HibernateReservationRepository reservationRepository;
-    private final Random random = new Random();
+    private final DashboardMetrics metrics;
+    private final ReferenceGenerator referenceGenerator;
+    private final PaymentPipeline pipeline;
+    private final FolioService folioService;
 
     public PaymentService(HibernatePaymentRepository paymentRepository, 
                          HibernateReservationRepository reservationRepository) {
+        this(paymentRepository, reservationRepository, DashboardMetrics.getInstance(), ReferenceGenerator.getInstance(),
+                PaymentPipeline.getInstance(), new FolioService(new HibernateFolioRepository()));
+    }
+
+    public PaymentService(HibernatePaymentRepository paymentRepository,
+                          HibernateReservationRepository reservationRepository,
+                          DashboardMetrics metrics,
+                          ReferenceGenerator referenceGenerator,
+                          PaymentPipeline pipeline,
+                          FolioService folioService) {
         this.paymentRepository = paymentRepository;
         this.reservationRepository = reservationRepository;
+        this.metrics = metrics;
+        this.referenceGenerator = referenceGenerator;
+        this.pipeline = pipeline;
+        this.folioService = folioService;
+    }
+
+    /**
+     * Queues a card payment and returns at once; {@code listener} hears its progress. Submitting
+     * again with the same {@code idempotencyKey} joins or reports the original payment instead of
+     * charging twice.
+     */
+    public void submitPayment(String idempotencyKey, long reservationId, double amount, String method,
+                              PaymentPipeline.Listener listener) {
+        pipeline.submit(new PaymentPipeline.Request(idempotencyKey, reservationId, amount, method), listener);
     }
 
+    /**
+     * Records a payment in the caller's transaction, without a gateway round trip.
+     */
     public Payment processPayment(long reservationId, double amount, String method) {
-        Reservation reservation = reservationRepository.findById(reservationId)
-                .orElseThrow(() -> new IllegalArgumentException("Reservation not found"));
-        
-        Payment payment = new Payment();
-        payment.setReservation(reservation);
-        payment.setAmount(amount);
-        payment.setMethod(method);
-        payment.setStatus("CAPTURED");
-        payment.setTransactionRef(generateTransactionReference());
-        payment.setPaidAt(LocalDateTime.now());
-        return paymentRepository.save(payment);
+        return UnitOfWork.run(() -> {
+            // Only the foreign key is needed, so the reservation is not loaded
+            Reservation reservation = reservationRepository.getReference(reservationId);
+
+            Payment payment = new Payment();
+            payment.setReservation(reservation);
+            payment.setAmount(amount);
+            payment.setMethod(method);
+            payment.setStatus("CAPTURED");
+            payment.setTransactionRef(generateTransactionReference());
+            payment.setPaidAt(LocalDateTime.now());
+            return capture(payment);
+        });
     }
 
     public Payment simulatePayment(Reservation reservation, double amount, String method) {
@@ -42,15 +76,30 @@ public class PaymentService {
         payment.setStatus("CAPTURED");
         payment.setTransactionRef(generateTransactionReference());
         payment.setPaidAt(LocalDateTime.now());
-        return paymentRepository.save(payment);
+        return capture(payment);
+    }
+
+    private Payment capture(Payment payment) {
+        return UnitOfWork.run(() -> {
+            Payment saved = paymentRepository.save(payment);
+            folioService.recordPayment(saved);
+            UnitOfWork.afterCommit(() -> metrics.paymentCaptured(saved.getAmount()));
+            return saved;
+        });
     }
 
     private String generateTransactionReference() {
-        return "HRB-" + (100000 + random.nextInt(900000));
+        return referenceGenerator.next(TRANSACTION_PREFIX);
     }
 
     public Payment latestPayment(long reservationId) {
-        List<Payment> payments = paymentRepository.findByReservation(reservationId);
-        return payments.isEmpty() ? null : payments.get(payments.size() - 1);
+        return paymentRepository.findLatestByReservation(reservationId).orElse(null);
+    }
+
+    /**
+     * What the guest still owes on the reservation, in cents.
+     */
+    public long outstandingBalanceCents(long reservationId) {
+        return folioService.balanceCents(reservationId);
     }
 }
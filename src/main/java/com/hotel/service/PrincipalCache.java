@@ -0,0 +1,66 @@
+package com.hotel.service;
+
+import com.hotel.model.User;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Recently authenticated users by the username they logged in with, so repeat logins at shift
+ * change are checked in memory. Entries expire after {@link #TTL} and the least recently used are
+ * dropped beyond {@link #MAX_ENTRIES}. Account changes made through this application evict the
+ * user at once; changes made elsewhere show up once the entry expires.
+ */
+public class PrincipalCache {
+    private static final Duration TTL = Duration.ofMinutes(5);
+    private static final int MAX_ENTRIES = 256;
+    private static PrincipalCache instance;
+
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+
+    PrincipalCache(Duration ttl, int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public static synchronized PrincipalCache getInstance() {
+        if (instance == null) {
+            instance = new PrincipalCache(TTL, MAX_ENTRIES);
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the cached entry for {@code username}, or {@code null} if there is none or it has expired.
+     */
+    synchronized Entry get(String username) {
+        Entry entry = entries.get(username);
+        if (entry != null && System.nanoTime() - entry.loadedAt() > ttlNanos) {
+            entries.remove(username);
+            return null;
+        }
+        return entry;
+    }
+
+    synchronized void put(String username, User user) {
+        entries.put(username, new Entry(user, user.getPasswordHash(), System.nanoTime()));
+    }
+
+    public synchronized void invalidate(long userId) {
+        entries.values().removeIf(entry -> entry.user().getId() == userId);
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    record Entry(User user, String passwordHash, long loadedAt) {
+    }
+}
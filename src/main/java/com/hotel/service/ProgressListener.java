@@ -0,0 +1,11 @@
+package com.hotel.service;
+
+/**
+ * Receives progress from a long-running export or import on its worker thread, and is polled
+ * there for cancellation.
+ */
+public interface ProgressListener {
+    void rowsProcessed(long rows);
+
+    boolean isCancelled();
+}
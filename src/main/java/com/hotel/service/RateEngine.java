@@ -0,0 +1,312 @@
+package com.hotel.service;
+
+import com.hotel.model.RateRule;
+import com.hotel.model.RoomCategory;
+import com.hotel.repository.HibernateRateRuleRepository;
+import com.hotel.repository.HibernateRoomRepository;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Nightly rates per room category, in cents, with the season and weekend rules already applied.
+ * Each category keeps a running total of its nightly rates over a rolling window from a year back
+ * to two years ahead, so the cost of any stay inside the window is the difference of two entries;
+ * length-of-stay discounts are then applied to that total. Stays reaching outside the window are
+ * priced night by night with the same rules.
+ *
+ * <p>A category or rule edit recomputes only the categories it touches. The window moves forward
+ * with a full rebuild once today is {@link #SHIFT_AFTER_DAYS} days past where it was built. A
+ * category id the grid has not seen is looked up on its own; one that does not exist is
+ * remembered as missing until the next rebuild, so asking for it again fails without a query.
+ */
+public class RateEngine {
+    static final int HISTORY_DAYS = 366;
+    static final int HORIZON_DAYS = 730;
+    static final int SHIFT_AFTER_DAYS = 30;
+    private static RateEngine instance;
+
+    private final HibernateRoomRepository roomRepository;
+    private final HibernateRateRuleRepository rateRuleRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> rowsByCategory = new HashMap<>();
+    private final List<RateRule> rules = new ArrayList<>();
+    private final Set<Long> missingCategories = ConcurrentHashMap.newKeySet();
+    private long[] baseCents = new long[0];
+    /** {@code runningCents[row][i]} is the total for the nights from {@code firstDay} up to, not including, {@code firstDay + i}. */
+    private long[][] runningCents = new long[0][];
+    private volatile long firstDay;
+    private int days;
+    private volatile boolean loaded;
+
+    RateEngine(HibernateRoomRepository roomRepository, HibernateRateRuleRepository rateRuleRepository) {
+        this.roomRepository = roomRepository;
+        this.rateRuleRepository = rateRuleRepository;
+    }
+
+    public static synchronized RateEngine getInstance() {
+        if (instance == null) {
+            instance = new RateEngine(new HibernateRoomRepository(), new HibernateRateRuleRepository());
+        }
+        return instance;
+    }
+
+    /**
+     * Reloads every category and rule and recomputes the whole window around today.
+     */
+    public void rebuild() {
+        List<RoomCategory> categories = roomRepository.findAllCategories();
+        List<RateRule> loadedRules = rateRuleRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            rules.clear();
+            rules.addAll(loadedRules);
+            rowsByCategory.clear();
+            missingCategories.clear();
+            firstDay = LocalDate.now().toEpochDay() - HISTORY_DAYS;
+            days = HISTORY_DAYS + HORIZON_DAYS;
+            baseCents = new long[categories.size()];
+            runningCents = new long[categories.size()][];
+            for (RoomCategory category : categories) {
+                int row = rowsByCategory.size();
+                rowsByCategory.put(category.getId(), row);
+                baseCents[row] = toCents(category.getBaseRate());
+                fillRow(row, category.getId());
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cost of the nights from {@code checkIn} up to {@code checkOut}, in currency units.
+     */
+    public double stayCost(long categoryId, LocalDate checkIn, LocalDate checkOut) {
+        return stayCostCents(categoryId, checkIn, checkOut) / 100.0;
+    }
+
+    public long stayCostCents(long categoryId, LocalDate checkIn, LocalDate checkOut) {
+        long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
+        if (nights <= 0) {
+            return 0;
+        }
+        ensureLoaded(categoryId);
+        lock.readLock().lock();
+        try {
+            int row = row(categoryId);
+            long from = checkIn.toEpochDay() - firstDay;
+            long to = checkOut.toEpochDay() - firstDay;
+            long total;
+            if (from >= 0 && to <= days) {
+                total = runningCents[row][(int) to] - runningCents[row][(int) from];
+            } else {
+                total = 0;
+                for (long day = checkIn.toEpochDay(); day < checkOut.toEpochDay(); day++) {
+                    total += nightCents(row, categoryId, day);
+                }
+            }
+            return adjust(total, longStayPercent(categoryId, nights));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * What one night of a {@code stayNights}-night stay earns, length-of-stay discount included.
+     * Used where revenue is booked night by night.
+     */
+    public double nightlyRate(long categoryId, LocalDate night, long stayNights) {
+        ensureLoaded(categoryId);
+        lock.readLock().lock();
+        try {
+            int row = row(categoryId);
+            long index = night.toEpochDay() - firstDay;
+            long cents = index >= 0 && index < days
+                    ? runningCents[row][(int) index + 1] - runningCents[row][(int) index]
+                    : nightCents(row, categoryId, night.toEpochDay());
+            return adjust(cents, longStayPercent(categoryId, stayNights)) / 100.0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Picks up a new or repriced category.
+     */
+    public void updateCategory(RoomCategory category) {
+        if (!loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer row = rowsByCategory.get(category.getId());
+            if (row == null) {
+                row = rowsByCategory.size();
+                rowsByCategory.put(category.getId(), row);
+                baseCents = Arrays.copyOf(baseCents, row + 1);
+                runningCents = Arrays.copyOf(runningCents, row + 1);
+            }
+            baseCents[row] = toCents(category.getBaseRate());
+            fillRow(row, category.getId());
+            missingCategories.remove(category.getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a new or edited rule. An edit that moves a rule to another category reprices both.
+     */
+    public void ruleSaved(RateRule rule) {
+        if (!loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (RateRule existing : rules) {
+                if (existing.getId() == rule.getId() && !Objects.equals(existing.getCategoryId(), rule.getCategoryId())) {
+                    rules.remove(existing);
+                    refill(existing.getCategoryId());
+                    break;
+                }
+            }
+            rules.removeIf(existing -> existing.getId() == rule.getId());
+            rules.add(rule);
+            refill(rule.getCategoryId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void ruleDeleted(RateRule rule) {
+        if (!loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            rules.removeIf(existing -> existing.getId() == rule.getId());
+            refill(rule.getCategoryId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recomputes the row of {@code categoryId}, or every row for a rule that covers all categories.
+     */
+    private void refill(Long categoryId) {
+        for (Map.Entry<Long, Integer> entry : rowsByCategory.entrySet()) {
+            if (categoryId == null || categoryId.equals(entry.getKey())) {
+                fillRow(entry.getValue(), entry.getKey());
+            }
+        }
+    }
+
+    private void fillRow(int row, long categoryId) {
+        long[] running = new long[days + 1];
+        for (int i = 0; i < days; i++) {
+            running[i + 1] = running[i] + nightCents(row, categoryId, firstDay + i);
+        }
+        runningCents[row] = running;
+    }
+
+    /**
+     * The base rate with every season rule covering the night and, on a Friday or Saturday night,
+     * every weekend rule added up as one percentage.
+     */
+    private long nightCents(int row, long categoryId, long epochDay) {
+        LocalDate night = LocalDate.ofEpochDay(epochDay);
+        boolean weekend = night.getDayOfWeek() == DayOfWeek.FRIDAY || night.getDayOfWeek() == DayOfWeek.SATURDAY;
+        int percent = 0;
+        for (RateRule rule : rules) {
+            if (!rule.appliesTo(categoryId)) {
+                continue;
+            }
+            if (RateRule.SEASON.equals(rule.getType()) && inSeason(rule, night)) {
+                percent += rule.getPercent();
+            } else if (RateRule.WEEKEND.equals(rule.getType()) && weekend) {
+                percent += rule.getPercent();
+            }
+        }
+        return adjust(baseCents[row], percent);
+    }
+
+    /**
+     * The length-of-stay rule with the highest minimum the stay reaches wins.
+     */
+    private int longStayPercent(long categoryId, long nights) {
+        RateRule best = null;
+        for (RateRule rule : rules) {
+            if (RateRule.LONG_STAY.equals(rule.getType()) && rule.appliesTo(categoryId) && rule.getMinNights() <= nights
+                    && (best == null || rule.getMinNights() > best.getMinNights())) {
+                best = rule;
+            }
+        }
+        return best == null ? 0 : best.getPercent();
+    }
+
+    private static boolean inSeason(RateRule rule, LocalDate night) {
+        return (rule.getStartDate() == null || !night.isBefore(rule.getStartDate()))
+                && (rule.getEndDate() == null || !night.isAfter(rule.getEndDate()));
+    }
+
+    /**
+     * {@code cents} raised or lowered by {@code percent}, rounded to the nearest cent and never below zero.
+     */
+    private static long adjust(long cents, int percent) {
+        return percent == 0 ? cents : Math.max(0, Math.round(cents * (100 + percent) / 100.0));
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    private int row(long categoryId) {
+        Integer row = rowsByCategory.get(categoryId);
+        if (row == null) {
+            throw new IllegalArgumentException("Unknown room category: " + categoryId);
+        }
+        return row;
+    }
+
+    /**
+     * Loads the grid on first use, moves the window when it is due and picks up a category added
+     * by another instance. An unknown id is left for {@link #row(long)} to reject.
+     */
+    private void ensureLoaded(long categoryId) {
+        if (!loaded || LocalDate.now().toEpochDay() - firstDay > HISTORY_DAYS + SHIFT_AFTER_DAYS) {
+            synchronized (this) {
+                if (!loaded || LocalDate.now().toEpochDay() - firstDay > HISTORY_DAYS + SHIFT_AFTER_DAYS) {
+                    rebuild();
+                }
+            }
+        }
+        boolean known;
+        lock.readLock().lock();
+        try {
+            known = rowsByCategory.containsKey(categoryId);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!known && !missingCategories.contains(categoryId)) {
+            Optional<RoomCategory> category = roomRepository.findCategoryById(categoryId);
+            if (category.isPresent()) {
+                updateCategory(category.get());
+            } else {
+                missingCategories.add(categoryId);
+            }
+        }
+    }
+}
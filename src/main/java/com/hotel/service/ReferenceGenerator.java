@@ -0,0 +1,92 @@
+package com.hotel.service;
+
+import com.hotel.config.DatabaseConfig;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered 63-bit ids for externally visible references such as payment transaction numbers.
+ * An id is the milliseconds since {@link #EPOCH_MS} (41 bits), this instance's node id (10 bits)
+ * and a per-millisecond sequence (12 bits), so two nodes never produce the same id and one node
+ * produces 4096 per millisecond without coordination.
+ *
+ * <p>The last timestamp and sequence share one {@link AtomicLong}, advanced with a single
+ * compare-and-set, so callers never block. When a millisecond's sequence runs out, or the clock
+ * steps back, ids carry on from the last one issued rather than waiting, which keeps them unique
+ * and increasing.
+ *
+ * <p>References are a prefix plus the id in 13 Crockford base32 characters; the fixed width keeps
+ * them sortable as text in the order they were issued.
+ */
+public class ReferenceGenerator {
+    /** 2024-01-01T00:00:00Z; 41 bits of milliseconds last until 2093. */
+    static final long EPOCH_MS = 1_704_067_200_000L;
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE = (1 << NODE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 13;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static ReferenceGenerator instance;
+
+    private final long node;
+    /** Milliseconds since the epoch shifted left by {@link #SEQUENCE_BITS}, plus the sequence, of the last id issued. */
+    private final AtomicLong last = new AtomicLong();
+
+    ReferenceGenerator(int node) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE + ": " + node);
+        }
+        this.node = node;
+    }
+
+    public static synchronized ReferenceGenerator getInstance() {
+        if (instance == null) {
+            instance = new ReferenceGenerator(resolveNode(new DatabaseConfig().getNodeId()));
+        }
+        return instance;
+    }
+
+    public long nextId() {
+        long now = (System.currentTimeMillis() - EPOCH_MS) << SEQUENCE_BITS;
+        long next = last.accumulateAndGet(now, (previous, current) -> Math.max(previous + 1, current));
+        return (next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)
+                | node << SEQUENCE_BITS
+                | next & ((1L << SEQUENCE_BITS) - 1);
+    }
+
+    /**
+     * A new reference: {@code prefix}, a dash and a fresh id, for example {@code HRB-0A3F9K2M7QX1C}.
+     */
+    public String next(String prefix) {
+        long id = nextId();
+        char[] chars = new char[prefix.length() + 1 + ENCODED_LENGTH];
+        prefix.getChars(0, prefix.length(), chars, 0);
+        chars[prefix.length()] = '-';
+        for (int i = chars.length - 1; i > prefix.length(); i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * The configured node id, or one derived from the host name and process id when none is set.
+     * Derived ids can collide across hosts, which the unique indexes on the references would
+     * reject, so installations with several nodes should configure them.
+     */
+    private static int resolveNode(int configured) {
+        if (configured >= 0) {
+            return configured;
+        }
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "localhost";
+        }
+        return Math.floorMod(Objects.hash(host, ProcessHandle.current().pid()), MAX_NODE + 1);
+    }
+}
@@ -0,0 +1,203 @@
+package com.hotel.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.hotel.repository.HibernatePaymentRepository;
+import com.hotel.repository.HibernateReservationRepository;
+import com.hotel.repository.HibernateUserRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+/**
+ * Writes whole tables to CSV or JSON Lines for reports. Rows are streamed from the database
+ * straight into a buffered file writer one at a time, so memory use does not grow with history.
+ * The file is written next to the target and moved into place only when the export completes; a
+ * cancelled or failed export leaves the target untouched.
+ */
+public class ReportExporter {
+    private static final int PROGRESS_INTERVAL = 1000;
+    private static final JsonFactory JSON = new JsonFactory();
+
+    public enum Dataset {
+        RESERVATIONS("id", "username", "first_name", "last_name", "room_number", "check_in", "check_out",
+                "guest_count", "status", "created_at"),
+        PAYMENTS("id", "reservation_id", "amount", "method", "status", "transaction_ref", "paid_at"),
+        USERS("id", "username", "first_name", "last_name", "email", "role", "active", "created_at");
+
+        private final String[] columns;
+
+        Dataset(String... columns) {
+            this.columns = columns;
+        }
+
+        public String fileName() {
+            return name().toLowerCase();
+        }
+    }
+
+    public enum Format {
+        CSV("csv"),
+        JSON_LINES("jsonl");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    private final HibernateReservationRepository reservationRepository;
+    private final HibernatePaymentRepository paymentRepository;
+    private final HibernateUserRepository userRepository;
+
+    public ReportExporter() {
+        this(new HibernateUserRepository());
+    }
+
+    public ReportExporter(HibernateUserRepository userRepository) {
+        this(new HibernateReservationRepository(), new HibernatePaymentRepository(), userRepository);
+    }
+
+    public ReportExporter(HibernateReservationRepository reservationRepository, HibernatePaymentRepository paymentRepository,
+                          HibernateUserRepository userRepository) {
+        this.reservationRepository = reservationRepository;
+        this.paymentRepository = paymentRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Row count for a progress bar; the export itself may see a few more or fewer.
+     */
+    public long count(Dataset dataset) {
+        return switch (dataset) {
+            case RESERVATIONS -> reservationRepository.count(null);
+            case PAYMENTS -> paymentRepository.count();
+            case USERS -> userRepository.count();
+        };
+    }
+
+    /**
+     * Exports every row of {@code dataset} to {@code target} and returns the number written. The
+     * listener hears every 1000 rows and is polled for cancellation before each one.
+     *
+     * @throws CancellationException if the listener cancelled the export
+     */
+    public long export(Dataset dataset, Format format, Path target, ProgressListener listener) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Path partial = Files.createTempFile(directory, target.getFileName().toString(), ".part");
+        try {
+            long rows;
+            try (BufferedWriter writer = Files.newBufferedWriter(partial, StandardCharsets.UTF_8)) {
+                rows = format == Format.CSV
+                        ? writeCsv(dataset, writer, listener)
+                        : writeJsonLines(dataset, writer, listener);
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+            return rows;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    private long writeCsv(Dataset dataset, Writer writer, ProgressListener listener) throws IOException {
+        writeCsvLine(writer, dataset.columns);
+        return forEachRow(dataset, listener, row -> {
+            try {
+                writeCsvLine(writer, row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                String value = values[i].toString();
+                if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                    writer.write('"');
+                    writer.write(value.replace("\"", "\"\""));
+                    writer.write('"');
+                } else {
+                    writer.write(value);
+                }
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private long writeJsonLines(Dataset dataset, Writer writer, ProgressListener listener) throws IOException {
+        try (JsonGenerator generator = JSON.createGenerator(writer)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Lines are separated by the newline below rather than the default space
+            generator.setRootValueSeparator(null);
+            return forEachRow(dataset, listener, row -> {
+                try {
+                    generator.writeStartObject();
+                    for (int i = 0; i < row.length; i++) {
+                        writeField(generator, dataset.columns[i], row[i]);
+                    }
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private static void writeField(JsonGenerator generator, String name, Object value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof Long number) {
+            generator.writeNumber(number);
+        } else if (value instanceof Integer number) {
+            generator.writeNumber(number);
+        } else if (value instanceof Number number) {
+            generator.writeNumber(number.doubleValue());
+        } else if (value instanceof Boolean flag) {
+            generator.writeBoolean(flag);
+        } else {
+            generator.writeString(value.toString());
+        }
+    }
+
+    private long forEachRow(Dataset dataset, ProgressListener listener, Consumer<Object[]> writer) {
+        long[] rows = {0};
+        Consumer<Object[]> counting = row -> {
+            if (listener.isCancelled()) {
+                throw new CancellationException("Export cancelled");
+            }
+            writer.accept(row);
+            if (++rows[0] % PROGRESS_INTERVAL == 0) {
+                listener.rowsProcessed(rows[0]);
+            }
+        };
+        switch (dataset) {
+            case RESERVATIONS -> reservationRepository.forEachExportRow(counting);
+            case PAYMENTS -> paymentRepository.forEachExportRow(counting);
+            case USERS -> userRepository.forEachExportRow(counting);
+        }
+        listener.rowsProcessed(rows[0]);
+        return rows[0];
+    }
+}
@@ -0,0 +1,245 @@
+package com.hotel.service;
+
+import com.hotel.model.Room;
+import com.hotel.model.RoomCategory;
+import com.hotel.repository.HibernateReservationRepository;
+import com.hotel.repository.HibernateRoomRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory occupancy calendar with one bitset per room over a rolling horizon of nights.
+ * Bit {@code n} of a room is set when the night starting {@code base + n} days is taken, so a
+ * stay occupies the nights from check-in up to (but excluding) check-out.
+ *
+ * <p>The calendar keeps its own copies of the rooms and changes them only under its write lock;
+ * callers get fresh copies, so nothing outside reads a room while the calendar updates it.
+ *
+ * <p>A rebuild reads the database without holding the lock. Changes reported while it reads are
+ * kept and replayed onto the new state, so a booking that commits in the meantime is not lost.
+ * Replaying a change the read already saw is harmless, since each change sets a state rather
+ * than adjusting it.
+ */
+public class RoomAvailabilityCalendar {
+    private static final int HORIZON_DAYS = 730;
+    private static final int REBUILD_AFTER_DAYS = 30;
+    private static RoomAvailabilityCalendar instance;
+
+    private final HibernateRoomRepository roomRepository;
+    private final HibernateReservationRepository reservationRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Room> rooms = new LinkedHashMap<>();
+    private final Map<Long, BitSet> occupancy = new HashMap<>();
+    /** Changes made while a rebuild reads the database, in order; {@code null} outside a rebuild. */
+    private List<Runnable> changesDuringRebuild;
+    private volatile long baseEpochDay;
+    private volatile boolean loaded;
+
+    RoomAvailabilityCalendar(HibernateRoomRepository roomRepository, HibernateReservationRepository reservationRepository) {
+        this.roomRepository = roomRepository;
+        this.reservationRepository = reservationRepository;
+    }
+
+    public static synchronized RoomAvailabilityCalendar getInstance() {
+        if (instance == null) {
+            instance = new RoomAvailabilityCalendar(new HibernateRoomRepository(), new HibernateReservationRepository());
+        }
+        return instance;
+    }
+
+    /**
+     * Reloads rooms and every stay that ends after today. Called once at startup and again
+     * whenever the horizon has rolled forward far enough to be worth re-basing.
+     */
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LocalDate today = LocalDate.now();
+        List<Room> allRooms;
+        List<Object[]> stays;
+        try {
+            allRooms = roomRepository.findAll();
+            stays = reservationRepository.findOccupiedStays(today);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            rooms.clear();
+            occupancy.clear();
+            baseEpochDay = today.toEpochDay();
+            for (Room room : allRooms) {
+                rooms.put(room.getId(), copy(room));
+                occupancy.put(room.getId(), new BitSet(HORIZON_DAYS));
+            }
+            for (Object[] stay : stays) {
+                setNights((Long) stay[0], (LocalDate) stay[1], (LocalDate) stay[2], true);
+            }
+            changesDuringRebuild.forEach(Runnable::run);
+            changesDuringRebuild = null;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the whole stay falls inside the horizon this calendar can answer for.
+     */
+    public boolean covers(LocalDate checkIn, LocalDate checkOut) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return checkIn.toEpochDay() >= baseEpochDay && checkOut.toEpochDay() <= baseEpochDay + HORIZON_DAYS;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rooms free for the whole stay, as copies the caller may keep.
+     */
+    public List<Room> findAvailableRooms(LocalDate checkIn, LocalDate checkOut) {
+        ensureLoaded();
+        List<Room> available = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int from = (int) (checkIn.toEpochDay() - baseEpochDay);
+            int to = (int) (checkOut.toEpochDay() - baseEpochDay);
+            for (Room room : rooms.values()) {
+                if ("AVAILABLE".equals(room.getStatus()) && isFree(occupancy.get(room.getId()), from, to)) {
+                    available.add(copy(room));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return available;
+    }
+
+    public boolean isAvailable(long roomId, LocalDate checkIn, LocalDate checkOut) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            BitSet nights = occupancy.get(roomId);
+            return nights == null || isFree(nights, (int) (checkIn.toEpochDay() - baseEpochDay),
+                    (int) (checkOut.toEpochDay() - baseEpochDay));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void markBooked(long roomId, LocalDate checkIn, LocalDate checkOut) {
+        updateNights(roomId, checkIn, checkOut, true);
+    }
+
+    public void release(long roomId, LocalDate checkIn, LocalDate checkOut) {
+        updateNights(roomId, checkIn, checkOut, false);
+    }
+
+    public void updateRoom(Room room) {
+        Room copy = copy(room);
+        apply(() -> {
+            rooms.put(copy.getId(), copy(copy));
+            occupancy.computeIfAbsent(copy.getId(), id -> new BitSet(HORIZON_DAYS));
+        });
+    }
+
+    public void updateRoomStatus(long roomId, String status) {
+        apply(() -> {
+            Room room = rooms.get(roomId);
+            if (room != null) {
+                room.setStatus(status);
+            }
+        });
+    }
+
+    public void updateCategory(RoomCategory category) {
+        apply(() -> {
+            for (Room room : rooms.values()) {
+                if (room.getCategory() != null && room.getCategory().getId() == category.getId()) {
+                    room.setCategory(category);
+                }
+            }
+        });
+    }
+
+    private void updateNights(long roomId, LocalDate checkIn, LocalDate checkOut, boolean occupied) {
+        apply(() -> setNights(roomId, checkIn, checkOut, occupied));
+    }
+
+    /**
+     * Makes {@code change} under the write lock once the calendar is loaded, and keeps it for
+     * replay if a rebuild is reading the database.
+     */
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+            if (loaded) {
+                change.run();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void setNights(long roomId, LocalDate checkIn, LocalDate checkOut, boolean occupied) {
+        int from = (int) Math.max(0, checkIn.toEpochDay() - baseEpochDay);
+        int to = (int) Math.min(HORIZON_DAYS, checkOut.toEpochDay() - baseEpochDay);
+        if (from >= to) {
+            return;
+        }
+        occupancy.computeIfAbsent(roomId, id -> new BitSet(HORIZON_DAYS)).set(from, to, occupied);
+    }
+
+    private static Room copy(Room room) {
+        Room copy = new Room();
+        copy.setId(room.getId());
+        copy.setRoomNumber(room.getRoomNumber());
+        copy.setCategory(room.getCategory());
+        copy.setFloor(room.getFloor());
+        copy.setCapacity(room.getCapacity());
+        copy.setViewType(room.getViewType());
+        copy.setStatus(room.getStatus());
+        copy.setPhotoUrl(room.getPhotoUrl());
+        copy.setDescription(room.getDescription());
+        copy.setNightlyRate(room.getNightlyRate());
+        return copy;
+    }
+
+    private static boolean isFree(BitSet nights, int from, int to) {
+        int taken = nights.nextSetBit(Math.max(0, from));
+        return taken < 0 || taken >= to;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded || LocalDate.now().toEpochDay() - baseEpochDay >= REBUILD_AFTER_DAYS) {
+            synchronized (this) {
+                if (!loaded || LocalDate.now().toEpochDay() - baseEpochDay >= REBUILD_AFTER_DAYS) {
+                    rebuild();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.hotel.service;
+
+/**
+ * Filter for the customer room browser. Unset attributes match every room; the price band is
+ * inclusive at both ends and the guest count keeps rooms that sleep at least that many.
+ */
+public class RoomSearchFilter {
+    public enum Sort {
+        ROOM_NUMBER, PRICE_LOW_TO_HIGH, PRICE_HIGH_TO_LOW, FLOOR
+    }
+
+    private String status = "AVAILABLE";
+    private Long categoryId;
+    private Integer floor;
+    private String viewType;
+    private Double minPrice;
+    private Double maxPrice;
+    private Integer guests;
+    private Sort sort = Sort.ROOM_NUMBER;
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status == null || status.isBlank() ? null : status.trim();
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Integer getFloor() {
+        return floor;
+    }
+
+    public void setFloor(Integer floor) {
+        this.floor = floor;
+    }
+
+    public String getViewType() {
+        return viewType;
+    }
+
+    public void setViewType(String viewType) {
+        this.viewType = viewType == null || viewType.isBlank() ? null : viewType.trim();
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setPriceRange(Double minPrice, Double maxPrice) {
+        if (minPrice != null && maxPrice != null && maxPrice < minPrice) {
+            throw new IllegalArgumentException("Maximum price must not be below the minimum");
+        }
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+    }
+
+    public Integer getGuests() {
+        return guests;
+    }
+
+    public void setGuests(Integer guests) {
+        this.guests = guests;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public void setSort(Sort sort) {
+        this.sort = sort == null ? Sort.ROOM_NUMBER : sort;
+    }
+}
@@ -0,0 +1,384 @@
+package com.hotel.service;
+
+import com.hotel.model.Room;
+import com.hotel.model.RoomCategory;
+import com.hotel.repository.HibernateRoomRepository;
+import com.hotel.repository.RoomCard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index over every room for the customer room browser. Each room occupies a slot, and
+ * each value of status, category, floor, view type and capacity keeps a bitset of the slots that
+ * have it, so a combined filter is a handful of bitset intersections. Slots are also kept sorted
+ * by room number, price and floor; a price band is a binary search on the price order, and a sort
+ * walks the wanted order keeping only the matching slots. A single room or category change moves
+ * just the affected slots within each order, found by binary search, rather than re-sorting.
+ */
+public class RoomSearchIndex {
+    private static final Comparator<String> ROOM_NUMBER_ORDER =
+            Comparator.nullsLast(Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+    private static RoomSearchIndex instance;
+
+    private final HibernateRoomRepository roomRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slotsByRoomId = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final Map<String, BitSet> byStatus = new HashMap<>();
+    private final Map<Long, BitSet> byCategory = new HashMap<>();
+    private final Map<Integer, BitSet> byFloor = new HashMap<>();
+    private final Map<String, BitSet> byViewType = new HashMap<>();
+    private final NavigableMap<Integer, BitSet> byCapacity = new TreeMap<>();
+    private RoomCard[] cards = new RoomCard[0];
+    private int slotCount;
+    private int[] orderByRoomNumber = new int[0];
+    private int[] orderByPrice = new int[0];
+    private int[] orderByFloor = new int[0];
+    private volatile boolean loaded;
+    // Total orders: ties fall back to room number and then the slot itself, so every slot has one place
+    private final Comparator<Integer> numberOrder = Comparator.<Integer, String>comparing(slot -> cards[slot].roomNumber(), ROOM_NUMBER_ORDER)
+            .thenComparingInt(Integer::intValue);
+    private final Comparator<Integer> priceOrder = Comparator.comparingDouble((Integer slot) -> cards[slot].nightlyRate())
+            .thenComparing(numberOrder);
+    private final Comparator<Integer> floorOrder = Comparator.comparingInt((Integer slot) -> cards[slot].floor())
+            .thenComparing(numberOrder);
+
+    RoomSearchIndex(HibernateRoomRepository roomRepository) {
+        this.roomRepository = roomRepository;
+    }
+
+    public static synchronized RoomSearchIndex getInstance() {
+        if (instance == null) {
+            instance = new RoomSearchIndex(new HibernateRoomRepository());
+        }
+        return instance;
+    }
+
+    /**
+     * Reloads every room. Called on first use and after bulk imports.
+     */
+    public void rebuild() {
+        List<Room> rooms = roomRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            slotsByRoomId.clear();
+            live.clear();
+            byStatus.clear();
+            byCategory.clear();
+            byFloor.clear();
+            byViewType.clear();
+            byCapacity.clear();
+            cards = new RoomCard[Math.max(16, rooms.size())];
+            slotCount = 0;
+            for (Room room : rooms) {
+                addSlot(room);
+            }
+            resort();
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<RoomCard> search(RoomSearchFilter filter) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            BitSet matches = (BitSet) live.clone();
+            if (filter.getStatus() != null) {
+                matches.and(posting(byStatus, filter.getStatus()));
+            }
+            if (filter.getCategoryId() != null) {
+                matches.and(posting(byCategory, filter.getCategoryId()));
+            }
+            if (filter.getFloor() != null) {
+                matches.and(posting(byFloor, filter.getFloor()));
+            }
+            if (filter.getViewType() != null) {
+                matches.and(posting(byViewType, filter.getViewType()));
+            }
+            if (filter.getGuests() != null) {
+                BitSet fits = new BitSet(slotCount);
+                for (BitSet slots : byCapacity.tailMap(filter.getGuests(), true).values()) {
+                    fits.or(slots);
+                }
+                matches.and(fits);
+            }
+            if (filter.getMinPrice() != null || filter.getMaxPrice() != null) {
+                matches.and(priceBand(filter.getMinPrice(), filter.getMaxPrice()));
+            }
+            return switch (filter.getSort()) {
+                case ROOM_NUMBER -> collect(orderByRoomNumber, matches, false);
+                case PRICE_LOW_TO_HIGH -> collect(orderByPrice, matches, false);
+                case PRICE_HIGH_TO_LOW -> collect(orderByPrice, matches, true);
+                case FLOOR -> collect(orderByFloor, matches, false);
+            };
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Floors that have at least one room, lowest first, for the browser's filter choices.
+     */
+    public List<Integer> floors() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return nonEmptyKeys(byFloor).stream().sorted().toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<String> viewTypes() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return nonEmptyKeys(byViewType).stream().sorted().toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void updateRoom(Room room) {
+        if (!loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsByRoomId.get(room.getId());
+            if (slot == null) {
+                slot = addSlot(room);
+            } else {
+                removeFromOrders(slot);
+                unindex(slot);
+                cards[slot] = RoomCard.of(room);
+                index(slot);
+            }
+            insertIntoOrders(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateRoomStatus(long roomId, String status) {
+        if (!loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsByRoomId.get(roomId);
+            if (slot == null) {
+                return;
+            }
+            RoomCard card = cards[slot];
+            posting(byStatus, card.status()).clear(slot);
+            cards[slot] = new RoomCard(card.id(), card.roomNumber(), card.floor(), card.capacity(), card.viewType(),
+                    status, card.photoUrl(), card.description(), card.categoryId(), card.categoryName(), card.nightlyRate());
+            byStatus.computeIfAbsent(status, key -> new BitSet()).set(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Carries a renamed or repriced category onto its rooms' cards.
+     */
+    public void updateCategory(RoomCategory category) {
+        if (!loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            BitSet slots = posting(byCategory, category.getId());
+            for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+                RoomCard card = cards[slot];
+                // Only the price order depends on the category
+                orderByPrice = remove(orderByPrice, slot, priceOrder);
+                cards[slot] = new RoomCard(card.id(), card.roomNumber(), card.floor(), card.capacity(), card.viewType(),
+                        card.status(), card.photoUrl(), card.description(), category.getId(), category.getName(),
+                        category.getBaseRate());
+                orderByPrice = insert(orderByPrice, slot, priceOrder);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int addSlot(Room room) {
+        int slot = slotCount++;
+        if (slot == cards.length) {
+            cards = Arrays.copyOf(cards, slot * 2);
+        }
+        cards[slot] = RoomCard.of(room);
+        slotsByRoomId.put(room.getId(), slot);
+        live.set(slot);
+        index(slot);
+        return slot;
+    }
+
+    private void index(int slot) {
+        RoomCard card = cards[slot];
+        byStatus.computeIfAbsent(card.status(), key -> new BitSet()).set(slot);
+        byCategory.computeIfAbsent(card.categoryId(), key -> new BitSet()).set(slot);
+        byFloor.computeIfAbsent(card.floor(), key -> new BitSet()).set(slot);
+        byViewType.computeIfAbsent(card.viewType(), key -> new BitSet()).set(slot);
+        byCapacity.computeIfAbsent(card.capacity(), key -> new BitSet()).set(slot);
+    }
+
+    private void unindex(int slot) {
+        RoomCard card = cards[slot];
+        posting(byStatus, card.status()).clear(slot);
+        posting(byCategory, card.categoryId()).clear(slot);
+        posting(byFloor, card.floor()).clear(slot);
+        posting(byViewType, card.viewType()).clear(slot);
+        posting(byCapacity, card.capacity()).clear(slot);
+    }
+
+    private void resort() {
+        orderByRoomNumber = sortedSlots(numberOrder);
+        orderByPrice = sortedSlots(priceOrder);
+        orderByFloor = sortedSlots(floorOrder);
+    }
+
+    /**
+     * Takes the slot out of every order; call while its card still holds the values it was sorted by.
+     */
+    private void removeFromOrders(int slot) {
+        orderByRoomNumber = remove(orderByRoomNumber, slot, numberOrder);
+        orderByPrice = remove(orderByPrice, slot, priceOrder);
+        orderByFloor = remove(orderByFloor, slot, floorOrder);
+    }
+
+    private void insertIntoOrders(int slot) {
+        orderByRoomNumber = insert(orderByRoomNumber, slot, numberOrder);
+        orderByPrice = insert(orderByPrice, slot, priceOrder);
+        orderByFloor = insert(orderByFloor, slot, floorOrder);
+    }
+
+    private static int[] remove(int[] order, int slot, Comparator<Integer> comparator) {
+        int position = lowerBound(order, slot, comparator);
+        if (position == order.length || order[position] != slot) {
+            return order;
+        }
+        int[] result = new int[order.length - 1];
+        System.arraycopy(order, 0, result, 0, position);
+        System.arraycopy(order, position + 1, result, position, result.length - position);
+        return result;
+    }
+
+    private static int[] insert(int[] order, int slot, Comparator<Integer> comparator) {
+        int position = lowerBound(order, slot, comparator);
+        int[] result = new int[order.length + 1];
+        System.arraycopy(order, 0, result, 0, position);
+        result[position] = slot;
+        System.arraycopy(order, position, result, position + 1, order.length - position);
+        return result;
+    }
+
+    /**
+     * Position of the first slot in {@code order} that does not sort before {@code slot}.
+     */
+    private static int lowerBound(int[] order, int slot, Comparator<Integer> comparator) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(order[mid], slot) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int[] sortedSlots(Comparator<Integer> order) {
+        Integer[] slots = new Integer[live.cardinality()];
+        int i = 0;
+        for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+            slots[i++] = slot;
+        }
+        Arrays.sort(slots, order);
+        return Arrays.stream(slots).mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Slots whose nightly rate lies in {@code [min, max]}, found by binary search on the price order.
+     */
+    private BitSet priceBand(Double min, Double max) {
+        int from = min == null ? 0 : firstAtLeast(min, false);
+        int to = max == null ? orderByPrice.length : firstAtLeast(max, true);
+        BitSet band = new BitSet(slotCount);
+        for (int i = from; i < to; i++) {
+            band.set(orderByPrice[i]);
+        }
+        return band;
+    }
+
+    /**
+     * Position of the first slot in price order whose rate is at least {@code price}, or above it
+     * when {@code exclusive}.
+     */
+    private int firstAtLeast(double price, boolean exclusive) {
+        int low = 0;
+        int high = orderByPrice.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            double rate = cards[orderByPrice[mid]].nightlyRate();
+            if (rate < price || (exclusive && rate == price)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private List<RoomCard> collect(int[] order, BitSet matches, boolean descending) {
+        int wanted = matches.cardinality();
+        List<RoomCard> result = new ArrayList<>(wanted);
+        for (int i = 0; i < order.length && result.size() < wanted; i++) {
+            int slot = order[descending ? order.length - 1 - i : i];
+            if (matches.get(slot)) {
+                result.add(cards[slot]);
+            }
+        }
+        return result;
+    }
+
+    private static <K> BitSet posting(Map<K, BitSet> postings, K key) {
+        BitSet slots = postings.get(key);
+        return slots != null ? slots : new BitSet();
+    }
+
+    private static <K> List<K> nonEmptyKeys(Map<K, BitSet> postings) {
+        List<K> keys = new ArrayList<>();
+        for (Map.Entry<K, BitSet> entry : postings.entrySet()) {
+            if (entry.getKey() != null && !entry.getValue().isEmpty()) {
+                keys.add(entry.getKey());
+            }
+        }
+        return keys;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.hotel.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for a card processor, for development and throughput tests. Every authorization
+ * waits {@code latencyMs} and is declined with probability {@code failureRate}. Approvals are
+ * remembered by idempotency key for the life of the process, so a retried request is approved
+ * again without another round trip; declined keys may be retried.
+ */
+public class SimulatedPaymentGateway implements PaymentGateway {
+    private final long latencyMs;
+    private final double failureRate;
+    private final Map<String, Authorization> approvals = new ConcurrentHashMap<>();
+
+    public SimulatedPaymentGateway(long latencyMs, double failureRate) {
+        if (latencyMs < 0 || failureRate < 0 || failureRate > 1) {
+            throw new IllegalArgumentException("Latency must not be negative and the failure rate must be between 0 and 1");
+        }
+        this.latencyMs = latencyMs;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public Authorization authorize(String idempotencyKey, double amount, String method) {
+        Authorization previous = approvals.get(idempotencyKey);
+        if (previous != null) {
+            return previous;
+        }
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Authorization.decline("Gateway request interrupted");
+            }
+        }
+        if (amount <= 0) {
+            return Authorization.decline("Invalid amount");
+        }
+        if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+            return Authorization.decline("Card declined by issuer");
+        }
+        Authorization approval = Authorization.approve();
+        Authorization raced = approvals.putIfAbsent(idempotencyKey, approval);
+        return raced != null ? raced : approval;
+    }
+}
@@ -0,0 +1,80 @@
+package com.hotel.ui;
+
+import com.hotel.service.BulkImporter;
+
+import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.awt.*;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Stream;
+
+/**
+ * The import flow for onboarding a property: pick what to load and a CSV or JSON Lines file,
+ * then run the import in the background behind a cancellable progress monitor.
+ */
+public final class BulkImportAction {
+    private BulkImportAction() {
+    }
+
+    public static void start(Component parent, BulkImporter importer, Runnable onImported) {
+        JComboBox<BulkImporter.Dataset> datasetBox = new JComboBox<>(BulkImporter.Dataset.values());
+        JPanel options = new JPanel(new GridLayout(0, 2, 10, 8));
+        options.add(new JLabel("Data:"));
+        options.add(datasetBox);
+        if (JOptionPane.showConfirmDialog(parent, options, "Import Data", JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
+        BulkImporter.Dataset dataset = (BulkImporter.Dataset) datasetBox.getSelectedItem();
+
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Import " + dataset.name().toLowerCase()
+            + " (columns: " + String.join(", ", dataset.columns()) + ")");
+        fileChooser.setFileFilter(new FileNameExtensionFilter("CSV or JSON Lines", "csv", "jsonl"));
+        if (fileChooser.showOpenDialog(parent) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = fileChooser.getSelectedFile();
+
+        ProgressMonitor monitor = new ProgressMonitor(parent, "Importing " + file.getName() + "...", "", 0, 1);
+        MonitorProgressListener listener = new MonitorProgressListener(monitor);
+        UiTaskExecutor.getInstance().submit(parent,
+            () -> {
+                long lines;
+                try (Stream<String> stream = Files.lines(file.toPath())) {
+                    lines = stream.count();
+                }
+                SwingUtilities.invokeLater(() -> monitor.setMaximum((int) Math.max(1, Math.min(lines, Integer.MAX_VALUE))));
+                return importer.importFile(dataset, file.toPath(), listener);
+            },
+            result -> {
+                monitor.close();
+                String message = "Imported " + result.imported() + " rows.";
+                if (result.rejected() > 0) {
+                    message += "\n" + result.rejected() + " rows were rejected; see:\n" + result.rejectionReport();
+                }
+                JOptionPane.showMessageDialog(parent, message, "Import Complete",
+                    result.rejected() > 0 ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
+                if (onImported != null) {
+                    onImported.run();
+                }
+            },
+            e -> {
+                monitor.close();
+                if (e instanceof CancellationException) {
+                    JOptionPane.showMessageDialog(parent, "Import cancelled. Rows already imported were kept.",
+                        "Import", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(parent,
+                        "Error importing data: " + e.getMessage(),
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE);
+                }
+                if (onImported != null) {
+                    onImported.run();
+                }
+            });
+    }
+}
@@ -1,24 +1,21 @@
 package com.hotel.ui;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
-import java.io.IOException;
-import java.io.InputStream;
+import java.awt.image.BufferedImage;
 
 public final class ImageLoader {
     private ImageLoader() {
     }
 
     public static ImageIcon load(String path, int width, int height) {
-        try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(path)) {
-            if (in == null) {
-                return null;
-            }
-            Image image = ImageIO.read(in).getScaledInstance(width, height, Image.SCALE_SMOOTH);
-            return new ImageIcon(image);
-        } catch (IOException e) {
+        BufferedImage thumbnail = RoomImageService.getInstance().load(path, width, height).join();
+        if (thumbnail == null) {
             return null;
         }
+        if (thumbnail.getWidth() == width && thumbnail.getHeight() == height) {
+            return new ImageIcon(thumbnail);
+        }
+        return new ImageIcon(thumbnail.getScaledInstance(width, height, Image.SCALE_SMOOTH));
     }
 }
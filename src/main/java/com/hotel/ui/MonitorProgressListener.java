@@ -0,0 +1,34 @@
+package com.hotel.ui;
+
+import com.hotel.service.ProgressListener;
+
+import javax.swing.*;
+
+/**
+ * Forwards progress to a {@link ProgressMonitor} on the EDT and picks up its Cancel button there,
+ * so the worker thread only reads a volatile flag.
+ */
+final class MonitorProgressListener implements ProgressListener {
+    private final ProgressMonitor monitor;
+    private volatile boolean cancelled;
+
+    MonitorProgressListener(ProgressMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    public void rowsProcessed(long rows) {
+        SwingUtilities.invokeLater(() -> {
+            monitor.setNote(rows + " rows");
+            monitor.setProgress((int) Math.min(rows, monitor.getMaximum() - 1L));
+            if (monitor.isCanceled()) {
+                cancelled = true;
+            }
+        });
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
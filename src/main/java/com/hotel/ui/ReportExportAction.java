@@ -0,0 +1,69 @@
+package com.hotel.ui;
+
+import com.hotel.service.ReportExporter;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+import java.time.LocalDate;
+import java.util.concurrent.CancellationException;
+
+/**
+ * The export flow shared by the dashboards: pick a dataset and format, pick a file, then stream
+ * the export in the background behind a cancellable progress monitor.
+ */
+public final class ReportExportAction {
+    private ReportExportAction() {
+    }
+
+    public static void start(Component parent, ReportExporter exporter, ReportExporter.Dataset... datasets) {
+        JComboBox<ReportExporter.Dataset> datasetBox = new JComboBox<>(datasets);
+        JComboBox<ReportExporter.Format> formatBox = new JComboBox<>(ReportExporter.Format.values());
+        JPanel options = new JPanel(new GridLayout(0, 2, 10, 8));
+        options.add(new JLabel("Data:"));
+        options.add(datasetBox);
+        options.add(new JLabel("Format:"));
+        options.add(formatBox);
+        if (JOptionPane.showConfirmDialog(parent, options, "Export Data", JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
+        ReportExporter.Dataset dataset = (ReportExporter.Dataset) datasetBox.getSelectedItem();
+        ReportExporter.Format format = (ReportExporter.Format) formatBox.getSelectedItem();
+
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Save Export");
+        fileChooser.setSelectedFile(new File(dataset.fileName() + "_" + LocalDate.now() + "." + format.extension()));
+        if (fileChooser.showSaveDialog(parent) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = fileChooser.getSelectedFile();
+
+        ProgressMonitor monitor = new ProgressMonitor(parent, "Exporting " + dataset.fileName() + "...", "", 0, 1);
+        MonitorProgressListener listener = new MonitorProgressListener(monitor);
+        UiTaskExecutor.getInstance().submit(parent,
+            () -> {
+                long total = exporter.count(dataset);
+                SwingUtilities.invokeLater(() -> monitor.setMaximum((int) Math.max(1, Math.min(total, Integer.MAX_VALUE))));
+                return exporter.export(dataset, format, file.toPath(), listener);
+            },
+            rows -> {
+                monitor.close();
+                JOptionPane.showMessageDialog(parent,
+                    "Exported " + rows + " rows to:\n" + file.getAbsolutePath(),
+                    "Success",
+                    JOptionPane.INFORMATION_MESSAGE);
+            },
+            e -> {
+                monitor.close();
+                if (e instanceof CancellationException) {
+                    JOptionPane.showMessageDialog(parent, "Export cancelled.", "Export", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(parent,
+                        "Error exporting data: " + e.getMessage(),
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE);
+                }
+            });
+    }
+}
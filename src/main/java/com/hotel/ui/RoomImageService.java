@@ -0,0 +1,195 @@
+package com.hotel.ui;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads room photos as pre-scaled thumbnails. Decoded thumbnails are kept in an LRU bounded by
+ * their pixel bytes and written to a disk cache, so paging through rooms neither re-downloads nor
+ * re-decodes full-size photos. Concurrent requests for the same thumbnail share a single load.
+ */
+public final class RoomImageService {
+    private static final int LOADER_THREADS = 4;
+    private static final long MAX_CACHE_BYTES = 48L * 1024 * 1024;
+    private static final Path DISK_CACHE_DIR = Paths.get(System.getProperty("user.home"), ".hotel-reservation", "image-cache");
+    private static final RoomImageService INSTANCE = new RoomImageService();
+
+    private final LinkedHashMap<String, BufferedImage> memoryCache = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, CompletableFuture<BufferedImage>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private long cachedBytes;
+
+    private RoomImageService() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(LOADER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "room-image-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static RoomImageService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the thumbnail if it is already decoded in memory, without touching disk or network.
+     */
+    public BufferedImage getCached(String source, int width, int height) {
+        return fromMemory(cacheKey(source, width, height));
+    }
+
+    /**
+     * Loads {@code source} (an http(s) URL, a file path or a classpath resource) scaled so that it
+     * covers a {@code width} x {@code height} box. Completes with {@code null} if the image cannot be read.
+     */
+    public CompletableFuture<BufferedImage> load(String source, int width, int height) {
+        if (source == null || source.isBlank()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        String key = cacheKey(source, width, height);
+        BufferedImage cached = fromMemory(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<BufferedImage> future = new CompletableFuture<>();
+        CompletableFuture<BufferedImage> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing;
+        }
+        executor.execute(() -> {
+            try {
+                future.complete(loadThumbnail(source, key, width, height));
+            } catch (RuntimeException e) {
+                future.complete(null);
+            } finally {
+                inFlight.remove(key, future);
+            }
+        });
+        return future;
+    }
+
+    private BufferedImage loadThumbnail(String source, String key, int width, int height) {
+        try {
+            boolean remote = source.startsWith("http");
+            Path diskFile = DISK_CACHE_DIR.resolve(sha256(key) + ".png");
+            BufferedImage thumbnail = remote && Files.exists(diskFile) ? ImageIO.read(diskFile.toFile()) : null;
+            if (thumbnail == null) {
+                BufferedImage original = read(source);
+                if (original == null) {
+                    return null;
+                }
+                thumbnail = scaleToCover(original, width, height);
+                if (remote) {
+                    writeToDisk(thumbnail, diskFile);
+                }
+            }
+            remember(key, thumbnail);
+            return thumbnail;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static BufferedImage read(String source) throws IOException {
+        if (source.startsWith("http")) {
+            return ImageIO.read(new URL(source));
+        }
+        File file = new File(source);
+        if (file.exists()) {
+            return ImageIO.read(file);
+        }
+        try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(source)) {
+            return in == null ? null : ImageIO.read(in);
+        }
+    }
+
+    private static BufferedImage scaleToCover(BufferedImage original, int width, int height) {
+        double scale = Math.max((double) width / original.getWidth(), (double) height / original.getHeight());
+        if (scale >= 1.0) {
+            scale = 1.0; // never upscale; the painter stretches small images anyway
+        }
+        int scaledWidth = Math.max(1, (int) Math.round(original.getWidth() * scale));
+        int scaledHeight = Math.max(1, (int) Math.round(original.getHeight() * scale));
+        BufferedImage scaled = new BufferedImage(scaledWidth, scaledHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = scaled.createGraphics();
+        try {
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2d.drawImage(original, 0, 0, scaledWidth, scaledHeight, null);
+        } finally {
+            g2d.dispose();
+        }
+        return scaled;
+    }
+
+    private static void writeToDisk(BufferedImage thumbnail, Path diskFile) {
+        try {
+            Files.createDirectories(diskFile.getParent());
+            Path temp = Files.createTempFile(diskFile.getParent(), "thumb", ".tmp");
+            ImageIO.write(thumbnail, "png", temp.toFile());
+            Files.move(temp, diskFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The disk cache is best effort; the in-memory copy is still served
+        }
+    }
+
+    private synchronized BufferedImage fromMemory(String key) {
+        return memoryCache.get(key);
+    }
+
+    private synchronized void remember(String key, BufferedImage image) {
+        BufferedImage previous = memoryCache.put(key, image);
+        if (previous != null) {
+            cachedBytes -= sizeOf(previous);
+        }
+        cachedBytes += sizeOf(image);
+        Iterator<BufferedImage> eldest = memoryCache.values().iterator();
+        while (cachedBytes > MAX_CACHE_BYTES && eldest.hasNext()) {
+            BufferedImage evicted = eldest.next();
+            if (evicted == image) {
+                break;
+            }
+            cachedBytes -= sizeOf(evicted);
+            eldest.remove();
+        }
+    }
+
+    private static long sizeOf(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * 4;
+    }
+
+    private static String cacheKey(String source, int width, int height) {
+        return source + '@' + width + 'x' + height;
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.hotel.ui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs database work off the event-dispatch thread and delivers results back on it.
+ *
+ * <p>Tasks submitted under the same key are coalesced: while one is running, further submissions
+ * collapse into a single pending rerun that starts once the current one finishes. While any task
+ * bound to a component is outstanding, that component shows the wait cursor. Work that finishes
+ * elsewhere, such as a queued payment, can hold the same cursor with {@link #holdBusy}.
+ */
+public final class UiTaskExecutor {
+    private static final int WORKER_THREADS = 4;
+    private static final UiTaskExecutor INSTANCE = new UiTaskExecutor();
+
+    private final ExecutorService executor;
+    private final Map<String, Task<?>> running = new HashMap<>();
+    private final Map<String, Task<?>> pending = new HashMap<>();
+    private final Map<Component, Integer> busyCounts = new WeakHashMap<>();
+
+    private UiTaskExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(WORKER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "ui-task-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static UiTaskExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Runs {@code work} in the background without coalescing.
+     */
+    public <T> Task<T> submit(Component busyTarget, Callable<T> work, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        return submit(null, busyTarget, work, onSuccess, onError);
+    }
+
+    /**
+     * Runs {@code work} in the background and passes its result to {@code onSuccess} on the EDT, or
+     * its failure to {@code onError}. A non-null {@code key} coalesces duplicate refreshes.
+     */
+    public synchronized <T> Task<T> submit(String key, Component busyTarget, Callable<T> work,
+                                           Consumer<T> onSuccess, Consumer<Exception> onError) {
+        Task<T> task = new Task<>(key, busyTarget, work, onSuccess, onError);
+        if (key != null && running.containsKey(key)) {
+            Task<?> superseded = pending.put(key, task);
+            if (superseded != null) {
+                superseded.cancelled = true;
+            }
+            return task;
+        }
+        start(task);
+        return task;
+    }
+
+    /**
+     * Shows the wait cursor on {@code target} until the returned action is run, sharing the count
+     * that submitted tasks use. The action may be run from any thread; only the first run counts.
+     */
+    public Runnable holdBusy(Component target) {
+        changeBusy(target, 1);
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                changeBusy(target, -1);
+            }
+        };
+    }
+
+    private void start(Task<?> task) {
+        if (task.key != null) {
+            running.put(task.key, task);
+        }
+        changeBusy(task.busyTarget, 1);
+        executor.execute(task::execute);
+    }
+
+    private synchronized void finished(Task<?> task) {
+        if (task.key == null) {
+            return;
+        }
+        running.remove(task.key);
+        Task<?> next = pending.remove(task.key);
+        if (next != null && !next.cancelled) {
+            start(next);
+        }
+    }
+
+    private void changeBusy(Component target, int delta) {
+        if (target == null) {
+            return;
+        }
+        SwingUtilities.invokeLater(() -> {
+            int count = busyCounts.getOrDefault(target, 0) + delta;
+            if (count <= 0) {
+                busyCounts.remove(target);
+                target.setCursor(Cursor.getDefaultCursor());
+            } else {
+                busyCounts.put(target, count);
+                target.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            }
+        });
+    }
+
+    /**
+     * Handle for a submitted task. Cancelling drops the result; a query already on the wire is
+     * left to finish rather than interrupted mid-statement.
+     */
+    public final class Task<T> {
+        private final String key;
+        private final Component busyTarget;
+        private final Callable<T> work;
+        private final Consumer<T> onSuccess;
+        private final Consumer<Exception> onError;
+        private volatile boolean cancelled;
+
+        private Task(String key, Component busyTarget, Callable<T> work, Consumer<T> onSuccess, Consumer<Exception> onError) {
+            this.key = key;
+            this.busyTarget = busyTarget;
+            this.work = work;
+            this.onSuccess = onSuccess;
+            this.onError = onError;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void execute() {
+            T result = null;
+            Exception failure = null;
+            try {
+                if (!cancelled) {
+                    result = work.call();
+                }
+            } catch (Throwable e) {
+                // Errors too, such as a failed static initializer, so the caller hears about them
+                failure = e instanceof Exception exception ? exception : new IllegalStateException(e.toString(), e);
+            } finally {
+                // Always release the cursor and the key, or later refreshes for it would wait forever
+                changeBusy(busyTarget, -1);
+                finished(this);
+            }
+            T value = result;
+            Exception error = failure;
+            SwingUtilities.invokeLater(() -> {
+                if (cancelled) {
+                    return;
+                }
+                if (error != null) {
+                    if (onError != null) {
+                        onError.accept(error);
+                    }
+                } else if (onSuccess != null) {
+                    onSuccess.accept(value);
+                }
+            });
+        }
+    }
+}
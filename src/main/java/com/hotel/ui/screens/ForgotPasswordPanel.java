@@ -3,13 +3,14 @@ package com.hotel.ui.screens;
 import com.hotel.config.DatabaseConfig;
 import com.hotel.repository.HibernateUserRepository;
 import com.hotel.service.PasswordEncoder;
+import com.hotel.service.PrincipalCache;
+import com.hotel.ui.UiTaskExecutor;
 import com.hotel.ui.components.RoundedPanel;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.Optional;
 import com.hotel.model.User;
 
 public class ForgotPasswordPanel extends JPanel {
@@ -118,16 +119,20 @@ public class ForgotPasswordPanel extends JPanel {
             }
             
             // Verify username exists
-            Optional<User> userOpt = userRepository.findByUsername(username);
-            if (userOpt.isEmpty()) {
-                showDialog("Username not found. Please check your username and try again.", "User Not Found", JOptionPane.ERROR_MESSAGE);
-                usernameField.setText("");
-                return;
-            }
-            
-            // Username verified, proceed to password reset step
-            verifiedUser = userOpt.get();
-            showPasswordResetStep();
+            UiTaskExecutor.getInstance().submit(this,
+                () -> userRepository.findByUsername(username),
+                userOpt -> {
+                    if (userOpt.isEmpty()) {
+                        showDialog("Username not found. Please check your username and try again.", "User Not Found", JOptionPane.ERROR_MESSAGE);
+                        usernameField.setText("");
+                        return;
+                    }
+                    
+                    // Username verified, proceed to password reset step
+                    verifiedUser = userOpt.get();
+                    showPasswordResetStep();
+                },
+                ex -> showDialog("Unable to verify username: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
         });
         cardGbc.gridy = 4;
         cardGbc.insets = new Insets(0, 0, 20, 0);
@@ -226,14 +231,21 @@ public class ForgotPasswordPanel extends JPanel {
             
             // Update password
             verifiedUser.setPasswordHash(passwordEncoder.encode(newPassword));
-            userRepository.update(verifiedUser);
-            
-            showDialog("Password updated successfully! You can now login with your new password.", "Success", JOptionPane.INFORMATION_MESSAGE);
-            
-            // Go back to login
-            if (onBackToLogin != null) {
-                onBackToLogin.run();
-            }
+            UiTaskExecutor.getInstance().submit(this,
+                () -> {
+                    User updated = userRepository.update(verifiedUser);
+                    PrincipalCache.getInstance().invalidate(updated.getId());
+                    return updated;
+                },
+                updated -> {
+                    showDialog("Password updated successfully! You can now login with your new password.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                    
+                    // Go back to login
+                    if (onBackToLogin != null) {
+                        onBackToLogin.run();
+                    }
+                },
+                ex -> showDialog("Unable to update password: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
         });
         cardGbc.gridy = 6;
         cardGbc.insets = new Insets(0, 0, 20, 0);
@@ -42,6 +42,7 @@ import com.hotel.model.User;
 import com.hotel.repository.HibernateUserRepository;
 import com.hotel.service.AuthService;
 import com.hotel.ui.ImageLoader;
+import com.hotel.ui.UiTaskExecutor;
 import com.hotel.ui.components.RoundedPanel;
 
 public class LoginPanel extends JPanel {
@@ -181,25 +182,27 @@ public class LoginPanel extends JPanel {
             loginBtn.setEnabled(false);
             loginBtn.setText("Signing in...");
             
-            // Simulate async operation
-            SwingUtilities.invokeLater(() -> {
-                authService.authenticate(username, password)
-                    .ifPresentOrElse(
-                        user -> {
-                            loginBtn.setEnabled(true);
-                            loginBtn.setText("Sign In");
-                            loginCallback.accept(user);
-                        },
-                        () -> {
-                            loginBtn.setEnabled(true);
-                            loginBtn.setText("Sign In");
-                            showModernDialog(this, 
-                                "Invalid username or password. Please try again.", 
-                                "Login Failed", 
-                                JOptionPane.ERROR_MESSAGE);
-                        }
+            UiTaskExecutor.getInstance().submit(this,
+                () -> authService.authenticate(username, password),
+                result -> {
+                    loginBtn.setEnabled(true);
+                    loginBtn.setText("Sign In");
+                    result.ifPresentOrElse(
+                        loginCallback,
+                        () -> showModernDialog(this, 
+                            "Invalid username or password. Please try again.", 
+                            "Login Failed", 
+                            JOptionPane.ERROR_MESSAGE)
                     );
-            });
+                },
+                ex -> {
+                    loginBtn.setEnabled(true);
+                    loginBtn.setText("Sign In");
+                    showModernDialog(this, 
+                        "Unable to sign in: " + ex.getMessage(), 
+                        "Login Failed", 
+                        JOptionPane.ERROR_MESSAGE);
+                });
         });
         
         gbc.gridy = 5;
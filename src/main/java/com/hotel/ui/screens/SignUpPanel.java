@@ -8,6 +8,7 @@ import com.hotel.service.HibernateAdminService;
 import com.hotel.service.PasswordEncoder;
 import com.hotel.ui.HerbanetTheme;
 import com.hotel.ui.ImageLoader;
+import com.hotel.ui.UiTaskExecutor;
 import com.hotel.ui.components.RoundedPanel;
 
 import javax.swing.*;
@@ -222,13 +223,13 @@ public class SignUpPanel extends JPanel {
             signUpBtn.setText("Creating Account...");
             
             // Process signup
-            SwingUtilities.invokeLater(() -> {
-                try {
+            UiTaskExecutor.getInstance().submit(this,
+                () -> {
                     HibernateAdminService adminService = new HibernateAdminService(
                         userRepository, 
                         new PasswordEncoder()
                     );
-                    User newUser = adminService.createUser(
+                    return adminService.createUser(
                         username, 
                         password, 
                         firstName, 
@@ -237,14 +238,15 @@ public class SignUpPanel extends JPanel {
                         "CUSTOMER", 
                         null
                     );
-                    
+                },
+                newUser -> {
                     signUpBtn.setEnabled(true);
                     signUpBtn.setText("Create Account");
                     
                     showSuccessDialog(this, firstName);
                     signUpCallback.accept(newUser);
-                    
-                } catch (Exception ex) {
+                },
+                ex -> {
                     signUpBtn.setEnabled(true);
                     signUpBtn.setText("Create Account");
                     
@@ -252,8 +254,7 @@ public class SignUpPanel extends JPanel {
                         "Error creating account: " + ex.getMessage(), 
                         "Sign Up Failed", 
                         JOptionPane.ERROR_MESSAGE);
-                }
-            });
+                });
         });
         
         gbc.gridy = 8;
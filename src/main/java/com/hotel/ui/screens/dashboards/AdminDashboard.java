@@ -5,8 +5,12 @@ import com.hotel.model.PrivilegeEntity;
 import com.hotel.model.Role;
 import com.hotel.model.User;
 import com.hotel.repository.HibernateUserRepository;
+import com.hotel.service.DashboardMetrics;
 import com.hotel.service.HibernateAdminService;
 import com.hotel.service.PasswordEncoder;
+import com.hotel.service.ReportExporter;
+import com.hotel.ui.ReportExportAction;
+import com.hotel.ui.UiTaskExecutor;
 import com.hotel.ui.components.RoundedPanel;
 
 import javax.swing.*;
@@ -214,15 +218,21 @@ public class AdminDashboard extends JPanel {
         panel.setOpaque(false);
         panel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 130));
         
-        // Calculate stats
-        List<User> allUsers = adminService.listUsers();
-        long activeUsers = allUsers.stream().filter(User::isActive).count();
-        long totalRoles = adminService.listRoles().size();
-        
-        // Stats cards - improved icon rendering
-        panel.add(createStatCard("👥", "Total Users", String.valueOf(allUsers.size()), SUCCESS_GREEN));
-        panel.add(createStatCard("✅", "Active Users", String.valueOf(activeUsers), ACCENT_GREEN));
-        panel.add(createStatCard("🔐", "Total Roles", String.valueOf(totalRoles), SUCCESS_GREEN));
+        // Calculate stats in the background; cards are added once the counts arrive
+        UiTaskExecutor.getInstance().submit(this,
+            () -> {
+                DashboardMetrics.Snapshot snapshot = DashboardMetrics.getInstance().snapshot();
+                return new long[]{snapshot.users(), snapshot.activeUsers(), snapshot.roles()};
+            },
+            counts -> {
+                // Stats cards - improved icon rendering
+                panel.add(createStatCard("👥", "Total Users", String.valueOf(counts[0]), SUCCESS_GREEN));
+                panel.add(createStatCard("✅", "Active Users", String.valueOf(counts[1]), ACCENT_GREEN));
+                panel.add(createStatCard("🔐", "Total Roles", String.valueOf(counts[2]), SUCCESS_GREEN));
+                panel.revalidate();
+                panel.repaint();
+            },
+            e -> JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
         
         return panel;
     }
@@ -457,6 +467,19 @@ public class AdminDashboard extends JPanel {
     }
     
     private void showPrivilegeManagementDialog() {
+        UiTaskExecutor.getInstance().submit(this,
+            () -> new Object[]{adminService.listRoles(), adminService.listPrivileges()},
+            loaded -> {
+                @SuppressWarnings("unchecked")
+                List<Role> roles = (List<Role>) loaded[0];
+                @SuppressWarnings("unchecked")
+                List<PrivilegeEntity> allPrivileges = (List<PrivilegeEntity>) loaded[1];
+                showPrivilegeManagementDialog(roles, allPrivileges);
+            },
+            e -> JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void showPrivilegeManagementDialog(List<Role> roles, List<PrivilegeEntity> allPrivileges) {
         JDialog dialog = new JDialog((Frame) SwingUtilities.getWindowAncestor(this), "Manage Role Privileges", true);
         dialog.setSize(700, 600);
         dialog.setLocationRelativeTo(this);
@@ -480,13 +503,11 @@ public class AdminDashboard extends JPanel {
         
         JComboBox<String> roleCombo = new JComboBox<>();
         roleCombo.setFont(new Font("Segoe UI", Font.PLAIN, 15));
-        List<Role> roles = adminService.listRoles();
         for (Role role : roles) {
             roleCombo.addItem(role.getName());
         }
         
         JList<String> privilegeList = new JList<>();
-        List<PrivilegeEntity> allPrivileges = adminService.listPrivileges();
         DefaultListModel<String> privModel = new DefaultListModel<>();
         for (PrivilegeEntity priv : allPrivileges) {
             privModel.addElement(priv.getCode() + " - " + priv.getDescription());
@@ -547,10 +568,7 @@ public class AdminDashboard extends JPanel {
                         .map(s -> s.split(" - ")[0])
                         .collect(Collectors.toSet());
                 
-                adminService.assignPrivilegesToRole(role.getId(), selectedPrivs);
-                JOptionPane.showMessageDialog(dialog, "Privileges updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                loadRoles();
-                dialog.dispose();
+                saveRolePrivileges(dialog, role, selectedPrivs);
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(dialog, "Error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             }
@@ -565,8 +583,28 @@ public class AdminDashboard extends JPanel {
         dialog.setVisible(true);
     }
 
+    private void saveRolePrivileges(JDialog dialog, Role role, Set<String> selectedPrivs) {
+        UiTaskExecutor.getInstance().submit(dialog,
+            () -> {
+                adminService.assignPrivilegesToRole(role.getId(), selectedPrivs);
+                return role;
+            },
+            saved -> {
+                JOptionPane.showMessageDialog(dialog, "Privileges updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                loadRoles();
+                dialog.dispose();
+            },
+            ex -> JOptionPane.showMessageDialog(dialog, "Error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
     private void loadUsers() {
-        List<User> users = adminService.listUsers();
+        UiTaskExecutor.getInstance().submit("admin.users", this,
+            adminService::listUsers,
+            this::showUsers,
+            e -> JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void showUsers(List<User> users) {
         userTableModel.setRowCount(0);
         
         for (User u : users) {
@@ -584,7 +622,13 @@ public class AdminDashboard extends JPanel {
     }
 
     private void loadRoles() {
-        List<Role> roles = adminService.listRoles();
+        UiTaskExecutor.getInstance().submit("admin.roles", this,
+            adminService::listRoles,
+            this::showRoles,
+            e -> JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void showRoles(List<Role> roles) {
         DefaultTableModel model = (DefaultTableModel) roleTable.getModel();
         model.setRowCount(0);
         
@@ -602,7 +646,13 @@ public class AdminDashboard extends JPanel {
     }
 
     private void loadPrivileges() {
-        List<PrivilegeEntity> privileges = adminService.listPrivileges();
+        UiTaskExecutor.getInstance().submit("admin.privileges", this,
+            adminService::listPrivileges,
+            this::showPrivileges,
+            e -> JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void showPrivileges(List<PrivilegeEntity> privileges) {
         DefaultTableModel model = (DefaultTableModel) privilegeTable.getModel();
         model.setRowCount(0);
         
@@ -616,6 +666,13 @@ public class AdminDashboard extends JPanel {
     }
 
     private void showCreateUserDialog() {
+        UiTaskExecutor.getInstance().submit(this,
+            adminService::listRoles,
+            this::showCreateUserDialog,
+            e -> JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void showCreateUserDialog(List<Role> roles) {
         JDialog dialog = new JDialog((Frame) SwingUtilities.getWindowAncestor(this), "Create New User", true);
         dialog.setSize(650, 700);
         dialog.setLocationRelativeTo(this);
@@ -677,7 +734,6 @@ public class AdminDashboard extends JPanel {
         JTextField emailField = createModernTextField("");
         JComboBox<String> roleCombo = new JComboBox<>();
         roleCombo.setFont(new Font("Segoe UI", Font.PLAIN, 15));
-        List<Role> roles = adminService.listRoles();
         for (Role role : roles) {
             roleCombo.addItem(role.getName());
         }
@@ -730,21 +786,26 @@ public class AdminDashboard extends JPanel {
                         JOptionPane.WARNING_MESSAGE);
                     return;
                 }
-                adminService.createUser(
-                    usernameField.getText().trim(),
-                    new String(passwordField.getPassword()),
-                    firstNameField.getText().trim(),
-                    lastNameField.getText().trim(),
-                    emailField.getText().trim(),
-                    (String) roleCombo.getSelectedItem(),
-                    new HashSet<>()
-                );
-                JOptionPane.showMessageDialog(dialog, 
-                    "User created successfully! 🎉", 
-                    "Success", 
-                    JOptionPane.INFORMATION_MESSAGE);
-                dialog.dispose();
-                loadUsers();
+                String username = usernameField.getText().trim();
+                String password = new String(passwordField.getPassword());
+                String firstName = firstNameField.getText().trim();
+                String lastName = lastNameField.getText().trim();
+                String email = emailField.getText().trim();
+                String roleName = (String) roleCombo.getSelectedItem();
+                UiTaskExecutor.getInstance().submit(dialog,
+                    () -> adminService.createUser(username, password, firstName, lastName, email, roleName, new HashSet<>()),
+                    created -> {
+                        JOptionPane.showMessageDialog(dialog, 
+                            "User created successfully! 🎉", 
+                            "Success", 
+                            JOptionPane.INFORMATION_MESSAGE);
+                        dialog.dispose();
+                        loadUsers();
+                    },
+                    ex -> JOptionPane.showMessageDialog(dialog, 
+                        "Error: " + ex.getMessage(), 
+                        "Error", 
+                        JOptionPane.ERROR_MESSAGE));
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(dialog, 
                     "Error: " + ex.getMessage(), 
@@ -763,7 +824,19 @@ public class AdminDashboard extends JPanel {
     }
 
     private void showEditUserDialog(long userId) {
-        User userToEdit = userRepository.findById(userId).orElse(null);
+        UiTaskExecutor.getInstance().submit(this,
+            () -> new Object[]{userRepository.findById(userId).orElse(null), adminService.listRoles(), adminService.listPrivileges()},
+            loaded -> {
+                @SuppressWarnings("unchecked")
+                List<Role> roles = (List<Role>) loaded[1];
+                @SuppressWarnings("unchecked")
+                List<PrivilegeEntity> allPrivileges = (List<PrivilegeEntity>) loaded[2];
+                showEditUserDialog(userId, (User) loaded[0], roles, allPrivileges);
+            },
+            e -> JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void showEditUserDialog(long userId, User userToEdit, List<Role> roles, List<PrivilegeEntity> allPrivileges) {
         if (userToEdit == null) return;
 
         JDialog dialog = new JDialog((Frame) SwingUtilities.getWindowAncestor(this), "Edit User", true);
@@ -826,7 +899,6 @@ public class AdminDashboard extends JPanel {
         JComboBox<String> roleCombo = new JComboBox<>();
         roleCombo.setFont(new Font("Segoe UI", Font.PLAIN, 15));
         roleCombo.setPreferredSize(new Dimension(0, 42));
-        List<Role> roles = adminService.listRoles();
         for (Role role : roles) {
             roleCombo.addItem(role.getName());
             if (role.getName().equals(userToEdit.getRole().getName())) {
@@ -839,7 +911,6 @@ public class AdminDashboard extends JPanel {
         activeCheck.setForeground(TEXT_PRIMARY);
 
         JList<String> privilegeList = new JList<>();
-        List<PrivilegeEntity> allPrivileges = adminService.listPrivileges();
         DefaultListModel<String> privModel = new DefaultListModel<>();
         for (PrivilegeEntity priv : allPrivileges) {
             privModel.addElement(priv.getCode() + " - " + priv.getDescription());
@@ -923,7 +994,7 @@ public class AdminDashboard extends JPanel {
                 userToEdit.setEmail(emailField.getText().trim());
                 userToEdit.setActive(activeCheck.isSelected());
                 
-                Role newRole = adminService.listRoles().stream()
+                Role newRole = roles.stream()
                         .filter(r -> r.getName().equals(roleCombo.getSelectedItem()))
                         .findFirst().orElse(null);
                 if (newRole != null) {
@@ -933,15 +1004,24 @@ public class AdminDashboard extends JPanel {
                 Set<String> selectedPrivs = privilegeList.getSelectedValuesList().stream()
                         .map(s -> s.split(" - ")[0])
                         .collect(Collectors.toSet());
-                adminService.assignPrivileges(userId, selectedPrivs);
-                
-                adminService.updateUser(userToEdit);
-                JOptionPane.showMessageDialog(dialog, 
-                    "User updated successfully! 🎉", 
-                    "Success", 
-                    JOptionPane.INFORMATION_MESSAGE);
-                dialog.dispose();
-                loadUsers();
+                UiTaskExecutor.getInstance().submit(dialog,
+                    () -> {
+                        adminService.assignPrivileges(userId, selectedPrivs);
+                        adminService.updateUser(userToEdit);
+                        return userToEdit;
+                    },
+                    updated -> {
+                        JOptionPane.showMessageDialog(dialog, 
+                            "User updated successfully! 🎉", 
+                            "Success", 
+                            JOptionPane.INFORMATION_MESSAGE);
+                        dialog.dispose();
+                        loadUsers();
+                    },
+                    ex -> JOptionPane.showMessageDialog(dialog, 
+                        "Error: " + ex.getMessage(), 
+                        "Error", 
+                        JOptionPane.ERROR_MESSAGE));
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(dialog, 
                     "Error: " + ex.getMessage(), 
@@ -972,10 +1052,20 @@ public class AdminDashboard extends JPanel {
         downloadReportBtn.setPreferredSize(new Dimension(180, 40));
         downloadReportBtn.addActionListener(e -> downloadReport());
         
+        JButton exportBtn = createModernButton("📤 Export", ACCENT_GREEN);
+        exportBtn.setPreferredSize(new Dimension(120, 40));
+        exportBtn.addActionListener(e -> ReportExportAction.start(this, new ReportExporter(userRepository),
+            ReportExporter.Dataset.values()));
+        
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        buttonPanel.setOpaque(false);
+        buttonPanel.add(downloadReportBtn);
+        buttonPanel.add(exportBtn);
+        
         JPanel headerPanel = new JPanel(new BorderLayout());
         headerPanel.setOpaque(false);
         headerPanel.add(title, BorderLayout.WEST);
-        headerPanel.add(downloadReportBtn, BorderLayout.EAST);
+        headerPanel.add(buttonPanel, BorderLayout.EAST);
         
         panel.add(headerPanel, BorderLayout.NORTH);
         
@@ -983,9 +1073,24 @@ public class AdminDashboard extends JPanel {
         JPanel analyticsContent = new JPanel(new BorderLayout(0, 20));
         analyticsContent.setBackground(SOFT_WHITE);
         
+        UiTaskExecutor.getInstance().submit(this,
+            () -> new Object[]{adminService.listUsers(), adminService.listRoles(), adminService.listPrivileges().size()},
+            loaded -> {
+                @SuppressWarnings("unchecked")
+                List<User> users = (List<User>) loaded[0];
+                @SuppressWarnings("unchecked")
+                List<Role> roles = (List<Role>) loaded[1];
+                showAnalytics(analyticsContent, users, roles, (Integer) loaded[2]);
+            },
+            e -> JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+        
+        panel.add(analyticsContent, BorderLayout.CENTER);
+        
+        return panel;
+    }
+    
+    private void showAnalytics(JPanel analyticsContent, List<User> users, List<Role> roles, int privilegeCount) {
         // Statistics overview
-        List<User> users = adminService.listUsers();
-        List<Role> roles = adminService.listRoles();
         long activeUsers = users.stream().filter(User::isActive).count();
         
         JPanel statsGrid = new JPanel(new GridLayout(2, 2, 15, 15));
@@ -994,7 +1099,7 @@ public class AdminDashboard extends JPanel {
         statsGrid.add(createStatBox("Total Users", String.valueOf(users.size()), ACCENT_GREEN));
         statsGrid.add(createStatBox("Active Users", String.valueOf(activeUsers), SUCCESS_GREEN));
         statsGrid.add(createStatBox("Total Roles", String.valueOf(roles.size()), ACCENT_GREEN));
-        statsGrid.add(createStatBox("Total Privileges", String.valueOf(adminService.listPrivileges().size()), SUCCESS_GREEN));
+        statsGrid.add(createStatBox("Total Privileges", String.valueOf(privilegeCount), SUCCESS_GREEN));
         
         analyticsContent.add(statsGrid, BorderLayout.NORTH);
         
@@ -1060,10 +1165,8 @@ public class AdminDashboard extends JPanel {
         ));
         
         analyticsContent.add(chartPanel, BorderLayout.CENTER);
-        
-        panel.add(analyticsContent, BorderLayout.CENTER);
-        
-        return panel;
+        analyticsContent.revalidate();
+        analyticsContent.repaint();
     }
     
     private JPanel createStatBox(String label, String value, Color color) {
@@ -1092,36 +1195,50 @@ public class AdminDashboard extends JPanel {
     }
     
     private void downloadReport() {
+        UiTaskExecutor.getInstance().submit(this,
+            this::buildReport,
+            this::saveReport,
+            e -> JOptionPane.showMessageDialog(this, 
+                "Error generating report: " + e.getMessage(), 
+                "Error", 
+                JOptionPane.ERROR_MESSAGE));
+    }
+
+    private String buildReport() {
+        long totalUsers = userRepository.count();
+        long activeUsers = userRepository.countActive();
+        List<Role> roles = adminService.listRoles();
+        List<PrivilegeEntity> privileges = adminService.listPrivileges();
+        
+        StringBuilder report = new StringBuilder();
+        report.append("ADMIN SYSTEM REPORT\n");
+        report.append("Generated: ").append(java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))).append("\n");
+        report.append("=".repeat(50)).append("\n\n");
+        
+        report.append("USER STATISTICS\n");
+        report.append("-".repeat(50)).append("\n");
+        report.append("Total Users: ").append(totalUsers).append("\n");
+        report.append("Active Users: ").append(activeUsers).append("\n");
+        report.append("Inactive Users: ").append(totalUsers - activeUsers).append("\n\n");
+        
+        report.append("ROLE STATISTICS\n");
+        report.append("-".repeat(50)).append("\n");
+        for (Role role : roles) {
+            report.append("Role: ").append(role.getName()).append(" - ");
+            report.append("Privileges: ").append(role.getPrivileges().size()).append("\n");
+        }
+        report.append("\n");
+        
+        report.append("PRIVILEGES\n");
+        report.append("-".repeat(50)).append("\n");
+        for (PrivilegeEntity priv : privileges) {
+            report.append(priv.getCode()).append(": ").append(priv.getDescription()).append("\n");
+        }
+        return report.toString();
+    }
+
+    private void saveReport(String report) {
         try {
-            List<User> users = adminService.listUsers();
-            List<Role> roles = adminService.listRoles();
-            List<PrivilegeEntity> privileges = adminService.listPrivileges();
-            
-            StringBuilder report = new StringBuilder();
-            report.append("ADMIN SYSTEM REPORT\n");
-            report.append("Generated: ").append(java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))).append("\n");
-            report.append("=".repeat(50)).append("\n\n");
-            
-            report.append("USER STATISTICS\n");
-            report.append("-".repeat(50)).append("\n");
-            report.append("Total Users: ").append(users.size()).append("\n");
-            report.append("Active Users: ").append(users.stream().filter(User::isActive).count()).append("\n");
-            report.append("Inactive Users: ").append(users.stream().filter(u -> !u.isActive()).count()).append("\n\n");
-            
-            report.append("ROLE STATISTICS\n");
-            report.append("-".repeat(50)).append("\n");
-            for (Role role : roles) {
-                report.append("Role: ").append(role.getName()).append(" - ");
-                report.append("Privileges: ").append(role.getPrivileges().size()).append("\n");
-            }
-            report.append("\n");
-            
-            report.append("PRIVILEGES\n");
-            report.append("-".repeat(50)).append("\n");
-            for (PrivilegeEntity priv : privileges) {
-                report.append(priv.getCode()).append(": ").append(priv.getDescription()).append("\n");
-            }
-            
             JFileChooser fileChooser = new JFileChooser();
             fileChooser.setDialogTitle("Save Report");
             fileChooser.setSelectedFile(new java.io.File("admin_report_" + 
@@ -1130,7 +1247,7 @@ public class AdminDashboard extends JPanel {
             if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
                 java.io.File file = fileChooser.getSelectedFile();
                 try (java.io.FileWriter writer = new java.io.FileWriter(file)) {
-                    writer.write(report.toString());
+                    writer.write(report);
                     JOptionPane.showMessageDialog(this, 
                         "Report saved successfully to:\n" + file.getAbsolutePath(), 
                         "Success", 
@@ -1424,16 +1541,22 @@ public class AdminDashboard extends JPanel {
     }
     
     private void showEditRolePrivilegesDialog(long roleId) {
-        Role role = userRepository.findRoleById(roleId);
-        if (role == null) {
-            JOptionPane.showMessageDialog(this, "Role not found", "Error", JOptionPane.ERROR_MESSAGE);
-            return;
-        }
-        
-        showPrivilegeManagementDialogForRole(role);
+        UiTaskExecutor.getInstance().submit(this,
+            () -> new Object[]{userRepository.findRoleById(roleId), adminService.listPrivileges()},
+            loaded -> {
+                Role role = (Role) loaded[0];
+                if (role == null) {
+                    JOptionPane.showMessageDialog(this, "Role not found", "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                @SuppressWarnings("unchecked")
+                List<PrivilegeEntity> allPrivileges = (List<PrivilegeEntity>) loaded[1];
+                showPrivilegeManagementDialogForRole(role, allPrivileges);
+            },
+            e -> JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
     }
     
-    private void showPrivilegeManagementDialogForRole(Role role) {
+    private void showPrivilegeManagementDialogForRole(Role role, List<PrivilegeEntity> allPrivileges) {
         JDialog dialog = new JDialog((Frame) SwingUtilities.getWindowAncestor(this), "Manage Privileges for " + role.getName(), true);
         dialog.setSize(600, 550);
         dialog.setLocationRelativeTo(this);
@@ -1450,7 +1573,6 @@ public class AdminDashboard extends JPanel {
         mainPanel.add(title, BorderLayout.NORTH);
         
         JList<String> privilegeList = new JList<>();
-        List<PrivilegeEntity> allPrivileges = adminService.listPrivileges();
         DefaultListModel<String> privModel = new DefaultListModel<>();
         for (PrivilegeEntity priv : allPrivileges) {
             privModel.addElement(priv.getCode() + " - " + priv.getDescription());
@@ -1480,10 +1602,7 @@ public class AdminDashboard extends JPanel {
                         .map(s -> s.split(" - ")[0])
                         .collect(Collectors.toSet());
                 
-                adminService.assignPrivilegesToRole(role.getId(), selectedPrivs);
-                JOptionPane.showMessageDialog(dialog, "Privileges updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                loadRoles();
-                dialog.dispose();
+                saveRolePrivileges(dialog, role, selectedPrivs);
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(dialog, "Error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             }
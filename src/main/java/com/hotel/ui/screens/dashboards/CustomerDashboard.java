@@ -28,7 +28,6 @@ import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -36,6 +35,7 @@ import javax.swing.BoxLayout;
 import javax.swing.DefaultCellEditor;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
 import javax.swing.JComponent;
 import javax.swing.JDialog;
 import javax.swing.JFrame;
@@ -45,6 +45,7 @@ import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JSeparator;
 import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
 import javax.swing.JTabbedPane;
 import javax.swing.JTable;
 import javax.swing.JTextArea;
@@ -58,16 +59,23 @@ import javax.swing.table.JTableHeader;
 
 import com.hotel.config.DatabaseConfig;
 import com.hotel.model.CustomerMessage;
+import com.hotel.model.Privilege;
 import com.hotel.model.Reservation;
 import com.hotel.model.Room;
+import com.hotel.model.RoomCategory;
 import com.hotel.model.User;
 import com.hotel.repository.HibernateReservationRepository;
 import com.hotel.repository.HibernateRoomRepository;
 import com.hotel.repository.HibernateUserRepository;
 import com.hotel.repository.HibernateCustomerMessageRepository;
+import com.hotel.repository.RoomCard;
 import com.hotel.service.HibernateReservationService;
 import com.hotel.service.HibernateRoomService;
+import com.hotel.service.PaymentPipeline;
 import com.hotel.service.PaymentService;
+import com.hotel.service.RoomSearchFilter;
+import com.hotel.ui.RoomImageService;
+import com.hotel.ui.UiTaskExecutor;
 import com.hotel.ui.components.RoundedPanel;
 
 public class CustomerDashboard extends JPanel {
@@ -89,12 +97,22 @@ public class CustomerDashboard extends JPanel {
     private static final Color BORDER_COLOR = new Color(226, 232, 240);
     private static final Color TEXT_PRIMARY = new Color(0, 0, 0);
     private static final Color TEXT_SECONDARY = new Color(100, 116, 139);
+    // Thumbnail sizes requested from RoomImageService, with headroom for resized windows
+    private static final int CARD_IMAGE_WIDTH = 360;
+    private static final int CARD_IMAGE_HEIGHT = 180;
+    private static final int DETAIL_IMAGE_WIDTH = 1000;
+    private static final int DETAIL_IMAGE_HEIGHT = 400;
     private static final Color SUCCESS_GREEN = new Color(34, 197, 94);
     private static final Color WARNING_ORANGE = new Color(251, 146, 60);
     private static final Color ERROR_RED = new Color(239, 68, 68);
     private static final Color DEEP_NAVY = new Color(15, 23, 42);
     private static final Color ACCENT_GOLD = new Color(212, 175, 55);
     private static final Color ACCENT_GOLD_HOVER = new Color(184, 153, 48);
+    // Room browser filter choices; sort labels follow RoomSearchFilter.Sort
+    private static final String ANY_CATEGORY = "All categories";
+    private static final String ANY_FLOOR = "Any floor";
+    private static final String ANY_VIEW = "Any view";
+    private static final String[] SORT_LABELS = {"Room number", "Price: low to high", "Price: high to low", "Floor"};
     
     private JTable reservationTable;
     private DefaultTableModel reservationTableModel;
@@ -102,8 +120,17 @@ public class CustomerDashboard extends JPanel {
     private JTextField checkOutField;
     private JSpinner guestSpinner;
     private JPanel roomsContainer;
-    private List<Room> allAvailableRooms = new ArrayList<>(); // All available rooms
-    private List<Room> currentAvailableRooms = new ArrayList<>(); // Current page rooms
+    private JComboBox<String> categoryFilter;
+    private final List<Long> categoryFilterIds = new ArrayList<>(); // Parallel to categoryFilter, null for "all"
+    private JComboBox<String> floorFilter;
+    private JComboBox<String> viewFilter;
+    private JSpinner guestsFilter;
+    private JTextField minPriceFilter;
+    private JTextField maxPriceFilter;
+    private JComboBox<String> sortFilter;
+    private boolean loadingFilterChoices;
+    private List<RoomCard> allAvailableRooms = new ArrayList<>(); // All available rooms
+    private List<RoomCard> currentAvailableRooms = new ArrayList<>(); // Current page rooms
     private int currentPage = 0;
     private int roomsPerPage = 9; // 3 columns x 3 rows = 9 rooms per page
     private int currentRoomIndex = 0;
@@ -136,7 +163,11 @@ public class CustomerDashboard extends JPanel {
         loadReservations();
     }
 
-    private void bookRoomDirectly(Room room, LocalDate checkIn, LocalDate checkOut) {
+    private void bookRoomDirectly(RoomCard room, LocalDate checkIn, LocalDate checkOut) {
+        if (!user.hasPrivilege(Privilege.BOOK_ROOM)) {
+            showModernDialog("You do not have permission to book rooms.", "Access Denied", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
         try {
             // Default to 1 guest if spinner is not available
             int guests = 1;
@@ -144,7 +175,7 @@ public class CustomerDashboard extends JPanel {
                 guests = (Integer) guestSpinner.getValue();
             }
             
-            double amount = reservationService.calculateStayCost(room, checkIn, checkOut);
+            double amount = reservationService.calculateStayCost(room.categoryId(), checkIn, checkOut);
             long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
             
             String message = String.format(
@@ -157,7 +188,7 @@ public class CustomerDashboard extends JPanel {
                 "<p><b>Duration:</b> %d night%s</p>" +
                 "<p style='font-size: 18px; margin-top: 15px;'><b>Total Cost:</b> <span style='color: %s;'>$%.2f</span></p>" +
                 "</body></html>",
-                room.getRoomNumber(), room.getCategory().getName(),
+                room.roomNumber(), room.categoryName(),
                 checkIn.format(DateTimeFormatter.ofPattern("MMM dd, yyyy")),
                 checkOut.format(DateTimeFormatter.ofPattern("MMM dd, yyyy")),
                 guests, nights, nights == 1 ? "" : "s", 
@@ -170,30 +201,99 @@ public class CustomerDashboard extends JPanel {
             
             if (confirm != JOptionPane.YES_OPTION) return;
             
-            Reservation reservation = new Reservation();
-            reservation.setCheckIn(checkIn);
-            reservation.setCheckOut(checkOut);
-            reservation.setGuestCount(guests);
-            reservation.setStatus("CONFIRMED");
-            reservation.setUser(user);
-            reservation.setRoom(room);
+            int guestCount = guests;
+            UiTaskExecutor.getInstance().submit(this,
+                () -> reservationService.book(user.getId(), room.id(), checkIn, checkOut, guestCount),
+                saved -> {
+                    loadReservations();
+                    displayAllRooms(); // Refresh room cards instead of searching
+                    updateStatsPanel(); // Update stats panel after booking
+                    payForBooking(saved, amount);
+                },
+                e -> showModernDialog("Error booking room: " + e.getMessage(), "Booking Failed", JOptionPane.ERROR_MESSAGE));
+        } catch (Exception e) {
+            showModernDialog("Error booking room: " + e.getMessage(), "Booking Failed", JOptionPane.ERROR_MESSAGE);
+        }
+    }
 
-            Reservation saved = new HibernateReservationRepository().save(reservation);
-            new HibernateRoomRepository().updateStatus(room.getId(), "RESERVED");
+    /**
+     * Sends the booking's payment through the payment pipeline. The key is derived from the
+     * reservation, so a repeated attempt for the same booking can never charge it twice. The wait
+     * cursor stays up while the payment is queued or processing.
+     */
+    private void payForBooking(Reservation reservation, double amount) {
+        String idempotencyKey = "reservation-" + reservation.getId();
+        Runnable releaseBusy = UiTaskExecutor.getInstance().holdBusy(this);
+        try {
+            paymentService.submitPayment(idempotencyKey, reservation.getId(), amount, "CREDIT_CARD",
+                update -> SwingUtilities.invokeLater(() -> {
+                    if (update.status().isFinal()) {
+                        releaseBusy.run();
+                    }
+                    showPaymentUpdate(reservation, amount, update);
+                }));
+        } catch (IllegalStateException e) {
+            releaseBusy.run();
+            offerPaymentRetry(reservation, amount, e.getMessage());
+        }
+    }
 
-            paymentService.processPayment(saved.getId(), amount, "CREDIT_CARD");
+    /**
+     * Only a decline releases the booking. A payment that failed, was refused by a full queue or
+     * was approved but not recorded keeps it, and the guest can retry under the same key.
+     */
+    private void showPaymentUpdate(Reservation reservation, double amount, PaymentPipeline.Update update) {
+        switch (update.status()) {
+            case CAPTURED -> {
+                showSuccessDialog("Room booked successfully! Booking confirmation #" + reservation.getId()
+                        + "\nPayment reference: " + update.payment().getTransactionRef());
+                updateStatsPanel();
+            }
+            case DECLINED -> releaseUnpaidBooking(reservation, update.message());
+            case FAILED, UNRECORDED -> offerPaymentRetry(reservation, amount, update.message());
+            default -> {
+                // Still queued or processing
+            }
+        }
+    }
 
-            showSuccessDialog("Room booked successfully! Booking confirmation #" + saved.getId());
-            loadReservations();
-            displayAllRooms(); // Refresh room cards instead of searching
-            updateStatsPanel(); // Update stats panel after booking
-        } catch (Exception e) {
-            showModernDialog("Error booking room: " + e.getMessage(), "Booking Failed", JOptionPane.ERROR_MESSAGE);
+    private void offerPaymentRetry(Reservation reservation, double amount, String reason) {
+        int retry = JOptionPane.showConfirmDialog(this,
+                reason + "\nYour booking #" + reservation.getId() + " is kept. Retry the payment now?",
+                "Payment Not Completed", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+        if (retry == JOptionPane.YES_OPTION) {
+            payForBooking(reservation, amount);
         }
     }
 
+    /**
+     * Cancels a booking whose payment did not go through, so the room is not held unpaid.
+     */
+    private void releaseUnpaidBooking(Reservation reservation, String reason) {
+        UiTaskExecutor.getInstance().submit(this,
+            () -> {
+                reservationService.cancel(reservation);
+                return reservation;
+            },
+            released -> {
+                showModernDialog("Payment failed: " + reason + "\nYour booking has been released.",
+                        "Payment Failed", JOptionPane.ERROR_MESSAGE);
+                loadReservations();
+                displayAllRooms();
+                updateStatsPanel();
+            },
+            e -> showModernDialog("Payment failed and the booking could not be released: " + e.getMessage(),
+                    "Payment Failed", JOptionPane.ERROR_MESSAGE));
+    }
+
     private void loadReservations() {
-        List<Reservation> reservations = reservationService.findCustomerReservations(user.getId());
+        UiTaskExecutor.getInstance().submit("customer.reservations", this,
+            () -> reservationService.findCustomerReservations(user.getId()),
+            this::showReservations,
+            e -> showModernDialog("Error loading reservations: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void showReservations(List<Reservation> reservations) {
         reservationTableModel.setRowCount(0);
 
         for (Reservation res : reservations) {
@@ -248,6 +348,10 @@ public class CustomerDashboard extends JPanel {
 
 
     private void cancelReservation(int row) {
+        if (!user.hasPrivilege(Privilege.CANCEL_RESERVATION)) {
+            showModernDialog("You do not have permission to cancel reservations.", "Access Denied", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
         try {
             long reservationId = (Long) reservationTableModel.getValueAt(row, 9);
             
@@ -259,21 +363,36 @@ public class CustomerDashboard extends JPanel {
             
             if (confirm != JOptionPane.YES_OPTION) return;
             
-            Reservation res = new HibernateReservationRepository().findById(reservationId).orElse(null);
-            if (res != null) {
-                reservationService.cancel(reservationId, res.getRoom().getId());
-                showSuccessDialog("Reservation cancelled successfully");
-                loadReservations();
-            }
+            UiTaskExecutor.getInstance().submit(this,
+                () -> {
+                    Reservation res = new HibernateReservationRepository().findById(reservationId).orElse(null);
+                    if (res != null) {
+                        reservationService.cancel(res);
+                    }
+                    return res != null;
+                },
+                cancelled -> {
+                    if (cancelled) {
+                        showSuccessDialog("Reservation cancelled successfully");
+                        loadReservations();
+                    }
+                },
+                e -> showModernDialog("Error cancelling reservation: " + e.getMessage(), "Cancellation Failed", JOptionPane.ERROR_MESSAGE));
         } catch (Exception e) {
             showModernDialog("Error cancelling reservation: " + e.getMessage(), "Cancellation Failed", JOptionPane.ERROR_MESSAGE);
         }
     }
     
     private void viewReservationDetails(int row) {
+        long reservationId = (Long) reservationTableModel.getValueAt(row, 8);
+        UiTaskExecutor.getInstance().submit(this,
+            () -> new HibernateReservationRepository().findById(reservationId).orElse(null),
+            this::showReservationDetails,
+            e -> showModernDialog("Error loading reservation details: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void showReservationDetails(Reservation res) {
         try {
-            long reservationId = (Long) reservationTableModel.getValueAt(row, 8);
-            Reservation res = new HibernateReservationRepository().findById(reservationId).orElse(null);
             if (res == null) {
                 showModernDialog("Reservation not found", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
@@ -432,20 +551,19 @@ public class CustomerDashboard extends JPanel {
                 return;
             }
             // Save message to database
-            try {
-                CustomerMessage message = new CustomerMessage();
-                message.setUser(user);
-                message.setSubject(subjectField.getText().trim());
-                message.setMessage(messageArea.getText().trim());
-                message.setStatus("NEW");
-                messageRepository.save(message);
-                
-                showSuccessDialog("Your message has been sent to customer support. We'll respond within 24 hours.");
-                subjectField.setText("");
-                messageArea.setText("");
-            } catch (Exception ex) {
-                showModernDialog("Failed to send message. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            CustomerMessage message = new CustomerMessage();
+            message.setUser(user);
+            message.setSubject(subjectField.getText().trim());
+            message.setMessage(messageArea.getText().trim());
+            message.setStatus("NEW");
+            UiTaskExecutor.getInstance().submit(this,
+                () -> messageRepository.save(message),
+                saved -> {
+                    showSuccessDialog("Your message has been sent to customer support. We'll respond within 24 hours.");
+                    subjectField.setText("");
+                    messageArea.setText("");
+                },
+                ex -> showModernDialog("Failed to send message. Please try again.", "Error", JOptionPane.ERROR_MESSAGE));
         });
         
         messageForm.add(subjectLabel);
@@ -1225,20 +1343,26 @@ public class CustomerDashboard extends JPanel {
         panel.setOpaque(false);
         panel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 130));
         
-        // Calculate stats
-        List<Reservation> allReservations = reservationService.findCustomerReservations(user.getId());
-        int activeReservations = (int) allReservations.stream()
-            .filter(r -> r.getStatus().equals("CONFIRMED") || r.getStatus().equals("CHECKED_IN"))
-            .count();
-        
-        double totalSpent = allReservations.stream()
-            .mapToDouble(r -> reservationService.calculateStayCost(r.getRoom(), r.getCheckIn(), r.getCheckOut()))
-            .sum();
-        
-        // Stats cards - using proper icon rendering
-        panel.add(createStatCard("📊", "Total Bookings", String.valueOf(allReservations.size()), SUCCESS_GREEN));
-        panel.add(createStatCard("✅", "Active Reservations", String.valueOf(activeReservations), ACCENT_GREEN));
-        panel.add(createStatCard("💰", "Total Spent", String.format("$%.2f", totalSpent), SUCCESS_GREEN));
+        // Calculate stats in the background; cards are added once the totals arrive
+        UiTaskExecutor.getInstance().submit(this,
+            () -> reservationService.findCustomerReservations(user.getId()),
+            allReservations -> {
+                int activeReservations = (int) allReservations.stream()
+                    .filter(r -> r.getStatus().equals("CONFIRMED") || r.getStatus().equals("CHECKED_IN"))
+                    .count();
+                
+                double totalSpent = allReservations.stream()
+                    .mapToDouble(r -> reservationService.calculateStayCost(r.getRoom(), r.getCheckIn(), r.getCheckOut()))
+                    .sum();
+                
+                // Stats cards - using proper icon rendering
+                panel.add(createStatCard("📊", "Total Bookings", String.valueOf(allReservations.size()), SUCCESS_GREEN));
+                panel.add(createStatCard("✅", "Active Reservations", String.valueOf(activeReservations), ACCENT_GREEN));
+                panel.add(createStatCard("💰", "Total Spent", String.format("$%.2f", totalSpent), SUCCESS_GREEN));
+                panel.revalidate();
+                panel.repaint();
+            },
+            e -> showModernDialog("Error loading statistics: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
         
         return panel;
     }
@@ -1360,7 +1484,11 @@ public class CustomerDashboard extends JPanel {
         titlePanel.add(titleIcon);
         titlePanel.add(formTitle);
         
-        panel.add(titlePanel, BorderLayout.NORTH);
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setOpaque(false);
+        headerPanel.add(titlePanel, BorderLayout.NORTH);
+        headerPanel.add(createRoomFiltersBar(), BorderLayout.CENTER);
+        panel.add(headerPanel, BorderLayout.NORTH);
 
         // Room cards container
         JPanel roomsContainer = new JPanel();
@@ -1389,10 +1517,113 @@ public class CustomerDashboard extends JPanel {
         panel.add(footerPanel, BorderLayout.SOUTH);
         
 
+        loadRoomFilterChoices();
         displayAllRooms();
 
         return panel;
     }
+
+    private JPanel createRoomFiltersBar() {
+        JPanel bar = new JPanel(new FlowLayout(FlowLayout.LEFT, 15, 0));
+        bar.setOpaque(false);
+        bar.setBorder(BorderFactory.createEmptyBorder(0, 30, 0, 30));
+
+        categoryFilter = new JComboBox<>(new String[]{ANY_CATEGORY});
+        categoryFilterIds.add(null);
+        floorFilter = new JComboBox<>(new String[]{ANY_FLOOR});
+        viewFilter = new JComboBox<>(new String[]{ANY_VIEW});
+        sortFilter = new JComboBox<>(SORT_LABELS);
+        for (JComboBox<String> combo : List.of(categoryFilter, floorFilter, viewFilter, sortFilter)) {
+            combo.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+            combo.addActionListener(e -> {
+                if (!loadingFilterChoices) {
+                    displayAllRooms();
+                }
+            });
+        }
+
+        guestsFilter = new JSpinner(new SpinnerNumberModel(1, 1, 20, 1));
+        styleSpinner(guestsFilter);
+        guestsFilter.addChangeListener(e -> displayAllRooms());
+
+        // Price bounds apply on Enter rather than on every keystroke
+        minPriceFilter = createModernTextField("");
+        minPriceFilter.setColumns(6);
+        minPriceFilter.addActionListener(e -> displayAllRooms());
+        maxPriceFilter = createModernTextField("");
+        maxPriceFilter.setColumns(6);
+        maxPriceFilter.addActionListener(e -> displayAllRooms());
+
+        bar.add(createModernFormField("Category", categoryFilter));
+        bar.add(createModernFormField("Floor", floorFilter));
+        bar.add(createModernFormField("View", viewFilter));
+        bar.add(createModernFormField("Guests", guestsFilter));
+        bar.add(createModernFormField("Min $/night", minPriceFilter));
+        bar.add(createModernFormField("Max $/night", maxPriceFilter));
+        bar.add(createModernFormField("Sort by", sortFilter));
+        return bar;
+    }
+
+    private void loadRoomFilterChoices() {
+        UiTaskExecutor.getInstance().submit("customer.roomFilters", this,
+            () -> new Object[]{roomService.getAllCategories(), roomService.getFloors(), roomService.getViewTypes()},
+            choices -> {
+                @SuppressWarnings("unchecked")
+                List<RoomCategory> categories = (List<RoomCategory>) choices[0];
+                @SuppressWarnings("unchecked")
+                List<Integer> floors = (List<Integer>) choices[1];
+                @SuppressWarnings("unchecked")
+                List<String> viewTypes = (List<String>) choices[2];
+                loadingFilterChoices = true;
+                try {
+                    for (RoomCategory category : categories) {
+                        categoryFilter.addItem(category.getName());
+                        categoryFilterIds.add(category.getId());
+                    }
+                    for (Integer floor : floors) {
+                        floorFilter.addItem(String.valueOf(floor));
+                    }
+                    for (String viewType : viewTypes) {
+                        viewFilter.addItem(viewType);
+                    }
+                } finally {
+                    loadingFilterChoices = false;
+                }
+            },
+            e -> showModernDialog("Error loading room filters: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    /**
+     * Reads the filter bar into a search filter; returns null after telling the user if a price is not a number.
+     */
+    private RoomSearchFilter readRoomFilter() {
+        RoomSearchFilter filter = new RoomSearchFilter();
+        if (categoryFilter == null) {
+            return filter;
+        }
+        filter.setCategoryId(categoryFilterIds.get(Math.max(0, categoryFilter.getSelectedIndex())));
+        if (floorFilter.getSelectedIndex() > 0) {
+            filter.setFloor(Integer.valueOf((String) floorFilter.getSelectedItem()));
+        }
+        if (viewFilter.getSelectedIndex() > 0) {
+            filter.setViewType((String) viewFilter.getSelectedItem());
+        }
+        filter.setGuests((Integer) guestsFilter.getValue());
+        filter.setSort(RoomSearchFilter.Sort.values()[Math.max(0, sortFilter.getSelectedIndex())]);
+        try {
+            filter.setPriceRange(parsePrice(minPriceFilter), parsePrice(maxPriceFilter));
+        } catch (IllegalArgumentException e) {
+            showModernDialog("Please enter prices as numbers, with the maximum not below the minimum.",
+                "Invalid Price", JOptionPane.WARNING_MESSAGE);
+            return null;
+        }
+        return filter;
+    }
+
+    private static Double parsePrice(JTextField field) {
+        String text = field.getText().trim();
+        return text.isEmpty() ? null : Double.valueOf(text);
+    }
     
     private JPanel createRoomsNavigationFooter() {
         JPanel footer = new JPanel(new BorderLayout());
@@ -1480,22 +1711,22 @@ public class CustomerDashboard extends JPanel {
     }
     
     private void displayAllRooms() {
-        try {
-            // Get all available rooms
-            List<Room> allRooms = roomService.getAllRooms();
-            // Filter to only show available rooms (no limit - get all)
-            allAvailableRooms = allRooms.stream()
-                .filter(room -> "AVAILABLE".equals(room.getStatus()))
-                .collect(Collectors.toList());
-            
-            currentPage = 0; // Reset to first page
-            currentRoomIndex = 0;
-            
-            // Display current page
-            displayCurrentPage();
-        } catch (Exception e) {
-            showModernDialog("Error loading rooms: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        RoomSearchFilter filter = readRoomFilter();
+        if (filter == null) {
+            return;
         }
+        UiTaskExecutor.getInstance().submit("customer.rooms", this,
+            // Answered from the in-memory room index by bitmap intersection, without a query
+            () -> roomService.browseRooms(filter),
+            rooms -> {
+                allAvailableRooms = rooms;
+                currentPage = 0; // Reset to first page
+                currentRoomIndex = 0;
+                
+                // Display current page
+                displayCurrentPage();
+            },
+            e -> showModernDialog("Error loading rooms: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
     }
     
     private void displayCurrentPage() {
@@ -1506,7 +1737,7 @@ public class CustomerDashboard extends JPanel {
 
         if (allAvailableRooms.isEmpty()) {
             JLabel noRoomsLabel = new JLabel("<html><div style='text-align: center; padding: 40px; color: #64748b; font-size: 16px;'>" +
-                "No rooms available at the moment.<br>Please check back later.</div></html>");
+                "No rooms match your search at the moment.<br>Try other filters or check back later.</div></html>");
             noRoomsLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
             roomsContainer.add(noRoomsLabel);
             roomsContainer.revalidate();
@@ -1533,7 +1764,7 @@ public class CustomerDashboard extends JPanel {
         LocalDate defaultCheckIn = LocalDate.now();
         LocalDate defaultCheckOut = LocalDate.now().plusDays(1);
         
-        for (Room room : currentAvailableRooms) {
+        for (RoomCard room : currentAvailableRooms) {
             JPanel roomCard = createRoomCard(room, defaultCheckIn, defaultCheckOut);
             gridPanel.add(roomCard);
         }
@@ -1633,7 +1864,18 @@ public class CustomerDashboard extends JPanel {
                 return;
             }
 
-            List<Room> rooms = roomService.searchAvailableRooms(checkIn, checkOut);
+            UiTaskExecutor.getInstance().submit("customer.search", this,
+                () -> roomService.searchAvailableRooms(checkIn, checkOut).stream().map(RoomCard::of).toList(),
+                rooms -> showSearchResults(rooms, checkIn, checkOut),
+                e -> showModernDialog("Error searching rooms: " + e.getMessage(), "Search Error", JOptionPane.ERROR_MESSAGE));
+        } catch (java.time.format.DateTimeParseException e) {
+            showModernDialog("Invalid date format. Please use YYYY-MM-DD format.\nExample: 2024-12-25", 
+                "Invalid Date Format", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void showSearchResults(List<RoomCard> rooms, LocalDate checkIn, LocalDate checkOut) {
+        try {
             currentAvailableRooms = rooms;
             
             // Clear existing cards
@@ -1656,7 +1898,7 @@ public class CustomerDashboard extends JPanel {
             gridPanel.setBackground(SOFT_WHITE);
             gridPanel.setBorder(BorderFactory.createEmptyBorder(30, 30, 30, 30));
             
-            for (Room room : rooms) {
+            for (RoomCard room : rooms) {
                 JPanel roomCard = createRoomCard(room, checkIn, checkOut);
                 gridPanel.add(roomCard);
             }
@@ -1664,15 +1906,12 @@ public class CustomerDashboard extends JPanel {
             roomsContainer.add(gridPanel);
             roomsContainer.revalidate();
             roomsContainer.repaint();
-        } catch (java.time.format.DateTimeParseException e) {
-            showModernDialog("Invalid date format. Please use YYYY-MM-DD format.\nExample: 2024-12-25", 
-                "Invalid Date Format", JOptionPane.ERROR_MESSAGE);
         } catch (Exception e) {
             showModernDialog("Error searching rooms: " + e.getMessage(), "Search Error", JOptionPane.ERROR_MESSAGE);
         }
     }
     
-    private JPanel createRoomCard(Room room, LocalDate checkIn, LocalDate checkOut) {
+    private JPanel createRoomCard(RoomCard room, LocalDate checkIn, LocalDate checkOut) {
         RoundedPanel card = new RoundedPanel(20);
         card.setBackground(CARD_WHITE);
         card.setLayout(new BorderLayout(0, 0));
@@ -1692,30 +1931,19 @@ public class CustomerDashboard extends JPanel {
             private boolean imageLoaded = false;
             
             {
-                // Load image asynchronously
-                if (room.getPhotoUrl() != null && !room.getPhotoUrl().isEmpty()) {
-                    new Thread(() -> {
-                        try {
-                            if (room.getPhotoUrl().startsWith("http")) {
-                                java.net.URL url = new java.net.URL(room.getPhotoUrl());
-                                roomImage = javax.imageio.ImageIO.read(url);
-                                imageLoaded = true;
-                                SwingUtilities.invokeLater(() -> repaint());
-                            } else {
-                                // Local file
-                                java.io.File file = new java.io.File(room.getPhotoUrl());
-                                if (file.exists()) {
-                                    roomImage = javax.imageio.ImageIO.read(file);
-                                    imageLoaded = true;
-                                    SwingUtilities.invokeLater(() -> repaint());
-                                }
-                            }
-                        } catch (Exception e) {
-                            // If image loading fails, use placeholder
-                            roomImage = null;
-                            imageLoaded = false;
-                        }
-                    }).start();
+                // Load image asynchronously; thumbnails already in the cache paint immediately
+                if (room.photoUrl() != null && !room.photoUrl().isEmpty()) {
+                    roomImage = RoomImageService.getInstance().getCached(room.photoUrl(), CARD_IMAGE_WIDTH, CARD_IMAGE_HEIGHT);
+                    imageLoaded = roomImage != null;
+                    if (!imageLoaded) {
+                        RoomImageService.getInstance().load(room.photoUrl(), CARD_IMAGE_WIDTH, CARD_IMAGE_HEIGHT)
+                            .thenAccept(image -> SwingUtilities.invokeLater(() -> {
+                                // If image loading fails, keep the placeholder
+                                roomImage = image;
+                                imageLoaded = image != null;
+                                repaint();
+                            }));
+                    }
                 }
             }
             
@@ -1783,7 +2011,7 @@ public class CustomerDashboard extends JPanel {
         RoundedPanel badge = new RoundedPanel(15);
         badge.setBackground(new Color(0, 0, 0, 180));
         badge.setBorder(BorderFactory.createEmptyBorder(8, 15, 8, 15));
-        JLabel badgeLabel = new JLabel("Room " + room.getRoomNumber());
+        JLabel badgeLabel = new JLabel("Room " + room.roomNumber());
         badgeLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
         badgeLabel.setForeground(Color.WHITE);
         badge.add(badgeLabel);
@@ -1798,7 +2026,7 @@ public class CustomerDashboard extends JPanel {
         infoPanel.setBorder(BorderFactory.createEmptyBorder(18, 20, 18, 20));
         
         // Category badge with enhanced design
-        String categoryName = room.getCategory() != null ? room.getCategory().getName() : "Standard";
+        String categoryName = room.categoryName() != null ? room.categoryName() : "Standard";
         RoundedPanel categoryBadge = new RoundedPanel(12);
         categoryBadge.setBackground(ACCENT_GREEN_LIGHT);
         categoryBadge.setBorder(BorderFactory.createEmptyBorder(6, 12, 6, 12));
@@ -1815,7 +2043,7 @@ public class CustomerDashboard extends JPanel {
         infoPanel.add(Box.createVerticalStrut(12));
         
         // Room title
-        JLabel roomTitle = new JLabel("Room " + room.getRoomNumber());
+        JLabel roomTitle = new JLabel("Room " + room.roomNumber());
         roomTitle.setFont(new Font("Segoe UI", Font.BOLD, 22));
         roomTitle.setForeground(TEXT_PRIMARY);
         roomTitle.setAlignmentX(Component.LEFT_ALIGNMENT);
@@ -1823,7 +2051,7 @@ public class CustomerDashboard extends JPanel {
         infoPanel.add(Box.createVerticalStrut(8));
         
         // Description with line clamping
-        String description = room.getDescription();
+        String description = room.description();
         if (description == null || description.isEmpty()) {
             description = categoryName.equalsIgnoreCase("Premium") || categoryName.equalsIgnoreCase("Deluxe") 
                 ? "Luxurious room with premium amenities and stunning views." 
@@ -1845,10 +2073,10 @@ public class CustomerDashboard extends JPanel {
         featuresPanel.setOpaque(false);
         featuresPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
         
-        if (room.getViewType() != null && !room.getViewType().isEmpty()) {
-            addFeatureTag(featuresPanel, "🌄 " + room.getViewType());
+        if (room.viewType() != null && !room.viewType().isEmpty()) {
+            addFeatureTag(featuresPanel, "🌄 " + room.viewType());
         }
-        addFeatureTag(featuresPanel, "📍 Floor " + room.getFloor());
+        addFeatureTag(featuresPanel, "📍 Floor " + room.floor());
         
         infoPanel.add(featuresPanel);
         infoPanel.add(Box.createVerticalStrut(18));
@@ -1869,7 +2097,7 @@ public class CustomerDashboard extends JPanel {
         priceLeft.setLayout(new BoxLayout(priceLeft, BoxLayout.Y_AXIS));
         priceLeft.setOpaque(false);
         
-        JLabel priceLabel = new JLabel("$" + String.format("%.0f", room.getNightlyRate()));
+        JLabel priceLabel = new JLabel("$" + String.format("%.0f", room.nightlyRate()));
         priceLabel.setFont(new Font("Segoe UI", Font.BOLD, 32));
         priceLabel.setForeground(ACCENT_GREEN);
         priceLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
@@ -1951,8 +2179,8 @@ public class CustomerDashboard extends JPanel {
         panel.add(tag);
     }
     
-    private void showRoomDetailsModal(Room room, LocalDate checkIn, LocalDate checkOut, int currentIndex, int totalRooms) {
-        JFrame frame = new JFrame("Room Details - " + room.getRoomNumber());
+    private void showRoomDetailsModal(RoomCard room, LocalDate checkIn, LocalDate checkOut, int currentIndex, int totalRooms) {
+        JFrame frame = new JFrame("Room Details - " + room.roomNumber());
         frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         frame.setSize(1000, 900);
         frame.setLocationRelativeTo(this);
@@ -2004,7 +2232,7 @@ public class CustomerDashboard extends JPanel {
         frame.setVisible(true);
     }
     
-    private JPanel createRoomDetailsContent(Room room, LocalDate checkIn, LocalDate checkOut) {
+    private JPanel createRoomDetailsContent(RoomCard room, LocalDate checkIn, LocalDate checkOut) {
         JPanel mainContent = new JPanel();
         mainContent.setLayout(new BoxLayout(mainContent, BoxLayout.Y_AXIS));
         mainContent.setBackground(SOFT_WHITE);
@@ -2016,29 +2244,19 @@ public class CustomerDashboard extends JPanel {
             private boolean imageLoaded = false;
             
             {
-                // Load image asynchronously
-                if (room.getPhotoUrl() != null && !room.getPhotoUrl().isEmpty()) {
-                    new Thread(() -> {
-                        try {
-                            if (room.getPhotoUrl().startsWith("http")) {
-                                java.net.URL url = new java.net.URL(room.getPhotoUrl());
-                                roomImage = javax.imageio.ImageIO.read(url);
-                                imageLoaded = true;
-                                SwingUtilities.invokeLater(() -> repaint());
-                            } else {
-                                // Local file
-                                java.io.File file = new java.io.File(room.getPhotoUrl());
-                                if (file.exists()) {
-                                    roomImage = javax.imageio.ImageIO.read(file);
-                                    imageLoaded = true;
-                                    SwingUtilities.invokeLater(() -> repaint());
-                                }
-                            }
-                        } catch (Exception e) {
-                            roomImage = null;
-                            imageLoaded = false;
-                        }
-                    }).start();
+                // Load image asynchronously; thumbnails already in the cache paint immediately
+                if (room.photoUrl() != null && !room.photoUrl().isEmpty()) {
+                    roomImage = RoomImageService.getInstance().getCached(room.photoUrl(), DETAIL_IMAGE_WIDTH, DETAIL_IMAGE_HEIGHT);
+                    imageLoaded = roomImage != null;
+                    if (!imageLoaded) {
+                        RoomImageService.getInstance().load(room.photoUrl(), DETAIL_IMAGE_WIDTH, DETAIL_IMAGE_HEIGHT)
+                            .thenAccept(image -> SwingUtilities.invokeLater(() -> {
+                                // If image loading fails, keep the placeholder
+                                roomImage = image;
+                                imageLoaded = image != null;
+                                repaint();
+                            }));
+                    }
                 }
             }
             
@@ -2133,11 +2351,11 @@ public class CustomerDashboard extends JPanel {
         JPanel topRow = new JPanel(new FlowLayout(FlowLayout.LEFT, 12, 0));
         topRow.setOpaque(false);
         
-        JLabel roomNumberLabel = new JLabel("Room " + room.getRoomNumber());
+        JLabel roomNumberLabel = new JLabel("Room " + room.roomNumber());
         roomNumberLabel.setFont(new Font("Segoe UI", Font.BOLD, 40));
         roomNumberLabel.setForeground(TEXT_PRIMARY);
         
-        String categoryName = room.getCategory() != null ? room.getCategory().getName() : "Standard";
+        String categoryName = room.categoryName() != null ? room.categoryName() : "Standard";
         RoundedPanel categoryBadge = new RoundedPanel(18);
         categoryBadge.setBackground(ACCENT_GREEN_LIGHT);
         categoryBadge.setBorder(BorderFactory.createEmptyBorder(10, 20, 10, 20));
@@ -2152,7 +2370,7 @@ public class CustomerDashboard extends JPanel {
         titlePanel.add(Box.createVerticalStrut(10));
         
         // Room ID and status
-        JLabel roomIdLabel = new JLabel("Room ID: #" + room.getId() + " • " + room.getStatus());
+        JLabel roomIdLabel = new JLabel("Room ID: #" + room.id() + " • " + room.status());
         roomIdLabel.setFont(new Font("Segoe UI", Font.PLAIN, 16));
         roomIdLabel.setForeground(TEXT_SECONDARY);
         titlePanel.add(roomIdLabel);
@@ -2164,7 +2382,7 @@ public class CustomerDashboard extends JPanel {
         pricePanel.setLayout(new BoxLayout(pricePanel, BoxLayout.Y_AXIS));
         pricePanel.setOpaque(false);
         
-        JLabel priceLabel = new JLabel("$" + String.format("%.0f", room.getNightlyRate()));
+        JLabel priceLabel = new JLabel("$" + String.format("%.0f", room.nightlyRate()));
         priceLabel.setFont(new Font("Segoe UI", Font.BOLD, 48));
         priceLabel.setForeground(ACCENT_GREEN);
         priceLabel.setAlignmentX(Component.RIGHT_ALIGNMENT);
@@ -2195,7 +2413,7 @@ public class CustomerDashboard extends JPanel {
         descTitle.setFont(new Font("Segoe UI", Font.BOLD, 22));
         descTitle.setForeground(TEXT_PRIMARY);
         
-        String description = room.getDescription();
+        String description = room.description();
         if (description == null || description.isEmpty()) {
             description = "A comfortable and well-appointed room designed for your ultimate relaxation and convenience.";
         }
@@ -2214,13 +2432,13 @@ public class CustomerDashboard extends JPanel {
         specsGrid.setOpaque(false);
         specsGrid.setMaximumSize(new Dimension(Integer.MAX_VALUE, 250));
         
-        addEnhancedSpecCard(specsGrid, "🏢", "Floor", "Floor " + room.getFloor());
-        addEnhancedSpecCard(specsGrid, "🛏️", "Room Status", room.getStatus());
-        addEnhancedSpecCard(specsGrid, room.getViewType() != null ? "🌄" : "🪟", "View Type", 
-            room.getViewType() != null ? room.getViewType() : "Standard");
-        addEnhancedSpecCard(specsGrid, "💰", "Nightly Rate", "$" + String.format("%.2f", room.getNightlyRate()));
-        if (room.getCategory() != null) {
-            addEnhancedSpecCard(specsGrid, "⭐", "Category Rate", "$" + String.format("%.2f", room.getCategory().getBaseRate()));
+        addEnhancedSpecCard(specsGrid, "🏢", "Floor", "Floor " + room.floor());
+        addEnhancedSpecCard(specsGrid, "🛏️", "Room Status", room.status());
+        addEnhancedSpecCard(specsGrid, room.viewType() != null ? "🌄" : "🪟", "View Type", 
+            room.viewType() != null ? room.viewType() : "Standard");
+        addEnhancedSpecCard(specsGrid, "💰", "Nightly Rate", "$" + String.format("%.2f", room.nightlyRate()));
+        if (room.categoryName() != null) {
+            addEnhancedSpecCard(specsGrid, "⭐", "Category Rate", "$" + String.format("%.2f", room.nightlyRate()));
         } else {
             addEnhancedSpecCard(specsGrid, "📋", "Room Type", categoryName);
         }
@@ -2292,7 +2510,7 @@ public class CustomerDashboard extends JPanel {
         
         // Booking summary
         long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
-        double totalCost = room.getNightlyRate() * nights;
+        double totalCost = reservationService.calculateStayCost(room.categoryId(), checkIn, checkOut);
         
         RoundedPanel summaryCard = new RoundedPanel(16);
         summaryCard.setBackground(new Color(34, 197, 94, 10));
@@ -2314,7 +2532,7 @@ public class CustomerDashboard extends JPanel {
         addSummaryRow(summaryContent, "Check-in:", checkIn.format(DateTimeFormatter.ofPattern("EEEE, MMMM dd, yyyy")));
         addSummaryRow(summaryContent, "Check-out:", checkOut.format(DateTimeFormatter.ofPattern("EEEE, MMMM dd, yyyy")));
         addSummaryRow(summaryContent, "Duration:", nights + " night" + (nights != 1 ? "s" : ""));
-        addSummaryRow(summaryContent, "Rate per night:", "$" + String.format("%.2f", room.getNightlyRate()));
+        addSummaryRow(summaryContent, "Base rate per night:", "$" + String.format("%.2f", room.nightlyRate()));
         
         summaryContent.add(Box.createVerticalStrut(15));
         
@@ -1,15 +1,24 @@
 package com.hotel.ui.screens.dashboards;
 
 import com.hotel.config.DatabaseConfig;
-import com.hotel.model.Reservation;
+import com.hotel.model.Privilege;
+import com.hotel.model.RateRule;
 import com.hotel.model.Room;
 import com.hotel.model.RoomCategory;
 import com.hotel.model.User;
 import com.hotel.repository.HibernateReservationRepository;
 import com.hotel.repository.HibernateRoomRepository;
 import com.hotel.repository.HibernateUserRepository;
+import com.hotel.model.DailyStats;
+import com.hotel.service.AnalyticsService;
+import com.hotel.service.BulkImporter;
+import com.hotel.service.DashboardMetrics;
 import com.hotel.service.HibernateReservationService;
 import com.hotel.service.HibernateRoomService;
+import com.hotel.service.ReportExporter;
+import com.hotel.ui.BulkImportAction;
+import com.hotel.ui.ReportExportAction;
+import com.hotel.ui.UiTaskExecutor;
 import com.hotel.ui.components.RoundedPanel;
 
 import javax.swing.*;
@@ -21,14 +30,20 @@ import javax.swing.table.JTableHeader;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.File;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 public class ManagerDashboard extends JPanel {
     private final User user;
-    private final HibernateReservationService reservationService;
+    private final DashboardMetrics metrics;
+    private final AnalyticsService analyticsService;
     private final HibernateRoomService roomService;
+    private final HibernateReservationService reservationService;
     private final DatabaseConfig config;
     
     // Enhanced color scheme - Pure Black and Green
@@ -48,11 +63,16 @@ public class ManagerDashboard extends JPanel {
     private static final Color DEEP_NAVY = new Color(15, 23, 42);
     private static final Color ACCENT_GOLD = new Color(212, 175, 55);
     private static final Color ACCENT_GOLD_HOVER = new Color(184, 153, 48);
+    private static final int AUDITED_NIGHTS = 30;
     
     private JTable analyticsTable;
     private DefaultTableModel analyticsTableModel;
     private JTable roomTable;
     private DefaultTableModel roomTableModel;
+    private JTable rateRuleTable;
+    private DefaultTableModel rateRuleTableModel;
+    private List<RateRule> rateRules = List.of();
+    private List<RoomCategory> rateCategories = List.of();
     private JLabel totalRevenueLabel = new JLabel("$0.00");
     private JLabel occupancyRateLabel = new JLabel("0%");
     private JLabel totalReservationsLabel = new JLabel("0");
@@ -66,9 +86,10 @@ public class ManagerDashboard extends JPanel {
         this.user = user;
         this.config = config;
         this.onLogout = onLogout;
-        this.reservationService = new HibernateReservationService(
-                new HibernateReservationRepository(), new HibernateRoomRepository());
+        this.metrics = DashboardMetrics.getInstance();
+        this.analyticsService = new AnalyticsService();
         this.roomService = new HibernateRoomService(new HibernateRoomRepository());
+        this.reservationService = new HibernateReservationService(new HibernateReservationRepository(), new HibernateRoomRepository());
         
         setLayout(new BorderLayout());
         setBackground(SOFT_WHITE);
@@ -125,6 +146,7 @@ public class ManagerDashboard extends JPanel {
         
         tabs.addTab("📊 Analytics", createAnalyticsPanel());
         tabs.addTab("🏨 Rooms", createRoomManagementPanel());
+        tabs.addTab("💲 Rates", createRatePanel());
         
         return tabs;
     }
@@ -325,16 +347,22 @@ public class ManagerDashboard extends JPanel {
         
         JButton refreshBtn = createModernButton("🔄 Refresh", TEXT_SECONDARY);
         refreshBtn.setPreferredSize(new Dimension(120, 40));
-        refreshBtn.addActionListener(e -> loadAnalytics());
+        refreshBtn.addActionListener(e -> loadAnalytics(true));
         
         JButton downloadReportBtn = createModernButton("📥 Download", SUCCESS_GREEN);
         downloadReportBtn.setPreferredSize(new Dimension(140, 40));
         downloadReportBtn.addActionListener(e -> downloadReport());
         
+        JButton exportBtn = createModernButton("📤 Export", SUCCESS_GREEN);
+        exportBtn.setPreferredSize(new Dimension(120, 40));
+        exportBtn.addActionListener(e -> ReportExportAction.start(this, new ReportExporter(),
+            ReportExporter.Dataset.RESERVATIONS, ReportExporter.Dataset.PAYMENTS));
+        
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
         buttonPanel.setOpaque(false);
         buttonPanel.add(refreshBtn);
         buttonPanel.add(downloadReportBtn);
+        buttonPanel.add(exportBtn);
         
         headerPanel.add(title, BorderLayout.WEST);
         headerPanel.add(buttonPanel, BorderLayout.EAST);
@@ -364,42 +392,64 @@ public class ManagerDashboard extends JPanel {
     }
 
     private void loadAnalytics() {
-        SwingUtilities.invokeLater(() -> {
-            try {
-                List<Reservation> reservations = reservationService.findAllReservations();
-                List<Room> rooms = roomService.getAllRooms();
+        loadAnalytics(false);
+    }
 
-                double totalRevenue = reservations.stream()
-                        .filter(r -> r.getStatus().equals("CHECKED_OUT") || r.getStatus().equals("CONFIRMED"))
-                        .mapToDouble(r -> reservationService.calculateStayCost(r.getRoom(), r.getCheckIn(), r.getCheckOut()))
-                        .sum();
+    /**
+     * Shows the running totals; {@code resync} reloads them from the database first so changes
+     * made from other workstations show up.
+     */
+    private void loadAnalytics(boolean resync) {
+        UiTaskExecutor.getInstance().submit("manager.analytics", this,
+            () -> {
+                if (resync) {
+                    metrics.refresh();
+                }
+                LocalDate today = LocalDate.now();
+                return new Analytics(metrics.snapshot(),
+                        analyticsService.getRangeMetrics(today.minusDays(AUDITED_NIGHTS), today.minusDays(1)));
+            },
+            this::showAnalytics,
+            e -> JOptionPane.showMessageDialog(this, 
+                    "Error loading analytics: " + e.getMessage(), 
+                    "Error", 
+                    JOptionPane.ERROR_MESSAGE));
+    }
 
-                long occupiedRooms = rooms.stream()
-                        .filter(r -> r.getStatus().equals("OCCUPIED") || r.getStatus().equals("RESERVED"))
-                        .count();
-                double occupancyRate = rooms.isEmpty() ? 0 : (occupiedRooms * 100.0 / rooms.size());
+    private void showAnalytics(Analytics analytics) {
+        DashboardMetrics.Snapshot snapshot = analytics.snapshot();
+        Map<String, Number> audited = analytics.audited();
+        long reservations = snapshot.totalReservations();
 
-                totalRevenueLabel.setText(String.format("$%.2f", totalRevenue));
-                occupancyRateLabel.setText(String.format("%.1f%%", occupancyRate));
-                totalReservationsLabel.setText(String.valueOf(reservations.size()));
+        totalRevenueLabel.setText(String.format("$%.2f", snapshot.revenue()));
+        occupancyRateLabel.setText(String.format("%.1f%%", snapshot.occupancyRate()));
+        totalReservationsLabel.setText(String.valueOf(reservations));
 
-                analyticsTableModel.setRowCount(0);
-                analyticsTableModel.addRow(new Object[]{"Total Reservations", reservations.size()});
-                analyticsTableModel.addRow(new Object[]{"Active Reservations", 
-                        reservations.stream().filter(r -> r.getStatus().equals("CONFIRMED") || r.getStatus().equals("CHECKED_IN")).count()});
-                analyticsTableModel.addRow(new Object[]{"Total Rooms", rooms.size()});
-                analyticsTableModel.addRow(new Object[]{"Available Rooms", 
-                        rooms.stream().filter(r -> r.getStatus().equals("AVAILABLE")).count()});
-                analyticsTableModel.addRow(new Object[]{"Occupied Rooms", occupiedRooms});
-                analyticsTableModel.addRow(new Object[]{"Average Revenue per Reservation", 
-                        reservations.isEmpty() ? "$0.00" : String.format("$%.2f", totalRevenue / reservations.size())});
-            } catch (Exception e) {
-                JOptionPane.showMessageDialog(this, 
-                    "Error loading analytics: " + e.getMessage(), 
-                    "Error", 
-                    JOptionPane.ERROR_MESSAGE);
-            }
-        });
+        analyticsTableModel.setRowCount(0);
+        analyticsTableModel.addRow(new Object[]{"Total Reservations", reservations});
+        analyticsTableModel.addRow(new Object[]{"Active Reservations", snapshot.activeReservations()});
+        analyticsTableModel.addRow(new Object[]{"Total Rooms", snapshot.totalRooms()});
+        analyticsTableModel.addRow(new Object[]{"Available Rooms", snapshot.rooms("AVAILABLE")});
+        analyticsTableModel.addRow(new Object[]{"Occupied Rooms", snapshot.rooms("OCCUPIED") + snapshot.rooms("RESERVED")});
+        analyticsTableModel.addRow(new Object[]{"Average Revenue per Reservation", 
+                reservations == 0 ? "$0.00" : String.format("$%.2f", snapshot.revenue() / reservations)});
+        analyticsTableModel.addRow(new Object[]{"Payments Captured",
+                String.format("%d ($%.2f)", snapshot.capturedPayments(), snapshot.capturedAmount())});
+        String period = " (last " + AUDITED_NIGHTS + " nights)";
+        analyticsTableModel.addRow(new Object[]{"Room Nights Sold" + period, audited.get("roomsSold")});
+        analyticsTableModel.addRow(new Object[]{"Room Revenue" + period,
+                String.format("$%.2f", audited.get("revenue").doubleValue())});
+        analyticsTableModel.addRow(new Object[]{"Average Daily Rate" + period,
+                String.format("$%.2f", audited.get("averageDailyRate").doubleValue())});
+        analyticsTableModel.addRow(new Object[]{"Occupancy" + period,
+                String.format("%.1f%%", audited.get("occupancy").doubleValue())});
+        analyticsTableModel.addRow(new Object[]{"Cancellations" + period, audited.get("cancellations")});
+    }
+
+    /**
+     * The running counters together with the night audit's totals for the recent nights.
+     */
+    private record Analytics(DashboardMetrics.Snapshot snapshot, Map<String, Number> audited) {
     }
 
     private JPanel createRoomManagementPanel() {
@@ -422,9 +472,25 @@ public class ManagerDashboard extends JPanel {
         refreshBtn.setPreferredSize(new Dimension(120, 40));
         refreshBtn.addActionListener(e -> loadRooms());
         
+        JButton importBtn = createModernButton("📂 Import", ACCENT_GREEN);
+        importBtn.setPreferredSize(new Dimension(120, 40));
+        importBtn.addActionListener(e -> {
+            if (!user.hasPrivilege(Privilege.MANAGE_ROOMS)) {
+                JOptionPane.showMessageDialog(this, "You do not have permission to import data.", "Access Denied", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            BulkImportAction.start(this, new BulkImporter(), this::loadRooms);
+        });
+        
+        JButton noShowsBtn = createModernButton("🚫 No-shows", WARNING_ORANGE);
+        noShowsBtn.setPreferredSize(new Dimension(140, 40));
+        noShowsBtn.addActionListener(e -> cancelNoShows());
+        
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
         buttonPanel.setOpaque(false);
         buttonPanel.add(createRoomBtn);
+        buttonPanel.add(importBtn);
+        buttonPanel.add(noShowsBtn);
         buttonPanel.add(refreshBtn);
         
         headerPanel.add(title, BorderLayout.WEST);
@@ -460,40 +526,277 @@ public class ManagerDashboard extends JPanel {
     }
     
     private void loadRooms() {
-        SwingUtilities.invokeLater(() -> {
-            try {
-                List<Room> rooms = roomService.getAllRooms();
-                roomTableModel.setRowCount(0);
-                
-                for (Room room : rooms) {
-                    String categoryName = "N/A";
-                    String rateStr = "N/A";
-                    
-                    if (room.getCategory() != null) {
-                        categoryName = room.getCategory().getName();
-                        // Price display - showing category name as rate is not directly available
-                        rateStr = categoryName + " Rate";
-                    }
-                    
-                    double rate = room.getNightlyRate();
-                    roomTableModel.addRow(new Object[]{
-                        room.getId(),
-                        room.getRoomNumber(),
-                        categoryName,
-                        room.getFloor(),
-                        room.getViewType() != null ? room.getViewType() : "Standard",
-                        room.getStatus(),
-                        String.format("$%.2f", rate),
-                        "Edit"
-                    });
-                }
-            } catch (Exception e) {
-                JOptionPane.showMessageDialog(this, 
+        UiTaskExecutor.getInstance().submit("manager.rooms", this,
+            roomService::getAllRooms,
+            this::showRooms,
+            e -> JOptionPane.showMessageDialog(this, 
                     "Error loading rooms: " + e.getMessage(), 
                     "Error", 
-                    JOptionPane.ERROR_MESSAGE);
+                    JOptionPane.ERROR_MESSAGE));
+    }
+
+    /**
+     * Cancels confirmed reservations that were due in the last few days but never checked in,
+     * after the manager confirms. Older confirmed reservations are not touched.
+     */
+    private void cancelNoShows() {
+        if (!user.hasPrivilege(Privilege.CANCEL_RESERVATION)) {
+            JOptionPane.showMessageDialog(this, "You do not have permission to cancel reservations.", "Access Denied", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.minusDays(config.getNoShowLookbackDays());
+        DateTimeFormatter format = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+        int confirm = JOptionPane.showConfirmDialog(this,
+                "Cancel every confirmed reservation due to arrive between " + from.format(format) + " and "
+                        + today.minusDays(1).format(format) + " whose guest never checked in?",
+                "Cancel No-shows", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+        if (confirm != JOptionPane.YES_OPTION) {
+            return;
+        }
+        UiTaskExecutor.getInstance().submit(this,
+            () -> reservationService.cancelNoShows(from, today),
+            cancelled -> {
+                JOptionPane.showMessageDialog(this, cancelled + " no-show reservation(s) cancelled.", "No-shows", JOptionPane.INFORMATION_MESSAGE);
+                loadRooms();
+            },
+            e -> JOptionPane.showMessageDialog(this,
+                    "Error cancelling no-shows: " + e.getMessage(),
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void showRooms(List<Room> rooms) {
+        roomTableModel.setRowCount(0);
+        
+        for (Room room : rooms) {
+            String categoryName = "N/A";
+            String rateStr = "N/A";
+            
+            if (room.getCategory() != null) {
+                categoryName = room.getCategory().getName();
+                // Price display - showing category name as rate is not directly available
+                rateStr = categoryName + " Rate";
             }
-        });
+            
+            double rate = room.getNightlyRate();
+            roomTableModel.addRow(new Object[]{
+                room.getId(),
+                room.getRoomNumber(),
+                categoryName,
+                room.getFloor(),
+                room.getViewType() != null ? room.getViewType() : "Standard",
+                room.getStatus(),
+                String.format("$%.2f", rate),
+                "Edit"
+            });
+        }
+    }
+    
+    /**
+     * Season, weekend and length-of-stay adjustments to the category base rates.
+     */
+    private JPanel createRatePanel() {
+        JPanel panel = new JPanel(new BorderLayout(0, 20));
+        panel.setBackground(SOFT_WHITE);
+        panel.setBorder(BorderFactory.createEmptyBorder(25, 0, 0, 0));
+        
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setOpaque(false);
+        
+        JLabel title = new JLabel("💲 Rate Rules");
+        title.setFont(new Font("Segoe UI", Font.BOLD, 24));
+        title.setForeground(TEXT_PRIMARY);
+        
+        JButton addBtn = createModernButton("➕ Add Rule", ACCENT_GREEN);
+        addBtn.setPreferredSize(new Dimension(140, 40));
+        addBtn.addActionListener(e -> showAddRateRuleDialog());
+        
+        JButton deleteBtn = createModernButton("🗑 Delete", WARNING_ORANGE);
+        deleteBtn.setPreferredSize(new Dimension(120, 40));
+        deleteBtn.addActionListener(e -> deleteSelectedRateRule());
+        
+        JButton refreshBtn = createModernButton("🔄 Refresh", TEXT_SECONDARY);
+        refreshBtn.setPreferredSize(new Dimension(120, 40));
+        refreshBtn.addActionListener(e -> loadRateRules());
+        
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        buttonPanel.setOpaque(false);
+        buttonPanel.add(addBtn);
+        buttonPanel.add(deleteBtn);
+        buttonPanel.add(refreshBtn);
+        
+        headerPanel.add(title, BorderLayout.WEST);
+        headerPanel.add(buttonPanel, BorderLayout.EAST);
+        
+        panel.add(headerPanel, BorderLayout.NORTH);
+        
+        String[] columns = {"Name", "Type", "Category", "From", "To", "Min Nights", "Adjustment"};
+        rateRuleTableModel = new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        rateRuleTable = new JTable(rateRuleTableModel);
+        styleModernTable(rateRuleTable);
+        rateRuleTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        
+        JScrollPane scrollPane = new JScrollPane(rateRuleTable);
+        scrollPane.setBorder(BorderFactory.createCompoundBorder(
+            new ShadowBorder(),
+            BorderFactory.createEmptyBorder(0, 0, 0, 0)
+        ));
+        scrollPane.getViewport().setBackground(CARD_WHITE);
+        
+        panel.add(scrollPane, BorderLayout.CENTER);
+        
+        loadRateRules();
+        
+        return panel;
+    }
+    
+    private void loadRateRules() {
+        UiTaskExecutor.getInstance().submit("manager.rates", this,
+            () -> new RateRules(roomService.getRateRules(), roomService.getAllCategories()),
+            this::showRateRules,
+            e -> JOptionPane.showMessageDialog(this, 
+                    "Error loading rate rules: " + e.getMessage(), 
+                    "Error", 
+                    JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void showRateRules(RateRules loaded) {
+        rateRules = loaded.rules();
+        rateCategories = loaded.categories();
+        rateRuleTableModel.setRowCount(0);
+        DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+        for (RateRule rule : rateRules) {
+            rateRuleTableModel.addRow(new Object[]{
+                rule.getName(),
+                rule.getType().replace('_', ' '),
+                categoryName(rule.getCategoryId()),
+                rule.getStartDate() != null ? rule.getStartDate().format(dateFormat) : "-",
+                rule.getEndDate() != null ? rule.getEndDate().format(dateFormat) : "-",
+                RateRule.LONG_STAY.equals(rule.getType()) ? String.valueOf(rule.getMinNights()) : "-",
+                String.format("%+d%%", rule.getPercent())
+            });
+        }
+    }
+
+    private String categoryName(Long categoryId) {
+        if (categoryId == null) {
+            return "All categories";
+        }
+        return rateCategories.stream()
+            .filter(category -> category.getId() == categoryId)
+            .map(RoomCategory::getName)
+            .findFirst()
+            .orElse("#" + categoryId);
+    }
+
+    private void showAddRateRuleDialog() {
+        if (!user.hasPrivilege(Privilege.MANAGE_ROOMS)) {
+            JOptionPane.showMessageDialog(this, "You do not have permission to change rates.", "Access Denied", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        JTextField nameField = createModernTextField("");
+        JComboBox<String> typeCombo = new JComboBox<>(new String[]{RateRule.SEASON, RateRule.WEEKEND, RateRule.LONG_STAY});
+        JComboBox<String> categoryCombo = new JComboBox<>();
+        categoryCombo.addItem("All categories");
+        for (RoomCategory category : rateCategories) {
+            categoryCombo.addItem(category.getName());
+        }
+        JTextField startField = createModernTextField("");
+        JTextField endField = createModernTextField("");
+        JTextField minNightsField = createModernTextField("");
+        JTextField percentField = createModernTextField("");
+        
+        JPanel form = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(6, 6, 6, 6);
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        Object[][] rows = {
+            {"Name:", nameField},
+            {"Type:", typeCombo},
+            {"Category:", categoryCombo},
+            {"From (yyyy-MM-dd):", startField},
+            {"To (yyyy-MM-dd):", endField},
+            {"Min Nights:", minNightsField},
+            {"Adjustment % (negative for a discount):", percentField}
+        };
+        for (int i = 0; i < rows.length; i++) {
+            gbc.gridy = i;
+            gbc.gridx = 0;
+            gbc.weightx = 0;
+            form.add(createFormLabel((String) rows[i][0]), gbc);
+            gbc.gridx = 1;
+            gbc.weightx = 1;
+            form.add((Component) rows[i][1], gbc);
+        }
+        
+        int choice = JOptionPane.showConfirmDialog(this, form, "Add Rate Rule",
+            JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (choice != JOptionPane.OK_OPTION) {
+            return;
+        }
+        
+        RateRule rule;
+        try {
+            int categoryIndex = categoryCombo.getSelectedIndex();
+            rule = new RateRule(nameField.getText().trim(), (String) typeCombo.getSelectedItem(),
+                categoryIndex <= 0 ? null : rateCategories.get(categoryIndex - 1).getId(),
+                Integer.parseInt(percentField.getText().trim()));
+            if (RateRule.SEASON.equals(rule.getType())) {
+                rule.setStartDate(LocalDate.parse(startField.getText().trim()));
+                rule.setEndDate(LocalDate.parse(endField.getText().trim()));
+            }
+            if (RateRule.LONG_STAY.equals(rule.getType())) {
+                rule.setMinNights(Integer.parseInt(minNightsField.getText().trim()));
+            }
+        } catch (NumberFormatException | DateTimeParseException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid date, minimum nights or adjustment!", "Validation Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        
+        UiTaskExecutor.getInstance().submit(this,
+            () -> roomService.saveRateRule(rule),
+            saved -> {
+                loadRateRules();
+                loadAnalytics();
+            },
+            ex -> JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void deleteSelectedRateRule() {
+        if (!user.hasPrivilege(Privilege.MANAGE_ROOMS)) {
+            JOptionPane.showMessageDialog(this, "You do not have permission to change rates.", "Access Denied", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        int selectedRow = rateRuleTable.getSelectedRow();
+        if (selectedRow < 0) {
+            JOptionPane.showMessageDialog(this, "Select a rule to delete.", "No Selection", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        RateRule rule = rateRules.get(rateRuleTable.convertRowIndexToModel(selectedRow));
+        int confirm = JOptionPane.showConfirmDialog(this, "Delete the rate rule \"" + rule.getName() + "\"?",
+            "Delete Rate Rule", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+        if (confirm != JOptionPane.YES_OPTION) {
+            return;
+        }
+        UiTaskExecutor.getInstance().submit(this,
+            () -> {
+                roomService.deleteRateRule(rule);
+                return rule;
+            },
+            deleted -> {
+                loadRateRules();
+                loadAnalytics();
+            },
+            ex -> JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private record RateRules(List<RateRule> rules, List<RoomCategory> categories) {
     }
     
     private JPanel createStaffManagementPanel() {
@@ -530,44 +833,71 @@ public class ManagerDashboard extends JPanel {
     }
     
     private void downloadReport() {
+        UiTaskExecutor.getInstance().submit(this,
+            this::buildReport,
+            this::saveReport,
+            e -> JOptionPane.showMessageDialog(this, 
+                "Error generating report: " + e.getMessage(), 
+                "Error", 
+                JOptionPane.ERROR_MESSAGE));
+    }
+
+    private String buildReport() {
+        DashboardMetrics.Snapshot snapshot = metrics.snapshot();
+        long totalReservations = snapshot.totalReservations();
+        double totalRevenue = snapshot.revenue();
+        
+        StringBuilder report = new StringBuilder();
+        report.append("HOTEL ANALYTICS REPORT\n");
+        report.append("Generated: ").append(java.time.LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))).append("\n");
+        report.append("=".repeat(50)).append("\n\n");
+        
+        report.append("FINANCIAL SUMMARY\n");
+        report.append("-".repeat(50)).append("\n");
+        report.append("Total Revenue: $").append(String.format("%.2f", totalRevenue)).append("\n");
+        report.append("Average Revenue per Reservation: $")
+              .append(totalReservations == 0 ? "0.00" : String.format("%.2f", totalRevenue / totalReservations)).append("\n");
+        report.append("Payments Captured: ").append(snapshot.capturedPayments())
+              .append(" ($").append(String.format("%.2f", snapshot.capturedAmount())).append(")\n\n");
+        
+        report.append("RESERVATION STATISTICS\n");
+        report.append("-".repeat(50)).append("\n");
+        report.append("Total Reservations: ").append(totalReservations).append("\n");
+        report.append("Active Reservations: ").append(snapshot.activeReservations()).append("\n\n");
+        
+        report.append("ROOM STATISTICS\n");
+        report.append("-".repeat(50)).append("\n");
+        report.append("Total Rooms: ").append(snapshot.totalRooms()).append("\n");
+        report.append("Available Rooms: ").append(snapshot.rooms("AVAILABLE")).append("\n");
+        report.append("Occupied Rooms: ").append(snapshot.rooms("OCCUPIED") + snapshot.rooms("RESERVED")).append("\n");
+        report.append("Occupancy Rate: ").append(String.format("%.1f%%", snapshot.occupancyRate())).append("\n\n");
+
+        // Audited nights come from the daily_stats rollup; tonight is not in it until the next audit
+        LocalDate to = LocalDate.now().minusDays(1);
+        LocalDate from = to.minusDays(AUDITED_NIGHTS - 1);
+        Map<String, Number> audited = analyticsService.getRangeMetrics(from, to);
+        report.append("LAST ").append(AUDITED_NIGHTS).append(" AUDITED NIGHTS\n");
+        report.append("-".repeat(50)).append("\n");
+        report.append("Room Nights Sold: ").append(audited.get("roomsSold")).append("\n");
+        report.append("Room Revenue: $").append(String.format("%.2f", audited.get("revenue").doubleValue())).append("\n");
+        report.append("Average Daily Rate: $").append(String.format("%.2f", audited.get("averageDailyRate").doubleValue())).append("\n");
+        report.append("Occupancy: ").append(String.format("%.1f%%", audited.get("occupancy").doubleValue())).append("\n");
+        report.append("Cancellations: ").append(audited.get("cancellations")).append("\n\n");
+        Map<LocalDate, Integer> soldByNight = new TreeMap<>();
+        Map<LocalDate, Double> revenueByNight = new TreeMap<>();
+        for (DailyStats stats : analyticsService.getDailyStats(from, to)) {
+            soldByNight.merge(stats.getStatDate(), stats.getRoomsSold(), Integer::sum);
+            revenueByNight.merge(stats.getStatDate(), stats.getRevenue(), Double::sum);
+        }
+        for (Map.Entry<LocalDate, Integer> night : soldByNight.entrySet()) {
+            report.append(night.getKey()).append("  sold ").append(night.getValue())
+                  .append("  revenue $").append(String.format("%.2f", revenueByNight.get(night.getKey()))).append("\n");
+        }
+        return report.toString();
+    }
+
+    private void saveReport(String report) {
         try {
-            List<Reservation> reservations = reservationService.findAllReservations();
-            List<Room> rooms = roomService.getAllRooms();
-            
-            StringBuilder report = new StringBuilder();
-            report.append("HOTEL ANALYTICS REPORT\n");
-            report.append("Generated: ").append(java.time.LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))).append("\n");
-            report.append("=".repeat(50)).append("\n\n");
-            
-            double totalRevenue = reservations.stream()
-                    .filter(r -> r.getStatus().equals("CHECKED_OUT") || r.getStatus().equals("CONFIRMED"))
-                    .mapToDouble(r -> reservationService.calculateStayCost(r.getRoom(), r.getCheckIn(), r.getCheckOut()))
-                    .sum();
-            
-            long occupiedRooms = rooms.stream()
-                    .filter(r -> r.getStatus().equals("OCCUPIED") || r.getStatus().equals("RESERVED"))
-                    .count();
-            double occupancyRate = rooms.isEmpty() ? 0 : (occupiedRooms * 100.0 / rooms.size());
-            
-            report.append("FINANCIAL SUMMARY\n");
-            report.append("-".repeat(50)).append("\n");
-            report.append("Total Revenue: $").append(String.format("%.2f", totalRevenue)).append("\n");
-            report.append("Average Revenue per Reservation: $")
-                  .append(reservations.isEmpty() ? "0.00" : String.format("%.2f", totalRevenue / reservations.size())).append("\n\n");
-            
-            report.append("RESERVATION STATISTICS\n");
-            report.append("-".repeat(50)).append("\n");
-            report.append("Total Reservations: ").append(reservations.size()).append("\n");
-            report.append("Active Reservations: ")
-                  .append(reservations.stream().filter(r -> r.getStatus().equals("CONFIRMED") || r.getStatus().equals("CHECKED_IN")).count()).append("\n\n");
-            
-            report.append("ROOM STATISTICS\n");
-            report.append("-".repeat(50)).append("\n");
-            report.append("Total Rooms: ").append(rooms.size()).append("\n");
-            report.append("Available Rooms: ").append(rooms.stream().filter(r -> r.getStatus().equals("AVAILABLE")).count()).append("\n");
-            report.append("Occupied Rooms: ").append(occupiedRooms).append("\n");
-            report.append("Occupancy Rate: ").append(String.format("%.1f%%", occupancyRate)).append("\n");
-            
             JFileChooser fileChooser = new JFileChooser();
             fileChooser.setDialogTitle("Save Report");
             fileChooser.setSelectedFile(new java.io.File("hotel_report_" + 
@@ -576,7 +906,7 @@ public class ManagerDashboard extends JPanel {
             if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
                 java.io.File file = fileChooser.getSelectedFile();
                 try (java.io.FileWriter writer = new java.io.FileWriter(file)) {
-                    writer.write(report.toString());
+                    writer.write(report);
                     JOptionPane.showMessageDialog(this, 
                         "Report saved successfully to:\n" + file.getAbsolutePath(), 
                         "Success", 
@@ -771,6 +1101,13 @@ public class ManagerDashboard extends JPanel {
     }
     
     private void showCreateRoomDialog() {
+        UiTaskExecutor.getInstance().submit(this,
+            roomService::getAllCategories,
+            this::showCreateRoomDialog,
+            e -> JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void showCreateRoomDialog(List<RoomCategory> categories) {
         JDialog dialog = new JDialog((Frame) SwingUtilities.getWindowAncestor(this), "Create New Room", true);
         dialog.setSize(850, 750);
         dialog.setLocationRelativeTo(this);
@@ -810,6 +1147,7 @@ public class ManagerDashboard extends JPanel {
         
         JTextField roomNumberField = createModernTextField("");
         JTextField floorField = createModernTextField("");
+        JTextField capacityField = createModernTextField(String.valueOf(Room.DEFAULT_CAPACITY));
         JTextField viewTypeField = createModernTextField("");
         JTextField priceField = createModernTextField("");
         JTextArea descriptionArea = new JTextArea(4, 30);
@@ -832,7 +1170,6 @@ public class ManagerDashboard extends JPanel {
         
         JComboBox<String> categoryCombo = new JComboBox<>();
         categoryCombo.setFont(new Font("Segoe UI", Font.PLAIN, 15));
-        List<RoomCategory> categories = roomService.getAllCategories();
         for (RoomCategory cat : categories) {
             categoryCombo.addItem(cat.getName());
         }
@@ -976,6 +1313,11 @@ public class ManagerDashboard extends JPanel {
         gbc.gridx = 1;
         formPanel.add(floorField, gbc);
         
+        gbc.gridx = 0; gbc.gridy = row++;
+        formPanel.add(createFormLabel("Max Guests:"), gbc);
+        gbc.gridx = 1;
+        formPanel.add(capacityField, gbc);
+        
         gbc.gridx = 0; gbc.gridy = row++;
         formPanel.add(createFormLabel("View Type:"), gbc);
         gbc.gridx = 1;
@@ -1042,16 +1384,6 @@ public class ManagerDashboard extends JPanel {
                     return;
                 }
                 
-                // Check if room number already exists
-                Optional<Room> existing = new HibernateRoomRepository().findByRoomNumber(roomNumberField.getText().trim());
-                if (existing.isPresent()) {
-                    JOptionPane.showMessageDialog(dialog, 
-                        "Room number already exists!", 
-                        "Validation Error", 
-                        JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-                
                 RoomCategory selectedCategory = null;
                 String categoryName = (String) categoryCombo.getSelectedItem();
                 for (RoomCategory cat : categories) {
@@ -1084,21 +1416,16 @@ public class ManagerDashboard extends JPanel {
                     selectedCategory.setName(categoryName);
                     selectedCategory.setDescription(categoryDescArea.getText().trim().isEmpty() ? 
                         "Room category: " + categoryName : categoryDescArea.getText().trim());
-                    selectedCategory.setBaseRate(price);
-                    selectedCategory = new HibernateRoomRepository().saveCategory(selectedCategory);
-                } else {
-                    // Update category description and price
-                    if (!categoryDescArea.getText().trim().isEmpty()) {
-                        selectedCategory.setDescription(categoryDescArea.getText().trim());
-                    }
-                    selectedCategory.setBaseRate(price);
-                    new HibernateRoomRepository().saveCategory(selectedCategory);
+                } else if (!categoryDescArea.getText().trim().isEmpty()) {
+                    // Update category description
+                    selectedCategory.setDescription(categoryDescArea.getText().trim());
                 }
+                selectedCategory.setBaseRate(price);
                 
                 Room newRoom = new Room();
                 newRoom.setRoomNumber(roomNumberField.getText().trim());
-                newRoom.setCategory(selectedCategory);
                 newRoom.setFloor(Integer.parseInt(floorField.getText().trim().isEmpty() ? "1" : floorField.getText().trim()));
+                newRoom.setCapacity(parseCapacity(capacityField.getText()));
                 newRoom.setViewType(viewTypeField.getText().trim().isEmpty() ? "Standard" : viewTypeField.getText().trim());
                 newRoom.setStatus((String) statusCombo.getSelectedItem());
                 
@@ -1142,16 +1469,32 @@ public class ManagerDashboard extends JPanel {
                                          (amenitiesDesc.length() > 0 ? ". Amenities: " + amenitiesDesc.toString() : ""));
                 }
                 
-                new HibernateRoomRepository().save(newRoom);
-                JOptionPane.showMessageDialog(dialog, 
-                    "Room created successfully! 🎉", 
-                    "Success", 
-                    JOptionPane.INFORMATION_MESSAGE);
-                dialog.dispose();
-                loadRooms();
+                RoomCategory category = selectedCategory;
+                UiTaskExecutor.getInstance().submit(dialog,
+                    () -> {
+                        // Check if room number already exists
+                        Optional<Room> existing = new HibernateRoomRepository().findByRoomNumber(newRoom.getRoomNumber());
+                        if (existing.isPresent()) {
+                            throw new IllegalArgumentException("Room number already exists!");
+                        }
+                        newRoom.setCategory(roomService.saveCategory(category));
+                        return roomService.createRoom(newRoom);
+                    },
+                    created -> {
+                        JOptionPane.showMessageDialog(dialog, 
+                            "Room created successfully! 🎉", 
+                            "Success", 
+                            JOptionPane.INFORMATION_MESSAGE);
+                        dialog.dispose();
+                        loadRooms();
+                    },
+                    ex -> JOptionPane.showMessageDialog(dialog, 
+                        "Error: " + ex.getMessage(), 
+                        "Error", 
+                        JOptionPane.ERROR_MESSAGE));
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(dialog, 
-                    "Invalid floor number!", 
+                    "Invalid floor number or guest count!", 
                     "Validation Error", 
                     JOptionPane.WARNING_MESSAGE);
             } catch (Exception ex) {
@@ -1183,6 +1526,20 @@ public class ManagerDashboard extends JPanel {
         return field;
     }
     
+    /**
+     * Guest capacity from the form; blank keeps the default and anything below one is rejected.
+     */
+    private int parseCapacity(String text) {
+        if (text.trim().isEmpty()) {
+            return Room.DEFAULT_CAPACITY;
+        }
+        int capacity = Integer.parseInt(text.trim());
+        if (capacity < 1) {
+            throw new NumberFormatException("Guest count must be at least 1");
+        }
+        return capacity;
+    }
+
     private JLabel createFormLabel(String text) {
         JLabel label = new JLabel(text);
         label.setFont(new Font("Segoe UI", Font.BOLD, 14));
@@ -1191,7 +1548,17 @@ public class ManagerDashboard extends JPanel {
     }
     
     private void showEditRoomDialog(long roomId) {
-        Room room = roomService.getRoomById(roomId);
+        UiTaskExecutor.getInstance().submit(this,
+            () -> new Object[]{roomService.getRoomById(roomId), roomService.getAllCategories()},
+            loaded -> {
+                @SuppressWarnings("unchecked")
+                List<RoomCategory> categories = (List<RoomCategory>) loaded[1];
+                showEditRoomDialog((Room) loaded[0], categories);
+            },
+            e -> JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void showEditRoomDialog(Room room, List<RoomCategory> categories) {
         if (room == null) {
             JOptionPane.showMessageDialog(this, "Room not found", "Error", JOptionPane.ERROR_MESSAGE);
             return;
@@ -1238,6 +1605,7 @@ public class ManagerDashboard extends JPanel {
         JTextField roomNumberField = createModernTextField(room.getRoomNumber());
         roomNumberField.setEditable(false);
         JTextField floorField = createModernTextField(String.valueOf(room.getFloor()));
+        JTextField capacityField = createModernTextField(String.valueOf(room.getCapacity()));
         JTextField viewTypeField = createModernTextField(room.getViewType() != null ? room.getViewType() : "");
         JTextField priceField = createModernTextField(String.valueOf(room.getNightlyRate()));
         JTextArea descriptionArea = new JTextArea(4, 30);
@@ -1264,7 +1632,6 @@ public class ManagerDashboard extends JPanel {
         
         JComboBox<String> categoryCombo = new JComboBox<>();
         categoryCombo.setFont(new Font("Segoe UI", Font.PLAIN, 15));
-        List<RoomCategory> categories = roomService.getAllCategories();
         for (RoomCategory cat : categories) {
             categoryCombo.addItem(cat.getName());
             if (room.getCategory() != null && cat.getName().equals(room.getCategory().getName())) {
@@ -1392,6 +1759,11 @@ public class ManagerDashboard extends JPanel {
         gbc.gridx = 1;
         formPanel.add(floorField, gbc);
         
+        gbc.gridx = 0; gbc.gridy = row++;
+        formPanel.add(createFormLabel("Max Guests:"), gbc);
+        gbc.gridx = 1;
+        formPanel.add(capacityField, gbc);
+        
         gbc.gridx = 0; gbc.gridy = row++;
         formPanel.add(createFormLabel("View Type:"), gbc);
         gbc.gridx = 1;
@@ -1459,6 +1831,7 @@ public class ManagerDashboard extends JPanel {
                 
                 // Update room
                 room.setFloor(Integer.parseInt(floorField.getText().trim()));
+                room.setCapacity(parseCapacity(capacityField.getText()));
                 room.setViewType(viewTypeField.getText().trim());
                 room.setStatus((String) statusCombo.getSelectedItem());
                 
@@ -1475,11 +1848,12 @@ public class ManagerDashboard extends JPanel {
                         break;
                     }
                 }
+                RoomCategory changedCategory = null;
                 if (selectedCategory != null) {
                     room.setCategory(selectedCategory);
                     if (!categoryDescArea.getText().trim().isEmpty()) {
                         selectedCategory.setDescription(categoryDescArea.getText().trim());
-                        new HibernateRoomRepository().saveCategory(selectedCategory);
+                        changedCategory = selectedCategory;
                     }
                 }
                 
@@ -1513,12 +1887,22 @@ public class ManagerDashboard extends JPanel {
                 
                 room.setDescription(fullDescription.toString());
                 
-                new HibernateRoomRepository().update(room);
-                JOptionPane.showMessageDialog(dialog, "Room updated successfully! 🎉", "Success", JOptionPane.INFORMATION_MESSAGE);
-                dialog.dispose();
-                loadRooms();
+                RoomCategory categoryToSave = changedCategory;
+                UiTaskExecutor.getInstance().submit(dialog,
+                    () -> {
+                        if (categoryToSave != null) {
+                            roomService.saveCategory(categoryToSave);
+                        }
+                        return roomService.updateRoom(room);
+                    },
+                    updated -> {
+                        JOptionPane.showMessageDialog(dialog, "Room updated successfully! 🎉", "Success", JOptionPane.INFORMATION_MESSAGE);
+                        dialog.dispose();
+                        loadRooms();
+                    },
+                    ex -> JOptionPane.showMessageDialog(dialog, "Error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
             } catch (NumberFormatException ex) {
-                JOptionPane.showMessageDialog(dialog, "Invalid floor number or price!", "Validation Error", JOptionPane.WARNING_MESSAGE);
+                JOptionPane.showMessageDialog(dialog, "Invalid floor number, guest count or price!", "Validation Error", JOptionPane.WARNING_MESSAGE);
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(dialog, "Error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             }
@@ -2,13 +2,20 @@ package com.hotel.ui.screens.dashboards;
 
 import com.hotel.config.DatabaseConfig;
 import com.hotel.model.CustomerMessage;
+import com.hotel.model.FolioEntry;
+import com.hotel.model.Privilege;
 import com.hotel.model.Reservation;
 import com.hotel.model.User;
 import com.hotel.repository.HibernateCustomerMessageRepository;
 import com.hotel.repository.HibernateReservationRepository;
 import com.hotel.repository.HibernateRoomRepository;
 import com.hotel.repository.HibernateUserRepository;
+import com.hotel.repository.ReservationRow;
+import com.hotel.repository.ReservationSearchCriteria;
+import com.hotel.service.DashboardMetrics;
+import com.hotel.service.FolioService;
 import com.hotel.service.HibernateReservationService;
+import com.hotel.ui.UiTaskExecutor;
 import com.hotel.ui.components.RoundedPanel;
 
 import javax.swing.*;
@@ -32,6 +39,8 @@ public class ReceptionistDashboard extends JPanel {
     private JTable messagesTable;
     private DefaultTableModel messagesModel;
     
+    private static final int SEARCH_DEBOUNCE_MS = 300;
+
     // Enhanced color scheme - Pure Black and Green
     private static final Color PURE_BLACK = new Color(0, 0, 0);
     private static final Color DARK_BLACK = new Color(10, 10, 10);
@@ -51,8 +60,9 @@ public class ReceptionistDashboard extends JPanel {
     private static final Color ACCENT_GOLD_HOVER = new Color(184, 153, 48);
     
     private JTable reservationTable;
-    private DefaultTableModel reservationTableModel;
+    private ReservationPageModel reservationTableModel;
     private JTextField searchField;
+    private Timer searchDebounce;
     private JPanel statsPanel; // Reference to stats panel for updates
     private Runnable onLogout;
 
@@ -255,19 +265,22 @@ public class ReceptionistDashboard extends JPanel {
         panel.setOpaque(false);
         panel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 130));
         
-        // Calculate stats
-        List<Reservation> allReservations = reservationService.findAllReservations();
-        long confirmedReservations = allReservations.stream()
-            .filter(r -> r.getStatus().equals("CONFIRMED"))
-            .count();
-        long checkedInReservations = allReservations.stream()
-            .filter(r -> r.getStatus().equals("CHECKED_IN"))
-            .count();
-        
-        // Stats cards - improved icon rendering
-        panel.add(createStatCard("📋", "Total Reservations", String.valueOf(allReservations.size()), SUCCESS_GREEN));
-        panel.add(createStatCard("✅", "Confirmed", String.valueOf(confirmedReservations), ACCENT_GREEN));
-        panel.add(createStatCard("🏨", "Checked In", String.valueOf(checkedInReservations), SUCCESS_GREEN));
+        // Calculate stats in the background; cards are added once the counts arrive
+        UiTaskExecutor.getInstance().submit(this,
+            () -> {
+                DashboardMetrics.Snapshot snapshot = DashboardMetrics.getInstance().snapshot();
+                return new long[]{snapshot.totalReservations(), snapshot.reservations("CONFIRMED"),
+                    snapshot.reservations("CHECKED_IN")};
+            },
+            counts -> {
+                // Stats cards - improved icon rendering
+                panel.add(createStatCard("📋", "Total Reservations", String.valueOf(counts[0]), SUCCESS_GREEN));
+                panel.add(createStatCard("✅", "Confirmed", String.valueOf(counts[1]), ACCENT_GREEN));
+                panel.add(createStatCard("🏨", "Checked In", String.valueOf(counts[2]), SUCCESS_GREEN));
+                panel.revalidate();
+                panel.repaint();
+            },
+            e -> JOptionPane.showMessageDialog(this, "Error loading statistics: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
         
         return panel;
     }
@@ -348,12 +361,8 @@ public class ReceptionistDashboard extends JPanel {
 
         // Modern reservations table with improved design - moved to center
         String[] columns = {"ID", "Customer", "Room", "Check-in", "Check-out", "Guests", "Status", "Actions"};
-        reservationTableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 7;
-            }
-        };
+        reservationTableModel = new ReservationPageModel(reservationService, this, columns, 7,
+            this::toRow, this::showError);
         reservationTable = new JTable(reservationTableModel);
         styleModernTable(reservationTable);
         
@@ -398,6 +407,26 @@ public class ReceptionistDashboard extends JPanel {
         
         searchField = createModernTextField("");
         searchField.setPreferredSize(new Dimension(250, 40));
+        searchField.setToolTipText("Reservation id, room number, username or guest name; or a date / date..date");
+        // Search as the user types, but only once typing pauses
+        searchDebounce = new Timer(SEARCH_DEBOUNCE_MS, e -> searchReservations());
+        searchDebounce.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            @Override
+            public void insertUpdate(javax.swing.event.DocumentEvent e) {
+                searchDebounce.restart();
+            }
+
+            @Override
+            public void removeUpdate(javax.swing.event.DocumentEvent e) {
+                searchDebounce.restart();
+            }
+
+            @Override
+            public void changedUpdate(javax.swing.event.DocumentEvent e) {
+                searchDebounce.restart();
+            }
+        });
         searchField.addActionListener(e -> searchReservations());
         searchPanel.add(searchField);
         
@@ -477,11 +506,19 @@ public class ReceptionistDashboard extends JPanel {
     }
     
     private void loadMessages() {
+        UiTaskExecutor.getInstance().submit("receptionist.messages", this,
+            messageRepository::findAll,
+            this::showMessages,
+            e -> {
+                messagesModel.setRowCount(0);
+                messagesModel.addRow(new Object[]{"", "Error", "Failed to load messages", e.getMessage(), "", "", ""});
+            });
+    }
+    
+    private void showMessages(List<CustomerMessage> messages) {
         messagesModel.setRowCount(0); // Clear existing rows
         
         try {
-            List<CustomerMessage> messages = messageRepository.findAll();
-            
             if (messages.isEmpty()) {
                 messagesModel.addRow(new Object[]{"", "No messages", "No customer messages yet", "", "", "", ""});
             } else {
@@ -604,26 +641,31 @@ public class ReceptionistDashboard extends JPanel {
             }
             
             // Save reply to database
-            try {
-                java.util.Optional<CustomerMessage> messageOpt = messageRepository.findById(messageId);
-                if (messageOpt.isPresent()) {
-                    CustomerMessage message = messageOpt.get();
-                    message.setReplyMessage(replyArea.getText().trim());
-                    message.setStatus("RESOLVED");
-                    message.setRepliedAt(java.time.LocalDateTime.now());
-                    messageRepository.update(message);
-                    
-                    // Reload messages
-                    loadMessages();
-                    
-                    JOptionPane.showMessageDialog(dialog, "Reply sent successfully to " + customerName + "!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                    dialog.dispose();
-                } else {
-                    JOptionPane.showMessageDialog(dialog, "Message not found.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(dialog, "Failed to send reply: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            String reply = replyArea.getText().trim();
+            UiTaskExecutor.getInstance().submit(dialog,
+                () -> {
+                    java.util.Optional<CustomerMessage> messageOpt = messageRepository.findById(messageId);
+                    if (messageOpt.isPresent()) {
+                        CustomerMessage message = messageOpt.get();
+                        message.setReplyMessage(reply);
+                        message.setStatus("RESOLVED");
+                        message.setRepliedAt(java.time.LocalDateTime.now());
+                        messageRepository.update(message);
+                    }
+                    return messageOpt.isPresent();
+                },
+                found -> {
+                    if (found) {
+                        // Reload messages
+                        loadMessages();
+                        
+                        JOptionPane.showMessageDialog(dialog, "Reply sent successfully to " + customerName + "!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                        dialog.dispose();
+                    } else {
+                        JOptionPane.showMessageDialog(dialog, "Message not found.", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                },
+                ex -> JOptionPane.showMessageDialog(dialog, "Failed to send reply: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
         });
         
         buttonPanel.add(cancelBtn);
@@ -681,74 +723,107 @@ public class ReceptionistDashboard extends JPanel {
     }
 
     private void loadAllReservations() {
-        List<Reservation> reservations = reservationService.findAllReservations();
-        updateTable(reservations);
+        reservationTableModel.reload(null);
     }
 
     private void searchReservations() {
+        searchDebounce.stop();
         String search = searchField.getText().trim();
         if (search.isEmpty()) {
             loadAllReservations();
             return;
         }
 
-        List<Reservation> all = reservationService.findAllReservations();
-        List<Reservation> filtered = all.stream()
-                .filter(r -> String.valueOf(r.getId()).contains(search) ||
-                           r.getRoom().getRoomNumber().contains(search) ||
-                           r.getUser().getUsername().contains(search))
-                .toList();
-        updateTable(filtered);
+        try {
+            reservationTableModel.reload(ReservationSearchCriteria.parse(search));
+        } catch (IllegalArgumentException e) {
+            showError(e);
+        }
     }
 
-    private void updateTable(List<Reservation> reservations) {
-        reservationTableModel.setRowCount(0);
-        for (Reservation res : reservations) {
-            Object[] row = {
-                res.getId(),
-                res.getUser().getDisplayName() + " (" + res.getUser().getUsername() + ")",
-                res.getRoom().getRoomNumber(),
-                res.getCheckIn().format(DateTimeFormatter.ofPattern("MMM dd, yyyy")),
-                res.getCheckOut().format(DateTimeFormatter.ofPattern("MMM dd, yyyy")),
-                res.getGuestCount(),
-                res.getStatus(),
-                res.getStatus().equals("CONFIRMED") ? "Check-in" : 
-                res.getStatus().equals("CHECKED_IN") ? "Check-out" : "View"
-            };
-            reservationTableModel.addRow(row);
-        }
+    private void showError(Exception e) {
+        JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+    }
+
+    private void showPermissionDenied(String action) {
+        JOptionPane.showMessageDialog(this, "You do not have permission to " + action + ".", "Access Denied", JOptionPane.WARNING_MESSAGE);
+    }
+
+    private Object[] toRow(ReservationRow res) {
+        return new Object[]{
+            res.id(),
+            res.displayName() + " (" + res.username() + ")",
+            res.roomNumber(),
+            res.checkIn().format(DateTimeFormatter.ofPattern("MMM dd, yyyy")),
+            res.checkOut().format(DateTimeFormatter.ofPattern("MMM dd, yyyy")),
+            res.guestCount(),
+            res.status(),
+            res.status().equals("CONFIRMED") ? "Check-in" : 
+            res.status().equals("CHECKED_IN") ? "Check-out" : "View"
+        };
     }
 
     private void checkIn(long reservationId) {
-        try {
-            Reservation res = reservationRepository.findById(reservationId).orElse(null);
-            if (res != null) {
-                res.setStatus("CHECKED_IN");
-                reservationRepository.update(res);
-                roomRepository.updateStatus(res.getRoom().getId(), "OCCUPIED");
+        if (!user.hasPrivilege(Privilege.CHECK_IN)) {
+            showPermissionDenied("check guests in");
+            return;
+        }
+        UiTaskExecutor.getInstance().submit(this,
+            () -> reservationService.checkIn(reservationId),
+            res -> {
                 JOptionPane.showMessageDialog(this, "Guest checked in successfully! 🎉", "Success", JOptionPane.INFORMATION_MESSAGE);
                 loadAllReservations();
                 updateStatsPanel(); // Update stats after check-in
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+            },
+            this::showError);
     }
 
     private void checkOut(long reservationId) {
-        try {
-            Reservation res = reservationRepository.findById(reservationId).orElse(null);
-            if (res != null) {
-                res.setStatus("CHECKED_OUT");
-                reservationRepository.update(res);
-                roomRepository.updateStatus(res.getRoom().getId(), "AVAILABLE");
-                JOptionPane.showMessageDialog(this, "Guest checked out successfully! 🎉", "Success", JOptionPane.INFORMATION_MESSAGE);
+        if (!user.hasPrivilege(Privilege.CHECK_OUT)) {
+            showPermissionDenied("check guests out");
+            return;
+        }
+        UiTaskExecutor.getInstance().submit(this,
+            () -> {
+                reservationService.checkOut(reservationId);
+                return reservationService.folio(reservationId);
+            },
+            folio -> {
+                showBill(folio);
                 loadAllReservations();
                 updateStatsPanel(); // Update stats after check-out
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            },
+            this::showError);
+    }
+
+    private void showBill(FolioService.Folio folio) {
+        StringBuilder rows = new StringBuilder();
+        for (FolioEntry entry : folio.entries()) {
+            rows.append(String.format(
+                "<tr><td>%s</td><td>%s</td><td align='right'>%s</td><td align='right'>%s</td></tr>",
+                entry.getPostedAt().format(DateTimeFormatter.ofPattern("MMM dd, yyyy")),
+                entry.getDescription() != null ? entry.getDescription() : entry.getType(),
+                money(entry.getAmountCents()),
+                money(entry.getBalanceCents())));
         }
+        String bill = String.format(
+            "<html><body style='width: 420px; padding: 20px; font-family: Segoe UI;'>" +
+            "<h2 style='color: #1e293b; margin-bottom: 15px; border-bottom: 2px solid #d4af37; padding-bottom: 10px;'>" +
+            "🧾 Guest checked out - Reservation %d</h2>" +
+            "<table width='100%%' cellpadding='4'>" +
+            "<tr><th align='left'>Date</th><th align='left'>Item</th><th align='right'>Amount</th><th align='right'>Balance</th></tr>" +
+            "%s</table>" +
+            "<p style='font-size: 16px; margin-top: 15px;'><b>Balance due:</b> <span style='color: %s;'>%s</span></p>" +
+            "</body></html>",
+            folio.reservationId(),
+            rows,
+            folio.balanceCents() > 0 ? "#ef4444" : "#22c55e",
+            money(folio.balanceCents()));
+        JOptionPane.showMessageDialog(this, bill, "Check-out Bill", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private static String money(long cents) {
+        return String.format("$%.2f", cents / 100.0);
     }
     
     private void updateStatsPanel() {
@@ -772,7 +847,13 @@ public class ReceptionistDashboard extends JPanel {
     }
 
     private void viewDetails(long reservationId) {
-        Reservation res = reservationRepository.findById(reservationId).orElse(null);
+        UiTaskExecutor.getInstance().submit(this,
+            () -> reservationRepository.findById(reservationId).orElse(null),
+            this::showDetails,
+            this::showError);
+    }
+
+    private void showDetails(Reservation res) {
         if (res != null) {
             String details = String.format(
                 "<html><body style='width: 400px; padding: 20px; font-family: Segoe UI;'>" +
@@ -0,0 +1,174 @@
+package com.hotel.ui.screens.dashboards;
+
+import com.hotel.repository.HibernateReservationRepository.PageKey;
+import com.hotel.repository.ReservationRow;
+import com.hotel.repository.ReservationSearchCriteria;
+import com.hotel.service.HibernateReservationService;
+import com.hotel.ui.UiTaskExecutor;
+
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Table model that pages reservations in from the database as rows scroll into view.
+ *
+ * <p>Only the total row count, the sort key at each page boundary and a handful of recently
+ * viewed pages are held, so memory stays flat however long the reservation history grows. Pages
+ * are fetched with keyset queries; jumping far down first walks the intervening boundaries with
+ * key-only queries.
+ */
+class ReservationPageModel extends AbstractTableModel {
+    static final int PAGE_SIZE = 100;
+    private static final int MAX_CACHED_PAGES = 6;
+
+    private final HibernateReservationService reservationService;
+    private final Component busyTarget;
+    private final String[] columns;
+    private final int editableColumn;
+    private final Function<ReservationRow, Object[]> rowMapper;
+    private final Consumer<Exception> onError;
+
+    // pageStarts.get(p) is the key after which page p begins; page 0 starts at the top
+    private final List<PageKey> pageStarts = new ArrayList<>();
+    private final Map<Integer, List<Object[]>> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<Object[]>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    private final Set<Integer> loading = new HashSet<>();
+    private ReservationSearchCriteria criteria;
+    private int rowCount;
+    private int generation;
+
+    ReservationPageModel(HibernateReservationService reservationService, Component busyTarget, String[] columns,
+                         int editableColumn, Function<ReservationRow, Object[]> rowMapper, Consumer<Exception> onError) {
+        this.reservationService = reservationService;
+        this.busyTarget = busyTarget;
+        this.columns = columns;
+        this.editableColumn = editableColumn;
+        this.rowMapper = rowMapper;
+        this.onError = onError;
+        pageStarts.add(null);
+    }
+
+    /**
+     * Drops everything cached and starts over with the given filter; {@code null} means all reservations.
+     */
+    void reload(ReservationSearchCriteria criteria) {
+        int current = ++generation;
+        this.criteria = criteria;
+        pages.clear();
+        loading.clear();
+        pageStarts.clear();
+        pageStarts.add(null);
+        UiTaskExecutor.getInstance().submit("reservation-page-count", busyTarget,
+            () -> reservationService.countReservations(criteria),
+            count -> {
+                if (current != generation) {
+                    return;
+                }
+                rowCount = (int) Math.min(count, Integer.MAX_VALUE);
+                fireTableDataChanged();
+            },
+            onError);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return column == editableColumn && getValueAt(row, 0) != null;
+    }
+
+    /**
+     * Returns the cell if its page is loaded; otherwise queues the page and returns {@code null}
+     * until it arrives.
+     */
+    @Override
+    public Object getValueAt(int row, int column) {
+        int page = row / PAGE_SIZE;
+        List<Object[]> rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            return null;
+        }
+        int offset = row % PAGE_SIZE;
+        return offset < rows.size() ? rows.get(offset)[column] : null;
+    }
+
+    private void requestPage(int page) {
+        if (!loading.add(page)) {
+            return;
+        }
+        int current = generation;
+        ReservationSearchCriteria filter = criteria;
+        List<PageKey> knownStarts = new ArrayList<>(pageStarts.subList(0, Math.min(page + 1, pageStarts.size())));
+        UiTaskExecutor.getInstance().submit(busyTarget,
+            () -> fetchPage(filter, page, knownStarts),
+            loaded -> {
+                if (current != generation) {
+                    return;
+                }
+                loading.remove(page);
+                for (int i = pageStarts.size(); i < loaded.starts().size(); i++) {
+                    pageStarts.add(loaded.starts().get(i));
+                }
+                pages.put(page, loaded.rows());
+                int first = page * PAGE_SIZE;
+                if (first < rowCount) {
+                    fireTableRowsUpdated(first, Math.min(rowCount, first + PAGE_SIZE) - 1);
+                }
+            },
+            e -> {
+                loading.remove(page);
+                onError.accept(e);
+            });
+    }
+
+    private LoadedPage fetchPage(ReservationSearchCriteria filter, int page, List<PageKey> starts) {
+        while (starts.size() <= page) {
+            PageKey previousStart = starts.get(starts.size() - 1);
+            if (starts.size() > 1 && previousStart == null) {
+                break; // ran off the end of the table
+            }
+            starts.add(reservationService.findPageEnd(filter, previousStart, PAGE_SIZE));
+        }
+        if (page > 0 && (starts.size() <= page || starts.get(page) == null)) {
+            return new LoadedPage(starts, List.of());
+        }
+        List<ReservationRow> reservations = reservationService.findReservationPage(filter, starts.get(page), PAGE_SIZE);
+        List<Object[]> rows = new ArrayList<>(reservations.size());
+        for (ReservationRow reservation : reservations) {
+            rows.add(rowMapper.apply(reservation));
+        }
+        if (starts.size() == page + 1 && reservations.size() == PAGE_SIZE) {
+            starts.add(PageKey.of(reservations.get(reservations.size() - 1)));
+        }
+        return new LoadedPage(starts, rows);
+    }
+
+    private record LoadedPage(List<PageKey> starts, List<Object[]> rows) {
+    }
+}
@@ -0,0 +1,119 @@
+-- Baseline schema. Every table is created only if missing, so a database that Hibernate's
+-- hbm2ddl built before migrations existed keeps its tables exactly as they are: no column or
+-- index is added to a table that already exists. Such a database must already match these
+-- definitions, as one kept by hbm2ddl update from the same mappings does.
+
+CREATE TABLE IF NOT EXISTS roles (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(50) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS privileges (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    code VARCHAR(50) NOT NULL UNIQUE,
+    description VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS role_privileges (
+    role_id BIGINT NOT NULL,
+    privilege_id BIGINT NOT NULL,
+    PRIMARY KEY (role_id, privilege_id),
+    FOREIGN KEY (role_id) REFERENCES roles(id) ON DELETE CASCADE,
+    FOREIGN KEY (privilege_id) REFERENCES privileges(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    password_hash VARCHAR(255) NOT NULL,
+    first_name VARCHAR(80),
+    last_name VARCHAR(80),
+    email VARCHAR(120),
+    role_id BIGINT NOT NULL,
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (role_id) REFERENCES roles(id)
+);
+
+CREATE TABLE IF NOT EXISTS user_privileges (
+    user_id BIGINT NOT NULL,
+    privilege_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, privilege_id),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (privilege_id) REFERENCES privileges(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS room_categories (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(50) NOT NULL UNIQUE,
+    description VARCHAR(255),
+    base_rate DECIMAL(10,2) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS rooms (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    room_number VARCHAR(10) NOT NULL UNIQUE,
+    category_id BIGINT NOT NULL,
+    floor INT NOT NULL DEFAULT 0,
+    view_type VARCHAR(40),
+    status VARCHAR(20) NOT NULL DEFAULT 'AVAILABLE',
+    photo_url VARCHAR(255),
+    description VARCHAR(255),
+    FOREIGN KEY (category_id) REFERENCES room_categories(id)
+);
+
+CREATE TABLE IF NOT EXISTS reservations (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    room_id BIGINT NOT NULL,
+    check_in DATE NOT NULL,
+    check_out DATE NOT NULL,
+    guest_count INT NOT NULL DEFAULT 1,
+    reservation_status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id),
+    FOREIGN KEY (room_id) REFERENCES rooms(id)
+);
+
+CREATE TABLE IF NOT EXISTS payments (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    reservation_id BIGINT NOT NULL,
+    amount DECIMAL(10,2) NOT NULL,
+    method VARCHAR(40) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'INITIATED',
+    transaction_ref VARCHAR(80),
+    paid_at TIMESTAMP NULL,
+    FOREIGN KEY (reservation_id) REFERENCES reservations(id)
+);
+
+CREATE TABLE IF NOT EXISTS customer_messages (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    subject VARCHAR(200) NOT NULL,
+    message TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'NEW',
+    created_at TIMESTAMP NULL,
+    replied_at TIMESTAMP NULL,
+    reply_message TEXT,
+    FOREIGN KEY (user_id) REFERENCES users(id)
+);
+
+CREATE TABLE IF NOT EXISTS daily_stats (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    stat_date DATE NOT NULL,
+    category_id BIGINT NOT NULL,
+    rooms_available INT NOT NULL,
+    rooms_sold INT NOT NULL,
+    revenue DECIMAL(12,2) NOT NULL,
+    cancellations INT NOT NULL,
+    UNIQUE KEY uk_daily_stats_date_category (stat_date, category_id),
+    FOREIGN KEY (category_id) REFERENCES room_categories(id)
+);
+
+CREATE TABLE IF NOT EXISTS booking_notes (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    reservation_id BIGINT NOT NULL,
+    note TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (reservation_id) REFERENCES reservations(id)
+);
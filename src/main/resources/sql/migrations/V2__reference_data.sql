@@ -1,4 +1,5 @@
-USE hotel_reservation_system;
+-- Roles, privileges and room categories every install needs. Demo rooms and users are seeded
+-- by HibernateDataInitializer on first launch.
 
 INSERT INTO roles (name) VALUES
     ('CUSTOMER'),
@@ -28,18 +29,4 @@ INSERT INTO room_categories (name, description, base_rate) VALUES
     ('Standard', 'Urban-chic rooms ideal for solo travelers.', 120.00),
     ('Deluxe', 'Spacious suites with balcony and lounge.', 210.00),
     ('Suite', 'Panoramic suites with workspace and spa tub.', 340.00)
-ON DUPLICATE KEY UPDATE description = VALUES(description), base_rate = VALUES(base_rate);
-
-INSERT INTO rooms (room_number, category_id, floor, view_type, status, photo_url, description)
-VALUES
-    ('101', 1, 1, 'City Garden', 'AVAILABLE', 'assets/herbanet-lobby.png', 'Biophilic textures, queen bed'),
-    ('102', 1, 1, 'Atrium', 'OCCUPIED', 'assets/herbanet-lobby.png', 'Green wall, queen bed'),
-    ('201', 2, 2, 'Skyline', 'AVAILABLE', 'assets/herbanet-lobby.png', 'Balcony, king bed'),
-    ('202', 2, 2, 'Garden', 'AVAILABLE', 'assets/herbanet-lobby.png', 'Corner lounge'),
-    ('301', 3, 3, 'Ocean', 'AVAILABLE', 'assets/herbanet-lobby.png', 'Panoramic suite')
-ON DUPLICATE KEY UPDATE status = VALUES(status), description = VALUES(description);
-INSERT IGNORE INTO user_privileges (user_id, privilege_id)
-SELECT u.id, p.id FROM users u
-JOIN roles r ON u.role_id = r.id
-JOIN privileges p ON p.code = 'MANAGE_USERS'
-WHERE r.name = 'ADMIN';
+ON DUPLICATE KEY UPDATE description = VALUES(description);
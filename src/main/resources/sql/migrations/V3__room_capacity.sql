@@ -0,0 +1,3 @@
+-- Guest capacity per room, so the customer room browser can filter on party size.
+
+ALTER TABLE rooms ADD COLUMN capacity INT NOT NULL DEFAULT 2;
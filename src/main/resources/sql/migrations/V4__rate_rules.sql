@@ -0,0 +1,15 @@
+-- Seasonal, weekend and length-of-stay adjustments to the category base rates, read by the rate engine.
+-- A NULL category applies the rule to every category; percent may be negative for a discount.
+
+CREATE TABLE IF NOT EXISTS rate_rules (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    rule_type VARCHAR(20) NOT NULL,
+    category_id BIGINT NULL,
+    start_date DATE NULL,
+    end_date DATE NULL,
+    min_nights INT NOT NULL DEFAULT 0,
+    percent INT NOT NULL,
+    INDEX idx_rate_rules_category (category_id),
+    FOREIGN KEY (category_id) REFERENCES room_categories(id) ON DELETE CASCADE
+);
@@ -0,0 +1,13 @@
+-- Payment references come from ReferenceGenerator and must be unique. References drawn by the old
+-- six-digit generator may repeat, so every duplicate after the first gets its payment id appended.
+
+UPDATE payments
+SET transaction_ref = CONCAT(transaction_ref, '-', id)
+WHERE transaction_ref IS NOT NULL
+  AND id NOT IN (SELECT first_id
+                 FROM (SELECT MIN(id) AS first_id
+                       FROM payments
+                       WHERE transaction_ref IS NOT NULL
+                       GROUP BY transaction_ref) f);
+
+ALTER TABLE payments ADD UNIQUE KEY uk_payments_transaction_ref (transaction_ref);
@@ -0,0 +1,6 @@
+-- The key a payment was submitted under, so a retried request finds the payment it already made
+-- instead of capturing a second one. Payments taken before the pipeline have none.
+
+ALTER TABLE payments ADD COLUMN idempotency_key VARCHAR(64) NULL;
+
+ALTER TABLE payments ADD UNIQUE KEY uk_payments_idempotency_key (idempotency_key);
@@ -0,0 +1,59 @@
+-- Per-reservation folio: an append-only ledger of charges, payments and refunds in signed cents,
+-- with the running balance and the latest payment kept on the reservation for indexed reads.
+
+CREATE TABLE IF NOT EXISTS folio_entries (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    reservation_id BIGINT NOT NULL,
+    entry_type VARCHAR(20) NOT NULL,
+    amount_cents BIGINT NOT NULL,
+    balance_cents BIGINT NOT NULL,
+    payment_id BIGINT NULL,
+    description VARCHAR(200),
+    posted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_folio_entries_reservation_id (reservation_id, id),
+    FOREIGN KEY (reservation_id) REFERENCES reservations(id) ON DELETE CASCADE,
+    FOREIGN KEY (payment_id) REFERENCES payments(id) ON DELETE SET NULL
+);
+
+ALTER TABLE reservations ADD COLUMN balance_cents BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE reservations ADD COLUMN last_payment_id BIGINT NULL;
+
+ALTER TABLE reservations ADD CONSTRAINT fk_reservations_last_payment
+    FOREIGN KEY (last_payment_id) REFERENCES payments(id) ON DELETE SET NULL;
+
+-- Existing stays are charged at the category base rate, since the rate rules in force when they
+-- were booked are not known; cancelled stays owe nothing. Charges go in first so each comes
+-- before its reservation's payments.
+INSERT INTO folio_entries (reservation_id, entry_type, amount_cents, balance_cents, description, posted_at)
+SELECT r.id, 'CHARGE',
+       TIMESTAMPDIFF(DAY, r.check_in, r.check_out) * ROUND(c.base_rate * 100),
+       TIMESTAMPDIFF(DAY, r.check_in, r.check_out) * ROUND(c.base_rate * 100),
+       CONCAT('Room ', rm.room_number, ', ', TIMESTAMPDIFF(DAY, r.check_in, r.check_out), ' night(s)'),
+       COALESCE(r.created_at, CURRENT_TIMESTAMP)
+FROM reservations r
+JOIN rooms rm ON rm.id = r.room_id
+JOIN room_categories c ON c.id = rm.category_id
+WHERE r.reservation_status <> 'CANCELLED'
+ORDER BY r.id;
+
+-- One entry per captured payment, each with the balance it left after the charge and the
+-- payments before it
+INSERT INTO folio_entries (reservation_id, entry_type, amount_cents, balance_cents, payment_id, description, posted_at)
+SELECT p.reservation_id, 'PAYMENT', -ROUND(p.amount * 100),
+       COALESCE(ch.amount_cents, 0)
+           - SUM(ROUND(p.amount * 100)) OVER (PARTITION BY p.reservation_id ORDER BY p.id),
+       p.id, CONCAT('Payment ', COALESCE(p.transaction_ref, CONCAT('#', p.id))),
+       COALESCE(p.paid_at, CURRENT_TIMESTAMP)
+FROM payments p
+LEFT JOIN folio_entries ch ON ch.reservation_id = p.reservation_id AND ch.entry_type = 'CHARGE'
+WHERE p.status = 'CAPTURED'
+ORDER BY p.reservation_id, p.id;
+
+-- The reservation carries the balance of its last entry and its latest captured payment
+UPDATE reservations r
+SET r.balance_cents = (SELECT e.balance_cents
+                       FROM folio_entries e
+                       WHERE e.id = (SELECT MAX(f.id) FROM folio_entries f WHERE f.reservation_id = r.id)),
+    r.last_payment_id = (SELECT MAX(f.payment_id) FROM folio_entries f WHERE f.reservation_id = r.id)
+WHERE r.id IN (SELECT reservation_id FROM folio_entries);
@@ -0,0 +1,12 @@
+-- Indexes behind keyset paging of reservations and the receptionist's guest search. V1 only
+-- creates missing tables, so databases from before the migrations get them here.
+
+ALTER TABLE users ADD INDEX idx_users_first_name (first_name);
+
+ALTER TABLE users ADD INDEX idx_users_last_name (last_name);
+
+ALTER TABLE reservations ADD INDEX idx_reservations_check_in_id (check_in, id);
+
+ALTER TABLE reservations ADD INDEX idx_reservations_check_out (check_out);
+
+ALTER TABLE reservations ADD INDEX idx_reservations_status (reservation_status);
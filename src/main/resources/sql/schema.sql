@@ -1,93 +0,0 @@
-CREATE DATABASE IF NOT EXISTS hotel_reservation_system;
-USE hotel_reservation_system;
-
-CREATE TABLE IF NOT EXISTS roles (
-    id INT AUTO_INCREMENT PRIMARY KEY,
-    name VARCHAR(50) NOT NULL UNIQUE
-);
-
-CREATE TABLE IF NOT EXISTS privileges (
-    id INT AUTO_INCREMENT PRIMARY KEY,
-    code VARCHAR(50) NOT NULL UNIQUE,
-    description VARCHAR(255) NOT NULL
-);
-
-CREATE TABLE IF NOT EXISTS role_privileges (
-    role_id INT NOT NULL,
-    privilege_id INT NOT NULL,
-    PRIMARY KEY (role_id, privilege_id),
-    FOREIGN KEY (role_id) REFERENCES roles(id) ON DELETE CASCADE,
-    FOREIGN KEY (privilege_id) REFERENCES privileges(id) ON DELETE CASCADE
-);
-
-CREATE TABLE IF NOT EXISTS users (
-    id INT AUTO_INCREMENT PRIMARY KEY,
-    username VARCHAR(50) NOT NULL UNIQUE,
-    password_hash VARCHAR(255) NOT NULL,
-    first_name VARCHAR(80),
-    last_name VARCHAR(80),
-    email VARCHAR(120),
-    role_id INT NOT NULL,
-    active BOOLEAN DEFAULT TRUE,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    FOREIGN KEY (role_id) REFERENCES roles(id)
-);
-
-CREATE TABLE IF NOT EXISTS room_categories (
-    id INT AUTO_INCREMENT PRIMARY KEY,
-    name VARCHAR(50) NOT NULL UNIQUE,
-    description VARCHAR(255),
-    base_rate DECIMAL(10,2) NOT NULL
-);
-
-CREATE TABLE IF NOT EXISTS rooms (
-    id INT AUTO_INCREMENT PRIMARY KEY,
-    room_number VARCHAR(10) NOT NULL UNIQUE,
-    category_id INT NOT NULL,
-    floor INT,
-    view_type VARCHAR(40),
-    status VARCHAR(20) DEFAULT 'AVAILABLE',
-    photo_url VARCHAR(255),
-    description VARCHAR(255),
-    FOREIGN KEY (category_id) REFERENCES room_categories(id)
-);
-
-CREATE TABLE IF NOT EXISTS reservations (
-    id INT AUTO_INCREMENT PRIMARY KEY,
-    user_id INT NOT NULL,
-    room_id INT NOT NULL,
-    check_in DATE NOT NULL,
-    check_out DATE NOT NULL,
-    guest_count INT DEFAULT 1,
-    reservation_status VARCHAR(20) DEFAULT 'PENDING',
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    FOREIGN KEY (user_id) REFERENCES users(id),
-    FOREIGN KEY (room_id) REFERENCES rooms(id)
-);
-
-CREATE TABLE IF NOT EXISTS payments (
-    id INT AUTO_INCREMENT PRIMARY KEY,
-    reservation_id INT NOT NULL,
-    amount DECIMAL(10,2) NOT NULL,
-    method VARCHAR(40) NOT NULL,
-    status VARCHAR(20) DEFAULT 'INITIATED',
-    transaction_ref VARCHAR(80),
-    paid_at TIMESTAMP NULL,
-    FOREIGN KEY (reservation_id) REFERENCES reservations(id)
-);
-
-CREATE TABLE IF NOT EXISTS user_privileges (
-    user_id INT NOT NULL,
-    privilege_id INT NOT NULL,
-    PRIMARY KEY (user_id, privilege_id),
-    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
-    FOREIGN KEY (privilege_id) REFERENCES privileges(id) ON DELETE CASCADE
-);
-
-CREATE TABLE IF NOT EXISTS booking_notes (
-    id INT AUTO_INCREMENT PRIMARY KEY,
-    reservation_id INT NOT NULL,
-    note TEXT,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    FOREIGN KEY (reservation_id) REFERENCES reservations(id)
-);
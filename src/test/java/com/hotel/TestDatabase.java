@@ -0,0 +1,29 @@
+package com.hotel;
+
+import com.hotel.config.HibernateUtil;
+import org.hibernate.SessionFactory;
+
+/**
+ * The in-memory H2 database, in MySQL mode, that database tests share. Its schema is built by the
+ * versioned migrations, as in production, and Hibernate then validates its mappings against it.
+ * The database lives for the whole test run, so tests must not depend on each other's rows.
+ */
+public final class TestDatabase {
+    private TestDatabase() {
+    }
+
+    public static SessionFactory sessionFactory() {
+        setDefault("app.datasource.url", "jdbc:h2:mem:hotel_test;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000");
+        setDefault("app.datasource.username", "sa");
+        setDefault("app.datasource.password", "test");
+        setDefault("app.datasource.schemaAction", "validate");
+        setDefault("app.datasource.pool.leakDetectionThresholdMs", "0");
+        return HibernateUtil.getSessionFactory();
+    }
+
+    private static void setDefault(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.hotel.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Loads reservations and payments into a database migrated to V6, as an install from before the
+ * folio would hold them, then runs V7 and checks the ledger it backfills.
+ */
+class FolioBackfillMigrationTest {
+    private static final int BEFORE_FOLIO = 6;
+    private static final int FOLIO = 7;
+
+    private Connection connection;
+    private long userId;
+    private long roomId;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:folio_backfill;MODE=MySQL", "sa", "");
+        SchemaMigrator.migrate(connection, BEFORE_FOLIO);
+        userId = insert("INSERT INTO users (username, password_hash, role_id) " +
+                "SELECT 'legacy-guest', 'unused', id FROM roles WHERE name = 'CUSTOMER'");
+        // Standard rooms are 120.00 a night in the reference data
+        roomId = insert("INSERT INTO rooms (room_number, category_id) SELECT 'L100', id FROM room_categories WHERE name = 'Standard'");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        // Closing the last connection drops the in-memory database
+        connection.close();
+    }
+
+    @Test
+    void chargesAndPaymentsAreItemisedWithRunningBalances() throws SQLException {
+        long paid = reservation("CONFIRMED", 3);
+        long firstPayment = payment(paid, "100.00", "CAPTURED", "LEGACY-1");
+        payment(paid, "30.00", "FAILED", "LEGACY-2");
+        long lastPayment = payment(paid, "50.00", "CAPTURED", null);
+        long unpaid = reservation("CHECKED_OUT", 2);
+
+        assertEquals(1, SchemaMigrator.migrate(connection, FOLIO));
+
+        assertEquals(List.of(
+                new Entry("CHARGE", 36_000, 36_000, null, "Room L100, 3 night(s)"),
+                new Entry("PAYMENT", -10_000, 26_000, firstPayment, "Payment LEGACY-1"),
+                new Entry("PAYMENT", -5_000, 21_000, lastPayment, "Payment #" + lastPayment)), entries(paid));
+        assertBalance(paid, 21_000, lastPayment);
+
+        assertEquals(List.of(new Entry("CHARGE", 24_000, 24_000, null, "Room L100, 2 night(s)")), entries(unpaid));
+        assertBalance(unpaid, 24_000, null);
+    }
+
+    @Test
+    void cancelledStaysOweNothing() throws SQLException {
+        long refundDue = reservation("CANCELLED", 4);
+        long payment = payment(refundDue, "80.00", "CAPTURED", "LEGACY-3");
+        long untouched = reservation("CANCELLED", 1);
+
+        SchemaMigrator.migrate(connection, FOLIO);
+
+        assertEquals(List.of(new Entry("PAYMENT", -8_000, -8_000, payment, "Payment LEGACY-3")), entries(refundDue));
+        assertBalance(refundDue, -8_000, payment);
+        assertEquals(List.of(), entries(untouched));
+        assertBalance(untouched, 0, null);
+    }
+
+    private long reservation(String status, int nights) throws SQLException {
+        LocalDate checkIn = LocalDate.of(2024, 3, 1);
+        return insert("INSERT INTO reservations (user_id, room_id, check_in, check_out, reservation_status) VALUES ("
+                + userId + ", " + roomId + ", DATE '" + checkIn + "', DATE '" + checkIn.plusDays(nights) + "', '" + status + "')");
+    }
+
+    private long payment(long reservationId, String amount, String status, String transactionRef) throws SQLException {
+        return insert("INSERT INTO payments (reservation_id, amount, method, status, transaction_ref) VALUES ("
+                + reservationId + ", " + amount + ", 'CREDIT_CARD', '" + status + "', "
+                + (transactionRef == null ? "NULL" : "'" + transactionRef + "'") + ")");
+    }
+
+    private long insert(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(sql, Statement.RETURN_GENERATED_KEYS);
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                keys.next();
+                return keys.getLong(1);
+            }
+        }
+    }
+
+    private List<Entry> entries(long reservationId) throws SQLException {
+        List<Entry> entries = new ArrayList<>();
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT entry_type, amount_cents, balance_cents, payment_id, description FROM folio_entries " +
+                "WHERE reservation_id = ? ORDER BY id")) {
+            query.setLong(1, reservationId);
+            try (ResultSet rs = query.executeQuery()) {
+                while (rs.next()) {
+                    long paymentId = rs.getLong(4);
+                    Long payment = rs.wasNull() ? null : paymentId;
+                    entries.add(new Entry(rs.getString(1), rs.getLong(2), rs.getLong(3), payment, rs.getString(5)));
+                }
+            }
+        }
+        return entries;
+    }
+
+    private void assertBalance(long reservationId, long balanceCents, Long lastPaymentId) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT balance_cents, last_payment_id FROM reservations WHERE id = ?")) {
+            query.setLong(1, reservationId);
+            try (ResultSet rs = query.executeQuery()) {
+                rs.next();
+                assertEquals(balanceCents, rs.getLong(1));
+                long lastPayment = rs.getLong(2);
+                assertEquals(lastPaymentId, rs.wasNull() ? null : lastPayment);
+            }
+        }
+    }
+
+    private record Entry(String type, long amountCents, long balanceCents, Long paymentId, String description) {
+    }
+}
@@ -0,0 +1,192 @@
+package com.hotel.service;
+
+import com.hotel.TestDatabase;
+import com.hotel.model.Reservation;
+import com.hotel.model.Role;
+import com.hotel.model.Room;
+import com.hotel.model.RoomCategory;
+import com.hotel.model.User;
+import com.hotel.repository.HibernateReservationRepository;
+import com.hotel.repository.HibernateRoomRepository;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Books overlapping stays from many threads at once against the migrated test database and
+ * checks that no room ends up with two live stays on the same night.
+ */
+class BookingConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS = 2000;
+    private static final int ROOMS = 4;
+
+    private static SessionFactory sessionFactory;
+    private static long userId;
+    private static List<Long> roomIds;
+
+    @BeforeAll
+    static void setUp() {
+        sessionFactory = TestDatabase.sessionFactory();
+
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            // The role and the category come from the reference data migration
+            Role role = session.createQuery("FROM Role r WHERE r.name = 'CUSTOMER'", Role.class).getSingleResult();
+            User user = new User();
+            user.setUsername("concurrent-guest");
+            user.setPasswordHash("unused");
+            user.setRole(role);
+            user.setActive(true);
+            user.setCreatedAt(LocalDateTime.now());
+            session.persist(user);
+            RoomCategory category = session.createQuery(
+                    "FROM RoomCategory c WHERE c.name = 'Standard'", RoomCategory.class).getSingleResult();
+            roomIds = new ArrayList<>();
+            for (int i = 0; i < ROOMS + 1; i++) {
+                Room room = new Room();
+                room.setRoomNumber("C" + (100 + i));
+                room.setCategory(category);
+                room.setFloor(1);
+                room.setStatus("AVAILABLE");
+                session.persist(room);
+                roomIds.add(room.getId());
+            }
+            transaction.commit();
+            userId = user.getId();
+        }
+    }
+
+    @Test
+    void concurrentBookingsNeverOverlap() throws Exception {
+        HibernateReservationService service =
+                new HibernateReservationService(new HibernateReservationRepository(), new HibernateRoomRepository());
+        List<Long> contested = roomIds.subList(0, ROOMS);
+        LocalDate start = LocalDate.now().plusDays(7);
+
+        List<Callable<Boolean>> attempts = new ArrayList<>(ATTEMPTS);
+        for (int i = 0; i < ATTEMPTS; i++) {
+            attempts.add(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long roomId = contested.get(random.nextInt(contested.size()));
+                LocalDate checkIn = start.plusDays(random.nextInt(60));
+                LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(5));
+                try {
+                    service.book(userId, roomId, checkIn, checkOut, 1);
+                    return true;
+                } catch (IllegalStateException e) {
+                    if (e.getMessage() == null || !e.getMessage().contains("not available")) {
+                        throw e;
+                    }
+                    return false;
+                }
+            });
+        }
+        int booked = count(runConcurrently(attempts));
+
+        assertTrue(booked > 0, "no booking succeeded");
+        assertTrue(booked < ATTEMPTS, "no booking conflicted, so the test proved nothing");
+        assertEquals(booked, assertNoOverlaps(contested));
+    }
+
+    /**
+     * Goes straight to the repository, past the in-process stripe locks and the calendar, so only
+     * the database locks stand between the competing transactions.
+     */
+    @Test
+    void sameStayFromManyThreadsIsBookedOnce() throws Exception {
+        HibernateReservationRepository repository = new HibernateReservationRepository();
+        long roomId = roomIds.get(ROOMS);
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        LocalDate checkOut = checkIn.plusDays(3);
+
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < THREADS * 8; i++) {
+            attempts.add(() -> {
+                Room room = new Room();
+                room.setId(roomId);
+                Reservation reservation = new Reservation();
+                reservation.setUser(new User(userId, null, null));
+                reservation.setRoom(room);
+                reservation.setCheckIn(checkIn.plusDays(ThreadLocalRandom.current().nextInt(2)));
+                reservation.setCheckOut(checkOut);
+                reservation.setStatus("CONFIRMED");
+                return repository.saveIfRoomAvailable(reservation).isPresent();
+            });
+        }
+
+        assertEquals(1, count(runConcurrently(attempts)));
+        assertEquals(1, assertNoOverlaps(List.of(roomId)));
+    }
+
+    private static List<Boolean> runConcurrently(List<Callable<Boolean>> attempts) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>(attempts.size());
+            for (Callable<Boolean> attempt : attempts) {
+                futures.add(executor.submit(() -> {
+                    ready.await();
+                    return attempt.call();
+                }));
+            }
+            ready.countDown();
+            List<Boolean> results = new ArrayList<>(futures.size());
+            for (Future<Boolean> future : futures) {
+                results.add(future.get(2, TimeUnit.MINUTES));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int count(List<Boolean> results) {
+        return (int) results.stream().filter(Boolean::booleanValue).count();
+    }
+
+    /**
+     * Fails if two live stays in any of the rooms share a night; returns how many live stays there are.
+     */
+    private static int assertNoOverlaps(List<Long> rooms) {
+        try (Session session = sessionFactory.openSession()) {
+            List<Object[]> stays = session.createQuery(
+                    "SELECT r.room.id, r.checkIn, r.checkOut FROM Reservation r " +
+                    "WHERE r.room.id IN :rooms AND r.status NOT IN ('CANCELLED', 'CHECKED_OUT') " +
+                    "ORDER BY r.room.id, r.checkIn", Object[].class)
+                    .setParameter("rooms", rooms)
+                    .getResultList();
+            Map<Long, LocalDate> lastCheckOut = new HashMap<>();
+            for (Object[] stay : stays) {
+                long roomId = (Long) stay[0];
+                LocalDate checkIn = (LocalDate) stay[1];
+                LocalDate previous = lastCheckOut.get(roomId);
+                if (previous != null && checkIn.isBefore(previous)) {
+                    fail("Room " + roomId + " has a stay from " + checkIn + " overlapping one that ends " + previous);
+                }
+                lastCheckOut.put(roomId, (LocalDate) stay[2]);
+            }
+            return stays.size();
+        }
+    }
+}
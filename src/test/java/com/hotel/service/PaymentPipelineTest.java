@@ -0,0 +1,261 @@
+package com.hotel.service;
+
+import com.hotel.TestDatabase;
+import com.hotel.model.Reservation;
+import com.hotel.model.Role;
+import com.hotel.model.Room;
+import com.hotel.model.RoomCategory;
+import com.hotel.model.User;
+import com.hotel.repository.HibernateFolioRepository;
+import com.hotel.repository.HibernatePaymentRepository;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the payment pipeline against the migrated test database with a scripted gateway.
+ */
+class PaymentPipelineTest {
+    private static final List<PaymentPipeline.Status> ORDER = List.of(PaymentPipeline.Status.QUEUED,
+            PaymentPipeline.Status.PROCESSING, PaymentPipeline.Status.CAPTURED);
+
+    private static SessionFactory sessionFactory;
+    private static User guest;
+    private static Room room;
+
+    private final HibernatePaymentRepository paymentRepository = new HibernatePaymentRepository();
+    private final FolioService folioService = new FolioService(new HibernateFolioRepository());
+    private final ScriptedGateway gateway = new ScriptedGateway();
+    private PaymentPipeline pipeline;
+
+    @BeforeAll
+    static void setUp() {
+        sessionFactory = TestDatabase.sessionFactory();
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            guest = new User();
+            guest.setUsername("pipeline-guest");
+            guest.setPasswordHash("unused");
+            guest.setRole(session.createQuery("FROM Role r WHERE r.name = 'CUSTOMER'", Role.class).getSingleResult());
+            guest.setActive(true);
+            guest.setCreatedAt(LocalDateTime.now());
+            session.persist(guest);
+            room = new Room();
+            room.setRoomNumber("P100");
+            room.setCategory(session.createQuery("FROM RoomCategory c WHERE c.name = 'Standard'", RoomCategory.class)
+                    .getSingleResult());
+            room.setFloor(1);
+            room.setStatus("AVAILABLE");
+            session.persist(room);
+            transaction.commit();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void sameKeyFromManyCallersIsAuthorizedAndRecordedOnce() throws Exception {
+        long reservationId = newReservation(30_000);
+        pipeline = newPipeline(4, 16);
+        gateway.hold();
+        List<Recorder> recorders = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Recorder recorder = new Recorder();
+            recorders.add(recorder);
+            pipeline.submit(new PaymentPipeline.Request("once-" + reservationId, reservationId, 120.00, "CREDIT_CARD"), recorder);
+        }
+        gateway.release();
+
+        Set<String> references = ConcurrentHashMap.newKeySet();
+        for (Recorder recorder : recorders) {
+            PaymentPipeline.Update last = recorder.awaitFinal();
+            assertEquals(PaymentPipeline.Status.CAPTURED, last.status());
+            references.add(last.payment().getTransactionRef());
+        }
+        assertEquals(1, references.size());
+        assertEquals(1, gateway.calls("once-" + reservationId));
+        assertEquals(30_000 - 12_000, folioService.balanceCents(reservationId));
+
+        // A retry after the payment was recorded reports it without another charge or posting
+        Recorder retry = new Recorder();
+        pipeline.submit(new PaymentPipeline.Request("once-" + reservationId, reservationId, 120.00, "CREDIT_CARD"), retry);
+        PaymentPipeline.Update replay = retry.awaitFinal();
+        assertEquals(PaymentPipeline.Status.CAPTURED, replay.status());
+        assertEquals(references.iterator().next(), replay.payment().getTransactionRef());
+        assertEquals(1, gateway.calls("once-" + reservationId));
+        assertEquals(30_000 - 12_000, folioService.balanceCents(reservationId));
+        assertEquals(1, paymentRepository.findByReservation(reservationId).size());
+    }
+
+    @Test
+    void everyListenerHearsStatusesInOrderEndingInOneFinal() throws Exception {
+        pipeline = newPipeline(4, 64);
+        List<Recorder> recorders = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            long reservationId = newReservation(10_000);
+            Recorder recorder = new Recorder();
+            recorders.add(recorder);
+            pipeline.submit(new PaymentPipeline.Request("order-" + reservationId, reservationId, 25.50, "CREDIT_CARD"), recorder);
+        }
+
+        for (Recorder recorder : recorders) {
+            recorder.awaitFinal();
+            List<PaymentPipeline.Status> statuses = recorder.statuses();
+            assertEquals(ORDER, statuses);
+        }
+        assertEquals(40, gateway.totalCalls());
+    }
+
+    @Test
+    void declinedPaymentIsNotRecorded() throws Exception {
+        long reservationId = newReservation(10_000);
+        pipeline = newPipeline(1, 4);
+        gateway.decline("declined-" + reservationId);
+        Recorder recorder = new Recorder();
+        pipeline.submit(new PaymentPipeline.Request("declined-" + reservationId, reservationId, 100.00, "CREDIT_CARD"), recorder);
+
+        assertEquals(PaymentPipeline.Status.DECLINED, recorder.awaitFinal().status());
+        assertTrue(paymentRepository.findByIdempotencyKey("declined-" + reservationId).isEmpty());
+        assertEquals(10_000, folioService.balanceCents(reservationId));
+    }
+
+    /**
+     * With no threads running nothing leaves the queue, so the second payment finds it full.
+     */
+    @Test
+    void fullQueueRefusesAndForgetsThePayment() {
+        pipeline = new PaymentPipeline(paymentRepository, gateway, new ReferenceGenerator(1), folioService,
+                DashboardMetrics.getInstance(), 1, 1);
+        Recorder first = new Recorder();
+        pipeline.submit(new PaymentPipeline.Request("full-1", 1, 10.00, "CREDIT_CARD"), first);
+        Recorder refused = new Recorder();
+
+        assertThrows(IllegalStateException.class,
+                () -> pipeline.submit(new PaymentPipeline.Request("full-2", 1, 10.00, "CREDIT_CARD"), refused));
+        // The refused caller hears it from the exception only, and a retry is not joined to the dead payment
+        assertEquals(List.of(PaymentPipeline.Status.QUEUED), refused.statuses());
+        assertThrows(IllegalStateException.class,
+                () -> pipeline.submit(new PaymentPipeline.Request("full-2", 1, 10.00, "CREDIT_CARD"), new Recorder()));
+        assertEquals(List.of(PaymentPipeline.Status.QUEUED), first.statuses());
+    }
+
+    private PaymentPipeline newPipeline(int workers, int queueCapacity) {
+        PaymentPipeline started = new PaymentPipeline(paymentRepository, gateway, new ReferenceGenerator(1), folioService,
+                DashboardMetrics.getInstance(), workers, queueCapacity);
+        started.start();
+        return started;
+    }
+
+    /**
+     * A confirmed stay whose folio carries one charge of {@code chargeCents}.
+     */
+    private long newReservation(long chargeCents) {
+        long reservationId;
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            Reservation reservation = new Reservation();
+            reservation.setUser(guest);
+            reservation.setRoom(room);
+            reservation.setCheckIn(LocalDate.now().plusDays(1));
+            reservation.setCheckOut(LocalDate.now().plusDays(2));
+            reservation.setStatus("CONFIRMED");
+            session.persist(reservation);
+            transaction.commit();
+            reservationId = reservation.getId();
+        }
+        folioService.chargeStay(reservationId, chargeCents, "Room P100");
+        return reservationId;
+    }
+
+    private static final class Recorder implements PaymentPipeline.Listener {
+        private final List<PaymentPipeline.Update> updates = new CopyOnWriteArrayList<>();
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        @Override
+        public void onUpdate(PaymentPipeline.Update update) {
+            updates.add(update);
+            if (update.status().isFinal()) {
+                done.countDown();
+            }
+        }
+
+        PaymentPipeline.Update awaitFinal() throws InterruptedException {
+            assertTrue(done.await(30, TimeUnit.SECONDS), "no final status, only " + statuses());
+            // Nothing may follow the final status
+            PaymentPipeline.Update last = updates.get(updates.size() - 1);
+            assertEquals(1, updates.stream().filter(update -> update.status().isFinal()).count());
+            assertTrue(last.status().isFinal());
+            return last;
+        }
+
+        List<PaymentPipeline.Status> statuses() {
+            return updates.stream().map(PaymentPipeline.Update::status).toList();
+        }
+    }
+
+    /**
+     * Approves everything except the keys it is told to decline, and can hold every authorization
+     * until released.
+     */
+    private static final class ScriptedGateway implements PaymentGateway {
+        private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+        private final Set<String> declined = ConcurrentHashMap.newKeySet();
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+
+        @Override
+        public Authorization authorize(String idempotencyKey, double amount, String method) {
+            calls.computeIfAbsent(idempotencyKey, key -> new AtomicInteger()).incrementAndGet();
+            try {
+                gate.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return declined.contains(idempotencyKey) ? Authorization.decline("Card declined") : Authorization.approve();
+        }
+
+        void hold() {
+            gate = new CountDownLatch(1);
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        void decline(String idempotencyKey) {
+            declined.add(idempotencyKey);
+        }
+
+        int calls(String idempotencyKey) {
+            AtomicInteger count = calls.get(idempotencyKey);
+            return count == null ? 0 : count.get();
+        }
+
+        int totalCalls() {
+            return calls.values().stream().mapToInt(AtomicInteger::get).sum();
+        }
+    }
+}
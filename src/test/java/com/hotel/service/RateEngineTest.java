@@ -0,0 +1,213 @@
+package com.hotel.service;
+
+import com.hotel.model.RateRule;
+import com.hotel.model.RoomCategory;
+import com.hotel.repository.HibernateRateRuleRepository;
+import com.hotel.repository.HibernateRoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the prefix-sum grid against pricing each night from the rules directly, with the
+ * repositories replaced by in-memory lists.
+ */
+class RateEngineTest {
+    private static final long STANDARD = 1;
+    private static final long SUITE = 2;
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private final Map<Long, RoomCategory> categories = new LinkedHashMap<>();
+    private final List<RateRule> rules = new ArrayList<>();
+    private final AtomicInteger categoryLookups = new AtomicInteger();
+    private RateEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        categories.put(STANDARD, category(STANDARD, 100.00));
+        categories.put(SUITE, category(SUITE, 333.33));
+        rules.add(rule(1, RateRule.SEASON, null, 20, TODAY.plusDays(10), TODAY.plusDays(40), 0));
+        rules.add(rule(2, RateRule.WEEKEND, STANDARD, 15, null, null, 0));
+        rules.add(rule(3, RateRule.SEASON, SUITE, -30, TODAY.minusDays(100), TODAY.minusDays(50), 0));
+        rules.add(rule(4, RateRule.LONG_STAY, null, -10, null, null, 7));
+        rules.add(rule(5, RateRule.LONG_STAY, STANDARD, -25, null, null, 14));
+
+        HibernateRoomRepository roomRepository = new HibernateRoomRepository() {
+            @Override
+            public List<RoomCategory> findAllCategories() {
+                return new ArrayList<>(categories.values());
+            }
+
+            @Override
+            public Optional<RoomCategory> findCategoryById(long id) {
+                categoryLookups.incrementAndGet();
+                return Optional.ofNullable(categories.get(id));
+            }
+        };
+        HibernateRateRuleRepository rateRuleRepository = new HibernateRateRuleRepository() {
+            @Override
+            public List<RateRule> findAll() {
+                return new ArrayList<>(rules);
+            }
+        };
+        engine = new RateEngine(roomRepository, rateRuleRepository);
+    }
+
+    @Test
+    void stayCostMatchesPricingEachNight() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            long categoryId = random.nextBoolean() ? STANDARD : SUITE;
+            LocalDate checkIn = TODAY.plusDays(random.nextInt(RateEngine.HISTORY_DAYS + RateEngine.HORIZON_DAYS)
+                    - RateEngine.HISTORY_DAYS);
+            LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(20));
+            assertEquals(expectedCents(categoryId, checkIn, checkOut), engine.stayCostCents(categoryId, checkIn, checkOut),
+                    "category " + categoryId + " from " + checkIn + " to " + checkOut);
+        }
+    }
+
+    @Test
+    void staysReachingOutsideTheWindowArePricedTheSameWay() {
+        LocalDate lastNight = TODAY.plusDays(RateEngine.HORIZON_DAYS - 1);
+        LocalDate firstNight = TODAY.minusDays(RateEngine.HISTORY_DAYS);
+        assertEquals(expectedCents(STANDARD, lastNight.minusDays(3), lastNight.plusDays(5)),
+                engine.stayCostCents(STANDARD, lastNight.minusDays(3), lastNight.plusDays(5)));
+        assertEquals(expectedCents(SUITE, firstNight.minusDays(4), firstNight.plusDays(2)),
+                engine.stayCostCents(SUITE, firstNight.minusDays(4), firstNight.plusDays(2)));
+        assertEquals(expectedCents(SUITE, TODAY.plusYears(5), TODAY.plusYears(5).plusDays(9)),
+                engine.stayCostCents(SUITE, TODAY.plusYears(5), TODAY.plusYears(5).plusDays(9)));
+    }
+
+    @Test
+    void longestReachedLengthOfStayRuleWins() {
+        LocalDate checkIn = TODAY.plusDays(100);
+        long sixNights = expectedNightsCents(STANDARD, checkIn, checkIn.plusDays(6));
+        long sevenNights = expectedNightsCents(STANDARD, checkIn, checkIn.plusDays(7));
+        long fourteenNights = expectedNightsCents(STANDARD, checkIn, checkIn.plusDays(14));
+
+        assertEquals(sixNights, engine.stayCostCents(STANDARD, checkIn, checkIn.plusDays(6)));
+        assertEquals(Math.round(sevenNights * 0.90), engine.stayCostCents(STANDARD, checkIn, checkIn.plusDays(7)));
+        assertEquals(Math.round(fourteenNights * 0.75), engine.stayCostCents(STANDARD, checkIn, checkIn.plusDays(14)));
+        assertEquals(0, engine.stayCostCents(STANDARD, checkIn, checkIn));
+    }
+
+    @Test
+    void ruleEditsRepriceTheCategoriesTheyTouch() {
+        LocalDate checkIn = TODAY.plusDays(60);
+        LocalDate checkOut = checkIn.plusDays(5);
+        engine.rebuild();
+
+        RateRule surge = rule(6, RateRule.SEASON, SUITE, 50, checkIn.plusDays(1), checkIn.plusDays(2), 0);
+        rules.add(surge);
+        engine.ruleSaved(surge);
+        assertEquals(expectedCents(SUITE, checkIn, checkOut), engine.stayCostCents(SUITE, checkIn, checkOut));
+        assertEquals(expectedCents(STANDARD, checkIn, checkOut), engine.stayCostCents(STANDARD, checkIn, checkOut));
+
+        // Moving the rule to the other category reprices both rows
+        RateRule moved = rule(6, RateRule.SEASON, STANDARD, 50, checkIn.plusDays(1), checkIn.plusDays(2), 0);
+        rules.set(rules.indexOf(surge), moved);
+        engine.ruleSaved(moved);
+        assertEquals(expectedCents(SUITE, checkIn, checkOut), engine.stayCostCents(SUITE, checkIn, checkOut));
+        assertEquals(expectedCents(STANDARD, checkIn, checkOut), engine.stayCostCents(STANDARD, checkIn, checkOut));
+
+        rules.remove(moved);
+        engine.ruleDeleted(moved);
+        assertEquals(expectedCents(STANDARD, checkIn, checkOut), engine.stayCostCents(STANDARD, checkIn, checkOut));
+    }
+
+    @Test
+    void categoryEditsArePickedUpWithoutARebuild() {
+        LocalDate checkIn = TODAY.plusDays(20);
+        LocalDate checkOut = checkIn.plusDays(3);
+        engine.rebuild();
+
+        categories.get(STANDARD).setBaseRate(80.50);
+        engine.updateCategory(categories.get(STANDARD));
+        assertEquals(expectedCents(STANDARD, checkIn, checkOut), engine.stayCostCents(STANDARD, checkIn, checkOut));
+
+        RoomCategory added = category(3, 55.55);
+        categories.put(3L, added);
+        engine.updateCategory(added);
+        assertEquals(expectedCents(3, checkIn, checkOut), engine.stayCostCents(3, checkIn, checkOut));
+    }
+
+    @Test
+    void unknownCategoryIsLookedUpOnceUntilTheNextRebuild() {
+        engine.rebuild();
+        assertThrows(IllegalArgumentException.class, () -> engine.stayCostCents(99, TODAY, TODAY.plusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> engine.stayCostCents(99, TODAY, TODAY.plusDays(2)));
+        assertEquals(1, categoryLookups.get());
+
+        // A category another instance added is found on first use
+        categories.put(4L, category(4, 10.00));
+        assertEquals(expectedCents(4, TODAY, TODAY.plusDays(2)), engine.stayCostCents(4, TODAY, TODAY.plusDays(2)));
+        assertEquals(2, categoryLookups.get());
+    }
+
+    /**
+     * The stay priced night by night from the rule list, with the length-of-stay rule applied to the total.
+     */
+    private long expectedCents(long categoryId, LocalDate checkIn, LocalDate checkOut) {
+        long total = expectedNightsCents(categoryId, checkIn, checkOut);
+        long nights = checkOut.toEpochDay() - checkIn.toEpochDay();
+        RateRule best = null;
+        for (RateRule rule : rules) {
+            if (RateRule.LONG_STAY.equals(rule.getType()) && rule.appliesTo(categoryId) && rule.getMinNights() <= nights
+                    && (best == null || rule.getMinNights() > best.getMinNights())) {
+                best = rule;
+            }
+        }
+        return best == null ? total : Math.round(total * (100 + best.getPercent()) / 100.0);
+    }
+
+    private long expectedNightsCents(long categoryId, LocalDate checkIn, LocalDate checkOut) {
+        long base = Math.round(categories.get(categoryId).getBaseRate() * 100);
+        long total = 0;
+        for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+            int percent = 0;
+            for (RateRule rule : rules) {
+                if (!rule.appliesTo(categoryId)) {
+                    continue;
+                }
+                boolean inSeason = RateRule.SEASON.equals(rule.getType())
+                        && !night.isBefore(rule.getStartDate()) && !night.isAfter(rule.getEndDate());
+                boolean weekend = RateRule.WEEKEND.equals(rule.getType())
+                        && (night.getDayOfWeek() == DayOfWeek.FRIDAY || night.getDayOfWeek() == DayOfWeek.SATURDAY);
+                if (inSeason || weekend) {
+                    percent += rule.getPercent();
+                }
+            }
+            total += Math.round(base * (100 + percent) / 100.0);
+        }
+        return total;
+    }
+
+    private static RoomCategory category(long id, double baseRate) {
+        RoomCategory category = new RoomCategory();
+        category.setId(id);
+        category.setName("Category " + id);
+        category.setBaseRate(baseRate);
+        return category;
+    }
+
+    private static RateRule rule(long id, String type, Long categoryId, int percent, LocalDate start, LocalDate end, int minNights) {
+        RateRule rule = new RateRule("Rule " + id, type, categoryId, percent);
+        rule.setId(id);
+        rule.setStartDate(start);
+        rule.setEndDate(end);
+        rule.setMinNights(minNights);
+        return rule;
+    }
+}
@@ -0,0 +1,107 @@
+package com.hotel.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReferenceGeneratorTest {
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 50_000;
+
+    @Test
+    void idCarriesTheClockAndTheNode() {
+        ReferenceGenerator generator = new ReferenceGenerator(ReferenceGenerator.MAX_NODE);
+        long before = System.currentTimeMillis();
+        long id = generator.nextId();
+        long after = System.currentTimeMillis();
+
+        long issuedAt = (id >>> (ReferenceGenerator.NODE_BITS + ReferenceGenerator.SEQUENCE_BITS)) + ReferenceGenerator.EPOCH_MS;
+        assertTrue(issuedAt >= before && issuedAt <= after, "timestamp " + issuedAt + " outside " + before + ".." + after);
+        assertEquals(ReferenceGenerator.MAX_NODE, (id >>> ReferenceGenerator.SEQUENCE_BITS) & ReferenceGenerator.MAX_NODE);
+        assertTrue(id > 0);
+    }
+
+    /**
+     * Far more ids than one millisecond's sequence holds, so the sequence overflows into the next
+     * millisecond on every thread.
+     */
+    @Test
+    void idsFromManyThreadsAreUniqueAndIncreasePerThread() throws Exception {
+        ReferenceGenerator generator = new ReferenceGenerator(7);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    long[] ids = new long[IDS_PER_THREAD];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            Set<Long> all = new HashSet<>();
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get(1, TimeUnit.MINUTES);
+                for (int i = 0; i < ids.length; i++) {
+                    if (i > 0) {
+                        assertTrue(ids[i] > ids[i - 1], "id " + ids[i] + " not after " + ids[i - 1]);
+                    }
+                    all.add(ids[i]);
+                }
+            }
+            assertEquals(THREADS * IDS_PER_THREAD, all.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void referencesAreFixedWidthCrockfordAndSortInIssueOrder() {
+        ReferenceGenerator generator = new ReferenceGenerator(3);
+        List<String> references = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            references.add(generator.next("HRB"));
+        }
+
+        for (String reference : references) {
+            assertTrue(reference.matches("HRB-[0-9A-HJKMNP-TV-Z]{13}"), reference);
+        }
+        List<String> sorted = new ArrayList<>(references);
+        sorted.sort(null);
+        assertEquals(references, sorted);
+        assertEquals(references.size(), new HashSet<>(references).size());
+    }
+
+    @Test
+    void referenceEncodesTheIdInBase32() {
+        ReferenceGenerator generator = new ReferenceGenerator(0);
+        long before = generator.nextId();
+        String reference = generator.next("P");
+        long decoded = 0;
+        for (char c : reference.substring(2).toCharArray()) {
+            decoded = decoded << 5 | "0123456789ABCDEFGHJKMNPQRSTVWXYZ".indexOf(c);
+        }
+        // The encoded id falls between the ids issued either side of it
+        assertTrue(decoded > before);
+        assertTrue(generator.nextId() > decoded);
+        assertEquals(0, (decoded >>> ReferenceGenerator.SEQUENCE_BITS) & ReferenceGenerator.MAX_NODE);
+    }
+
+    @Test
+    void nodeMustFitItsBits() {
+        assertThrows(IllegalArgumentException.class, () -> new ReferenceGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new ReferenceGenerator(ReferenceGenerator.MAX_NODE + 1));
+    }
+}
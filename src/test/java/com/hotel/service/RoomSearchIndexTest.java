@@ -0,0 +1,199 @@
+package com.hotel.service;
+
+import com.hotel.model.Room;
+import com.hotel.model.RoomCategory;
+import com.hotel.repository.HibernateRoomRepository;
+import com.hotel.repository.RoomCard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Applies random room, status and category changes to the index one at a time and checks every
+ * sort order and filter against sorting the current rooms from scratch.
+ */
+class RoomSearchIndexTest {
+    private static final String[] STATUSES = {"AVAILABLE", "OCCUPIED", "MAINTENANCE"};
+    private static final String[] VIEW_TYPES = {"City", "Garden", "Sea", null};
+    private static final Comparator<RoomCard> NUMBER_ORDER = Comparator.comparing(RoomCard::roomNumber,
+            Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+
+    private final Random random = new Random(7);
+    private final List<RoomCategory> categories = new ArrayList<>();
+    private final Map<Long, Room> rooms = new LinkedHashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private RoomSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 4; id++) {
+            RoomCategory category = new RoomCategory();
+            category.setId(id);
+            category.setName("Category " + id);
+            category.setBaseRate(50 + random.nextInt(4) * 25);
+            categories.add(category);
+        }
+        for (long id = 1; id <= 150; id++) {
+            rooms.put(id, randomRoom(id));
+        }
+        index = new RoomSearchIndex(new HibernateRoomRepository() {
+            @Override
+            public List<Room> findAll() {
+                loads.incrementAndGet();
+                return new ArrayList<>(rooms.values());
+            }
+        });
+    }
+
+    @Test
+    void incrementalChangesKeepEveryOrderAndFilterCorrect() {
+        assertMatchesScratch();
+        long nextId = rooms.size() + 1;
+        for (int step = 0; step < 400; step++) {
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    Room room = randomRoom(nextId++);
+                    rooms.put(room.getId(), room);
+                    index.updateRoom(room);
+                }
+                case 1 -> {
+                    Room room = randomRoom(randomRoomId());
+                    rooms.put(room.getId(), room);
+                    index.updateRoom(room);
+                }
+                case 2 -> {
+                    Room room = rooms.get(randomRoomId());
+                    room.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+                    index.updateRoomStatus(room.getId(), room.getStatus());
+                }
+                default -> {
+                    RoomCategory category = categories.get(random.nextInt(categories.size()));
+                    category.setBaseRate(50 + random.nextInt(8) * 12.5);
+                    category.setName("Category " + category.getId() + " v" + step);
+                    index.updateCategory(category);
+                }
+            }
+            if (step % 20 == 0) {
+                assertMatchesScratch();
+            }
+        }
+        assertMatchesScratch();
+        assertEquals(1, loads.get(), "changes after the first load must not reload the rooms");
+    }
+
+    @Test
+    void priceBandIsInclusiveAtBothEnds() {
+        double rate = categories.get(0).getBaseRate();
+        RoomSearchFilter filter = new RoomSearchFilter();
+        filter.setStatus(null);
+        filter.setPriceRange(rate, rate);
+        List<RoomCard> expected = scratch(filter);
+        assertEquals(expected, index.search(filter));
+        assertEquals(rooms.values().stream().filter(room -> room.getNightlyRate() == rate).count(), expected.size());
+    }
+
+    @Test
+    void floorsAndViewTypesListOnlyValuesInUse() {
+        assertEquals(rooms.values().stream().map(Room::getFloor).distinct().sorted().toList(), index.floors());
+        for (Room room : rooms.values()) {
+            room.setViewType("Garden".equals(room.getViewType()) ? "Sea" : room.getViewType());
+            index.updateRoom(room);
+        }
+        assertEquals(List.of("City", "Sea"), index.viewTypes());
+    }
+
+    private void assertMatchesScratch() {
+        for (RoomSearchFilter.Sort sort : RoomSearchFilter.Sort.values()) {
+            RoomSearchFilter all = new RoomSearchFilter();
+            all.setStatus(null);
+            all.setSort(sort);
+            assertEquals(scratch(all), index.search(all), "all rooms by " + sort);
+            for (int i = 0; i < 10; i++) {
+                RoomSearchFilter filter = randomFilter();
+                filter.setSort(sort);
+                assertEquals(scratch(filter), index.search(filter), "filtered by " + sort);
+            }
+        }
+    }
+
+    private List<RoomCard> scratch(RoomSearchFilter filter) {
+        Comparator<RoomCard> order = switch (filter.getSort()) {
+            case ROOM_NUMBER -> NUMBER_ORDER;
+            case PRICE_LOW_TO_HIGH -> Comparator.comparingDouble(RoomCard::nightlyRate).thenComparing(NUMBER_ORDER);
+            case PRICE_HIGH_TO_LOW -> Comparator.comparingDouble(RoomCard::nightlyRate).thenComparing(NUMBER_ORDER).reversed();
+            case FLOOR -> Comparator.comparingInt(RoomCard::floor).thenComparing(NUMBER_ORDER);
+        };
+        return rooms.values().stream()
+                .map(RoomCard::of)
+                .filter(card -> filter.getStatus() == null || filter.getStatus().equals(card.status()))
+                .filter(card -> filter.getCategoryId() == null || filter.getCategoryId() == card.categoryId())
+                .filter(card -> filter.getFloor() == null || filter.getFloor() == card.floor())
+                .filter(card -> filter.getViewType() == null || filter.getViewType().equals(card.viewType()))
+                .filter(card -> filter.getGuests() == null || card.capacity() >= filter.getGuests())
+                .filter(card -> filter.getMinPrice() == null || card.nightlyRate() >= filter.getMinPrice())
+                .filter(card -> filter.getMaxPrice() == null || card.nightlyRate() <= filter.getMaxPrice())
+                .sorted(order)
+                .toList();
+    }
+
+    private RoomSearchFilter randomFilter() {
+        RoomSearchFilter filter = new RoomSearchFilter();
+        filter.setStatus(random.nextBoolean() ? STATUSES[random.nextInt(STATUSES.length)] : null);
+        if (random.nextInt(3) == 0) {
+            filter.setCategoryId(categories.get(random.nextInt(categories.size())).getId());
+        }
+        if (random.nextInt(3) == 0) {
+            filter.setFloor(1 + random.nextInt(5));
+        }
+        if (random.nextInt(3) == 0) {
+            filter.setViewType(VIEW_TYPES[random.nextInt(VIEW_TYPES.length - 1)]);
+        }
+        if (random.nextInt(3) == 0) {
+            filter.setGuests(1 + random.nextInt(4));
+        }
+        if (random.nextBoolean()) {
+            double min = 50 + random.nextInt(8) * 12.5;
+            filter.setPriceRange(random.nextBoolean() ? min : null, random.nextBoolean() ? min + random.nextInt(4) * 25 : null);
+        }
+        return filter;
+    }
+
+    private Room randomRoom(long id) {
+        Room room = new Room();
+        room.setId(id);
+        room.setRoomNumber(unusedRoomNumber(id));
+        room.setCategory(categories.get(random.nextInt(categories.size())));
+        room.setFloor(1 + random.nextInt(5));
+        room.setCapacity(1 + random.nextInt(4));
+        room.setViewType(VIEW_TYPES[random.nextInt(VIEW_TYPES.length)]);
+        room.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+        return room;
+    }
+
+    /**
+     * A number no other room has, as the unique key on room numbers guarantees. Lengths vary, so
+     * the length-first order is exercised.
+     */
+    private String unusedRoomNumber(long id) {
+        while (true) {
+            String number = String.valueOf(1 + random.nextInt(random.nextBoolean() ? 99 : 9999));
+            if (rooms.values().stream().noneMatch(room -> room.getId() != id && number.equals(room.getRoomNumber()))) {
+                return number;
+            }
+        }
+    }
+
+    private long randomRoomId() {
+        List<Long> ids = new ArrayList<>(rooms.keySet());
+        return ids.get(random.nextInt(ids.size()));
+    }
+}